@@ -0,0 +1,120 @@
+package com.company.assetmanagment.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.company.assetmanagment.component.codec.AssetProtobuf;
+import com.company.assetmanagment.data.dto.AssetResponseDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Encoding and decoding a list response in each representation the asset endpoints negotiate, configured like the
+ * application: ISO dates in JSON, epoch milliseconds in the binary formats. The payload size of every combination is
+ * printed when its trial starts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssetEncodingBenchmark
+{
+	private static final TypeReference<List<AssetResponseDto>> ASSET_LIST = new TypeReference<List<AssetResponseDto>>() { };
+
+	@Param({"json", "cbor", "smile", "protobuf"})
+	private String 					format;
+
+	@Param({"1", "100", "1000"})
+	private int 					size;
+
+	private ObjectWriter 			writer;
+	private ObjectReader 			reader;
+	private AssetProtobuf 			protobuf;
+	private List<AssetResponseDto> 	page;
+	private byte[] 					encoded;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException
+	{
+		this.page = new ArrayList<>(this.size);
+		for (long id = 1; id <= this.size; id++)
+		{
+			AssetResponseDto dto = new AssetResponseDto();
+			dto.setId			(id);
+			dto.setName			("Cooling pump " + id);
+			dto.setDescription	("Pump for the cooling circuit of hall north, serviced every six months, spare parts in store " + id);
+			dto.setType			("Pump");
+			dto.setCreatedOn	(new Date());
+			this.page.add(dto);
+		}
+
+		if ("protobuf".equals(this.format))
+		{
+			this.protobuf = new AssetProtobuf();
+		}
+		else
+		{
+			ObjectMapper mapper = mapper(this.format);
+			this.writer = mapper.writerFor(ASSET_LIST);
+			this.reader = mapper.readerFor(ASSET_LIST);
+		}
+
+		this.encoded = encode();
+		System.out.printf("%n%s, %d assets: %d bytes%n", this.format, this.size, this.encoded.length);
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException
+	{
+		if (this.protobuf == null)
+		{
+			return this.writer.writeValueAsBytes(this.page);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(this.size * 128);
+		this.protobuf.write(this.page, out);
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public List<AssetResponseDto> decode() throws IOException
+	{
+		return this.protobuf == null ? this.reader.readValue(this.encoded) : this.protobuf.readList(this.encoded);
+	}
+
+	private static ObjectMapper mapper(String format)
+	{
+		switch (format)
+		{
+			case "cbor":
+				return Jackson2ObjectMapperBuilder.cbor().featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+			case "smile":
+				return Jackson2ObjectMapperBuilder.smile().featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+			default:
+				return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.company.assetmanagment.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.dto.AssetIncomingDto;
+import com.company.assetmanagment.data.dto.AssetResponseDto;
+import com.company.assetmanagment.data.dto.MapStructMapper;
+import com.company.assetmanagment.data.dto.MapStructMapperImpl;
+
+/**
+ * Cost of the generated {@link MapStructMapper} conversions every request goes through.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssetMapperBenchmark
+{
+	private MapStructMapper 	mapper;
+	private Asset 				asset;
+	private AssetIncomingDto 	incoming;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		this.mapper 	= new MapStructMapperImpl();
+		this.asset 		= Asset.builder().id(1L).version(3).name("Cooling pump").description("Pump for the cooling circuit of hall north").type("Pump").createdOn(new Date()).updatedOn(new Date()).build();
+
+		this.incoming 	= new AssetIncomingDto();
+		this.incoming.setName		("Cooling pump");
+		this.incoming.setDescription("Pump for the cooling circuit of hall north");
+		this.incoming.setType		("Pump");
+	}
+
+	@Benchmark
+	public AssetResponseDto assetToResponseDto()
+	{
+		return this.mapper.assetToAssetResponseDto(this.asset);
+	}
+
+	@Benchmark
+	public Asset incomingDtoToAsset()
+	{
+		return this.mapper.assetIncomdingDtoToAsset(this.incoming);
+	}
+}
@@ -0,0 +1,88 @@
+package com.company.assetmanagment.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import com.company.assetmanagment.component.patch.AssetPatchEngine;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.exception.BusinessException;
+
+/**
+ * Compares {@link AssetPatchEngine} with the per-request reflection PATCH used to do. Run with {@code -prof gc} to
+ * compare the allocation rate as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssetPatchBenchmark
+{
+	private ValidatorFactory 	validatorFactory;
+	private AssetPatchEngine 	engine;
+	private Asset 				asset;
+	private Map<String, Object> patch;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		this.validatorFactory 	= Validation.buildDefaultValidatorFactory();
+		this.engine 			= new AssetPatchEngine(this.validatorFactory.getValidator());
+		this.asset 				= Asset.builder().id(1L).version(0).name("TEST1").description("TEST DESCRIPTION1").type("TESTTYPE").createdOn(new Date()).updatedOn(new Date()).build();
+
+		this.patch = new LinkedHashMap<>();
+		this.patch.put("name", "patched name");
+		this.patch.put("description", "patched description");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		this.validatorFactory.close();
+	}
+
+	@Benchmark
+	public Asset reflective()
+	{
+		for (Entry<String, Object> entry : this.patch.entrySet())
+		{
+			Field field = ReflectionUtils.findField(Asset.class, entry.getKey());
+			if (field == null)
+			{
+				throw new BusinessException(String.format("Could not find any field with name %s to update.", entry.getKey()));
+			}
+			field.setAccessible(true);
+			ReflectionUtils.setField(field, this.asset, entry.getValue());
+		}
+		return this.asset;
+	}
+
+	@Benchmark
+	public Asset engine()
+	{
+		this.engine.apply(this.asset, this.patch);
+		return this.asset;
+	}
+}
@@ -0,0 +1,95 @@
+package com.company.assetmanagment.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import com.company.assetmanagment.component.search.AssetSearchIndex;
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.repository.AssetRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Search latency of {@link AssetSearchIndex} over a synthetic catalogue. The memory estimate of the filled index is
+ * printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class AssetSearchBenchmark
+{
+	private static final String[] TYPES 	= {"pump", "valve", "sensor", "motor", "compressor", "boiler", "conveyor", "robot"};
+	private static final String[] WORDS 	= {"cooling", "heating", "pressure", "temperature", "circuit", "line", "hall", "north", "south", "spare", "primary", "backup", "hydraulic", "electric", "pneumatic", "inspection"};
+
+	@Param({"1000000"})
+	private int 				assets;
+
+	private AssetSearchIndex 	searchIndex;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		AssetProperties properties = new AssetProperties();
+		properties.getSearch().setMaxMemory(DataSize.ofGigabytes(2));
+
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		this.searchIndex = new AssetSearchIndex(properties, Mockito.mock(AssetRepository.class), Mockito.mock(PlatformTransactionManager.class), meterRegistry);
+
+		Random random = new Random(42);
+		for (long id = 1; id <= this.assets; id++)
+		{
+			String type 		= TYPES[random.nextInt(TYPES.length)];
+			String name 		= WORDS[random.nextInt(WORDS.length)] + " " + type + " " + id;
+			String description 	= "The " + WORDS[random.nextInt(WORDS.length)] + " " + type + " of " + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " line " + random.nextInt(100);
+
+			this.searchIndex.index(Asset.builder().id(id).version(0).name(name).description(description).type(type).build());
+		}
+
+		System.out.printf("%nIndexed %d assets, estimated %d MB%n", this.assets, (long) meterRegistry.get("asset.search.memory").gauge().value() >> 20);
+	}
+
+	@Benchmark
+	public List<Long> rareTerm()
+	{
+		return this.searchIndex.search("robot 4711", 20);
+	}
+
+	@Benchmark
+	public List<Long> commonTerm()
+	{
+		return this.searchIndex.search("pump", 20);
+	}
+
+	@Benchmark
+	public List<Long> twoTerms()
+	{
+		return this.searchIndex.search("hydraulic robot", 20);
+	}
+
+	@Benchmark
+	public List<Long> prefix()
+	{
+		return this.searchIndex.search("pneum comp", 20);
+	}
+}
@@ -0,0 +1,68 @@
+package com.company.assetmanagment.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.company.assetmanagment.data.dto.AssetResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Jackson serialization of a list response, with the object mapper configured like Spring MVC's, for page sizes
+ * from a single asset up to the largest page the list endpoint returns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssetSerializationBenchmark
+{
+	@Param({"1", "100", "1000"})
+	private int 					size;
+
+	private ObjectWriter 			writer;
+	private List<AssetResponseDto> 	page;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		this.writer = Jackson2ObjectMapperBuilder.json().build().writerFor(new TypeReference<List<AssetResponseDto>>() { });
+		this.page 	= new ArrayList<>(this.size);
+
+		for (long id = 1; id <= this.size; id++)
+		{
+			AssetResponseDto dto = new AssetResponseDto();
+			dto.setId			(id);
+			dto.setName			("Cooling pump " + id);
+			dto.setDescription	("Pump for the cooling circuit of hall north, serviced every six months, spare parts in store " + id);
+			dto.setType			("Pump");
+			dto.setCreatedOn	(new Date());
+			this.page.add(dto);
+		}
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException
+	{
+		return this.writer.writeValueAsBytes(this.page);
+	}
+}
@@ -0,0 +1,79 @@
+package com.company.assetmanagment.benchmark;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.request.AssetCursor;
+import com.company.assetmanagment.data.request.AssetField;
+import com.company.assetmanagment.data.request.AssetSortColumn;
+import com.company.assetmanagment.data.request.GetAssetsCriteria;
+import com.company.assetmanagment.data.request.RequestParams;
+
+/**
+ * Turning the query parameters of the list endpoint into a {@link Sort}, a field set and a decoded cursor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestParsingBenchmark
+{
+	private RequestParams 		defaults;
+	private GetAssetsCriteria 	criteria;
+	private String 				cursor;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		this.defaults = new RequestParams();
+
+		this.criteria = new GetAssetsCriteria();
+		this.criteria.setSortColumn		(" createdOn ");
+		this.criteria.setSortDirection	("ASC");
+		this.criteria.setFields			("name,type,createdOn");
+
+		Asset last 	= Asset.builder().id(4711L).createdOn(new Date()).build();
+		this.cursor = AssetCursor.of(AssetSortColumn.CREATED_ON, Sort.Direction.ASC, last).encode();
+	}
+
+	@Benchmark
+	public Sort defaultSortCriteria()
+	{
+		return this.defaults.getSortCriteria();
+	}
+
+	@Benchmark
+	public Sort sortCriteria()
+	{
+		return this.criteria.getSortCriteria();
+	}
+
+	@Benchmark
+	public Set<AssetField> fieldSet()
+	{
+		return this.criteria.getFieldSet();
+	}
+
+	@Benchmark
+	public AssetCursor decodeCursor()
+	{
+		return AssetCursor.decode(this.cursor);
+	}
+}
@@ -0,0 +1,61 @@
+package com.company.assetmanagment.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.service.AssetService;
+
+/**
+ * Deterministic synthetic assets: names and descriptions are drawn from small vocabularies, so searches and name
+ * prefix filters of the run find matches.
+ */
+final class Dataset
+{
+	static final String[] TYPES = {"pump", "valve", "sensor", "motor", "compressor", "boiler", "conveyor", "robot"};
+	static final String[] WORDS = {"cooling", "heating", "pressure", "temperature", "circuit", "line", "hall", "north", "south", "spare", "primary", "backup", "hydraulic", "electric", "pneumatic", "inspection"};
+
+	private static final int BATCH = 1000;
+
+	private Dataset()
+	{
+	}
+
+	static String name(SplittableRandom random, String type)
+	{
+		return WORDS[random.nextInt(WORDS.length)] + " " + type + " " + random.nextInt(100000);
+	}
+
+	static String description(SplittableRandom random)
+	{
+		return "The " + WORDS[random.nextInt(WORDS.length)] + " unit of " + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " line " + random.nextInt(100);
+	}
+
+	/**
+	 * Inserts the assets through the service, so search index and counters learn about them as in production.
+	 *
+	 * @return the ids of the inserted assets
+	 */
+	static long[] seed(AssetService assetService, int count, long seed)
+	{
+		SplittableRandom 	random 	= new SplittableRandom(seed);
+		long[] 				ids 	= new long[count];
+		int 				seeded 	= 0;
+
+		for (int offset = 0; offset < count; offset += BATCH)
+		{
+			List<Asset> batch = new ArrayList<>(BATCH);
+			for (int i = offset; i < Math.min(count, offset + BATCH); i++)
+			{
+				String type = TYPES[random.nextInt(TYPES.length)];
+				batch.add(Asset.builder().name(name(random, type)).description(description(random)).type(type).build());
+			}
+			for (Asset asset : assetService.createAll(batch))
+			{
+				ids[seeded++] = asset.getId();
+			}
+		}
+		return ids;
+	}
+}
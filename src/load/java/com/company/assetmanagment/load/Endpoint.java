@@ -0,0 +1,130 @@
+package com.company.assetmanagment.load;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import lombok.Getter;
+
+/**
+ * The operations of the asset API the harness drives, each knowing how to build a random request of its kind.
+ */
+@Getter
+public enum Endpoint
+{
+	GET				("get", 			"GET", 		run -> "/" + run.existingId()),
+	LIST			("list", 			"GET", 		run -> "?limit=100&sortColumn=name&sortDirection=ASC"),
+	LIST_FIELDS		("list-fields", 	"GET", 		run -> "?limit=100&fields=name,type"),
+	LIST_FILTERED	("list-filtered", 	"GET", 		run -> "?limit=100&type=" + run.type() + "&namePrefix=" + run.word()),
+	SEARCH			("search", 			"GET", 		run -> "/search?limit=20&q=" + run.word() + "+" + run.type()),
+	AGGREGATES		("aggregates", 		"GET", 		run -> "/aggregates"),
+	EXPORT			("export", 			"GET", 		run -> "/export"),
+	CREATE			("create", 			"POST", 	run -> ""),
+	CREATE_ASYNC	("create-async", 	"POST", 	run -> ""),
+	BULK			("bulk", 			"POST", 	run -> "/bulk"),
+	UPDATE			("update", 			"PUT", 		run -> "/" + run.existingId()),
+	PATCH			("patch", 			"PATCH", 	run -> "/" + run.existingId()),
+	DELETE			("delete", 			"DELETE", 	run -> run.createdId().map(id -> "/" + id).orElse(null));
+
+	private static final int BULK_SIZE = 100;
+
+	private final String 					name;
+	private final String 					method;
+	private final Function<Request, String> path;
+
+	Endpoint(String name, String method, Function<Request, String> path)
+	{
+		this.name 	= name;
+		this.method = method;
+		this.path 	= path;
+	}
+
+	/**
+	 * Path below the asset API, or {@code null} if the request can't be made right now, e.g. a delete while the run
+	 * hasn't created anything yet.
+	 */
+	public String path(Request request)
+	{
+		return this.path.apply(request);
+	}
+
+	public String body(Request request)
+	{
+		switch (this)
+		{
+			case CREATE:
+			case CREATE_ASYNC:
+			case UPDATE:
+				return request.asset();
+			case PATCH:
+				return "{\"description\": \"" + request.description() + "\"}";
+			case BULK:
+				StringBuilder body = new StringBuilder("[");
+				for (int i = 0; i < BULK_SIZE; i++)
+				{
+					body.append(i == 0 ? "" : ",").append(request.asset());
+				}
+				return body.append(']').toString();
+			default:
+				return null;
+		}
+	}
+
+	public String contentType()
+	{
+		return this == PATCH ? "application/merge-patch+json" : "application/json";
+	}
+
+	/**
+	 * Value of the Prefer header, or {@code null} if the request has none.
+	 */
+	public String prefer()
+	{
+		return this == CREATE_ASYNC ? "respond-async" : null;
+	}
+
+	public static Endpoint fromName(String name)
+	{
+		for (Endpoint endpoint : values())
+		{
+			if (endpoint.name.equals(name))
+			{
+				return endpoint;
+			}
+		}
+		throw new IllegalArgumentException("Unknown endpoint " + name);
+	}
+
+	/**
+	 * Random choices of one request, drawn from a generator seeded with the request's position in the schedule.
+	 */
+	public interface Request
+	{
+		SplittableRandom random();
+
+		long existingId();
+
+		Optional<Long> createdId();
+
+		default String word()
+		{
+			return Dataset.WORDS[random().nextInt(Dataset.WORDS.length)];
+		}
+
+		default String type()
+		{
+			return Dataset.TYPES[random().nextInt(Dataset.TYPES.length)];
+		}
+
+		default String description()
+		{
+			return Dataset.description(random());
+		}
+
+		default String asset()
+		{
+			String type = type();
+			return "{\"name\": \"" + Dataset.name(random(), type) + "\", \"description\": \"" + description() + "\", \"type\": \"" + type + "\"}";
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.company.assetmanagment.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import lombok.Getter;
+
+/**
+ * Recorded outcome of one endpoint. {@code latency} is measured from the time the request was scheduled to start, so
+ * a stalled server also delays (and is charged for) the requests queued behind it; {@code serviceTime} is measured
+ * from the time it was actually sent, as a closed-loop client would see it. Values are in microseconds.
+ */
+@Getter
+class EndpointStats
+{
+	static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+	private final Histogram latency 	= new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+	private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+	private final LongAdder errors 		= new LongAdder();
+	private final LongAdder skipped 	= new LongAdder();
+
+	void record(long latencyNanos, long serviceNanos, boolean ok)
+	{
+		this.latency	.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+		this.serviceTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(serviceNanos)));
+		if (!ok)
+		{
+			this.errors.increment();
+		}
+	}
+
+	void skip()
+	{
+		this.skipped.increment();
+	}
+}
@@ -0,0 +1,348 @@
+package com.company.assetmanagment.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import com.company.assetmanagment.AssetsManagmentRestApiApplication;
+import com.company.assetmanagment.service.AssetService;
+
+/**
+ * Open-loop load test of the asset API: starts the application on an in-memory H2 database, seeds it and sends
+ * requests at a fixed rate in the configured endpoint mix. Each request has a scheduled start time and its latency is
+ * taken from that time, which corrects for coordinated omission: a client that waits for a slow response doesn't
+ * hide the requests it should have sent meanwhile.
+ * <p>
+ * Run with: {@code mvn -P load test-compile exec:exec -Dload.args="rate=1000 duration=120 budgets=get:p99=20"}. See
+ * {@link LoadOptions} for all settings. Running once with {@code stack=servlet} and once with {@code stack=reactive}
+ * compares the two web stacks under the same load. The process exits with 1 if a latency budget was exceeded.
+ */
+public final class LoadHarness
+{
+	private static final String 	API_PATH 	= "/api/v1/assets";
+	private static final Pattern 	ID 			= Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+	private static final int 		TIMEOUT_MS 	= 60000;
+	private static final Field 		METHOD;
+
+	static
+	{
+		try
+		{
+			// HttpURLConnection refuses PATCH, its protected method field doesn't (JDK 8)
+			METHOD = HttpURLConnection.class.getDeclaredField("method");
+			METHOD.setAccessible(true);
+		}
+		catch (NoSuchFieldException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final LoadOptions 	options;
+	private final String 		baseUrl;
+	private final long[] 		ids;
+	private final long[] 		cumulativeWeights;
+	private final Endpoint[] 	weighted;
+	private final Queue<Long> 	created 	= new ConcurrentLinkedQueue<>();
+	private long 				sequence;
+
+	private LoadHarness(LoadOptions options, String baseUrl, long[] ids)
+	{
+		this.options 			= options;
+		this.baseUrl 			= baseUrl;
+		this.ids 				= ids;
+		this.weighted 			= options.getMix().keySet().toArray(new Endpoint[0]);
+		this.cumulativeWeights 	= new long[this.weighted.length];
+
+		long total = 0;
+		for (int i = 0; i < this.weighted.length; i++)
+		{
+			total += options.getMix().get(this.weighted[i]);
+			this.cumulativeWeights[i] = total;
+		}
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		LoadOptions options = LoadOptions.parse(args);
+		System.setProperty("http.maxConnections", Integer.toString(options.getConcurrency()));
+
+		System.setProperty("spring.devtools.restart.enabled", "false");
+
+		List<String> arguments = new ArrayList<>(Arrays.asList(
+			"--server.port=0",
+			"--server.tomcat.threads.max=" 		+ Math.max(200, options.getConcurrency()),
+			"--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+			"--spring.datasource.driverClassName=org.h2.Driver",
+			"--spring.datasource.username=sa",
+			"--spring.datasource.password=",
+			"--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+			"--spring.jpa.hibernate.ddl-auto=create-drop",
+			"--spring.jpa.properties.hibernate.generate_statistics=false",
+			"--spring.autoconfigure.exclude=org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration",
+			"--asset.ingest.journal=target/load-ingest.journal",
+			"--logging.level.root=WARN"));
+		if (options.isReactive())
+		{
+			arguments.add("--spring.profiles.active=reactive");
+			arguments.add("--spring.r2dbc.url=r2dbc:h2:mem:///load");
+			arguments.add("--spring.r2dbc.pool.max-size=" + Math.max(20, options.getConcurrency()));
+		}
+
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(AssetsManagmentRestApiApplication.class)
+			.initializers(application -> application.getBeanFactory().registerSingleton("testComponentExcludeFilter", new TestComponentExcludeFilter()))
+			.run(arguments.toArray(new String[0]));
+
+		int exitCode;
+		try
+		{
+			String port = context.getEnvironment().getProperty("local.server.port");
+
+			long 	start 	= System.nanoTime();
+			long[] 	ids 	= Dataset.seed(context.getBean(AssetService.class), options.getAssets(), options.getSeed());
+			System.out.printf("Seeded %d assets in %d ms%n", ids.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+			LoadHarness harness = new LoadHarness(options, "http://localhost:" + port + API_PATH, ids);
+
+			System.out.printf("Warming up for %d s%n", options.getWarmupSeconds());
+			harness.run(options.getWarmupSeconds(), null);
+
+			Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+			options.getMix().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+
+			System.out.printf("Measuring %d s at %d requests/s with %d connections%n", options.getDurationSeconds(), options.getRate(), options.getConcurrency());
+			harness.run(options.getDurationSeconds(), stats);
+
+			LoadReport report = new LoadReport(options, stats);
+			report.write(Paths.get(options.getReport()));
+			System.out.print(report.summary());
+			System.out.printf("Report written to %s%n", options.getReport());
+
+			exitCode = report.violations().isEmpty() ? 0 : 1;
+		}
+		finally
+		{
+			context.close();
+		}
+		System.exit(exitCode);
+	}
+
+	/**
+	 * Sends {@code seconds * rate} requests, the n-th scheduled at {@code n / rate} seconds after the start.
+	 * Requests are recorded into {@code stats} unless it is {@code null}.
+	 */
+	private void run(int seconds, Map<Endpoint, EndpointStats> stats) throws InterruptedException
+	{
+		long 			interval 	= TimeUnit.SECONDS.toNanos(1) / this.options.getRate();
+		long 			requests 	= (long) seconds * this.options.getRate();
+		long 			first 		= this.sequence;
+		long 			start 		= System.nanoTime();
+		AtomicLong 		next 		= new AtomicLong();
+		ExecutorService workers 	= Executors.newFixedThreadPool(this.options.getConcurrency());
+
+		for (int worker = 0; worker < this.options.getConcurrency(); worker++)
+		{
+			workers.execute(() ->
+			{
+				for (long n = next.getAndIncrement(); n < requests; n = next.getAndIncrement())
+				{
+					long scheduled = start + n * interval;
+					for (long wait = scheduled - System.nanoTime(); wait > 0; wait = scheduled - System.nanoTime())
+					{
+						LockSupport.parkNanos(wait);
+					}
+					call(first + n, scheduled, stats);
+				}
+			});
+		}
+		workers.shutdown();
+		workers.awaitTermination(seconds + 10L, TimeUnit.MINUTES);
+
+		this.sequence += requests;
+	}
+
+	private void call(long sequence, long scheduled, Map<Endpoint, EndpointStats> stats)
+	{
+		SplittableRandom 	random 		= new SplittableRandom(this.options.getSeed() + sequence);
+		Endpoint 			endpoint 	= pick(random);
+		Endpoint.Request 	request 	= request(random);
+		String 				path 		= endpoint.path(request);
+
+		if (path == null)
+		{
+			if (stats != null)
+			{
+				stats.get(endpoint).skip();
+			}
+			return;
+		}
+
+		long 	sent 	= System.nanoTime();
+		boolean ok 		= send(endpoint, path, endpoint.body(request));
+		long 	done 	= System.nanoTime();
+
+		if (stats != null)
+		{
+			stats.get(endpoint).record(done - scheduled, done - sent, ok);
+		}
+	}
+
+	private Endpoint pick(SplittableRandom random)
+	{
+		long value = random.nextLong(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+		for (int i = 0; ; i++)
+		{
+			if (value < this.cumulativeWeights[i])
+			{
+				return this.weighted[i];
+			}
+		}
+	}
+
+	private Endpoint.Request request(SplittableRandom random)
+	{
+		return new Endpoint.Request()
+		{
+			@Override
+			public SplittableRandom random()
+			{
+				return random;
+			}
+
+			@Override
+			public long existingId()
+			{
+				return LoadHarness.this.ids[random.nextInt(LoadHarness.this.ids.length)];
+			}
+
+			@Override
+			public Optional<Long> createdId()
+			{
+				return Optional.ofNullable(LoadHarness.this.created.poll());
+			}
+		};
+	}
+
+	/**
+	 * @return whether the request succeeded, i.e. was answered with 2xx or 304
+	 */
+	private boolean send(Endpoint endpoint, String path, String body)
+	{
+		try
+		{
+			HttpURLConnection connection = (HttpURLConnection) new URL(this.baseUrl + path).openConnection();
+			connection.setConnectTimeout(TIMEOUT_MS);
+			connection.setReadTimeout	(TIMEOUT_MS);
+			connection.setRequestMethod	(endpoint == Endpoint.PATCH ? "POST" : endpoint.getMethod());
+			if (endpoint == Endpoint.PATCH)
+			{
+				METHOD.set(connection, endpoint.getMethod());
+			}
+			if (endpoint.prefer() != null)
+			{
+				connection.setRequestProperty("Prefer", endpoint.prefer());
+			}
+			if (body != null)
+			{
+				connection.setDoOutput(true);
+				connection.setRequestProperty("Content-Type", endpoint.contentType());
+				try (OutputStream out = connection.getOutputStream())
+				{
+					out.write(body.getBytes(StandardCharsets.UTF_8));
+				}
+			}
+
+			int 	status 		= connection.getResponseCode();
+			byte[] 	response 	= readFully(status >= 400 ? connection.getErrorStream() : connection.getInputStream());
+
+			if (endpoint == Endpoint.CREATE && status == HttpURLConnection.HTTP_CREATED)
+			{
+				Matcher id = ID.matcher(new String(response, StandardCharsets.UTF_8));
+				if (id.find())
+				{
+					this.created.add(Long.valueOf(id.group(1)));
+				}
+			}
+			return status / 100 == 2 || status == HttpURLConnection.HTTP_NOT_MODIFIED;
+		}
+		catch (IOException | IllegalAccessException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * The tests share the classpath of the harness; their {@code @TestConfiguration}s must not end up in the
+	 * application.
+	 */
+	private static final class TestComponentExcludeFilter extends TypeExcludeFilter
+	{
+		@Override
+		public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory)
+		{
+			return metadataReader.getAnnotationMetadata().isAnnotated(TestComponent.class.getName());
+		}
+
+		@Override
+		public boolean equals(Object other)
+		{
+			return other != null && other.getClass() == getClass();
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return getClass().hashCode();
+		}
+	}
+
+	/**
+	 * Reads the response to its end, which lets the connection be reused.
+	 */
+	private static byte[] readFully(InputStream in) throws IOException
+	{
+		if (in == null)
+		{
+			return new byte[0];
+		}
+		try (InputStream stream = in)
+		{
+			ByteArrayOutputStream 	out 	= new ByteArrayOutputStream();
+			byte[] 					buffer 	= new byte[8192];
+			for (int read = stream.read(buffer); read != -1; read = stream.read(buffer))
+			{
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.company.assetmanagment.load;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Settings of a load run, given as {@code key=value} arguments. Every setting has a default, so a bare run works.
+ * <ul>
+ * <li>{@code assets} - number of assets seeded before the run</li>
+ * <li>{@code warmup}, {@code duration} - seconds of unrecorded warm-up and of measurement</li>
+ * <li>{@code rate} - requests per second over all endpoints, the schedule latencies are measured against</li>
+ * <li>{@code concurrency} - number of client threads (and connections)</li>
+ * <li>{@code mix} - relative weight per endpoint, e.g. {@code get=60,list=20,update=20}; unlisted endpoints get 0</li>
+ * <li>{@code budgets} - latency limits in ms, e.g. {@code get:p99=20,list:p99.9=200}; a violation fails the run</li>
+ * <li>{@code seed} - seed of the dataset and of the request sequence</li>
+ * <li>{@code stack} - {@code servlet} or {@code reactive}, the web stack the application is started with</li>
+ * <li>{@code report} - file the report is written to, by default one per stack so two runs can be compared</li>
+ * </ul>
+ */
+@Getter
+public class LoadOptions
+{
+	private static final String DEFAULT_MIX = "get=40,list=12,list-fields=8,list-filtered=5,search=10,aggregates=2,create=8,bulk=1,update=6,patch=6,delete=2";
+
+	private final int 							assets;
+	private final int 							warmupSeconds;
+	private final int 							durationSeconds;
+	private final int 							rate;
+	private final int 							concurrency;
+	private final long 							seed;
+	private final String 						stack;
+	private final String 						report;
+	private final Map<Endpoint, Integer> 		mix;
+	private final Map<Endpoint, Map<Double, Double>> budgets;
+
+	private LoadOptions(Map<String, String> values)
+	{
+		this.assets 			= Integer.parseInt(values.getOrDefault("assets", 		"10000"));
+		this.warmupSeconds 		= Integer.parseInt(values.getOrDefault("warmup", 		"10"));
+		this.durationSeconds 	= Integer.parseInt(values.getOrDefault("duration", 		"60"));
+		this.rate 				= Integer.parseInt(values.getOrDefault("rate", 			"500"));
+		this.concurrency 		= Integer.parseInt(values.getOrDefault("concurrency", 	"64"));
+		this.seed 				= Long.parseLong  (values.getOrDefault("seed", 			"42"));
+		this.stack 				= values.getOrDefault("stack", "servlet");
+		this.report 			= values.getOrDefault("report", "target/load-report-" + this.stack + ".txt");
+		this.mix 				= parseMix(values.getOrDefault("mix", DEFAULT_MIX));
+		this.budgets 			= parseBudgets(values.getOrDefault("budgets", ""));
+
+		if (!this.stack.equals("servlet") && !this.stack.equals("reactive"))
+		{
+			throw new IllegalArgumentException("Expected stack servlet or reactive but got " + this.stack);
+		}
+	}
+
+	public boolean isReactive()
+	{
+		return this.stack.equals("reactive");
+	}
+
+	public static LoadOptions parse(String... args)
+	{
+		Map<String, String> values = new HashMap<>();
+		for (String arg : args)
+		{
+			String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+			if (pair.length != 2)
+			{
+				throw new IllegalArgumentException("Expected key=value but got " + arg);
+			}
+			values.put(pair[0], pair[1]);
+		}
+		return new LoadOptions(values);
+	}
+
+	private static Map<Endpoint, Integer> parseMix(String mix)
+	{
+		Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+		for (String entry : mix.split(","))
+		{
+			String[] pair = entry.trim().split("=");
+			weights.put(Endpoint.fromName(pair[0]), Integer.valueOf(pair[1]));
+		}
+		return Collections.unmodifiableMap(weights);
+	}
+
+	/**
+	 * {@code endpoint:p<percentile>=<ms>} entries, e.g. {@code get:p99.9=50}.
+	 */
+	private static Map<Endpoint, Map<Double, Double>> parseBudgets(String budgets)
+	{
+		Map<Endpoint, Map<Double, Double>> limits = new EnumMap<>(Endpoint.class);
+		for (String entry : budgets.split(","))
+		{
+			if (entry.trim().isEmpty())
+			{
+				continue;
+			}
+			String[] pair 		= entry.trim().split("=");
+			String[] target 	= pair[0].split(":p");
+			limits.computeIfAbsent(Endpoint.fromName(target[0]), endpoint -> new LinkedHashMap<>()).put(Double.valueOf(target[1]), Double.valueOf(pair[1]));
+		}
+		return Collections.unmodifiableMap(limits);
+	}
+}
@@ -0,0 +1,130 @@
+package com.company.assetmanagment.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per-endpoint throughput and latency percentiles of a load run, the outcome of the latency budgets and the full
+ * percentile distribution of every endpoint in HdrHistogram's text format.
+ */
+class LoadReport
+{
+	private static final double 	MICROS_PER_MS 	= 1000.0;
+	private static final double[] 	PERCENTILES 	= {50, 99, 99.9};
+	private static final String 	ROW 			= "%-14s %9s %7s %8s %9s %9s %9s %9s %9s %9s %9s%n";
+
+	private final LoadOptions 					options;
+	private final Map<Endpoint, EndpointStats> 	stats;
+	private final Instant 						finished = Instant.now();
+
+	LoadReport(LoadOptions options, Map<Endpoint, EndpointStats> stats)
+	{
+		this.options 	= options;
+		this.stats 		= stats;
+	}
+
+	String summary()
+	{
+		StringBuilder 	summary 	= new StringBuilder();
+		Histogram 		latency 	= new Histogram(EndpointStats.HIGHEST_TRACKABLE_MICROS, 3);
+		Histogram 		serviceTime = new Histogram(EndpointStats.HIGHEST_TRACKABLE_MICROS, 3);
+		long 			errors 		= 0;
+		long 			skipped 	= 0;
+
+		summary.append(String.format("Load report %s: stack=%s assets=%d rate=%d/s concurrency=%d duration=%ds seed=%d%n", this.finished, this.options.getStack(), this.options.getAssets(), this.options.getRate(), this.options.getConcurrency(), this.options.getDurationSeconds(), this.options.getSeed()));
+		summary.append(String.format("Latency is taken from the scheduled start of each request (corrected for coordinated omission), service time from the actual send. All times in ms.%n%n"));
+		summary.append(String.format(ROW, "endpoint", "requests", "errors", "skipped", "req/s", "p50", "p99", "p99.9", "max", "svc p50", "svc p99"));
+
+		for (Map.Entry<Endpoint, EndpointStats> entry : this.stats.entrySet())
+		{
+			EndpointStats endpoint = entry.getValue();
+			summary.append(row(entry.getKey().getName(), endpoint.getLatency(), endpoint.getServiceTime(), endpoint.getErrors().sum(), endpoint.getSkipped().sum()));
+
+			latency		.add(endpoint.getLatency());
+			serviceTime	.add(endpoint.getServiceTime());
+			errors 		+= endpoint.getErrors().sum();
+			skipped 	+= endpoint.getSkipped().sum();
+		}
+		summary.append(row("all", latency, serviceTime, errors, skipped));
+
+		if (!this.options.getBudgets().isEmpty())
+		{
+			summary.append(String.format("%nBudgets:%n"));
+			this.options.getBudgets().forEach((endpoint, limits) -> limits.forEach((percentile, limit) ->
+			{
+				double actual = percentile(endpoint, percentile);
+				summary.append(String.format("  %s p%s <= %.1f ms: %.2f ms %s%n", endpoint.getName(), percentile, limit, actual, actual <= limit ? "ok" : "EXCEEDED"));
+			}));
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * Budgets the run exceeded, empty if all were met.
+	 */
+	List<String> violations()
+	{
+		List<String> violations = new ArrayList<>();
+		this.options.getBudgets().forEach((endpoint, limits) -> limits.forEach((percentile, limit) ->
+		{
+			if (percentile(endpoint, percentile) > limit)
+			{
+				violations.add(endpoint.getName() + ":p" + percentile);
+			}
+		}));
+		return violations;
+	}
+
+	void write(Path file) throws IOException
+	{
+		ByteArrayOutputStream 	content = new ByteArrayOutputStream();
+		PrintStream 			out 	= new PrintStream(content, true, StandardCharsets.UTF_8.name());
+
+		out.print(summary());
+		for (Map.Entry<Endpoint, EndpointStats> entry : this.stats.entrySet())
+		{
+			out.printf("%n=== %s latency distribution (ms) ===%n", entry.getKey().getName());
+			entry.getValue().getLatency().outputPercentileDistribution(out, MICROS_PER_MS);
+		}
+
+		if (file.getParent() != null)
+		{
+			Files.createDirectories(file.getParent());
+		}
+		Files.write(file, content.toByteArray());
+	}
+
+	private double percentile(Endpoint endpoint, double percentile)
+	{
+		EndpointStats endpointStats = this.stats.get(endpoint);
+
+		return endpointStats == null ? 0 : endpointStats.getLatency().getValueAtPercentile(percentile) / MICROS_PER_MS;
+	}
+
+	private String row(String name, Histogram latency, Histogram serviceTime, long errors, long skipped)
+	{
+		return String.format(ROW, name, latency.getTotalCount(), errors, skipped,
+							 String.format("%.1f", (double) latency.getTotalCount() / this.options.getDurationSeconds()),
+							 ms(latency.getValueAtPercentile(PERCENTILES[0])),
+							 ms(latency.getValueAtPercentile(PERCENTILES[1])),
+							 ms(latency.getValueAtPercentile(PERCENTILES[2])),
+							 ms(latency.getMaxValue()),
+							 ms(serviceTime.getValueAtPercentile(PERCENTILES[0])),
+							 ms(serviceTime.getValueAtPercentile(PERCENTILES[1])));
+	}
+
+	private static String ms(long micros)
+	{
+		return String.format("%.2f", micros / MICROS_PER_MS);
+	}
+}
@@ -2,8 +2,19 @@ package com.company.assetmanagment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+import com.company.assetmanagment.config.AssetProperties;
+
+// a ConnectionFactory bean turns off the DataSource auto-configuration, see ReactiveDatabaseConfiguration
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcDataAutoConfiguration.class, R2dbcRepositoriesAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
+@EnableConfigurationProperties(AssetProperties.class)
+@EnableScheduling
 public class AssetsManagmentRestApiApplication {
 
 	public static void main(String[] args) {
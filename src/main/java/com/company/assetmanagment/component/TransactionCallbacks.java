@@ -0,0 +1,57 @@
+package com.company.assetmanagment.component;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects of a write, e.g. on in-memory copies of assets, until the surrounding transaction commits, so a
+ * rollback leaves them untouched. Without a transaction the action runs immediately.
+ */
+public final class TransactionCallbacks
+{
+	private TransactionCallbacks()
+	{
+	}
+
+	public static void afterCommit(Runnable action)
+	{
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+		{
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+			{
+				@Override
+				public void afterCommit()
+				{
+					action.run();
+				}
+			});
+		}
+		else
+		{
+			action.run();
+		}
+	}
+
+	/**
+	 * Runs the action once the surrounding transaction committed or rolled back, after every {@link #afterCommit}
+	 * action. Without a transaction it runs immediately.
+	 */
+	public static void afterCompletion(Runnable action)
+	{
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+		{
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+			{
+				@Override
+				public void afterCompletion(int status)
+				{
+					action.run();
+				}
+			});
+		}
+		else
+		{
+			action.run();
+		}
+	}
+}
@@ -0,0 +1,333 @@
+package com.company.assetmanagment.component.aggregate;
+
+import static com.company.assetmanagment.component.TransactionCallbacks.afterCommit;
+import static com.company.assetmanagment.component.TransactionCallbacks.afterCompletion;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.AssetBucket;
+import com.company.assetmanagment.data.domain.AssetDailyCount;
+import com.company.assetmanagment.data.domain.AssetTypeCount;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.repository.AssetRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * In-memory number of assets per type and per type and creation day.
+ * <p>
+ * The counters are {@link LongAdder}s, so concurrent writes to the same type don't contend on a single field. They are
+ * seeded with one {@code GROUP BY} once the application is ready and then moved by {@code AssetService} after each
+ * committed create, delete and change of type. Reading the totals costs one sum per type, independent of the number of
+ * assets.
+ * <p>
+ * Every {@code asset.counters.reconcile-interval} the counters are recomputed from the database, which corrects writes
+ * that bypassed the service. The difference to the counts taken right before the query is added to the live counters.
+ * Whether the query saw a write that committed meanwhile can't be told, so every counted write is announced before it
+ * commits and until it has moved the counters, and a reconciliation that overlapped one is discarded and run again;
+ * after {@value #MAX_RECONCILE_ATTEMPTS} attempts it is left to the next interval and counted in
+ * {@code asset.counters.skipped}. The difference is logged and added to the {@code asset.counters.drift} metric.
+ * <p>
+ * Days are taken in the time zone of the JVM, which the database is expected to share.
+ */
+@Log4j2
+@Component
+public class AssetCounters
+{
+	private static final String METRIC_PREFIX 			= "asset.counters.";
+	private static final int 	MAX_RECONCILE_ATTEMPTS 	= 3;
+	private static final long 	PENDING_PAUSE_MILLIS 	= 50;
+
+	private final boolean 			enabled;
+	private final ZoneId 			zone = ZoneId.systemDefault();
+	private final AssetRepository 	assetRepository;
+	private final Counter 			drift;
+	private final Counter 			skipped;
+	private final AtomicInteger 	pending = new AtomicInteger();
+	private final AtomicLong 		started = new AtomicLong();
+
+	private final ConcurrentMap<String, TypeCount> counts = new ConcurrentHashMap<>();
+
+	public AssetCounters(AssetProperties assetProperties, AssetRepository assetRepository, MeterRegistry meterRegistry)
+	{
+		this.enabled 			= assetProperties.getCounters().isEnabled();
+		this.assetRepository 	= assetRepository;
+
+		this.drift 		= Counter.builder(METRIC_PREFIX + "drift").description("Difference between the in-memory asset counters and the database found by reconciliation").register(meterRegistry);
+		this.skipped 	= Counter.builder(METRIC_PREFIX + "skipped").description("Reconciliations given up because writes kept overlapping the query").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + "types", this, counters -> counters.counts.size()).register(meterRegistry);
+	}
+
+	public boolean isEnabled()
+	{
+		return this.enabled;
+	}
+
+	/**
+	 * Corrects the counters by the difference between the current numbers of the database and the counts right before
+	 * they were read, unless a counted write overlapped the query.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${asset.counters.reconcile-interval:PT10M}", initialDelayString = "${asset.counters.reconcile-interval:PT10M}")
+	public void reconcile()
+	{
+		if (!this.enabled)
+		{
+			return;
+		}
+
+		for (int attempt = 1; attempt <= MAX_RECONCILE_ATTEMPTS; attempt++)
+		{
+			if (reconciled())
+			{
+				return;
+			}
+		}
+
+		this.skipped.increment();
+		log.info("Asset counters weren't reconciled, writes kept overlapping the query; retrying in the next interval");
+	}
+
+	/**
+	 * Announces a counted write that commits on its own, before it does. {@link Write#close()} it once it moved the
+	 * counters or failed. Writes in a Spring transaction are announced by {@link #created}, {@link #removed} and
+	 * {@link #retyped} themselves.
+	 */
+	public Write begin()
+	{
+		return new Write();
+	}
+
+	public void created(Asset asset)
+	{
+		if (this.enabled)
+		{
+			String 		type 	= asset.getType();
+			LocalDate 	day 	= day(asset.getCreatedOn());
+			counted(() -> add(type, day, 1));
+		}
+	}
+
+	public void removed(AssetBucket removed)
+	{
+		if (this.enabled)
+		{
+			String 		type 	= removed.getType();
+			LocalDate 	day 	= day(removed.getCreatedOn());
+			counted(() -> add(type, day, -1));
+		}
+	}
+
+	/**
+	 * Moves an asset from the counters of its previous type to those of its new one, if the type changed.
+	 */
+	public void retyped(AssetBucket previous, String type)
+	{
+		if (this.enabled && !Objects.equals(previous.getType(), type))
+		{
+			String 		from 	= previous.getType();
+			LocalDate 	day 	= day(previous.getCreatedOn());
+			counted(() ->
+			{
+				add(from, day, -1);
+				add(type, day, 1);
+			});
+		}
+	}
+
+	/**
+	 * Current counts of all types having assets, ordered by type. The per-day breakdown costs one entry per day and
+	 * type and is only filled in when {@code perDay} is set.
+	 */
+	public List<AssetTypeCount> snapshot(boolean perDay)
+	{
+		Map<String, TypeCount> current = new TreeMap<>(this.counts);
+		List<AssetTypeCount> result = new ArrayList<>(current.size());
+
+		current.forEach((type, count) ->
+		{
+			long total = count.total.sum();
+			if (total > 0)
+			{
+				result.add(new AssetTypeCount(type, total, perDay ? count.perDay() : null));
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Takes the counts, runs the query and applies the difference if no counted write was pending or began meanwhile.
+	 * A write announced later commits after the query, so neither the counts nor the query contain it.
+	 */
+	private boolean reconciled()
+	{
+		long writes = this.started.get();
+		if (this.pending.get() > 0)
+		{
+			pause();
+			return false;
+		}
+
+		Map<String, SortedMap<LocalDate, Long>> counted = new HashMap<>();
+		this.counts.forEach((type, count) -> counted.put(type, count.sums()));
+
+		Map<String, SortedMap<LocalDate, Long>> actual = new HashMap<>();
+		for (AssetDailyCount row : this.assetRepository.countByTypeAndCreatedDay())
+		{
+			actual.computeIfAbsent(row.getType(), type -> new TreeMap<>()).merge(LocalDate.of(row.getYear(), row.getMonth(), row.getDay()), row.getCount(), Long::sum);
+		}
+
+		if (this.started.get() != writes)
+		{
+			return false;
+		}
+
+		long difference = correct(counted, actual);
+
+		if (difference > 0)
+		{
+			this.drift.increment(difference);
+			log.warn("Asset counters were off by {} and have been reconciled with the database", difference);
+		}
+		return true;
+	}
+
+	/**
+	 * Moves the counters once the surrounding transaction commits, announced as pending until it completes.
+	 */
+	private void counted(Runnable moves)
+	{
+		Write write = begin();
+		afterCommit(moves);
+		afterCompletion(write::close);
+	}
+
+	private void pause()
+	{
+		try
+		{
+			Thread.sleep(PENDING_PAUSE_MILLIS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void add(String type, LocalDate day, long delta)
+	{
+		this.counts.computeIfAbsent(type, key -> new TypeCount()).add(day, delta);
+	}
+
+	private LocalDate day(Date date)
+	{
+		return date == null ? LocalDate.now(this.zone) : Instant.ofEpochMilli(date.getTime()).atZone(this.zone).toLocalDate();
+	}
+
+	/**
+	 * Adds the difference between the actual and the counted numbers to the live counters, and returns its size.
+	 */
+	private long correct(Map<String, SortedMap<LocalDate, Long>> counted, Map<String, SortedMap<LocalDate, Long>> actual)
+	{
+		Set<String> types = new HashSet<>(counted.keySet());
+		types.addAll(actual.keySet());
+
+		long difference = 0;
+		for (String type : types)
+		{
+			SortedMap<LocalDate, Long> countedDays 	= counted.getOrDefault(type, Collections.emptySortedMap());
+			SortedMap<LocalDate, Long> actualDays 	= actual.getOrDefault(type, Collections.emptySortedMap());
+
+			Set<LocalDate> days = new HashSet<>(countedDays.keySet());
+			days.addAll(actualDays.keySet());
+			for (LocalDate day : days)
+			{
+				long delta = actualDays.getOrDefault(day, 0L) - countedDays.getOrDefault(day, 0L);
+				if (delta != 0)
+				{
+					add(type, day, delta);
+					difference += Math.abs(delta);
+				}
+			}
+		}
+		return difference;
+	}
+
+	/**
+	 * A counted write between its announcement and its moves of the counters.
+	 */
+	public final class Write implements AutoCloseable
+	{
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private Write()
+		{
+			// pending first, so a reconciliation that finds none pending sees this write as started
+			pending.incrementAndGet();
+			started.incrementAndGet();
+		}
+
+		@Override
+		public void close()
+		{
+			if (this.closed.compareAndSet(false, true))
+			{
+				pending.decrementAndGet();
+			}
+		}
+	}
+
+	private static final class TypeCount
+	{
+		private final LongAdder 							total 	= new LongAdder();
+		private final ConcurrentMap<LocalDate, LongAdder> 	days 	= new ConcurrentHashMap<>();
+
+		void add(LocalDate day, long delta)
+		{
+			this.total.add(delta);
+			this.days.computeIfAbsent(day, key -> new LongAdder()).add(delta);
+		}
+
+		SortedMap<LocalDate, Long> sums()
+		{
+			SortedMap<LocalDate, Long> sums = new TreeMap<>();
+			this.days.forEach((day, count) -> sums.put(day, count.sum()));
+			return sums;
+		}
+
+		SortedMap<LocalDate, Long> perDay()
+		{
+			SortedMap<LocalDate, Long> perDay = sums();
+			perDay.values().removeIf(count -> count <= 0);
+			return perDay;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.company.assetmanagment.component.cache;
+
+import static com.company.assetmanagment.component.TransactionCallbacks.afterCommit;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size and TTL bounded (W-TinyLFU) cache of assets by id. Entries are copies, so callers can't change a cached asset.
+ * <p>
+ * Entries are only replaced by a strictly newer {@code @Version}: a reader that loaded an asset before a concurrent
+ * update can't put its stale copy over the one stored by the update. Deleted assets leave a tombstone that no reader
+ * can overwrite until it expires. Inside a transaction, puts and evictions are applied only once it commits.
+ */
+@Component
+public class AssetCache
+{
+	private static final String CACHE_NAME = "asset";
+
+	private final Cache<Long, Entry> cache;
+
+	public AssetCache(AssetProperties assetProperties, MeterRegistry meterRegistry)
+	{
+		AssetProperties.Cache config = assetProperties.getCache();
+
+		if (config.isEnabled())
+		{
+			this.cache = Caffeine.newBuilder()
+									.maximumSize		(config.getMaximumSize()		)
+									.expireAfterWrite	(config.getExpireAfterWrite()	)
+									.recordStats		(								)
+									.build				(								);
+			CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+		}
+		else
+		{
+			this.cache = null;
+		}
+	}
+
+	public Optional<Asset> get(Long id)
+	{
+		Entry entry = this.cache == null ? null : this.cache.getIfPresent(id);
+
+		return entry == null || entry.asset == null ? Optional.empty() : Optional.of(entry.asset.toBuilder().build());
+	}
+
+	public void put(Asset asset)
+	{
+		if (this.cache != null)
+		{
+			afterCommit(() ->
+			{
+				if (asset.getVersion() != null)
+				{
+					store(asset.getId(), new Entry(asset.toBuilder().build(), asset.getVersion()));
+				}
+			});
+		}
+	}
+
+	public void evict(Long id)
+	{
+		if (this.cache != null)
+		{
+			afterCommit(() -> store(id, new Entry(null, Integer.MAX_VALUE)));
+		}
+	}
+
+	/**
+	 * Drops any cached copy older than {@code version} without caching a new one, for writes that don't load the
+	 * asset. A later {@link #put(Asset)} of {@code version} or newer is accepted again.
+	 */
+	public void invalidate(Long id, int version)
+	{
+		if (this.cache != null)
+		{
+			afterCommit(() -> store(id, new Entry(null, version - 1)));
+		}
+	}
+
+	/**
+	 * Drops the cached copy of an asset written where its new version isn't known, e.g. by another instance.
+	 */
+	public void remove(Long id)
+	{
+		if (this.cache != null)
+		{
+			this.cache.invalidate(id);
+		}
+	}
+
+	public void clear()
+	{
+		if (this.cache != null)
+		{
+			this.cache.invalidateAll();
+		}
+	}
+
+	private void store(Long id, Entry entry)
+	{
+		this.cache.asMap().merge(id, entry, (current, candidate) -> candidate.version > current.version || (candidate.asset == null && candidate.version >= current.version) ? candidate : current);
+	}
+
+	private static final class Entry
+	{
+		private final Asset asset;
+		private final int 	version;
+
+		private Entry(Asset asset, int version)
+		{
+			this.asset 		= asset;
+			this.version 	= version;
+		}
+	}
+}
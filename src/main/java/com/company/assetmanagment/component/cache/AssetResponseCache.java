@@ -0,0 +1,133 @@
+package com.company.assetmanagment.component.cache;
+
+import static com.company.assetmanagment.component.TransactionCallbacks.afterCommit;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Encoded response bodies of single assets by id, {@code @Version} and content type, so an unchanged asset is mapped
+ * and serialized once per representation instead of on every request.
+ * <p>
+ * The cache is bounded by the total size of the bodies, not by their number. Bodies are handed out as read-only views,
+ * never copied. With {@code off-heap} they are kept in direct buffers, where the garbage collector neither scans nor
+ * copies them; but the memory of an evicted body is only returned once its wrapper is collected, so the native memory
+ * in use may exceed max-size by whatever was evicted since the last collection. That is why it is off by default.
+ * <p>
+ * A body is only served for the version it was encoded from, so one stored by a reader that raced an update is never
+ * returned for the new version. Writes of {@code AssetService} evict the bodies of the asset once they commit, to
+ * return the memory early.
+ */
+@Component
+public class AssetResponseCache
+{
+	private static final String CACHE_NAME = "asset.response";
+
+	private final boolean 			 offHeap;
+	private final Cache<Long, Entry> cache;
+
+	public AssetResponseCache(AssetProperties assetProperties, MeterRegistry meterRegistry)
+	{
+		AssetProperties.ResponseCache config = assetProperties.getResponseCache();
+
+		this.offHeap = config.isOffHeap();
+		if (config.isEnabled())
+		{
+			this.cache = Caffeine.newBuilder()
+									.maximumWeight		(config.getMaxSize().toBytes()			)
+									.weigher			((Long id, Entry entry) -> entry.bytes	)
+									.expireAfterAccess	(config.getExpireAfterAccess()			)
+									.recordStats		(										)
+									.build				(										);
+			CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+		}
+		else
+		{
+			this.cache = null;
+		}
+	}
+
+	/**
+	 * The body of the asset in the given version and content type, encoded and stored first if it isn't cached yet.
+	 */
+	public ByteBuffer get(Long id, int version, MediaType contentType, Supplier<byte[]> encoder)
+	{
+		if (this.cache == null)
+		{
+			return ByteBuffer.wrap(encoder.get()).asReadOnlyBuffer();
+		}
+
+		Entry entry = this.cache.getIfPresent(id);
+		if (entry != null && entry.version == version && entry.bodies.containsKey(contentType))
+		{
+			return entry.bodies.get(contentType).duplicate();
+		}
+
+		ByteBuffer body = store(encoder.get());
+		this.cache.asMap().merge(id, new Entry(version, Collections.singletonMap(contentType, body)), Entry::merge);
+		return body.duplicate();
+	}
+
+	public void evict(Long id)
+	{
+		if (this.cache != null)
+		{
+			afterCommit(() -> this.cache.invalidate(id));
+		}
+	}
+
+	private ByteBuffer store(byte[] encoded)
+	{
+		if (!this.offHeap)
+		{
+			return ByteBuffer.wrap(encoded).asReadOnlyBuffer();
+		}
+
+		ByteBuffer body = ByteBuffer.allocateDirect(encoded.length);
+		body.put(encoded).flip();
+		return body.asReadOnlyBuffer();
+	}
+
+	/**
+	 * The bodies of one version of an asset. Entries are replaced instead of changed, as their weight is only taken
+	 * when they are stored.
+	 */
+	private static final class Entry
+	{
+		private final int 						version;
+		private final Map<MediaType, ByteBuffer> bodies;
+		private final int 						bytes;
+
+		private Entry(int version, Map<MediaType, ByteBuffer> bodies)
+		{
+			this.version 	= version;
+			this.bodies 	= bodies;
+			this.bytes 		= bodies.values().stream().mapToInt(ByteBuffer::capacity).sum();
+		}
+
+		private static Entry merge(Entry current, Entry candidate)
+		{
+			if (candidate.version != current.version)
+			{
+				return candidate.version > current.version ? candidate : current;
+			}
+
+			Map<MediaType, ByteBuffer> bodies = new HashMap<>(current.bodies);
+			bodies.putAll(candidate.bodies);
+			return new Entry(current.version, bodies);
+		}
+	}
+}
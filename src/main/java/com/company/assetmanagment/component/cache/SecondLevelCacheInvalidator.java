@@ -0,0 +1,149 @@
+package com.company.assetmanagment.component.cache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.repository.AssetRepository;
+import com.company.assetmanagment.repository.AssetTombstoneRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Keeps the query cache of {@link Asset} ids, and the {@link AssetCache} their assets are taken from, correct for
+ * writes Hibernate on this instance doesn't see: those of other instances, of the reactive stack and of plain JDBC.
+ * <p>
+ * Writes through Hibernate invalidate the caches themselves when they commit: {@code AssetService} evicts the asset
+ * from the {@code AssetCache}, and every write of the table outdates the cached query results. For the rest the
+ * database is polled every {@code asset.second-level-cache.cluster-sync-interval} for assets updated since the last
+ * poll, from the {@code updatedOn} index, and for tombstones of deleted ones. They are evicted from the
+ * {@code AssetCache} and the update timestamp of the table is moved, which outdates the cached query results, also
+ * those of queries still running. Each poll reaches back {@code asset.sync.commit-lag}, for writes that committed
+ * after their timestamp was taken.
+ * <p>
+ * The hit ratio of every region is published as {@code asset.second-level-cache.hit.ratio}.
+ */
+@Log4j2
+@Component
+public class SecondLevelCacheInvalidator
+{
+	private static final String METRIC_PREFIX = "asset.second-level-cache.";
+
+	private final boolean 						enabled;
+	private final boolean 						clusterSync;
+	private final long 							commitLag;
+	private final int 							maxEvictions;
+	private final SessionFactoryImplementor 	sessionFactory;
+	private final AssetRepository 				assetRepository;
+	private final AssetTombstoneRepository 		tombstoneRepository;
+	private final AssetCache 					assetCache;
+	private final Counter 						evicted;
+
+	private Date watermark = new Date();
+
+	public SecondLevelCacheInvalidator(AssetProperties assetProperties, EntityManagerFactory entityManagerFactory, AssetRepository assetRepository,
+									   AssetTombstoneRepository tombstoneRepository, AssetCache assetCache, MeterRegistry meterRegistry)
+	{
+		AssetProperties.SecondLevelCache config = assetProperties.getSecondLevelCache();
+
+		this.enabled 				= config.isEnabled();
+		this.clusterSync 			= config.isEnabled() && config.isClusterSync();
+		this.commitLag 				= assetProperties.getSync().getCommitLag().toMillis();
+		this.maxEvictions 			= (int) Math.min(assetProperties.getCache().getMaximumSize(), Integer.MAX_VALUE - 1);
+		this.sessionFactory 		= entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+		this.assetRepository 		= assetRepository;
+		this.tombstoneRepository 	= tombstoneRepository;
+		this.assetCache 			= assetCache;
+
+		this.evicted = Counter.builder(METRIC_PREFIX + "sync.evicted").description("Assets evicted for writes of other instances or outside of Hibernate").register(meterRegistry);
+
+		if (this.enabled)
+		{
+			for (String region : this.sessionFactory.getCache().getCacheRegionNames())
+			{
+				Gauge.builder(METRIC_PREFIX + "hit.ratio", this.sessionFactory, sessionFactory -> hitRatio(sessionFactory.getStatistics().getCacheRegionStatistics(region)))
+						.description("Share of the lookups of the region that were hits")
+						.tag("region", region)
+						.register(meterRegistry);
+			}
+		}
+	}
+
+	/**
+	 * Evicts the assets written by others since the last poll.
+	 */
+	@Scheduled(fixedDelayString = "${asset.second-level-cache.cluster-sync-interval:PT5S}", initialDelayString = "${asset.second-level-cache.cluster-sync-interval:PT5S}")
+	public synchronized void sync()
+	{
+		if (!this.clusterSync)
+		{
+			return;
+		}
+
+		Date until = new Date();
+		Date since = new Date(this.watermark.getTime() - this.commitLag);
+
+		List<Long> ids = new ArrayList<>(this.assetRepository.findIdsUpdatedWithin(since, until, PageRequest.of(0, this.maxEvictions + 1)));
+		ids.addAll(this.tombstoneRepository.findIdsDeletedWithin(since, until));
+		if (!ids.isEmpty())
+		{
+			if (ids.size() > this.maxEvictions)
+			{
+				evictAll();
+			}
+			else
+			{
+				ids.forEach(this.assetCache::remove);
+				invalidateQueries();
+			}
+			this.evicted.increment(ids.size());
+			log.debug("Evicted {} assets written since {} from the asset cache", ids.size(), since.toInstant());
+		}
+		this.watermark = until;
+	}
+
+	/**
+	 * Evicts every asset and outdates every cached asset query, e.g. after a bulk load with plain JDBC.
+	 */
+	public void evictAll()
+	{
+		if (this.enabled)
+		{
+			this.assetCache.clear();
+			invalidateQueries();
+		}
+	}
+
+	private void invalidateQueries()
+	{
+		Serializable[] tables = this.sessionFactory.getMetamodel().entityPersister(Asset.class).getQuerySpaces();
+
+		try (StatelessSession session = this.sessionFactory.openStatelessSession())
+		{
+			this.sessionFactory.getCache().getTimestampsCache().invalidate(tables, (SharedSessionContractImplementor) session);
+		}
+	}
+
+	private static double hitRatio(CacheRegionStatistics statistics)
+	{
+		long lookups = statistics == null ? 0 : statistics.getHitCount() + statistics.getMissCount();
+
+		return lookups == 0 ? Double.NaN : (double) statistics.getHitCount() / lookups;
+	}
+}
@@ -0,0 +1,99 @@
+package com.company.assetmanagment.component.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+
+import com.company.assetmanagment.data.dto.AssetResponseDto;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+
+/**
+ * Protobuf encoding of {@link AssetResponseDto}s with the messages of {@code proto/asset.proto}, written by Jackson
+ * without generated message classes. A single asset is an {@code Asset} message, a list is an {@code AssetList},
+ * as protobuf has no top-level arrays.
+ */
+public class AssetProtobuf
+{
+	public static final String 		MEDIA_TYPE_VALUE 	= "application/x-protobuf";
+	public static final MediaType 	MEDIA_TYPE 			= MediaType.valueOf(MEDIA_TYPE_VALUE);
+	
+	private static final String SCHEMA 		= "proto/asset.proto";
+	private static final String ASSETS 		= "assets";
+	
+	private final ObjectWriter assetWriter;
+	private final ObjectWriter listWriter;
+	private final ObjectReader assetReader;
+	private final ObjectReader listReader;
+	
+	public AssetProtobuf()
+	{
+		ProtobufMapper 		 mapper = new ProtobufMapper();
+		NativeProtobufSchema schema;
+		try
+		{
+			schema = ProtobufSchemaLoader.std.loadNative(new ClassPathResource(SCHEMA).getURL());
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Could not load " + SCHEMA, e);
+		}
+		
+		this.assetWriter = mapper.writerFor(AssetResponseDto.class).with(schema.forType("Asset"));
+		this.listWriter  = mapper.writer(schema.forType("AssetList"));
+		this.assetReader = mapper.readerFor(AssetResponseDto.class).with(schema.forType("Asset"));
+		this.listReader  = mapper.readerFor(AssetList.class).with(schema.forType("AssetList"));
+	}
+	
+	/**
+	 * Whether values of the type can be encoded: an asset or a collection of assets.
+	 */
+	public static boolean supports(ResolvableType type)
+	{
+		if (Collection.class.isAssignableFrom(type.toClass()))
+		{
+			Class<?> element = type.asCollection().resolveGeneric(0);
+			return element != null && AssetResponseDto.class.isAssignableFrom(element);
+		}
+		return AssetResponseDto.class.isAssignableFrom(type.toClass());
+	}
+	
+	public void write(Object value, OutputStream out) throws IOException
+	{
+		if (value instanceof Collection)
+		{
+			this.listWriter.writeValue(out, Collections.singletonMap(ASSETS, value));
+		}
+		else
+		{
+			this.assetWriter.writeValue(out, value);
+		}
+	}
+	
+	public AssetResponseDto readAsset(byte[] message) throws IOException
+	{
+		return this.assetReader.readValue(message);
+	}
+	
+	public List<AssetResponseDto> readList(byte[] message) throws IOException
+	{
+		AssetList list = this.listReader.readValue(message);
+		
+		return list.assets == null ? Collections.emptyList() : list.assets;
+	}
+	
+	private static final class AssetList
+	{
+		public List<AssetResponseDto> assets;
+	}
+}
@@ -0,0 +1,74 @@
+package com.company.assetmanagment.component.codec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Encodes asset responses of WebFlux as protobuf, see {@link AssetProtobuf}. Custom codecs are asked before the JSON
+ * default, so it only takes a response whose content type was set to protobuf explicitly.
+ */
+public class AssetProtobufEncoder implements Encoder<Object>
+{
+	private final AssetProtobuf protobuf;
+	
+	public AssetProtobufEncoder(AssetProtobuf protobuf)
+	{
+		this.protobuf = protobuf;
+	}
+	
+	@Override
+	public boolean canEncode(ResolvableType elementType, MimeType mimeType)
+	{
+		return AssetProtobuf.supports(elementType) && mimeType != null && AssetProtobuf.MEDIA_TYPE.isCompatibleWith(mimeType);
+	}
+	
+	@Override
+	public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints)
+	{
+		return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+	}
+	
+	@Override
+	public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType, MimeType mimeType, Map<String, Object> hints)
+	{
+		DataBuffer 	buffer 		= bufferFactory.allocateBuffer();
+		boolean 	release 	= true;
+		try
+		{
+			this.protobuf.write(value, buffer.asOutputStream());
+			release = false;
+			return buffer;
+		}
+		catch (IOException | UncheckedIOException e)
+		{
+			throw new EncodingException("Could not write protobuf: " + e.getMessage(), e);
+		}
+		finally
+		{
+			if (release)
+			{
+				DataBufferUtils.release(buffer);
+			}
+		}
+	}
+	
+	@Override
+	public List<MimeType> getEncodableMimeTypes()
+	{
+		return Collections.singletonList(AssetProtobuf.MEDIA_TYPE);
+	}
+}
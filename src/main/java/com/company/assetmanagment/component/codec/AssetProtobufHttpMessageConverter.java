@@ -0,0 +1,61 @@
+package com.company.assetmanagment.component.codec;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes asset responses of Spring MVC as protobuf, see {@link AssetProtobuf}. Requests are not read as protobuf.
+ */
+public class AssetProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object>
+{
+	private final AssetProtobuf protobuf;
+	
+	public AssetProtobufHttpMessageConverter(AssetProtobuf protobuf)
+	{
+		super(AssetProtobuf.MEDIA_TYPE);
+		this.protobuf = protobuf;
+	}
+	
+	@Override
+	public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType)
+	{
+		return false;
+	}
+	
+	@Override
+	public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType)
+	{
+		return AssetProtobuf.supports(type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz)) && canWrite(mediaType);
+	}
+	
+	@Override
+	protected boolean supports(Class<?> clazz)
+	{
+		return AssetProtobuf.supports(ResolvableType.forClass(clazz));
+	}
+	
+	@Override
+	protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException
+	{
+		this.protobuf.write(value, outputMessage.getBody());
+	}
+	
+	@Override
+	public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws HttpMessageNotReadableException
+	{
+		throw new HttpMessageNotReadableException("Protobuf requests are not supported.", inputMessage);
+	}
+	
+	@Override
+	protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws HttpMessageNotReadableException
+	{
+		throw new HttpMessageNotReadableException("Protobuf requests are not supported.", inputMessage);
+	}
+}
@@ -0,0 +1,59 @@
+package com.company.assetmanagment.component.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes an already encoded body held in a {@link ByteBuffer}, e.g. off-heap, in the content type set on the response.
+ * The buffer itself is left untouched, so it can be written again.
+ */
+public class ByteBufferHttpMessageConverter extends AbstractHttpMessageConverter<ByteBuffer>
+{
+	public ByteBufferHttpMessageConverter()
+	{
+		super(MediaType.ALL);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz)
+	{
+		return ByteBuffer.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	public boolean canRead(Class<?> clazz, MediaType mediaType)
+	{
+		return false;
+	}
+
+	@Override
+	protected Long getContentLength(ByteBuffer body, MediaType contentType)
+	{
+		return (long) body.remaining();
+	}
+
+	@Override
+	protected void writeInternal(ByteBuffer body, HttpOutputMessage outputMessage) throws IOException
+	{
+		ByteBuffer 			remaining 	= body.duplicate();
+		WritableByteChannel channel 	= Channels.newChannel(outputMessage.getBody());
+		while (remaining.hasRemaining())
+		{
+			channel.write(remaining);
+		}
+	}
+
+	@Override
+	protected ByteBuffer readInternal(Class<? extends ByteBuffer> clazz, HttpInputMessage inputMessage) throws HttpMessageNotReadableException
+	{
+		throw new HttpMessageNotReadableException("Reading a ByteBuffer body is not supported.", inputMessage);
+	}
+}
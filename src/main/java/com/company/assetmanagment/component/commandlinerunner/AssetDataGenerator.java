@@ -0,0 +1,158 @@
+package com.company.assetmanagment.component.commandlinerunner;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.component.cache.SecondLevelCacheInvalidator;
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.repository.id.JdbcBlockSequence;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Fills the database of the dev profile with {@code asset.generator.rows} synthetic assets, from a few for trying the
+ * API to tens of millions for benchmarks and soak tests.
+ * <p>
+ * Parallel workers take the chunks of {@link GeneratedAssets} in turn and insert each with one JDBC batch and commit on
+ * their own connection. Ids come from the shared sequence, so the API can create assets next to them. Progress and
+ * the final rate are logged in rows per second.
+ */
+@Profile("dev")
+@Component
+@Log4j2
+public class AssetDataGenerator implements CommandLineRunner
+{
+	private static final String INSERT = "INSERT INTO asset (id, version, created_on, updated_on, name, type, description) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+	private final DataSource 					dataSource;
+	private final AssetProperties 				assetProperties;
+	private final SecondLevelCacheInvalidator 	secondLevelCache;
+
+	public AssetDataGenerator(DataSource dataSource, AssetProperties assetProperties, SecondLevelCacheInvalidator secondLevelCache)
+	{
+		this.dataSource 		= dataSource;
+		this.assetProperties 	= assetProperties;
+		this.secondLevelCache 	= secondLevelCache;
+	}
+
+	@Override
+	public void run(String... args) throws Exception
+	{
+		if (this.assetProperties.getGenerator().getRows() > 0)
+		{
+			generate();
+		}
+	}
+
+	/**
+	 * Inserts the configured assets and returns how many.
+	 */
+	public long generate() throws InterruptedException, ExecutionException
+	{
+		AssetProperties.Generator settings 	= this.assetProperties.getGenerator();
+		GeneratedAssets 		  assets 	= new GeneratedAssets(settings, settings.getCreatedUntil() != null ? settings.getCreatedUntil() : Instant.now());
+		AtomicLong 				  nextChunk = new AtomicLong();
+		AtomicLong 				  inserted 	= new AtomicLong();
+		long 					  started 	= System.nanoTime();
+
+		log.info("Generating {} assets with seed {}, {} writers and batches of {}", settings.getRows(), settings.getSeed(), settings.getThreads(), settings.getBatchSize());
+
+		ExecutorService 	workers = Executors.newFixedThreadPool(settings.getThreads(), new CustomizableThreadFactory("asset-generator-"));
+		List<Future<?>> 	done 	= new ArrayList<>(settings.getThreads());
+		for (int i = 0; i < settings.getThreads(); i++)
+		{
+			done.add(workers.submit(() ->
+			{
+				try
+				{
+					write(assets, nextChunk, inserted);
+					return null;
+				}
+				catch (SQLException | RuntimeException e)
+				{
+					// the other workers stop after their current chunk
+					nextChunk.set(assets.chunks());
+					throw e;
+				}
+			}));
+		}
+		workers.shutdown();
+
+		try
+		{
+			while (!workers.awaitTermination(settings.getReportInterval().toMillis(), TimeUnit.MILLISECONDS))
+			{
+				log.info("Generated {} of {} assets, {} rows/s", inserted.get(), settings.getRows(), rate(inserted.get(), started));
+			}
+			for (Future<?> worker : done)
+			{
+				worker.get();
+			}
+		}
+		finally
+		{
+			workers.shutdownNow();
+			// the rows bypass Hibernate and carry past updatedOn stamps the cluster sync doesn't look at
+			this.secondLevelCache.evictAll();
+		}
+
+		log.info("Generated {} assets in {} s, {} rows/s", inserted.get(), String.format("%.1f", (System.nanoTime() - started) / 1e9), rate(inserted.get(), started));
+		return inserted.get();
+	}
+
+	/**
+	 * Inserts chunks until none are left, on a connection of its own that commits after every batch.
+	 */
+	private void write(GeneratedAssets assets, AtomicLong nextChunk, AtomicLong inserted) throws SQLException
+	{
+		try (Connection connection = this.dataSource.getConnection())
+		{
+			connection.setAutoCommit(false);
+			JdbcTemplate 		jdbcTemplate 	= new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+			JdbcBlockSequence 	ids 			= new JdbcBlockSequence(jdbcTemplate, this.assetProperties.getId());
+
+			for (long chunk = nextChunk.getAndIncrement(); chunk < assets.chunks() && !Thread.currentThread().isInterrupted(); chunk = nextChunk.getAndIncrement())
+			{
+				List<Asset> batch = assets.chunk(chunk);
+				batch.forEach(asset -> asset.setId(ids.nextId()));
+				jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (statement, asset) ->
+				{
+					statement.setLong		(1, asset.getId()								);
+					statement.setInt		(2, asset.getVersion()							);
+					statement.setTimestamp	(3, new Timestamp(asset.getCreatedOn().getTime())	);
+					statement.setTimestamp	(4, new Timestamp(asset.getUpdatedOn().getTime())	);
+					statement.setString		(5, asset.getName()								);
+					statement.setString		(6, asset.getType()								);
+					statement.setString		(7, asset.getDescription()						);
+				});
+				connection.commit();
+				inserted.addAndGet(batch.size());
+			}
+		}
+	}
+
+	private static long rate(long rows, long started)
+	{
+		return Math.round(rows / Math.max((System.nanoTime() - started) / 1e9, 1e-3));
+	}
+}
@@ -0,0 +1,131 @@
+package com.company.assetmanagment.component.commandlinerunner;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.model.Asset;
+
+/**
+ * The assets of a generator run, cut into chunks of {@code batch-size}. Every chunk draws from its own random
+ * generator seeded with the run seed and the chunk number, so a chunk is the same whichever worker generates it and
+ * in whatever order. Ids are left to the writer.
+ */
+final class GeneratedAssets
+{
+	private static final long 	CHUNK_SEED_STEP = 0x9E3779B97F4A7C15L;
+	private static final int 	MIN_WORD 		= 2;
+	private static final int 	MAX_WORD 		= 10;
+
+	private final AssetProperties.Generator settings;
+	private final String[] 					types;
+	private final int[] 					cumulativeWeights;
+	private final long 						createdUntil;
+	private final long 						createdSpread;
+
+	GeneratedAssets(AssetProperties.Generator settings, Instant createdUntil)
+	{
+		Map<String, Integer> weights = new LinkedHashMap<>(settings.getTypes());
+		if (weights.isEmpty())
+		{
+			for (int type = 0; type < 5; type++)
+			{
+				weights.put(Integer.toString(type), 1);
+			}
+		}
+
+		weights.values().removeIf(weight -> weight == null || weight <= 0);
+		if (weights.isEmpty())
+		{
+			throw new IllegalArgumentException("At least one generated type needs a positive weight.");
+		}
+
+		this.settings 			= settings;
+		this.types 				= weights.keySet().toArray(new String[0]);
+		this.cumulativeWeights 	= new int[this.types.length];
+		this.createdUntil 		= createdUntil.toEpochMilli();
+		this.createdSpread 		= settings.getCreatedSpread().toMillis();
+
+		int total = 0;
+		for (int i = 0; i < this.types.length; i++)
+		{
+			total += weights.get(this.types[i]);
+			this.cumulativeWeights[i] = total;
+		}
+	}
+
+	long chunks()
+	{
+		return (this.settings.getRows() + this.settings.getBatchSize() - 1) / this.settings.getBatchSize();
+	}
+
+	List<Asset> chunk(long index)
+	{
+		SplittableRandom random = new SplittableRandom(this.settings.getSeed() + index * CHUNK_SEED_STEP);
+		long 			first 	= index * this.settings.getBatchSize();
+		int 			count 	= (int) Math.min(this.settings.getBatchSize(), this.settings.getRows() - first);
+
+		List<Asset> assets = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			Date createdOn = new Date(this.createdUntil - (long) (random.nextDouble() * this.createdSpread));
+			assets.add(Asset.builder()
+								.version	(0																)
+								.name		(text(random, length(random, this.settings.getNameLength()))	)
+								.type		(type(random)													)
+								.description(text(random, length(random, this.settings.getDescriptionLength())))
+								.createdOn	(createdOn														)
+								.updatedOn	(createdOn														)
+								.build		(																));
+		}
+		return assets;
+	}
+
+	private String type(SplittableRandom random)
+	{
+		int drawn = random.nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+		int index = Arrays.binarySearch(this.cumulativeWeights, drawn + 1);
+
+		return this.types[index >= 0 ? index : -index - 1];
+	}
+
+	/**
+	 * Normally distributed with a Box-Muller transform, as {@link SplittableRandom} has no Gaussian of its own.
+	 */
+	private static int length(SplittableRandom random, AssetProperties.Length length)
+	{
+		double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+		long   drawn 	= Math.round(length.getMean() + length.getStddev() * gaussian);
+
+		return (int) Math.max(length.getMin(), Math.min(length.getMax(), drawn));
+	}
+
+	/**
+	 * Capitalized, space separated words of random letters, so the search index sees words of realistic length.
+	 */
+	private static String text(SplittableRandom random, int length)
+	{
+		char[] text = new char[length];
+		int    word = 0;
+		for (int i = 0; i < length; i++)
+		{
+			if (word > 0 && i < length - 1 && (word >= MAX_WORD || (word >= MIN_WORD && random.nextInt(MAX_WORD - MIN_WORD + 1) == 0)))
+			{
+				text[i] = ' ';
+				word 	= 0;
+			}
+			else
+			{
+				text[i] = (char) ((i == 0 ? 'A' : 'a') + random.nextInt(26));
+				word++;
+			}
+		}
+		return new String(text);
+	}
+}
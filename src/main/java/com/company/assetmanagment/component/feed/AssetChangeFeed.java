@@ -0,0 +1,354 @@
+package com.company.assetmanagment.component.feed;
+
+import static com.company.assetmanagment.component.TransactionCallbacks.afterCommit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.AssetChange;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.exception.BusinessException;
+import com.company.assetmanagment.exception.ResourceGoneException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Feed of committed asset writes for Server-Sent Events subscribers.
+ * <p>
+ * Every change gets the next sequence number and goes into a ring buffer of the last {@code asset.feed.buffer-size}
+ * changes. Publishing only stores into the ring and wakes the dispatcher, so the write path never waits for a
+ * subscriber. The dispatcher hands each subscriber that is behind, and isn't being served already, to a small pool of
+ * send threads, which write up to {@code asset.feed.batch-size} changes at a time. A slow subscriber therefore only
+ * holds up one send thread, and one whose position the ring has overwritten is disconnected.
+ * <p>
+ * A subscriber can resume after any sequence still in the ring. Sequences start at the startup time in microseconds,
+ * so one from before a restart is always older than the ring and answered with {@link ResourceGoneException} rather
+ * than taken for a recent one.
+ */
+@Log4j2
+@Component
+public class AssetChangeFeed implements SmartLifecycle
+{
+	private static final String METRIC_PREFIX 		= "asset.feed.";
+	private static final long 	IDLE_CHECK_NANOS 	= TimeUnit.SECONDS.toNanos(1);
+
+	private final boolean 							enabled;
+	private final int 								batchSize;
+	private final long 								heartbeatNanos;
+	private final long 								start 		= TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+	private final AtomicReferenceArray<AssetChange> ring;
+	private final Set<Subscription> 				subscriptions = ConcurrentHashMap.newKeySet();
+	private final ExecutorService 					senders;
+	private final Counter 							published;
+	private final Counter 							dropped;
+
+	private volatile long 		last 	= this.start - 1;
+	private volatile Thread 	dispatcher;
+	private volatile boolean 	running;
+
+	public AssetChangeFeed(AssetProperties assetProperties, MeterRegistry meterRegistry)
+	{
+		AssetProperties.Feed config = assetProperties.getFeed();
+
+		this.enabled 		= config.isEnabled();
+		this.batchSize 		= config.getBatchSize();
+		this.heartbeatNanos = config.getHeartbeat().toNanos();
+		this.ring 			= new AtomicReferenceArray<>(config.getBufferSize());
+		this.senders 		= Executors.newFixedThreadPool(config.getSendThreads(), daemonThreads("asset-feed-sender-"));
+
+		this.published 	= Counter.builder(METRIC_PREFIX + "published").description("Asset changes published on the feed").register(meterRegistry);
+		this.dropped 	= Counter.builder(METRIC_PREFIX + "dropped").description("Subscribers disconnected because they fell behind the ring buffer").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + "subscribers", this.subscriptions, Set::size).register(meterRegistry);
+	}
+
+	public boolean isEnabled()
+	{
+		return this.enabled;
+	}
+
+	public void created(Asset asset)
+	{
+		if (this.enabled)
+		{
+			Asset copy = asset.toBuilder().build();
+			afterCommit(() -> publish(AssetChange.Type.CREATED, copy.getId(), copy.getVersion(), copy, null));
+		}
+	}
+
+	public void updated(Long id, int version, Map<String, Object> values)
+	{
+		if (this.enabled)
+		{
+			Map<String, Object> changes = Collections.unmodifiableMap(new HashMap<>(values));
+			afterCommit(() -> publish(AssetChange.Type.UPDATED, id, version, null, changes));
+		}
+	}
+
+	public void deleted(Long id)
+	{
+		if (this.enabled)
+		{
+			afterCommit(() -> publish(AssetChange.Type.DELETED, id, null, null, null));
+		}
+	}
+
+	/**
+	 * Sequence of the latest change, or the one before the first change if there was none yet.
+	 */
+	public long lastSequence()
+	{
+		return this.last;
+	}
+
+	/**
+	 * Starts sending the changes after {@code after} to the listener, or only new ones if it is {@code null}.
+	 *
+	 * @throws ResourceGoneException if the changes after {@code after} aren't in the ring buffer (anymore)
+	 */
+	public Subscription subscribe(Long after, Listener listener)
+	{
+		if (!this.enabled)
+		{
+			throw new BusinessException("The change feed is disabled.");
+		}
+
+		long current = this.last;
+		if (after != null && (after > current || after + 1 < oldest(current)))
+		{
+			throw new ResourceGoneException(String.format("Changes after sequence %s are no longer available, please resynchronize.", after));
+		}
+
+		Subscription subscription = new Subscription(listener, after != null ? after : current);
+		this.subscriptions.add(subscription);
+		wake();
+
+		return subscription;
+	}
+
+	/**
+	 * Makes the dispatcher look at the subscribers now, e.g. once a listener can take changes again.
+	 */
+	public void wake()
+	{
+		Thread thread = this.dispatcher;
+		if (thread != null)
+		{
+			LockSupport.unpark(thread);
+		}
+	}
+
+	@Override
+	public void start()
+	{
+		if (!this.enabled)
+		{
+			return;
+		}
+		this.running 	= true;
+		this.dispatcher = new Thread(this::dispatch, "asset-feed-dispatcher");
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+
+	/**
+	 * Ends every stream, before the web server stops, so clients reconnect to another instance right away.
+	 */
+	@Override
+	public void stop()
+	{
+		this.running = false;
+		wake();
+		this.subscriptions.forEach(Subscription::close);
+		this.senders.shutdown();
+	}
+
+	@Override
+	public boolean isRunning()
+	{
+		return this.running;
+	}
+
+	private synchronized void publish(AssetChange.Type type, Long id, Integer version, Asset asset, Map<String, Object> changes)
+	{
+		long sequence = this.last + 1;
+		this.ring.set(index(sequence), new AssetChange(sequence, type, id, version, asset, changes));
+		this.last = sequence;
+
+		this.published.increment();
+		wake();
+	}
+
+	private void dispatch()
+	{
+		while (this.running)
+		{
+			long now 	= System.nanoTime();
+			long head 	= this.last;
+			for (Subscription subscription : this.subscriptions)
+			{
+				if ((subscription.position < head || now - subscription.lastSent >= this.heartbeatNanos) && subscription.scheduled.compareAndSet(false, true))
+				{
+					this.senders.execute(() -> subscription.send(head));
+				}
+			}
+			LockSupport.parkNanos(this, Math.min(IDLE_CHECK_NANOS, this.heartbeatNanos));
+		}
+	}
+
+	/**
+	 * Changes after {@code position} up to {@code head}, at most {@code limit}, or {@code null} if the ring has
+	 * overwritten some of them.
+	 */
+	private List<AssetChange> read(long position, long head, long limit)
+	{
+		int 				count 	= (int) Math.min(head - position, Math.min(limit, this.batchSize));
+		List<AssetChange> 	changes = new ArrayList<>(count);
+		for (long sequence = position + 1; sequence <= position + count; sequence++)
+		{
+			AssetChange change = this.ring.get(index(sequence));
+			if (change == null || change.getSequence() != sequence)
+			{
+				return null;
+			}
+			changes.add(change);
+		}
+		return changes;
+	}
+
+	private long oldest(long head)
+	{
+		return Math.max(this.start, head - this.ring.length() + 1);
+	}
+
+	private int index(long sequence)
+	{
+		return (int) (sequence % this.ring.length());
+	}
+
+	private static ThreadFactory daemonThreads(String prefix)
+	{
+		AtomicInteger number = new AtomicInteger();
+		return runnable ->
+		{
+			Thread thread = new Thread(runnable, prefix + number.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Receiver of the changes of one subscription. Sends to one listener never overlap.
+	 */
+	public interface Listener
+	{
+		/**
+		 * Number of changes the listener can take right now; one that applies backpressure calls
+		 * {@link AssetChangeFeed#wake()} once it can take more.
+		 */
+		long demand();
+
+		void send(List<AssetChange> changes) throws IOException;
+
+		void heartbeat() throws IOException;
+
+		/**
+		 * Ends the stream because the subscriber fell behind or the application stops.
+		 */
+		void close();
+	}
+
+	public final class Subscription
+	{
+		private final Listener 		listener;
+		private final AtomicBoolean scheduled 	= new AtomicBoolean();
+
+		private volatile long 		position;
+		private volatile long 		lastSent 	= System.nanoTime();
+
+		private Subscription(Listener listener, long position)
+		{
+			this.listener = listener;
+			this.position = position;
+		}
+
+		public long getPosition()
+		{
+			return this.position;
+		}
+
+		/**
+		 * Stops sending to the listener, e.g. once its client disconnected.
+		 */
+		public void cancel()
+		{
+			subscriptions.remove(this);
+		}
+
+		private void send(long head)
+		{
+			try
+			{
+				long demand = this.listener.demand();
+				if (this.position < head && demand > 0)
+				{
+					List<AssetChange> changes = read(this.position, head, demand);
+					if (changes == null)
+					{
+						log.info("Change feed subscriber at sequence {} fell behind the buffer and is disconnected", this.position);
+						dropped.increment();
+						close();
+						return;
+					}
+					this.listener.send(changes);
+					this.position = changes.get(changes.size() - 1).getSequence();
+					this.lastSent = System.nanoTime();
+				}
+				else if (System.nanoTime() - this.lastSent >= heartbeatNanos && demand > 0)
+				{
+					this.listener.heartbeat();
+					this.lastSent = System.nanoTime();
+				}
+			}
+			catch (IOException | RuntimeException e)
+			{
+				log.debug("Change feed subscriber is gone: {}", e.getMessage());
+				cancel();
+			}
+			finally
+			{
+				this.scheduled.set(false);
+			}
+			if (this.position < last)
+			{
+				wake();
+			}
+		}
+
+		private void close()
+		{
+			cancel();
+			this.listener.close();
+		}
+	}
+}
@@ -0,0 +1,380 @@
+package com.company.assetmanagment.component.ingest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.IngestStatus;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.dto.AssetIncomingDto;
+import com.company.assetmanagment.data.dto.MapStructMapper;
+import com.company.assetmanagment.exception.BusinessException;
+import com.company.assetmanagment.exception.IngestQueueFullException;
+import com.company.assetmanagment.service.AssetService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Write-behind creation of assets. {@link #accept(AssetIncomingDto)} only journals an already validated asset and puts
+ * it on a bounded queue; a single writer thread takes the queue apart in batches of up to
+ * {@code asset.ingest.batch-size}, waiting at most {@code asset.ingest.max-delay} for a batch to fill, and inserts each
+ * batch with {@link AssetService#createAll(List)}: one transaction and JDBC batched inserts instead of one per asset.
+ * <p>
+ * A full queue rejects further assets with {@link IngestQueueFullException} rather than buffering without bound. If a
+ * batch fails, its assets are inserted one at a time so only the offending ones are reported as failed.
+ * <p>
+ * Every accepted asset is appended to the {@link IngestJournal} before it is acknowledged, and marked there once
+ * handled. Assets a crash left unhandled are inserted on the next start, before any request is taken. An asset whose
+ * batch committed right before a crash, but wasn't marked yet, is inserted twice: delivery is at least once.
+ */
+@Log4j2
+@Component
+public class AssetIngestQueue implements SmartLifecycle
+{
+	private static final String METRIC_PREFIX 		= "asset.ingest.";
+	private static final long 	COMPACT_SIZE 		= 16L * 1024 * 1024;
+	private static final long 	POLL_INTERVAL_MS 	= 100;
+	private static final long 	SHUTDOWN_TIMEOUT_MS = 30000;
+
+	private final AssetProperties.Ingest 		config;
+	private final AssetService 					assetService;
+	private final MapStructMapper 				dtoMapper;
+	private final ObjectMapper 					objectMapper;
+	private final BlockingQueue<Entry> 			queue;
+	private final Cache<String, IngestStatus> 	statuses;
+	private final Object 						lock = new Object();
+
+	private final Counter 				rejected;
+	private final Counter 				created;
+	private final Counter 				failed;
+	private final Timer 				batchTimer;
+	private final DistributionSummary 	batchSize;
+
+	private IngestJournal 		journal;
+	private Thread 				writer;
+	private volatile boolean 	running;
+
+	public AssetIngestQueue(AssetProperties assetProperties, AssetService assetService, MapStructMapper dtoMapper, ObjectMapper objectMapper, MeterRegistry meterRegistry)
+	{
+		this.config 		= assetProperties.getIngest();
+		this.assetService 	= assetService;
+		this.dtoMapper 		= dtoMapper;
+		this.objectMapper 	= objectMapper;
+		this.queue 			= new ArrayBlockingQueue<>(this.config.getCapacity());
+		this.statuses 		= Caffeine.newBuilder()
+										.maximumSize		(this.config.getStatusMaximumSize()	)
+										.expireAfterWrite	(this.config.getStatusRetention()	)
+										.build				(									);
+
+		this.rejected 	= Counter.builder(METRIC_PREFIX + "rejected").description("Assets rejected because the ingestion queue was full").register(meterRegistry);
+		this.created 	= Counter.builder(METRIC_PREFIX + "written").tag("result", "created").register(meterRegistry);
+		this.failed 	= Counter.builder(METRIC_PREFIX + "written").tag("result", "failed").register(meterRegistry);
+		this.batchTimer = Timer.builder(METRIC_PREFIX + "batch").description("Time to insert one batch of queued assets").register(meterRegistry);
+		this.batchSize 	= DistributionSummary.builder(METRIC_PREFIX + "batch.size").description("Number of assets inserted per batch").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + "queued", this.queue, BlockingQueue::size).description("Assets accepted and waiting to be inserted").register(meterRegistry);
+	}
+
+	/**
+	 * Queues an asset for creation.
+	 *
+	 * @return the tracking id to look up the {@link #status(String)} with
+	 * @throws IngestQueueFullException if the queue is full or not running
+	 */
+	public String accept(AssetIncomingDto asset)
+	{
+		if (!this.config.isEnabled())
+		{
+			throw new BusinessException("Asynchronous creation is disabled.");
+		}
+
+		Entry entry = new Entry(UUID.randomUUID().toString(), asset);
+
+		// the writer only takes from the queue, so once there is room under the lock the add below succeeds
+		synchronized (this.lock)
+		{
+			if (!this.running || this.queue.remainingCapacity() == 0)
+			{
+				this.rejected.increment();
+				throw new IngestQueueFullException(String.format("The ingestion queue is full with %d assets, please retry later.", this.queue.size()));
+			}
+			try
+			{
+				this.journal.accepted(entry.trackingId, asset);
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException("Could not journal the asset", e);
+			}
+			this.statuses.put(entry.trackingId, IngestStatus.queued(entry.trackingId));
+			this.queue.add(entry);
+		}
+		return entry.trackingId;
+	}
+
+	public Optional<IngestStatus> status(String trackingId)
+	{
+		return Optional.ofNullable(this.statuses.getIfPresent(trackingId));
+	}
+
+	/**
+	 * Inserts what the journal holds from a previous run, then starts the writer. Runs before the web server starts.
+	 */
+	@Override
+	public void start()
+	{
+		if (!this.config.isEnabled())
+		{
+			return;
+		}
+
+		try
+		{
+			this.journal = new IngestJournal(Paths.get(this.config.getJournal()), this.objectMapper, this.config.isFsync());
+
+			List<Entry> pending = new ArrayList<>();
+			this.journal.replay().forEach((trackingId, asset) -> pending.add(new Entry(trackingId, asset)));
+			if (!pending.isEmpty())
+			{
+				log.warn("Inserting {} assets left in the ingestion journal {}", pending.size(), this.config.getJournal());
+				for (int from = 0; from < pending.size(); from += this.config.getBatchSize())
+				{
+					write(pending.subList(from, Math.min(pending.size(), from + this.config.getBatchSize())));
+				}
+			}
+			this.journal.clear();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Could not open the ingestion journal " + this.config.getJournal(), e);
+		}
+
+		this.running 	= true;
+		this.writer 	= new Thread(this::drain, "asset-ingest-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Stops taking assets and lets the writer insert what is queued. Runs after the web server stopped. Whatever isn't
+	 * inserted within the shutdown timeout stays in the journal for the next start.
+	 */
+	@Override
+	public void stop()
+	{
+		if (this.writer == null)
+		{
+			return;
+		}
+
+		synchronized (this.lock)
+		{
+			this.running = false;
+		}
+		try
+		{
+			this.writer.join(SHUTDOWN_TIMEOUT_MS);
+			if (this.writer.isAlive())
+			{
+				log.warn("Ingestion writer didn't finish within {} ms, {} queued assets are left to the journal", SHUTDOWN_TIMEOUT_MS, this.queue.size());
+				this.writer.interrupt();
+				this.writer.join(SHUTDOWN_TIMEOUT_MS);
+			}
+			this.journal.close();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (IOException e)
+		{
+			log.warn("Could not close the ingestion journal", e);
+		}
+		this.writer = null;
+	}
+
+	@Override
+	public boolean isRunning()
+	{
+		return this.running;
+	}
+
+	@Override
+	public int getPhase()
+	{
+		return 0;
+	}
+
+	private void drain()
+	{
+		int 		maxBatch 	= this.config.getBatchSize();
+		long 		maxDelay 	= this.config.getMaxDelay().toNanos();
+		List<Entry> batch 		= new ArrayList<>(maxBatch);
+
+		try
+		{
+			while (this.running || !this.queue.isEmpty())
+			{
+				Entry first = this.queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+				if (first == null)
+				{
+					continue;
+				}
+				batch.add(first);
+
+				long deadline = System.nanoTime() + maxDelay;
+				while (batch.size() < maxBatch)
+				{
+					this.queue.drainTo(batch, maxBatch - batch.size());
+
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() >= maxBatch || remaining <= 0 || !this.running)
+					{
+						break;
+					}
+					// waits in slices to notice a shutdown, which inserts the batch right away
+					Entry next = this.queue.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MS)), TimeUnit.NANOSECONDS);
+					if (next != null)
+					{
+						batch.add(next);
+					}
+				}
+
+				write(batch);
+				batch.clear();
+				compact();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void write(List<Entry> batch)
+	{
+		List<IngestStatus> results = this.batchTimer.record(() -> insert(batch));
+		this.batchSize.record(batch.size());
+
+		synchronized (this.lock)
+		{
+			results.forEach(result -> this.statuses.put(result.getTrackingId(), result));
+			try
+			{
+				this.journal.handled(batch.stream().map(entry -> entry.trackingId).collect(Collectors.toList()));
+			}
+			catch (IOException e)
+			{
+				log.error("Could not mark {} assets as handled in the ingestion journal, they will be inserted again on the next start", batch.size(), e);
+			}
+		}
+	}
+
+	private List<IngestStatus> insert(List<Entry> batch)
+	{
+		List<IngestStatus> results = new ArrayList<>(batch.size());
+		try
+		{
+			List<Asset> saved = this.assetService.createAll(batch.stream().map(entry -> this.dtoMapper.assetIncomdingDtoToAsset(entry.asset)).collect(Collectors.toList()));
+			for (int i = 0; i < saved.size(); i++)
+			{
+				results.add(IngestStatus.created(batch.get(i).trackingId, saved.get(i).getId()));
+			}
+			this.created.increment(saved.size());
+			return results;
+		}
+		catch (RuntimeException e)
+		{
+			if (batch.size() == 1)
+			{
+				return Collections.singletonList(failed(batch.get(0), e));
+			}
+			log.warn("Batch of {} queued assets failed, inserting them one at a time: {}", batch.size(), e.getMessage());
+		}
+
+		for (Entry entry : batch)
+		{
+			try
+			{
+				results.add(IngestStatus.created(entry.trackingId, this.assetService.create(this.dtoMapper.assetIncomdingDtoToAsset(entry.asset)).getId()));
+				this.created.increment();
+			}
+			catch (RuntimeException e)
+			{
+				results.add(failed(entry, e));
+			}
+		}
+		return results;
+	}
+
+	private IngestStatus failed(Entry entry, RuntimeException exception)
+	{
+		log.error("Could not create queued asset {}", entry.trackingId, exception);
+		this.failed.increment();
+
+		return IngestStatus.failed(entry.trackingId, Collections.singletonList(String.valueOf(exception.getMessage())));
+	}
+
+	/**
+	 * Empties the journal once nothing is pending, or shrinks it to the pending assets once it grew past
+	 * {@value #COMPACT_SIZE} bytes. Only called by the writer between two batches, so the queue holds all pending assets.
+	 */
+	private void compact()
+	{
+		synchronized (this.lock)
+		{
+			try
+			{
+				long size = this.journal.size();
+				if (this.queue.isEmpty() && size > 0)
+				{
+					this.journal.clear();
+				}
+				else if (size > COMPACT_SIZE)
+				{
+					Map<String, AssetIncomingDto> pending = new LinkedHashMap<>();
+					this.queue.forEach(entry -> pending.put(entry.trackingId, entry.asset));
+					this.journal.rewrite(pending);
+				}
+			}
+			catch (IOException e)
+			{
+				log.error("Could not compact the ingestion journal", e);
+			}
+		}
+	}
+
+	private static final class Entry
+	{
+		private final String 			trackingId;
+		private final AssetIncomingDto 	asset;
+
+		private Entry(String trackingId, AssetIncomingDto asset)
+		{
+			this.trackingId = trackingId;
+			this.asset 		= asset;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package com.company.assetmanagment.component.ingest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.company.assetmanagment.data.dto.AssetIncomingDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Append-only file of the assets accepted by {@link AssetIngestQueue}, one JSON line when an asset is accepted and one
+ * once it has been handled. Replaying the file yields the assets that were accepted but never handled, e.g. because
+ * the process died in between. A torn line left by a crash is skipped.
+ * <p>
+ * Lines are written straight to the file channel without a user-space buffer, so they survive a crash of the process;
+ * with {@code fsync} they are forced to disk as well. Not thread-safe, the queue serializes all calls.
+ */
+@Log4j2
+final class IngestJournal implements Closeable
+{
+	private final Path 			path;
+	private final ObjectMapper 	objectMapper;
+	private final boolean 		fsync;
+
+	private FileChannel channel;
+
+	IngestJournal(Path path, ObjectMapper objectMapper, boolean fsync) throws IOException
+	{
+		this.path 			= path.toAbsolutePath();
+		this.objectMapper 	= objectMapper;
+		this.fsync 			= fsync;
+
+		Files.createDirectories(this.path.getParent());
+		this.channel = open(this.path);
+	}
+
+	/**
+	 * Assets accepted but not handled, by tracking id in the order they were accepted.
+	 */
+	Map<String, AssetIncomingDto> replay() throws IOException
+	{
+		Map<String, AssetIncomingDto> pending = new LinkedHashMap<>();
+
+		try (BufferedReader reader = Files.newBufferedReader(this.path, StandardCharsets.UTF_8))
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				try
+				{
+					Record record = this.objectMapper.readValue(line, Record.class);
+					if (record.getAsset() != null)
+					{
+						pending.put(record.getId(), record.getAsset());
+					}
+					else
+					{
+						pending.remove(record.getId());
+					}
+				}
+				catch (JsonProcessingException e)
+				{
+					log.warn("Skipping unreadable line of the ingestion journal {}: {}", this.path, e.getOriginalMessage());
+				}
+			}
+		}
+		return pending;
+	}
+
+	void accepted(String trackingId, AssetIncomingDto asset) throws IOException
+	{
+		write(line(trackingId, asset));
+	}
+
+	void handled(Collection<String> trackingIds) throws IOException
+	{
+		StringBuilder lines = new StringBuilder(trackingIds.size() * 48);
+		for (String trackingId : trackingIds)
+		{
+			lines.append(line(trackingId, null));
+		}
+		write(lines.toString());
+	}
+
+	/**
+	 * Empties the journal, for when nothing is pending.
+	 */
+	void clear() throws IOException
+	{
+		this.channel.truncate(0);
+		if (this.fsync)
+		{
+			this.channel.force(false);
+		}
+	}
+
+	long size() throws IOException
+	{
+		return this.channel.size();
+	}
+
+	/**
+	 * Replaces the journal with one holding only the given pending assets. The new file is written aside and moved over
+	 * the old one, so a crash leaves one of both.
+	 */
+	void rewrite(Map<String, AssetIncomingDto> pending) throws IOException
+	{
+		Path next = this.path.resolveSibling(this.path.getFileName() + ".next");
+		try (FileChannel rewritten = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			StringBuilder lines = new StringBuilder();
+			for (Map.Entry<String, AssetIncomingDto> entry : pending.entrySet())
+			{
+				lines.append(line(entry.getKey(), entry.getValue()));
+			}
+			writeFully(rewritten, lines.toString());
+			rewritten.force(true);
+		}
+
+		this.channel.close();
+		Files.move(next, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		this.channel = open(this.path);
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		this.channel.close();
+	}
+
+	private void write(String lines) throws IOException
+	{
+		writeFully(this.channel, lines);
+		if (this.fsync)
+		{
+			this.channel.force(false);
+		}
+	}
+
+	private String line(String trackingId, AssetIncomingDto asset) throws JsonProcessingException
+	{
+		Record record = new Record();
+		record.setId	(trackingId	);
+		record.setAsset	(asset		);
+
+		return this.objectMapper.writeValueAsString(record) + '\n';
+	}
+
+	private static FileChannel open(Path path) throws IOException
+	{
+		return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	private static void writeFully(FileChannel channel, String lines) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * One journal line: an accepted asset, or without asset the mark that the tracking id has been handled.
+	 */
+	@Getter
+	@Setter
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	static class Record
+	{
+		private String 				id;
+		private AssetIncomingDto 	asset;
+	}
+}
@@ -0,0 +1,43 @@
+package com.company.assetmanagment.component.logging;
+
+import java.util.Collection;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.company.assetmanagment.exception.ApiError;
+
+/**
+ * Hands the number of rows of each response body to the {@link RequestLogFilter}: the size of a collection, one for
+ * any other body except errors.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class RequestLogAdvice implements ResponseBodyAdvice<Object>
+{
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType)
+	{
+		return true;
+	}
+	
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType,
+								  ServerHttpRequest request, ServerHttpResponse response)
+	{
+		if (body != null && !(body instanceof ApiError) && request instanceof ServletServerHttpRequest)
+		{
+			int rows = body instanceof Collection ? ((Collection<?>) body).size() : 1;
+			((ServletServerHttpRequest) request).getServletRequest().setAttribute(RequestLogFilter.ROWS_ATTRIBUTE, rows);
+		}
+		return body;
+	}
+}
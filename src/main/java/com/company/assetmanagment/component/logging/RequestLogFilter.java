@@ -0,0 +1,146 @@
+package com.company.assetmanagment.component.logging;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.company.assetmanagment.config.AssetProperties;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Writes one structured line per request to the {@value #LOGGER} logger: method, path, status, latency in
+ * microseconds and, if the response had a body, the number of rows it carried (see {@link RequestLogAdvice}).
+ * <p>
+ * Successful requests are sampled with {@code asset.request-log.sample-rate}, failed ones (status 400 and above or an
+ * exception) are always logged. Nothing is built unless the line is actually written: the sampling decision and the
+ * level check come first. For asynchronous requests, like the export, the line is written once the response is
+ * complete.
+ */
+@Log4j2(topic = RequestLogFilter.LOGGER)
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLogFilter extends OncePerRequestFilter
+{
+	public static final String LOGGER 			= "asset.requests";
+	
+	/** Request attribute holding the number of rows of the response body. */
+	public static final String ROWS_ATTRIBUTE 	= RequestLogFilter.class.getName() + ".rows";
+	
+	private static final int 	ERROR_STATUS 	= 400;
+	
+	private final boolean 	enabled;
+	private final double 	sampleRate;
+	
+	public RequestLogFilter(AssetProperties assetProperties)
+	{
+		this.enabled 	= assetProperties.getRequestLog().isEnabled();
+		this.sampleRate = assetProperties.getRequestLog().getSampleRate();
+	}
+	
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request)
+	{
+		return !this.enabled || !log.isInfoEnabled();
+	}
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException
+	{
+		long 	start 	= System.nanoTime();
+		boolean failed 	= true;
+		try
+		{
+			filterChain.doFilter(request, response);
+			failed = false;
+		}
+		finally
+		{
+			if (!failed && request.isAsyncStarted())
+			{
+				request.getAsyncContext().addListener(new CompletionListener(start));
+			}
+			else
+			{
+				log(request, response, start, failed);
+			}
+		}
+	}
+	
+	private void log(HttpServletRequest request, HttpServletResponse response, long start, boolean failed)
+	{
+		int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+		if (status < ERROR_STATUS && !sampled())
+		{
+			return;
+		}
+		
+		StringMapMessage message = new StringMapMessage(5)
+										.with("method", 	request.getMethod())
+										.with("path", 		request.getRequestURI())
+										.with("status", 	status)
+										.with("latencyUs", 	TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+		
+		Object rows = request.getAttribute(ROWS_ATTRIBUTE);
+		if (rows != null)
+		{
+			message.with("rows", rows);
+		}
+		log.info(message);
+	}
+	
+	private boolean sampled()
+	{
+		return this.sampleRate >= 1 || (this.sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < this.sampleRate);
+	}
+	
+	private final class CompletionListener implements AsyncListener
+	{
+		private final long start;
+		
+		CompletionListener(long start)
+		{
+			this.start = start;
+		}
+		
+		@Override
+		public void onComplete(AsyncEvent event)
+		{
+			log((HttpServletRequest) event.getSuppliedRequest(), (HttpServletResponse) event.getSuppliedResponse(), this.start, false);
+		}
+		
+		@Override
+		public void onError(AsyncEvent event)
+		{
+			// completes with the error status afterwards
+		}
+		
+		@Override
+		public void onTimeout(AsyncEvent event)
+		{
+			// completes with the error status afterwards
+		}
+		
+		@Override
+		public void onStartAsync(AsyncEvent event)
+		{
+			// not restarted by the controllers
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.company.assetmanagment.component.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Records how many JDBC statements, entity loads and flushes each Hibernate session caused, in the distribution
+ * summaries {@value #STATEMENTS_METRIC}, {@value #ENTITY_LOADS_METRIC} and {@value #FLUSHES_METRIC}. With
+ * open-in-view a web request works in a single session, so these are the numbers per request.
+ * <p>
+ * Hibernate creates one listener per session from {@code hibernate.session.events.auto}. Entity loads have no session
+ * event, they are counted by the {@link #INTEGRATOR}'s post-load listener on the session last opened by the thread.
+ */
+public class HibernateSessionMetrics extends BaseSessionEventListener
+{
+	private static final long serialVersionUID = 1L;
+
+	public static final String STATEMENTS_METRIC 	= "hibernate.session.statements";
+	public static final String ENTITY_LOADS_METRIC 	= "hibernate.session.entity.loads";
+	public static final String FLUSHES_METRIC 		= "hibernate.session.flushes";
+
+	private static final ThreadLocal<HibernateSessionMetrics> CURRENT = new ThreadLocal<>();
+
+	private static final PostLoadEventListener LOAD_LISTENER = event ->
+	{
+		HibernateSessionMetrics current = CURRENT.get();
+		if (current != null)
+		{
+			current.entityLoads++;
+		}
+	};
+
+	/** Registers the listener counting entity loads, set as {@code hibernate.integrator_provider}. */
+	public static final Integrator INTEGRATOR = new Integrator()
+	{
+		@Override
+		public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry)
+		{
+			serviceRegistry.getService(EventListenerRegistry.class).appendListeners(EventType.POST_LOAD, LOAD_LISTENER);
+		}
+
+		@Override
+		public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry)
+		{
+		}
+	};
+
+	private final transient HibernateSessionMetrics previous;
+	private int 									statements;
+	private int 									entityLoads;
+	private int 									flushes;
+	private boolean 								ended;
+
+	public HibernateSessionMetrics()
+	{
+		HibernateSessionMetrics current = CURRENT.get();
+
+		// a session closed on another thread never ends here, don't keep it reachable
+		this.previous = current != null && !current.ended ? current : null;
+		CURRENT.set(this);
+	}
+
+	@Override
+	public void jdbcPrepareStatementStart()
+	{
+		this.statements++;
+	}
+
+	@Override
+	public void flushEnd(int numberOfEntities, int numberOfCollections)
+	{
+		this.flushes++;
+	}
+
+	@Override
+	public void partialFlushEnd(int numberOfEntities, int numberOfCollections)
+	{
+		this.flushes++;
+	}
+
+	@Override
+	public void end()
+	{
+		this.ended = true;
+		if (CURRENT.get() == this)
+		{
+			if (this.previous == null)
+			{
+				CURRENT.remove();
+			}
+			else
+			{
+				CURRENT.set(this.previous);
+			}
+		}
+
+		DistributionSummary.builder(STATEMENTS_METRIC)	.description("JDBC statements prepared per Hibernate session").register(Metrics.globalRegistry).record(this.statements);
+		DistributionSummary.builder(ENTITY_LOADS_METRIC).description("Entities loaded per Hibernate session")		  .register(Metrics.globalRegistry).record(this.entityLoads);
+		DistributionSummary.builder(FLUSHES_METRIC)		.description("Flushes per Hibernate session")				  .register(Metrics.globalRegistry).record(this.flushes);
+	}
+}
@@ -0,0 +1,300 @@
+package com.company.assetmanagment.component.patch;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import javax.validation.Constraint;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.dto.AssetIncomingDto;
+import com.company.assetmanagment.exception.BusinessException;
+
+/**
+ * Applies JSON Merge Patch (RFC 7396) documents to an {@link Asset}.
+ * <p>
+ * The patchable properties are the ones a client may send in an {@link AssetIncomingDto}; they are resolved once at
+ * startup together with a {@link MethodHandle} setter on {@link Asset}, a converter for the property type and the
+ * constraints declared on the DTO. Applying a patch is then a map lookup, a type check and a handle invocation per
+ * member. Constraints are checked inline; only when a value is rejected (or a property carries a constraint the engine
+ * doesn't evaluate itself) the Bean Validation {@link Validator} runs, so error messages are the same as for a POST.
+ * <p>
+ * Members set to {@code null} remove the property, which fails validation for required properties. A patch is applied
+ * only if every member is valid.
+ */
+@Component
+public class AssetPatchEngine
+{
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Asset.class, Object.class);
+
+	private final Map<String, PatchableProperty> 	properties;
+	private final Set<String> 						readOnlyProperties;
+	private final Validator 						validator;
+
+	public AssetPatchEngine(Validator validator)
+	{
+		this.validator 			= validator;
+		this.properties 		= compileProperties();
+		this.readOnlyProperties = readOnlyProperties(this.properties.keySet());
+	}
+
+	public Set<String> getPatchableProperties()
+	{
+		return this.properties.keySet();
+	}
+
+	public void apply(Asset target, Map<String, Object> patch)
+	{
+		validate(patch);
+
+		for (Entry<String, Object> member : patch.entrySet())
+		{
+			this.properties.get(member.getKey()).set(target, member.getValue());
+		}
+	}
+
+	/**
+	 * Validates the patch and hands every member, converted to the property type, to {@code sink}. Used to turn a
+	 * patch into a bulk update without loading the asset.
+	 */
+	public void apply(Map<String, Object> patch, BiConsumer<String, Object> sink)
+	{
+		validate(patch);
+
+		for (Entry<String, Object> member : patch.entrySet())
+		{
+			sink.accept(member.getKey(), this.properties.get(member.getKey()).type.convert(member.getValue()));
+		}
+	}
+
+	private void validate(Map<String, Object> patch)
+	{
+		for (Entry<String, Object> member : patch.entrySet())
+		{
+			PatchableProperty property = property(member.getKey());
+			if (!property.accepts(member.getValue()))
+			{
+				reject(property, member.getValue());
+			}
+		}
+	}
+
+	private PatchableProperty property(String name)
+	{
+		PatchableProperty property = this.properties.get(name);
+		if (property == null && this.readOnlyProperties.contains(name))
+		{
+			throw new BusinessException(String.format("Field %s is read-only.", name));
+		}
+		if (property == null)
+		{
+			throw new BusinessException(String.format("Could not find any field with name %s to update.", name));
+		}
+		return property;
+	}
+
+	private void reject(PatchableProperty property, Object value)
+	{
+		if (!property.type.isConvertible(value))
+		{
+			throw new BusinessException(String.format("Field %s must be of type %s.", property.name, property.type.name));
+		}
+
+		Set<ConstraintViolation<AssetIncomingDto>> violations = this.validator.validateValue(AssetIncomingDto.class, property.name, property.type.convert(value));
+		if (!violations.isEmpty())
+		{
+			throw new ConstraintViolationException(violations);
+		}
+	}
+
+	private static Map<String, PatchableProperty> compileProperties()
+	{
+		Map<String, PatchableProperty> 	compiled 	= new HashMap<>();
+		MethodHandles.Lookup 			lookup 		= MethodHandles.publicLookup();
+
+		try
+		{
+			for (PropertyDescriptor descriptor : Introspector.getBeanInfo(AssetIncomingDto.class, Object.class).getPropertyDescriptors())
+			{
+				String 				name 	= descriptor.getName();
+				PropertyDescriptor 	target 	= new PropertyDescriptor(name, Asset.class);
+				ValueType 			type 	= ValueType.of(target.getPropertyType());
+				MethodHandle 		setter 	= lookup.unreflect(target.getWriteMethod()).asType(SETTER_TYPE);
+
+				compiled.put(name, new PatchableProperty(name, type, setter, AssetIncomingDto.class.getDeclaredField(name)));
+			}
+		}
+		catch (IntrospectionException | IllegalAccessException | NoSuchFieldException e)
+		{
+			throw new IllegalStateException("Could not compile the patchable asset properties.", e);
+		}
+		return Collections.unmodifiableMap(compiled);
+	}
+
+	private static Set<String> readOnlyProperties(Set<String> patchable)
+	{
+		Set<String> readOnly = new HashSet<>();
+		try
+		{
+			for (PropertyDescriptor descriptor : Introspector.getBeanInfo(Asset.class, Object.class).getPropertyDescriptors())
+			{
+				if (!patchable.contains(descriptor.getName()))
+				{
+					readOnly.add(descriptor.getName());
+				}
+			}
+		}
+		catch (IntrospectionException e)
+		{
+			throw new IllegalStateException("Could not introspect " + Asset.class, e);
+		}
+		return Collections.unmodifiableSet(readOnly);
+	}
+
+	private static final class PatchableProperty
+	{
+		private final String 		name;
+		private final ValueType 	type;
+		private final MethodHandle 	setter;
+		private final boolean 		notNull;
+		private final boolean 		notEmpty;
+		private final boolean 		notBlank;
+		private final int 			minSize;
+		private final int 			maxSize;
+		private final boolean 		checkedByValidator;
+
+		private PatchableProperty(String name, ValueType type, MethodHandle setter, Field dtoField)
+		{
+			Size size 				= dtoField.getAnnotation(Size.class);
+
+			this.name 				= name;
+			this.type 				= type;
+			this.setter 			= setter;
+			this.notBlank 			= dtoField.isAnnotationPresent(NotBlank.class);
+			this.notEmpty 			= this.notBlank || dtoField.isAnnotationPresent(NotEmpty.class);
+			this.notNull 			= this.notEmpty || dtoField.isAnnotationPresent(NotNull.class);
+			this.minSize 			= size == null ? 0 				 : size.min();
+			this.maxSize 			= size == null ? Integer.MAX_VALUE : size.max();
+			this.checkedByValidator = hasOtherConstraints(dtoField);
+		}
+
+		private boolean accepts(Object value)
+		{
+			if (this.checkedByValidator || !this.type.isConvertible(value))
+			{
+				return false;
+			}
+			if (value == null)
+			{
+				return !this.notNull;
+			}
+			if (value instanceof CharSequence)
+			{
+				CharSequence text = (CharSequence) value;
+				return text.length() >= this.minSize && text.length() <= this.maxSize
+						&& !(this.notEmpty && text.length() == 0)
+						&& !(this.notBlank && text.toString().trim().isEmpty());
+			}
+			return true;
+		}
+
+		private void set(Asset target, Object value)
+		{
+			try
+			{
+				this.setter.invokeExact(target, this.type.convert(value));
+			}
+			catch (RuntimeException e)
+			{
+				throw e;
+			}
+			catch (Throwable e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private static boolean hasOtherConstraints(Field dtoField)
+		{
+			for (Annotation annotation : dtoField.getAnnotations())
+			{
+				Class<? extends Annotation> type = annotation.annotationType();
+				boolean evaluatedInline = type == NotNull.class || type == NotEmpty.class || type == NotBlank.class || type == Size.class;
+
+				if (!evaluatedInline && type.isAnnotationPresent(Constraint.class))
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * JSON value types a patch member can be converted from. JSON numbers arrive as Integer, Long, Double or BigDecimal
+	 * depending on their size, so numeric properties accept any {@link Number}.
+	 */
+	private enum ValueType
+	{
+		STRING	("string", 	String.class),
+		INTEGER	("integer", Integer.class),
+		LONG	("integer", Long.class),
+		BOOLEAN	("boolean", Boolean.class);
+
+		private final String 	name;
+		private final Class<?> 	javaType;
+
+		ValueType(String name, Class<?> javaType)
+		{
+			this.name 		= name;
+			this.javaType 	= javaType;
+		}
+
+		private static ValueType of(Class<?> propertyType)
+		{
+			for (ValueType type : values())
+			{
+				if (type.javaType == propertyType)
+				{
+					return type;
+				}
+			}
+			throw new IllegalStateException("Unsupported patchable property type " + propertyType);
+		}
+
+		private boolean isConvertible(Object value)
+		{
+			return value == null || this.javaType.isInstance(value) || (this.javaType != String.class && this.javaType != Boolean.class && value instanceof Number);
+		}
+
+		private Object convert(Object value)
+		{
+			if (value == null || this.javaType.isInstance(value))
+			{
+				return value;
+			}
+			return this == INTEGER ? Integer.valueOf(((Number) value).intValue()) : Long.valueOf(((Number) value).longValue());
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.company.assetmanagment.component.routing;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import com.company.assetmanagment.config.AssetProperties;
+
+/**
+ * Lets GET and HEAD requests read from the replicas, unless their client wrote shortly before.
+ * <p>
+ * Every other request runs on the primary and sets the {@value #COOKIE} cookie, holding the time until which the
+ * client's reads stay on the primary as well: {@code asset.replicas.read-your-writes}, which should cover the
+ * replication lag. Clients without a cookie store read from the replicas right away.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class ReadYourWritesFilter extends OncePerRequestFilter
+{
+	public static final String COOKIE = "asset-primary-until";
+
+	private final boolean 	enabled;
+	private final Duration 	readYourWrites;
+
+	public ReadYourWritesFilter(AssetProperties assetProperties)
+	{
+		this.enabled 		= !assetProperties.getReplicas().getInstances().isEmpty();
+		this.readYourWrites = assetProperties.getReplicas().getReadYourWrites();
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request)
+	{
+		return !this.enabled;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException
+	{
+		long now = System.currentTimeMillis();
+
+		if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod()))
+		{
+			Cookie cookie = new Cookie(COOKIE, Long.toString(now + this.readYourWrites.toMillis()));
+			cookie.setMaxAge	((int) Math.max(1, (this.readYourWrites.toMillis() + 999) / 1000));
+			cookie.setPath		(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+			cookie.setHttpOnly	(true);
+			response.addCookie(cookie);
+
+			filterChain.doFilter(request, response);
+		}
+		else if (wroteUntil(request) > now)
+		{
+			filterChain.doFilter(request, response);
+		}
+		else
+		{
+			ReplicaRouting.allow();
+			try
+			{
+				filterChain.doFilter(request, response);
+			}
+			finally
+			{
+				ReplicaRouting.clear();
+			}
+		}
+	}
+
+	private static long wroteUntil(HttpServletRequest request)
+	{
+		Cookie cookie = WebUtils.getCookie(request, COOKIE);
+		try
+		{
+			return cookie == null ? 0 : Long.parseLong(cookie.getValue());
+		}
+		catch (NumberFormatException e)
+		{
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.company.assetmanagment.component.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Whether the read-only transactions of the current thread may run on a replica. Only request threads allowed by
+ * {@link ReadYourWritesFilter} may; writes, background jobs and everything else stay on the primary.
+ */
+public final class ReplicaRouting
+{
+	private static final ThreadLocal<Boolean> ALLOWED = new ThreadLocal<>();
+
+	private ReplicaRouting()
+	{
+	}
+
+	public static boolean isAllowed()
+	{
+		return ALLOWED.get() != null;
+	}
+
+	/**
+	 * Runs the action on the primary even where replicas are allowed, for reads that must see every commit.
+	 */
+	public static <T> T onPrimary(Supplier<T> action)
+	{
+		Boolean allowed = ALLOWED.get();
+		ALLOWED.remove();
+		try
+		{
+			return action.get();
+		}
+		finally
+		{
+			if (allowed != null)
+			{
+				ALLOWED.set(allowed);
+			}
+		}
+	}
+
+	static void allow()
+	{
+		ALLOWED.set(Boolean.TRUE);
+	}
+
+	static void clear()
+	{
+		ALLOWED.remove();
+	}
+}
@@ -0,0 +1,172 @@
+package com.company.assetmanagment.component.routing;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Hands read-only transactions of threads that allow it (see {@link ReplicaRouting}) a connection of a healthy
+ * replica, round robin, and everything else one of the primary.
+ * <p>
+ * A replica whose connection fails is skipped until {@link #checkReplicas()} finds it healthy again; the read moves on
+ * to the next replica and, if none is left, to the primary. The route is taken when the connection is requested, so
+ * the transaction must be known by then: use this behind a {@link LazyConnectionDataSourceProxy}, which only fetches
+ * the connection for the first statement.
+ */
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable
+{
+	private static final String METRIC_PREFIX = "asset.replicas.";
+
+	private final HikariDataSource 	primary;
+	private final Counter 			primaryConnections;
+	private final List<Replica> 	replicas;
+	private final AtomicInteger 	next = new AtomicInteger();
+
+	public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, MeterRegistry meterRegistry)
+	{
+		this.primary 			= primary;
+		this.primaryConnections = connections(meterRegistry, "primary");
+		this.replicas 			= new ArrayList<>(replicas.size());
+		for (HikariDataSource replica : replicas)
+		{
+			this.replicas.add(new Replica(replica, connections(meterRegistry, replica.getPoolName())));
+		}
+
+		Gauge.builder(METRIC_PREFIX + "healthy", this.replicas, all -> all.stream().filter(replica -> replica.healthy).count())
+				.description("Replicas currently taking reads")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException
+	{
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && ReplicaRouting.isAllowed())
+		{
+			for (int i = 0; i < this.replicas.size(); i++)
+			{
+				Replica replica = this.replicas.get(Math.floorMod(this.next.getAndIncrement(), this.replicas.size()));
+				if (replica.healthy)
+				{
+					try
+					{
+						Connection connection = replica.dataSource.getConnection();
+						replica.connections.increment();
+						return connection;
+					}
+					catch (SQLException e)
+					{
+						replica.down(e);
+					}
+				}
+			}
+		}
+
+		Connection connection = this.primary.getConnection();
+		this.primaryConnections.increment();
+		return connection;
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException("Every pool of the replica routing has its own credentials.");
+	}
+
+	/**
+	 * Validates a connection of every replica and takes it out of or back into rotation accordingly.
+	 */
+	public void checkReplicas()
+	{
+		for (Replica replica : this.replicas)
+		{
+			try (Connection connection = replica.dataSource.getConnection())
+			{
+				if (connection.isValid((int) Math.max(1, replica.dataSource.getValidationTimeout() / 1000)))
+				{
+					replica.up();
+				}
+				else
+				{
+					replica.down(null);
+				}
+			}
+			catch (SQLException e)
+			{
+				replica.down(e);
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T unwrap(Class<T> iface) throws SQLException
+	{
+		return iface.isInstance(this) ? (T) this : this.primary.unwrap(iface);
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException
+	{
+		return iface.isInstance(this) || this.primary.isWrapperFor(iface);
+	}
+
+	@Override
+	public void close()
+	{
+		this.replicas.forEach(replica -> replica.dataSource.close());
+		this.primary.close();
+	}
+
+	private static Counter connections(MeterRegistry meterRegistry, String target)
+	{
+		return Counter.builder(METRIC_PREFIX + "connections").description("Connections handed out by the replica routing").tag("target", target).register(meterRegistry);
+	}
+
+	private static final class Replica
+	{
+		private final HikariDataSource 	dataSource;
+		private final Counter 			connections;
+
+		private volatile boolean 		healthy = true;
+
+		private Replica(HikariDataSource dataSource, Counter connections)
+		{
+			this.dataSource 	= dataSource;
+			this.connections 	= connections;
+		}
+
+		private void up()
+		{
+			if (!this.healthy)
+			{
+				this.healthy = true;
+				log.info("Replica {} is healthy again and takes reads", this.dataSource.getPoolName());
+			}
+		}
+
+		private void down(SQLException cause)
+		{
+			if (this.healthy)
+			{
+				this.healthy = false;
+				log.warn("Replica {} failed and takes no reads until its next successful health check", this.dataSource.getPoolName(), cause);
+			}
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package com.company.assetmanagment.component.routing;
+
+import java.sql.SQLException;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Read-only transactions that may run on a replica read from the second-level and query cache but don't fill them:
+ * rows of a lagging replica would otherwise be cached as current, past the invalidation of the write they miss.
+ */
+public class ReplicaRoutingJpaDialect extends HibernateJpaDialect
+{
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException
+	{
+		Object transactionData = super.beginTransaction(entityManager, definition);
+		if (definition.isReadOnly() && ReplicaRouting.isAllowed())
+		{
+			entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+		}
+		return transactionData;
+	}
+}
@@ -0,0 +1,747 @@
+package com.company.assetmanagment.component.search;
+
+import static com.company.assetmanagment.component.TransactionCallbacks.afterCommit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.repository.AssetRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * In-memory inverted index over asset names and descriptions.
+ * <p>
+ * Text is lower-cased and split into alphanumeric tokens of {@value #MIN_TOKEN_LENGTH} to {@value #MAX_TOKEN_LENGTH}
+ * characters. The term dictionary is sorted, so a query token matches every term it is a prefix of with a single range
+ * lookup; each term keeps the ids of its assets sorted, together with a term frequency in which name occurrences
+ * weigh {@value #NAME_WEIGHT} times as much as description occurrences. Queries match all of their tokens and are
+ * ranked by TF-IDF with a saturated term frequency, exact term matches scoring higher than prefix matches. A token
+ * that is a prefix of more than {@value #MAX_PREFIX_EXPANSION} terms is narrowed to its exact term and the terms with the
+ * most assets, so assets that only contain one of the rarest terms of a very short prefix are not found; such queries
+ * are counted by {@code asset.search.truncated}.
+ * <p>
+ * The index is built from the database once the application is ready and kept current by {@code AssetService} after
+ * each committed write. Writes to existing assets are version checked, so the initial scan can't undo a newer update.
+ * Its size is estimated as it changes and capped by {@code asset.search.max-memory}.
+ */
+@Log4j2
+@Component
+public class AssetSearchIndex
+{
+	static final int 	MIN_TOKEN_LENGTH 		= 2;
+	static final int 	MAX_TOKEN_LENGTH 		= 32;
+
+	private static final int 	MAX_QUERY_TOKENS 		= 16;
+	private static final int 	MAX_TERMS_PER_FIELD 	= 256;
+	private static final int 	MAX_PREFIX_EXPANSION 	= 256;
+	private static final int 	NAME_WEIGHT 			= 3;
+	private static final double PREFIX_MATCH_WEIGHT 	= 0.5;
+	private static final double TF_SATURATION 			= 1.2;
+
+	// Rough retained sizes on a 64-bit JVM with compressed oops, used for the memory estimate.
+	private static final long 	TERM_BYTES 				= 136;
+	private static final long 	POSTING_SLOT_BYTES 		= Long.BYTES + Short.BYTES;
+	private static final long 	DOCUMENT_BYTES 			= 128;
+	private static final long 	DOCUMENT_TERM_BYTES 	= Integer.BYTES + Short.BYTES;
+
+	private static final String METRIC_PREFIX = "asset.search.";
+
+	private final boolean 						enabled;
+	private final long 							maxMemory;
+	private final AssetRepository 				assetRepository;
+	private final TransactionTemplate 			readOnlyTransaction;
+	private final Counter 						rejected;
+	private final Counter 						truncated;
+
+	private final ReadWriteLock 				lock 					= new ReentrantReadWriteLock();
+	private final NavigableMap<String, Postings> terms 					= new TreeMap<>();
+	private final Map<Long, Document> 			documents 				= new HashMap<>();
+	private final Set<Long> 					removedWhileBuilding 	= new HashSet<>();
+	private boolean 							building;
+	private long 								estimatedBytes;
+
+	public AssetSearchIndex(AssetProperties assetProperties, AssetRepository assetRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry)
+	{
+		AssetProperties.Search config = assetProperties.getSearch();
+
+		this.enabled 				= config.isEnabled();
+		this.maxMemory 				= config.getMaxMemory().toBytes();
+		this.assetRepository 		= assetRepository;
+		this.readOnlyTransaction 	= new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+
+		this.rejected 	= Counter.builder(METRIC_PREFIX + "rejected").description("Assets not indexed because the index reached asset.search.max-memory").register(meterRegistry);
+		this.truncated 	= Counter.builder(METRIC_PREFIX + "truncated").description("Query tokens narrowed to the " + MAX_PREFIX_EXPANSION + " most common terms they are a prefix of").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + "documents", this, index -> index.read(index.documents::size)).register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + "terms", 	this, index -> index.read(index.terms::size)).register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + "memory", 	this, index -> index.read(() -> index.estimatedBytes)).baseUnit("bytes").description("Estimated heap retained by the search index").register(meterRegistry);
+	}
+
+	public boolean isEnabled()
+	{
+		return this.enabled;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void build()
+	{
+		if (!this.enabled)
+		{
+			return;
+		}
+
+		long start = System.nanoTime();
+		write(() -> this.building = true);
+		try
+		{
+			this.readOnlyTransaction.executeWithoutResult(status ->
+			{
+				try (Stream<Asset> assets = this.assetRepository.streamAllBy(Sort.by(Sort.Direction.ASC, "id")))
+				{
+					assets.forEach(asset ->
+					{
+						apply(asset.getId(), document(asset), true);
+						this.assetRepository.detach(asset);
+					});
+				}
+			});
+		}
+		finally
+		{
+			write(() ->
+			{
+				this.building = false;
+				this.removedWhileBuilding.clear();
+			});
+		}
+
+		log.info("Search index built in {} ms: {} assets, {} terms, ~{} KB", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), read(this.documents::size), read(this.terms::size), read(() -> this.estimatedBytes) / 1024);
+	}
+
+	/**
+	 * Indexes a new asset or replaces an older version of it once the current transaction commits.
+	 */
+	public void index(Asset asset)
+	{
+		if (this.enabled)
+		{
+			Long 		id 			= asset.getId();
+			Document 	document 	= document(asset);
+			afterCommit(() -> apply(id, document, false));
+		}
+	}
+
+	/**
+	 * Re-indexes the attributes an update has written, keeping the indexed terms of the others.
+	 */
+	public void update(Long id, int version, Map<String, Object> values)
+	{
+		if (!this.enabled || !(values.containsKey("name") || values.containsKey("description")))
+		{
+			return;
+		}
+
+		Field name 			= values.containsKey("name") 		? Field.of((String) values.get("name")) 		: null;
+		Field description 	= values.containsKey("description") ? Field.of((String) values.get("description")) 	: null;
+
+		afterCommit(() -> write(() ->
+		{
+			Document current = this.documents.get(id);
+			if (current != null && current.version < version)
+			{
+				replace(id, current, new Document(version, name != null ? name : current.name, description != null ? description : current.description));
+			}
+		}));
+	}
+
+	public void remove(Long id)
+	{
+		if (this.enabled)
+		{
+			afterCommit(() -> write(() ->
+			{
+				if (this.building)
+				{
+					this.removedWhileBuilding.add(id);
+				}
+				Document current = this.documents.get(id);
+				if (current != null)
+				{
+					replace(id, current, null);
+				}
+			}));
+		}
+	}
+
+	/**
+	 * Ids of the best matching assets, best first.
+	 */
+	public List<Long> search(String query, int limit)
+	{
+		List<String> tokens = Arrays.asList(Field.of(query).terms);
+		if (tokens.isEmpty() || limit <= 0)
+		{
+			return Collections.emptyList();
+		}
+
+		return read(() ->
+		{
+			List<TokenMatch> matches = new ArrayList<>();
+			for (String token : tokens.subList(0, Math.min(tokens.size(), MAX_QUERY_TOKENS)))
+			{
+				TokenMatch match = match(token);
+				if (match.postings.isEmpty())
+				{
+					return Collections.<Long>emptyList();
+				}
+				matches.add(match);
+			}
+			matches.sort(Comparator.comparingLong(match -> match.size));
+
+			if (matches.size() == 1 && matches.get(0).postings.size() == 1)
+			{
+				return top(matches.get(0).postings.get(0), limit);
+			}
+
+			return rank(matches, this.documents.size(), limit);
+		});
+	}
+
+	/**
+	 * Terms a token matches: its exact term and the terms it is a prefix of with the most assets, at most
+	 * {@value #MAX_PREFIX_EXPANSION} in all, picked with a bounded heap over the whole range.
+	 */
+	private TokenMatch match(String token)
+	{
+		Postings 				exact 		= this.terms.get(token);
+		TokenMatch 				match 		= new TokenMatch(exact);
+		int 					capacity 	= exact == null ? MAX_PREFIX_EXPANSION : MAX_PREFIX_EXPANSION - 1;
+		PriorityQueue<Postings> commonest 	= new PriorityQueue<>(capacity + 1, Comparator.comparingInt(postings -> postings.size));
+		int 					expansion 	= 0;
+
+		for (Postings postings : this.terms.subMap(token, false, token + Character.MAX_VALUE, false).values())
+		{
+			expansion++;
+			if (commonest.size() < capacity || postings.size > commonest.peek().size)
+			{
+				commonest.add(postings);
+				if (commonest.size() > capacity)
+				{
+					commonest.poll();
+				}
+			}
+		}
+		if (expansion > capacity)
+		{
+			this.truncated.increment();
+		}
+
+		if (exact != null)
+		{
+			commonest.add(exact);
+		}
+		for (Postings postings : commonest)
+		{
+			match.postings.add(postings);
+			match.size += postings.size;
+		}
+		return match;
+	}
+
+	/**
+	 * Scores the assets of the rarest token, probing the postings of the other tokens by binary search, and keeps the
+	 * best {@code limit} in a bounded heap.
+	 */
+	private static List<Long> rank(List<TokenMatch> matches, int documentCount, int limit)
+	{
+		PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1);
+
+		for (long id : matches.get(0).ids())
+		{
+			double score = 0;
+			for (TokenMatch match : matches)
+			{
+				double tokenScore = match.score(id, documentCount);
+				if (tokenScore == 0)
+				{
+					score = 0;
+					break;
+				}
+				score += tokenScore;
+			}
+
+			if (score > 0 && (best.size() < limit || score > best.peek().score))
+			{
+				best.add(new Hit(id, score));
+				if (best.size() > limit)
+				{
+					best.poll();
+				}
+			}
+		}
+
+		Long[] ids = new Long[best.size()];
+		for (int i = ids.length - 1; i >= 0; i--)
+		{
+			ids[i] = best.poll().id;
+		}
+		return Arrays.asList(ids);
+	}
+
+	/**
+	 * Single token matching a single term: rank straight from the postings without collecting scores per asset.
+	 */
+	private static List<Long> top(Postings postings, int limit)
+	{
+		PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, Comparator.<Integer>comparingInt(i -> postings.frequencies[i]).thenComparing(Comparator.reverseOrder()));
+
+		for (int i = 0; i < postings.size; i++)
+		{
+			if (best.size() < limit || postings.frequencies[i] > postings.frequencies[best.peek()])
+			{
+				best.add(i);
+				if (best.size() > limit)
+				{
+					best.poll();
+				}
+			}
+		}
+
+		Long[] ids = new Long[best.size()];
+		for (int i = ids.length - 1; i >= 0; i--)
+		{
+			ids[i] = postings.ids[best.poll()];
+		}
+		return Arrays.asList(ids);
+	}
+
+	private static double saturate(int frequency)
+	{
+		return frequency / (frequency + TF_SATURATION);
+	}
+
+	private void apply(Long id, Document document, boolean fromBuild)
+	{
+		write(() ->
+		{
+			if (fromBuild && this.removedWhileBuilding.contains(id))
+			{
+				return;
+			}
+
+			Document current = this.documents.get(id);
+			if (current != null && current.version >= document.version)
+			{
+				return;
+			}
+			if (current == null && this.estimatedBytes >= this.maxMemory)
+			{
+				this.rejected.increment();
+				log.warn("Search index is full (~{} bytes), asset {} is not indexed", this.estimatedBytes, id);
+				return;
+			}
+			replace(id, current, document);
+		});
+	}
+
+	private void replace(Long id, Document current, Document replacement)
+	{
+		if (current != null)
+		{
+			for (String term : current.frequencies().keySet())
+			{
+				Postings postings = this.terms.get(term);
+				this.estimatedBytes -= postings.remove(id) * POSTING_SLOT_BYTES;
+				if (postings.size == 0)
+				{
+					this.terms.remove(term);
+					this.estimatedBytes -= TERM_BYTES + (long) term.length() * Character.BYTES + postings.ids.length * POSTING_SLOT_BYTES;
+				}
+			}
+			this.documents.remove(id);
+			this.estimatedBytes -= current.estimatedBytes();
+		}
+
+		if (replacement != null)
+		{
+			for (Map.Entry<String, Integer> term : replacement.frequencies().entrySet())
+			{
+				Postings postings = this.terms.get(term.getKey());
+				if (postings == null)
+				{
+					postings = new Postings(term.getKey());
+					this.terms.put(term.getKey(), postings);
+					this.estimatedBytes += TERM_BYTES + (long) term.getKey().length() * Character.BYTES + postings.ids.length * POSTING_SLOT_BYTES;
+				}
+				this.estimatedBytes += postings.put(id, term.getValue()) * POSTING_SLOT_BYTES;
+			}
+			canonicalize(replacement.name);
+			canonicalize(replacement.description);
+			this.documents.put(id, replacement);
+			this.estimatedBytes += replacement.estimatedBytes();
+		}
+	}
+
+	/**
+	 * Points the terms of an indexed field at the dictionary's copy of each term, so every term is kept only once.
+	 */
+	private void canonicalize(Field field)
+	{
+		for (int i = 0; i < field.terms.length; i++)
+		{
+			field.terms[i] = this.terms.get(field.terms[i]).term;
+		}
+	}
+
+	private static Document document(Asset asset)
+	{
+		return new Document(asset.getVersion() == null ? 0 : asset.getVersion(), Field.of(asset.getName()), Field.of(asset.getDescription()));
+	}
+
+	private <T> T read(Supplier<T> action)
+	{
+		this.lock.readLock().lock();
+		try
+		{
+			return action.get();
+		}
+		finally
+		{
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private void write(Runnable action)
+	{
+		this.lock.writeLock().lock();
+		try
+		{
+			action.run();
+		}
+		finally
+		{
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Query token with the terms it matches, exactly or as a prefix.
+	 */
+	private static final class TokenMatch
+	{
+		private final Postings 			exact;
+		private final List<Postings> 	postings = new ArrayList<>();
+		private long 					size;
+		private int[] 					cursors;
+		private double[] 				weights;
+
+		private TokenMatch(Postings exact)
+		{
+			this.exact = exact;
+		}
+
+		private double weight(Postings candidate, int documentCount)
+		{
+			double idf = Math.log(1 + (double) documentCount / candidate.size);
+			return candidate == this.exact ? idf : idf * PREFIX_MATCH_WEIGHT;
+		}
+
+		/**
+		 * Score of the token for an asset. Must be called with ascending ids: each postings list keeps a cursor and
+		 * gallops forward from it, so scoring a sorted candidate list is a merge rather than random lookups.
+		 */
+		private double score(long id, int documentCount)
+		{
+			if (this.cursors == null)
+			{
+				this.cursors 	= new int[this.postings.size()];
+				this.weights 	= new double[this.postings.size()];
+				for (int i = 0; i < this.weights.length; i++)
+				{
+					this.weights[i] = weight(this.postings.get(i), documentCount);
+				}
+			}
+
+			double score = 0;
+			for (int i = 0; i < this.postings.size(); i++)
+			{
+				Postings 	candidate 	= this.postings.get(i);
+				int 		position 	= candidate.seek(id, this.cursors[i]);
+				if (position >= 0)
+				{
+					score 			+= this.weights[i] * saturate(candidate.frequencies[position]);
+					this.cursors[i] = position;
+				}
+				else
+				{
+					this.cursors[i] = -position - 1;
+				}
+			}
+			return score;
+		}
+
+		/**
+		 * Distinct ids of all assets matching the token, sorted.
+		 */
+		private long[] ids()
+		{
+			if (this.postings.size() == 1)
+			{
+				return Arrays.copyOf(this.postings.get(0).ids, this.postings.get(0).size);
+			}
+
+			long[] 	ids 	= new long[(int) this.size];
+			int 	offset 	= 0;
+			for (Postings candidate : this.postings)
+			{
+				System.arraycopy(candidate.ids, 0, ids, offset, candidate.size);
+				offset += candidate.size;
+			}
+			Arrays.sort(ids);
+
+			int distinct = 0;
+			for (int i = 0; i < ids.length; i++)
+			{
+				if (i == 0 || ids[i] != ids[i - 1])
+				{
+					ids[distinct++] = ids[i];
+				}
+			}
+			return Arrays.copyOf(ids, distinct);
+		}
+	}
+
+	/**
+	 * Ranked asset, ordered worst first: lower score, then higher id.
+	 */
+	private static final class Hit implements Comparable<Hit>
+	{
+		private final long 		id;
+		private final double 	score;
+
+		private Hit(long id, double score)
+		{
+			this.id 	= id;
+			this.score 	= score;
+		}
+
+		@Override
+		public int compareTo(Hit other)
+		{
+			int byScore = Double.compare(this.score, other.score);
+			return byScore != 0 ? byScore : Long.compare(other.id, this.id);
+		}
+	}
+
+	/**
+	 * Asset ids containing a term, sorted, with the weighted term frequency per asset. New assets get the highest ids,
+	 * so adding them appends.
+	 */
+	private static final class Postings
+	{
+		private static final int INITIAL_CAPACITY = 2;
+
+		private final String 	term;
+		private long[] 			ids 		= new long[INITIAL_CAPACITY];
+		private short[] 		frequencies = new short[INITIAL_CAPACITY];
+		private int 			size;
+
+		private Postings(String term)
+		{
+			this.term = term;
+		}
+
+		private int find(long id)
+		{
+			return Arrays.binarySearch(this.ids, 0, this.size, id);
+		}
+
+		/**
+		 * Like {@link #find(long)} for an id not below {@code ids[from]}: exponential search forward from {@code from}.
+		 */
+		private int seek(long id, int from)
+		{
+			int step = 1;
+			while (from + step < this.size && this.ids[from + step] < id)
+			{
+				step <<= 1;
+			}
+			return Arrays.binarySearch(this.ids, Math.min(from + (step >> 1), this.size), Math.min(from + step + 1, this.size), id);
+		}
+
+		/**
+		 * @return number of slots the postings grew by
+		 */
+		private int put(long id, int frequency)
+		{
+			int position = find(id);
+			if (position >= 0)
+			{
+				this.frequencies[position] = (short) Math.min(frequency, Short.MAX_VALUE);
+				return 0;
+			}
+
+			int grown = 0;
+			if (this.size == this.ids.length)
+			{
+				grown 				= this.ids.length;
+				this.ids 			= Arrays.copyOf(this.ids, this.ids.length * 2);
+				this.frequencies 	= Arrays.copyOf(this.frequencies, this.ids.length);
+			}
+
+			position = -position - 1;
+			System.arraycopy(this.ids, 		   position, this.ids, 		   position + 1, this.size - position);
+			System.arraycopy(this.frequencies, position, this.frequencies, position + 1, this.size - position);
+			this.ids[position] 			= id;
+			this.frequencies[position] 	= (short) Math.min(frequency, Short.MAX_VALUE);
+			this.size++;
+
+			return grown;
+		}
+
+		/**
+		 * @return number of slots the postings shrank by
+		 */
+		private int remove(long id)
+		{
+			int position = find(id);
+			if (position < 0)
+			{
+				return 0;
+			}
+
+			System.arraycopy(this.ids, 		   position + 1, this.ids, 		   position, this.size - position - 1);
+			System.arraycopy(this.frequencies, position + 1, this.frequencies, position, this.size - position - 1);
+			this.size--;
+
+			if (this.size > INITIAL_CAPACITY && this.size < this.ids.length / 4)
+			{
+				int shrunk 			= this.ids.length / 2;
+				this.ids 			= Arrays.copyOf(this.ids, this.ids.length / 2);
+				this.frequencies 	= Arrays.copyOf(this.frequencies, this.ids.length);
+				return shrunk;
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * Indexed version of an asset with the terms of its name and description.
+	 */
+	private static final class Document
+	{
+		private final int 	version;
+		private final Field name;
+		private final Field description;
+
+		private Document(int version, Field name, Field description)
+		{
+			this.version 		= version;
+			this.name 			= name;
+			this.description 	= description;
+		}
+
+		private Map<String, Integer> frequencies()
+		{
+			Map<String, Integer> frequencies = new HashMap<>();
+			for (int i = 0; i < this.description.terms.length; i++)
+			{
+				frequencies.merge(this.description.terms[i], (int) this.description.counts[i], Integer::sum);
+			}
+			for (int i = 0; i < this.name.terms.length; i++)
+			{
+				frequencies.merge(this.name.terms[i], this.name.counts[i] * NAME_WEIGHT, Integer::sum);
+			}
+			return frequencies;
+		}
+
+		private long estimatedBytes()
+		{
+			return DOCUMENT_BYTES + (this.name.terms.length + this.description.terms.length) * DOCUMENT_TERM_BYTES;
+		}
+	}
+
+	/**
+	 * Distinct terms of one text attribute with their number of occurrences.
+	 */
+	static final class Field
+	{
+		private static final Field EMPTY = new Field(new String[0], new short[0]);
+
+		private final String[] 	terms;
+		private final short[] 	counts;
+
+		private Field(String[] terms, short[] counts)
+		{
+			this.terms 	= terms;
+			this.counts = counts;
+		}
+
+		static Field of(String text)
+		{
+			if (text == null || text.isEmpty())
+			{
+				return EMPTY;
+			}
+
+			Map<String, Integer> 	occurrences = new LinkedHashMap<>();
+			String 					lower 		= text.toLowerCase(Locale.ROOT);
+			int 					start 		= -1;
+
+			for (int i = 0; i <= lower.length() && occurrences.size() < MAX_TERMS_PER_FIELD; i++)
+			{
+				boolean tokenChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+				if (tokenChar && start < 0)
+				{
+					start = i;
+				}
+				else if (!tokenChar && start >= 0)
+				{
+					if (i - start >= MIN_TOKEN_LENGTH)
+					{
+						occurrences.merge(lower.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)), 1, Integer::sum);
+					}
+					start = -1;
+				}
+			}
+
+			String[] 	terms 	= occurrences.keySet().toArray(new String[0]);
+			short[] 	counts 	= new short[terms.length];
+			for (int i = 0; i < terms.length; i++)
+			{
+				counts[i] = (short) Math.min(occurrences.get(terms[i]), Short.MAX_VALUE);
+			}
+			return new Field(terms, counts);
+		}
+	}
+}
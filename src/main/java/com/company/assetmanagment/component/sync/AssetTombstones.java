@@ -0,0 +1,58 @@
+package com.company.assetmanagment.component.sync;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.repository.AssetTombstoneRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Retention of the tombstones of deleted assets.
+ * <p>
+ * Tombstones older than {@code asset.sync.tombstone-retention} are purged every {@code asset.sync.purge-interval}. A
+ * client whose watermark is older than the retention may have missed deletes and has to sync from scratch.
+ */
+@Log4j2
+@Component
+public class AssetTombstones
+{
+	private static final String METRIC_PREFIX = "asset.sync.";
+
+	private final Duration 					retention;
+	private final AssetTombstoneRepository 	tombstoneRepository;
+	private final Counter 					purged;
+
+	public AssetTombstones(AssetProperties assetProperties, AssetTombstoneRepository tombstoneRepository, MeterRegistry meterRegistry)
+	{
+		this.retention 				= assetProperties.getSync().getTombstoneRetention();
+		this.tombstoneRepository 	= tombstoneRepository;
+
+		this.purged = Counter.builder(METRIC_PREFIX + "tombstones.purged").description("Tombstones of deleted assets removed after the retention").register(meterRegistry);
+	}
+
+	/**
+	 * Oldest watermark for which every delete is still known at {@code now}.
+	 */
+	public Date horizon(Date now)
+	{
+		return new Date(now.getTime() - this.retention.toMillis());
+	}
+
+	@Scheduled(fixedDelayString = "${asset.sync.purge-interval:PT1H}", initialDelayString = "${asset.sync.purge-interval:PT1H}")
+	public void purge()
+	{
+		int removed = this.tombstoneRepository.deleteDeletedBefore(horizon(new Date()));
+		if (removed > 0)
+		{
+			this.purged.increment(removed);
+			log.info("Purged {} expired asset tombstones", removed);
+		}
+	}
+}
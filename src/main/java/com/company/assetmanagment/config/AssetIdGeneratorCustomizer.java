@@ -0,0 +1,31 @@
+package com.company.assetmanagment.config;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.repository.id.BlockSequenceIdGenerator;
+
+/**
+ * Hands the {@code asset.id.*} properties to the {@link BlockSequenceIdGenerator}, which Hibernate instantiates itself.
+ */
+@Component
+public class AssetIdGeneratorCustomizer implements HibernatePropertiesCustomizer
+{
+	private final AssetProperties.Id id;
+
+	public AssetIdGeneratorCustomizer(AssetProperties assetProperties)
+	{
+		this.id = assetProperties.getId();
+	}
+
+	@Override
+	public void customize(Map<String, Object> hibernateProperties)
+	{
+		hibernateProperties.put(BlockSequenceIdGenerator.SEQUENCE_NAME_SETTING, 	id.getSequenceName());
+		hibernateProperties.put(BlockSequenceIdGenerator.BLOCK_SIZE_SETTING, 		id.getBlockSize());
+		hibernateProperties.put(BlockSequenceIdGenerator.OPTIMIZER_SETTING, 		id.getOptimizer());
+		hibernateProperties.put(BlockSequenceIdGenerator.INITIAL_VALUE_SETTING, 	id.getInitialValue());
+	}
+}
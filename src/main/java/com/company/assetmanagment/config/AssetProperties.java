@@ -0,0 +1,341 @@
+package com.company.assetmanagment.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Tuning knobs of the asset API, bound from the {@code asset.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "asset")
+public class AssetProperties
+{
+	private final Bulk 	bulk 	= new Bulk();
+	
+	private final Id 	id 		= new Id();
+	
+	private final Cache cache 	= new Cache();
+	
+	private final ResponseCache responseCache = new ResponseCache();
+	
+	private final SecondLevelCache secondLevelCache = new SecondLevelCache();
+	
+	private final Search search = new Search();
+	
+	private final Counters counters = new Counters();
+	
+	private final RequestLog requestLog = new RequestLog();
+	
+	private final Ingest ingest = new Ingest();
+	
+	private final Feed 	feed 	= new Feed();
+	
+	private final Sync 	sync 	= new Sync();
+	
+	private final Generator generator = new Generator();
+	
+	private final Replicas replicas = new Replicas();
+
+	@Getter
+	@Setter
+	public static class Bulk
+	{
+		/** Number of inserts sent to the database in one JDBC batch. Also used as hibernate.jdbc.batch_size. */
+		private int batchSize 	= 50;
+
+		/** Maximum number of assets accepted by a single bulk request. */
+		private int maxItems 	= 10000;
+	}
+
+	@Getter
+	@Setter
+	public static class Id
+	{
+		/** Database sequence the id blocks are reserved from. */
+		private String 	sequenceName 	= "asset_seq";
+
+		/**
+		 * Number of ids reserved per sequence call. For the pooled optimizers it must match the INCREMENT BY of the
+		 * sequence.
+		 */
+		private int 	blockSize 		= 50;
+
+		/**
+		 * Hibernate optimizer: pooled (the sequence value is the last id of a block), pooled-lo (the first id of a block)
+		 * or hilo (the sequence value times the block size, on a sequence incrementing by 1). Moving from pooled to
+		 * pooled-lo is safe on a populated table, the opposite direction is not. Startup rejects an existing sequence
+		 * whose increment doesn't fit the optimizer or that is behind the ids in the table.
+		 */
+		private String 	optimizer 		= "pooled";
+
+		/** Start value used when the sequence is created by the schema generation, e.g. above the highest existing id. */
+		private long 	initialValue 	= 1;
+	}
+
+	@Getter
+	@Setter
+	public static class Cache
+	{
+		/** Serve getById from the in-process asset cache. */
+		private boolean 	enabled 			= true;
+
+		/** Maximum number of cached assets. */
+		private long 		maximumSize 		= 10000;
+
+		/** Time after which a cached asset is reloaded from the database. */
+		private Duration 	expireAfterWrite 	= Duration.ofMinutes(10);
+	}
+
+	@Getter
+	@Setter
+	public static class ResponseCache
+	{
+		/** Serve getAsset from response bodies encoded once per asset version and content type. */
+		private boolean 	enabled 			= true;
+
+		/** Upper bound of the total size of the cached bodies. */
+		private DataSize 	maxSize 			= DataSize.ofMegabytes(64);
+
+		/**
+		 * Keep the bodies in direct buffers outside the heap. Evicted buffers are only freed once the garbage collector
+		 * collects them, so the native memory is not bounded by max-size; cap it with -XX:MaxDirectMemorySize.
+		 */
+		private boolean 	offHeap 			= false;
+
+		/** Time after which a body nobody asked for is dropped. */
+		private Duration 	expireAfterAccess 	= Duration.ofHours(1);
+	}
+
+	@Getter
+	@Setter
+	public static class SecondLevelCache
+	{
+		/**
+		 * Cache the ids the sorted and filtered asset queries return in the Hibernate query cache. The assets of the
+		 * ids are taken from the asset cache, those missing there are read with one query.
+		 */
+		private boolean 	enabled 					= true;
+
+		/** Maximum number of cached query results. */
+		private long 		queryMaximumSize 			= 1000;
+
+		/** Time after which a cached query result is discarded. */
+		private Duration 	queryExpireAfterWrite 		= Duration.ofMinutes(10);
+
+		/**
+		 * Poll the database for assets written by other instances or outside of Hibernate, and evict them. Writes
+		 * through Hibernate on this instance are invalidated on commit either way.
+		 */
+		private boolean 	clusterSync 				= true;
+
+		/** Delay between two polls, in ISO-8601 as @Scheduled reads it too. Bounds how long other instances serve a changed asset. */
+		private Duration 	clusterSyncInterval 		= Duration.ofSeconds(5);
+	}
+
+	@Getter
+	@Setter
+	public static class Search
+	{
+		/** Keep the in-memory full-text index over asset names and descriptions and serve /search from it. */
+		private boolean 	enabled 		= true;
+
+		/**
+		 * Upper bound of the estimated index size. Once reached, new assets are no longer indexed (existing ones are
+		 * still updated and removed) until deletes make room again.
+		 */
+		private DataSize 	maxMemory 		= DataSize.ofMegabytes(512);
+
+		/** Maximum number of hits a single search returns. */
+		private int 		maxResults 		= 100;
+	}
+
+	@Getter
+	@Setter
+	public static class Counters
+	{
+		/** Keep in-memory asset counts per type and creation day and serve /aggregates from them. */
+		private boolean 	enabled 			= true;
+
+		/** Delay between two reconciliations of the counters with the database, in ISO-8601 as @Scheduled reads it too. */
+		private Duration 	reconcileInterval 	= Duration.ofMinutes(10);
+	}
+
+	@Getter
+	@Setter
+	public static class RequestLog
+	{
+		/** Write one line per request with method, path, status, latency and row count to the asset.requests logger. */
+		private boolean 	enabled 	= true;
+
+		/** Share of the successful requests that are logged, from 0 to 1. Failed requests (status 400 and above) are always logged. */
+		private double 		sampleRate 	= 1.0;
+	}
+
+	@Getter
+	@Setter
+	public static class Ingest
+	{
+		/** Accept assets with Prefer: respond-async and insert them in the background. */
+		private boolean 	enabled 			= true;
+
+		/** Maximum number of accepted assets waiting to be inserted. Further ones are answered with 429. */
+		private int 		capacity 			= 10000;
+
+		/** Maximum number of assets inserted in one transaction. */
+		private int 		batchSize 			= 500;
+
+		/** Time the writer waits for a batch to fill up before inserting what it has. */
+		private Duration 	maxDelay 			= Duration.ofMillis(200);
+
+		/** File accepted assets are journaled to until inserted, and replayed from after a crash. */
+		private String 		journal 			= "asset-ingest.journal";
+
+		/** Force the journal to disk on every accepted asset, which survives a power loss but costs a disk flush. */
+		private boolean 	fsync 				= false;
+
+		/** Time the status of an accepted asset can be looked up. */
+		private Duration 	statusRetention 	= Duration.ofHours(1);
+
+		/** Maximum number of statuses kept for lookup. */
+		private long 		statusMaximumSize 	= 100000;
+	}
+
+	@Getter
+	@Setter
+	public static class Feed
+	{
+		/** Publish committed creates, updates and deletes on the /changes Server-Sent Events stream. */
+		private boolean 	enabled 		= true;
+
+		/** Number of most recent changes kept for subscribers resuming with Last-Event-ID. */
+		private int 		bufferSize 		= 10000;
+
+		/** Maximum number of changes sent to one subscriber in one go. */
+		private int 		batchSize 		= 100;
+
+		/** Threads writing changes to the subscribers. */
+		private int 		sendThreads 	= 8;
+
+		/** Idle time after which a comment is sent, which keeps proxies from closing the stream and detects gone clients. */
+		private Duration 	heartbeat 		= Duration.ofSeconds(15);
+	}
+
+	@Getter
+	@Setter
+	public static class Sync
+	{
+		/** Time the ids of deleted assets are kept for /sync. An older modifiedSince is answered with 410. */
+		private Duration 	tombstoneRetention 	= Duration.ofDays(30);
+
+		/** Delay between two purges of expired tombstones, in ISO-8601 as @Scheduled reads it too. */
+		private Duration 	purgeInterval 		= Duration.ofHours(1);
+
+		/**
+		 * Changes younger than this are left to the next sync. A write stamps updatedOn before it commits, so without
+		 * the lag a sync could move the watermark past a write that becomes visible only afterwards.
+		 */
+		private Duration 	commitLag 			= Duration.ofSeconds(2);
+	}
+
+	@Getter
+	@Setter
+	public static class Generator
+	{
+		/** Number of assets the dev profile generates at startup, 0 for none. Tens of millions need an H2 file database or a large heap. */
+		private long 				rows 				= 99;
+
+		/** Seed of the generated values. Runs with the same seed and settings insert the same assets, apart from their ids. */
+		private long 				seed 				= 42;
+
+		/** Parallel writers, each with its own connection. */
+		private int 				threads 			= Runtime.getRuntime().availableProcessors();
+
+		/** Assets inserted per JDBC batch and transaction. */
+		private int 				batchSize 			= 1000;
+
+		/** Relative weight of each generated type, e.g. asset.generator.types.Pump=5. Without any, five types 0 to 4 are equally likely. */
+		private Map<String, Integer> types 				= new LinkedHashMap<>();
+
+		/** Length of the generated names, in characters. */
+		private final Length 		nameLength 			= new Length(3, 64, 16, 6);
+
+		/** Length of the generated descriptions, in characters. */
+		private final Length 		descriptionLength 	= new Length(3, 1024, 120, 60);
+
+		/** Latest creation time, by default the start of the run. Set it for runs that are reproducible to the millisecond. */
+		private Instant 			createdUntil;
+
+		/** Creation times are spread evenly over this period before created-until. */
+		private Duration 			createdSpread 		= Duration.ofDays(365);
+
+		/** Interval of the progress log lines. */
+		private Duration 			reportInterval 		= Duration.ofSeconds(10);
+	}
+
+	/**
+	 * Normal distribution of a string length, cut to the given bounds.
+	 */
+	@Getter
+	@Setter
+	public static class Replicas
+	{
+		/**
+		 * Read replicas of the database, e.g. asset.replicas.instances[0].url. Read-only transactions of GET requests
+		 * are balanced over the healthy ones; without any, everything runs on the primary.
+		 */
+		private final List<Replica> instances 			= new ArrayList<>();
+
+		/** Maximum number of connections of each replica. */
+		private int 				maximumPoolSize 	= 10;
+
+		/** Longest wait for a replica connection, after which the read falls back to the primary. */
+		private Duration 			connectionTimeout 	= Duration.ofSeconds(1);
+
+		/** Delay between two health checks of the replicas, in ISO-8601 as @Scheduled reads it too. */
+		private Duration 			healthCheckInterval = Duration.ofSeconds(5);
+
+		/** Time a client reads from the primary after a write, so it sees its own writes despite the replication lag. */
+		private Duration 			readYourWrites 		= Duration.ofSeconds(5);
+	}
+
+	@Getter
+	@Setter
+	public static class Replica
+	{
+		private String url;
+
+		/** Defaults to spring.datasource.username. */
+		private String username;
+
+		/** Defaults to spring.datasource.password. */
+		private String password;
+	}
+
+	@Getter
+	@Setter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Length
+	{
+		private int 	min;
+
+		private int 	max;
+
+		private double 	mean;
+
+		private double 	stddev;
+	}
+}
@@ -0,0 +1,144 @@
+package com.company.assetmanagment.config;
+
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+
+import com.company.assetmanagment.component.codec.AssetProtobuf;
+import com.company.assetmanagment.component.codec.AssetProtobufEncoder;
+import com.company.assetmanagment.component.codec.AssetProtobufHttpMessageConverter;
+import com.company.assetmanagment.component.codec.ByteBufferHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * CBOR, Smile and protobuf representations next to JSON, for service-to-service clients that negotiate them with
+ * {@code Accept}. The CBOR and Smile mappers are built from the Spring Boot configured builder like the JSON one, but
+ * write dates as epoch milliseconds, as protobuf does. Spring MVC can also write bodies that were encoded before, like
+ * those of the {@code AssetResponseCache}.
+ */
+@Configuration
+public class CodecConfiguration
+{
+	public static final String SMILE_VALUE = "application/x-jackson-smile";
+	
+	@Bean
+	public AssetProtobuf assetProtobuf()
+	{
+		return new AssetProtobuf();
+	}
+	
+	private static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, CBORFactory factory)
+	{
+		return builder.factory(factory).featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+	}
+	
+	private static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, SmileFactory factory)
+	{
+		return builder.factory(factory).featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+	}
+	
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnWebApplication(type = Type.SERVLET)
+	static class ServletCodecs
+	{
+		@Bean
+		public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder)
+		{
+			return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory()));
+		}
+		
+		@Bean
+		public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder)
+		{
+			return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, new SmileFactory()));
+		}
+		
+		@Bean
+		public AssetProtobufHttpMessageConverter protobufHttpMessageConverter(AssetProtobuf assetProtobuf)
+		{
+			return new AssetProtobufHttpMessageConverter(assetProtobuf);
+		}
+		
+		@Bean
+		public ByteBufferHttpMessageConverter byteBufferHttpMessageConverter()
+		{
+			return new ByteBufferHttpMessageConverter();
+		}
+	}
+	
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnWebApplication(type = Type.REACTIVE)
+	static class ReactiveCodecs
+	{
+		@Bean
+		public CodecCustomizer binaryCodecCustomizer(Jackson2ObjectMapperBuilder builder, AssetProtobuf assetProtobuf)
+		{
+			ObjectMapper cbor 		= binaryMapper(builder, new CBORFactory());
+			ObjectMapper smile 		= binaryMapper(builder, new SmileFactory());
+			MimeType 	 smileType 	= MimeType.valueOf(SMILE_VALUE);
+			
+			// without explicit mime types these codecs would claim the JSON ones
+			
+			return configurer ->
+			{
+				configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, smileType));
+				configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, smileType));
+				configurer.customCodecs().registerWithDefaultConfig(new ExplicitCborEncoder(cbor));
+				configurer.customCodecs().registerWithDefaultConfig(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+				configurer.customCodecs().registerWithDefaultConfig(new AssetProtobufEncoder(assetProtobuf));
+			};
+		}
+	}
+	
+	/**
+	 * Custom codecs are asked before the JSON default, so CBOR only takes the responses whose content type was set to
+	 * it explicitly instead of every one without a content type. The CBOR encoder of Spring refuses any publisher, this
+	 * one encodes single values.
+	 */
+	private static final class ExplicitCborEncoder extends Jackson2CborEncoder
+	{
+		ExplicitCborEncoder(ObjectMapper mapper)
+		{
+			super(mapper, MediaType.APPLICATION_CBOR);
+		}
+		
+		@Override
+		public boolean canEncode(ResolvableType elementType, MimeType mimeType)
+		{
+			return mimeType != null && super.canEncode(elementType, mimeType);
+		}
+		
+		@Override
+		public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints)
+		{
+			if (!(inputStream instanceof Mono))
+			{
+				return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+			}
+			return Mono.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+		}
+	}
+}
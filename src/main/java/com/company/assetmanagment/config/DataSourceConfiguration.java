@@ -0,0 +1,132 @@
+package com.company.assetmanagment.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaVendorAdapter;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import com.company.assetmanagment.component.routing.ReplicaRoutingDataSource;
+import com.company.assetmanagment.component.routing.ReplicaRoutingJpaDialect;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The JDBC {@code DataSource}: the Hikari pool of {@code spring.datasource.*} and, with {@code asset.replicas.instances},
+ * a pool per replica behind a {@link ReplicaRoutingDataSource}.
+ * <p>
+ * Either way it is exposed through a {@link LazyConnectionDataSourceProxy}. The routing needs it to see the
+ * transaction, and read-only transactions that never reach a statement, e.g. on a cache hit, don't take a connection
+ * at all.
+ */
+@Configuration
+public class DataSourceConfiguration implements DisposableBean
+{
+	private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+
+	private HikariDataSource 			primary;
+	private ReplicaRoutingDataSource 	routing;
+
+	@Bean
+	public DataSource dataSource(DataSourceProperties properties, AssetProperties assetProperties, Environment environment, MeterRegistry meterRegistry)
+	{
+		this.primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		if (StringUtils.hasText(properties.getName()))
+		{
+			this.primary.setPoolName(properties.getName());
+		}
+		Binder.get(environment).bind(HIKARI_PROPERTIES, Bindable.ofInstance(this.primary));
+
+		AssetProperties.Replicas config = assetProperties.getReplicas();
+		if (config.getInstances().isEmpty())
+		{
+			return new LazyConnectionDataSourceProxy(this.primary);
+		}
+
+		List<HikariDataSource> replicas = new ArrayList<>(config.getInstances().size());
+		for (AssetProperties.Replica instance : config.getInstances())
+		{
+			HikariDataSource replica = new HikariDataSource();
+			replica.setPoolName				("replica-" + (replicas.size() + 1));
+			replica.setJdbcUrl				(instance.getUrl());
+			replica.setDriverClassName		(this.primary.getDriverClassName());
+			replica.setUsername				(instance.getUsername() != null ? instance.getUsername() : this.primary.getUsername());
+			replica.setPassword				(instance.getPassword() != null ? instance.getPassword() : this.primary.getPassword());
+			replica.setMaximumPoolSize		(config.getMaximumPoolSize());
+			replica.setConnectionTimeout	(config.getConnectionTimeout().toMillis());
+			replica.setReadOnly				(true);
+			replica.setMetricRegistry		(meterRegistry);
+			replicas.add(replica);
+		}
+		this.routing = new ReplicaRoutingDataSource(this.primary, replicas, meterRegistry);
+
+		return new LazyConnectionDataSourceProxy(this.routing);
+	}
+
+	/**
+	 * Boot's adapter, with a dialect that keeps reads from the replicas out of the second-level cache.
+	 */
+	@Bean
+	public JpaVendorAdapter jpaVendorAdapter(JpaProperties properties)
+	{
+		HibernateJpaDialect 		dialect = new ReplicaRoutingJpaDialect();
+		HibernateJpaVendorAdapter 	adapter = new HibernateJpaVendorAdapter()
+		{
+			@Override
+			public HibernateJpaDialect getJpaDialect()
+			{
+				return dialect;
+			}
+		};
+
+		adapter.setShowSql(properties.isShowSql());
+		if (properties.getDatabase() != null)
+		{
+			adapter.setDatabase(properties.getDatabase());
+		}
+		if (properties.getDatabasePlatform() != null)
+		{
+			adapter.setDatabasePlatform(properties.getDatabasePlatform());
+		}
+		adapter.setGenerateDdl(properties.isGenerateDdl());
+
+		return adapter;
+	}
+
+	@Scheduled(fixedDelayString = "${asset.replicas.health-check-interval:PT5S}", initialDelayString = "${asset.replicas.health-check-interval:PT5S}")
+	public void checkReplicas()
+	{
+		if (this.routing != null)
+		{
+			this.routing.checkReplicas();
+		}
+	}
+
+	@Override
+	public void destroy()
+	{
+		if (this.routing != null)
+		{
+			this.routing.close();
+		}
+		else if (this.primary != null)
+		{
+			this.primary.close();
+		}
+	}
+}
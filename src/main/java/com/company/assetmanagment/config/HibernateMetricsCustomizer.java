@@ -0,0 +1,27 @@
+package com.company.assetmanagment.config;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import com.company.assetmanagment.component.metrics.HibernateSessionMetrics;
+
+/**
+ * Registers {@link HibernateSessionMetrics} for every session and the listener counting its entity loads.
+ */
+@Component
+public class HibernateMetricsCustomizer implements HibernatePropertiesCustomizer
+{
+	static final String SESSION_LISTENERS_SETTING 	= "hibernate.session.events.auto";
+	static final String INTEGRATOR_PROVIDER_SETTING = "hibernate.integrator_provider";
+
+	@Override
+	public void customize(Map<String, Object> hibernateProperties)
+	{
+		hibernateProperties.put(SESSION_LISTENERS_SETTING, 		HibernateSessionMetrics.class.getName());
+		hibernateProperties.put(INTEGRATOR_PROVIDER_SETTING, 	(IntegratorProvider) () -> Collections.singletonList(HibernateSessionMetrics.INTEGRATOR));
+	}
+}
@@ -0,0 +1,20 @@
+package com.company.assetmanagment.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Times the methods annotated with {@link io.micrometer.core.annotation.Timed}, the service layer in particular.
+ */
+@Configuration
+public class MetricsConfiguration
+{
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry meterRegistry)
+	{
+		return new TimedAspect(meterRegistry);
+	}
+}
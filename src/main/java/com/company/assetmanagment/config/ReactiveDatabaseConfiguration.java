@@ -0,0 +1,62 @@
+package com.company.assetmanagment.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+
+/**
+ * R2DBC connection pool of the reactive stack, configured with the {@code spring.r2dbc.*} properties.
+ * <p>
+ * JPA keeps running next to it for the schema, the cache, the search index and the counters. The pool is therefore
+ * not exposed as a {@code ConnectionFactory} bean, which would turn off the JDBC {@code DataSource}, and its
+ * transaction manager is only used by the {@link TransactionalOperator}, so {@code @Transactional} still finds the JPA
+ * one.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveDatabaseConfiguration implements DisposableBean
+{
+	private final ConnectionPool pool;
+
+	public ReactiveDatabaseConfiguration(R2dbcProperties properties)
+	{
+		this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactoryBuilder.withUrl(properties.getUrl())
+																									.username(properties.getUsername())
+																									.password(properties.getPassword())
+																									.build())
+																	.initialSize(properties.getPool().getInitialSize())
+																	.maxSize	(properties.getPool().getMaxSize())
+																	.maxIdleTime(properties.getPool().getMaxIdleTime())
+																	.build());
+	}
+
+	@Bean
+	public DatabaseClient databaseClient()
+	{
+		return DatabaseClient.create(this.pool);
+	}
+
+	@Bean
+	public TransactionalOperator reactiveTransactionalOperator()
+	{
+		return TransactionalOperator.create(new R2dbcTransactionManager(this.pool));
+	}
+
+	@Override
+	public void destroy()
+	{
+		this.pool.dispose();
+	}
+}
@@ -0,0 +1,95 @@
+package com.company.assetmanagment.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Query cache of Hibernate, in Caffeine behind JCache, sized and expired with the {@code asset.second-level-cache.*}
+ * properties. It only holds ids: no entity region is created, the assets are cached by {@code AssetCache} alone, which
+ * evicts them one by one instead of losing all of them to every bulk {@code UPDATE} or {@code DELETE}.
+ * <p>
+ * The regions are created here and handed to Hibernate in a cache manager of this context, and Hibernate fails on any
+ * other region instead of creating it unbounded. The update timestamps region is neither bounded nor expired: a query
+ * result whose table has no timestamp is taken as up to date. It only holds one entry per table.
+ * <p>
+ * Hit and miss counts per region are published by Hibernate's statistics as
+ * {@code hibernate.second.level.cache.requests}, see {@code SecondLevelCacheInvalidator} for the hit ratios.
+ */
+@Component
+public class SecondLevelCacheCustomizer implements HibernatePropertiesCustomizer, DisposableBean
+{
+	private final boolean 		enabled;
+	private final CacheManager 	cacheManager;
+
+	public SecondLevelCacheCustomizer(AssetProperties assetProperties)
+	{
+		AssetProperties.SecondLevelCache config = assetProperties.getSecondLevelCache();
+
+		this.enabled = config.isEnabled();
+		if (this.enabled)
+		{
+			// a URI of its own, the provider would hand every context in the JVM the same manager otherwise
+			this.cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+			createRegion(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, 	config.getQueryMaximumSize(), 	config.getQueryExpireAfterWrite());
+			createRegion(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, null, 						null);
+		}
+		else
+		{
+			this.cacheManager = null;
+		}
+	}
+
+	@Override
+	public void customize(Map<String, Object> hibernateProperties)
+	{
+		hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, 	this.enabled);
+		hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, 			this.enabled);
+		if (this.enabled)
+		{
+			hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, 	ConfigSettings.SIMPLE_FACTORY_NAME);
+			hibernateProperties.put(ConfigSettings.CACHE_MANAGER, 				this.cacheManager);
+			hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, 		MissingCacheStrategy.FAIL.getExternalRepresentation());
+		}
+	}
+
+	@Override
+	public void destroy()
+	{
+		if (this.cacheManager != null)
+		{
+			this.cacheManager.close();
+		}
+	}
+
+	private void createRegion(String name, Long maximumSize, Duration expireAfterWrite)
+	{
+		CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+		if (maximumSize != null)
+		{
+			configuration.setMaximumSize(OptionalLong.of(maximumSize));
+		}
+		if (expireAfterWrite != null)
+		{
+			configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+		}
+		this.cacheManager.createCache(name, configuration);
+	}
+}
@@ -1,19 +1,39 @@
 package com.company.assetmanagment.controller;
 
+import static com.company.assetmanagment.config.CodecConfiguration.SMILE_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
-import java.lang.reflect.Field;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
+import javax.validation.Validator;
 
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.ReflectionUtils;
+import org.springframework.http.ResponseEntity.BodyBuilder;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -21,16 +41,47 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.company.assetmanagment.component.cache.AssetResponseCache;
+import com.company.assetmanagment.component.codec.AssetProtobuf;
+import com.company.assetmanagment.component.feed.AssetChangeFeed;
+import com.company.assetmanagment.component.ingest.AssetIngestQueue;
+import com.company.assetmanagment.component.patch.AssetPatchEngine;
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.AssetChange;
+import com.company.assetmanagment.data.domain.AssetDelta;
+import com.company.assetmanagment.data.domain.AssetTypeCount;
+import com.company.assetmanagment.data.domain.CursorPage;
+import com.company.assetmanagment.data.domain.IngestStatus;
 import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.dto.AssetChangeDto;
 import com.company.assetmanagment.data.dto.AssetIncomingDto;
 import com.company.assetmanagment.data.dto.AssetResponseDto;
+import com.company.assetmanagment.data.dto.AssetSyncDto;
+import com.company.assetmanagment.data.dto.AssetTypeCountDto;
+import com.company.assetmanagment.data.dto.BulkItemResultDto;
+import com.company.assetmanagment.data.dto.IngestStatusDto;
 import com.company.assetmanagment.data.dto.MapStructMapper;
+import com.company.assetmanagment.data.request.AssetField;
 import com.company.assetmanagment.data.request.GetAssetsCriteria;
+import com.company.assetmanagment.data.request.RequestParams;
+import com.company.assetmanagment.data.request.SyncAssetsCriteria;
 import com.company.assetmanagment.exception.BusinessException;
+import com.company.assetmanagment.exception.GlobalExceptionHandler;
+import com.company.assetmanagment.exception.ResourceNotFoundException;
+import com.company.assetmanagment.repository.AssetSpecifications;
 import com.company.assetmanagment.service.AssetService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -42,92 +93,420 @@ import lombok.extern.log4j.Log4j2;
 
 @Log4j2
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequestMapping(path = {"/api/v1/assets"}, produces = APPLICATION_JSON_VALUE)
 @Tag(name = "Asset", description = "API Endpoints for managing Assets.")
 public class AssetController
 {
-	private static final String ID = "id";
+	private static final String ID 		= "id";
+	private static final String AFTER 	= "after";
+	private static final String FIELDS 	= "fields";
 	
-	private final AssetService 		assetService;
-	private final MapStructMapper 	dtoMapper;
+	private static final int 	EXPORT_FLUSH_INTERVAL = 256;
+	
+	static final String 		MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+	
+	private static final String PREFER 				= "Prefer";
+	private static final String PREFERENCE_APPLIED 	= "Preference-Applied";
+	private static final String RETURN_MINIMAL 		= "return=minimal";
+	private static final String RESPOND_ASYNC 		= "respond-async";
+	
+	static final String 		INGEST_PATH 		= "/api/v1/assets/ingest/{trackingId}";
+	static final String 		LAST_EVENT_ID 		= "Last-Event-ID";
+	
+	private final AssetService 			assetService;
+	private final MapStructMapper 		dtoMapper;
+	private final ObjectMapper 			objectMapper;
+	private final Validator 			validator;
+	private final AssetProperties 		assetProperties;
+	private final AssetPatchEngine 		patchEngine;
+	private final AssetIngestQueue 		ingestQueue;
+	private final AssetChangeFeed 		changeFeed;
+	private final AssetResponseCache 	responseCache;
+	private final HttpMessageConverters messageConverters;
 	
 	@Autowired
-	public AssetController(AssetService assetService, MapStructMapper dtoMapper)
+	public AssetController(AssetService assetService, MapStructMapper dtoMapper, ObjectMapper objectMapper, Validator validator, AssetProperties assetProperties, AssetPatchEngine patchEngine,
+						   AssetIngestQueue ingestQueue, AssetChangeFeed changeFeed, AssetResponseCache responseCache, HttpMessageConverters messageConverters)
 	{
-		this.assetService 	= assetService;
-		this.dtoMapper 		= dtoMapper;
+		this.assetService 		= assetService;
+		this.dtoMapper 			= dtoMapper;
+		this.objectMapper 		= objectMapper;
+		this.validator 			= validator;
+		this.assetProperties 	= assetProperties;
+		this.patchEngine 		= patchEngine;
+		this.ingestQueue 		= ingestQueue;
+		this.changeFeed 		= changeFeed;
+		this.responseCache 		= responseCache;
+		this.messageConverters 	= messageConverters;
 	}
 	
 	
 	
 	@Operation
 	(
-	    summary = "Get an Asset by id",description = "Get an Asset by id",tags = { "Asset" },
+	    summary = "Get an Asset by id",description = "Get an Asset by id. The response carries a strong ETag, a matching If-None-Match is answered with 304 without loading the asset. fields=name,type selects only those columns and returns them with a weak ETag; the id is always returned.",tags = { "Asset" },
 	    responses = {
 	        @ApiResponse(
 	            description = "Success",
 	            responseCode = "200",
 	            content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssetResponseDto.class))
 	        ),
+	        @ApiResponse(description = "Not modified", responseCode = "304", content = @Content),
 	        @ApiResponse(description = "Not found", responseCode = "404", content = @Content),
 	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
 	    }
     )
-	@GetMapping(path = "/{id}")
-	public ResponseEntity<AssetResponseDto> getAsset(@PathVariable(value = ID) Long id)
+	@GetMapping(path = "/{id}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, SMILE_VALUE, AssetProtobuf.MEDIA_TYPE_VALUE})
+	public ResponseEntity<?> getAsset(@PathVariable(value = ID) Long id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+									  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, @RequestParam(value = FIELDS, required = false) String fieldList)
+	{
+		Set<AssetField> fields 			= AssetField.parse(fieldList);
+		MediaType 		representation 	= AssetRepresentations.select(accept == null ? Collections.emptyList() : MediaType.parseMediaTypes(accept));
+		
+		if (ifNoneMatch != null)
+		{
+			Integer version = this.assetService.getVersion(id);
+			String 	etag 	= fields == null ? AssetETags.strong(id, version, representation) : AssetETags.weak(id, version, fields);
+			if (AssetETags.matches(ifNoneMatch, etag))
+			{
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+			}
+		}
+		
+		Asset result = this.assetService.getById(id, fields);
+		
+		if (fields == null && representation != null)
+		{
+			return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).eTag(AssetETags.strong(result, representation)).contentType(representation)
+									  .body(this.responseCache.get(id, result.getVersion(), representation, () -> encode(dtoMapper.assetToAssetResponseDto(result), representation)));
+		}
+		
+		return  ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).eTag(fields == null ? AssetETags.strong(result) : AssetETags.weak(result, fields))
+								   .body(AssetField.retain(fields, dtoMapper.assetToAssetResponseDto(result)));
+	}
+	
+	/**
+	 * Encodes a body with the message converter Spring MVC would pick for it, for the {@link AssetResponseCache}.
+	 */
+	@SuppressWarnings("unchecked")
+	private byte[] encode(Object body, MediaType contentType)
+	{
+		for (HttpMessageConverter<?> converter : this.messageConverters)
+		{
+			if (converter.canWrite(body.getClass(), contentType))
+			{
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				try
+				{
+					((HttpMessageConverter<Object>) converter).write(body, contentType, new HttpOutputMessage()
+					{
+						private final HttpHeaders headers = new HttpHeaders();
+						
+						@Override
+						public OutputStream getBody()
+						{
+							return out;
+						}
+						
+						@Override
+						public HttpHeaders getHeaders()
+						{
+							return this.headers;
+						}
+					});
+				}
+				catch (IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+				return out.toByteArray();
+			}
+		}
+		throw new IllegalStateException("No message converter writes " + contentType);
+	}
+	
+	@Operation
+	(
+	    summary = "Get all assets",description = "Get a page of assets. Supports Sorting and filtering by type, name prefix and createdOn/updatedOn ranges. Default sort by id. A Link header with rel=\"next\" points to the following page. fields=name,type selects only those columns; the id is always returned.",tags = { "Asset" },
+	    responses = {
+	        @ApiResponse(
+	            description = "Success",
+	            responseCode = "200",
+	            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = AssetResponseDto.class)))
+	        ),
+	        @ApiResponse(description = "Not modified", responseCode = "304", content = @Content),
+	        @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
+	    }
+    )
+	@GetMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, SMILE_VALUE, AssetProtobuf.MEDIA_TYPE_VALUE})
+	public ResponseEntity<List<AssetResponseDto>> getAssets(@Valid GetAssetsCriteria assetCriteria, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
 	{
-		log.info("getAsset for path param {}", id);
-		Asset result = this.assetService.getById(id);
+		Set<AssetField>   fields = assetCriteria.getFieldSet();
+		CursorPage<Asset> page 	= this.assetService.findPage(AssetSpecifications.matching(assetCriteria), assetCriteria.getSortCriteria(), assetCriteria.getAfter(), assetCriteria.getPageSize(), fields);
+		String 			  etag 	= AssetETags.weak(page.getItems(), page.getNext(), fields);
+		boolean 		  notModified = AssetETags.matches(ifNoneMatch, etag);
 		
-		return  ResponseEntity.ok(dtoMapper.assetToAssetResponseDto(result));
+		BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK).varyBy(HttpHeaders.ACCEPT).eTag(etag);
+		if (page.hasNext())
+		{
+			response.header(HttpHeaders.LINK, nextLink(page.getNext()));
+		}
+		
+		if (notModified)
+		{
+			return response.build();
+		}
+		
+		return response.body(
+							page.map(f -> AssetField.retain(fields, dtoMapper.assetToAssetResponseDto(f))).getItems()
+						  );
 	}
 	
 	@Operation
 	(
-	    summary = "Get all assets",description = "Get all assets. Supports Sorting. Default sort by id.",tags = { "Asset" },
+	    summary = "Search assets",description = "Full-text search over asset names and descriptions. Every word of the query must match a word of the asset, either exactly or as its prefix. Best matches first.",tags = { "Asset" },
 	    responses = {
 	        @ApiResponse(
 	            description = "Success",
 	            responseCode = "200",
 	            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = AssetResponseDto.class)))
 	        ),
+	        @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
 	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
 	    }
     )
-	@GetMapping
-	public ResponseEntity<List<AssetResponseDto>> getAssets(@Valid GetAssetsCriteria assetCriteria)
+	@GetMapping(path = "/search", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, SMILE_VALUE, AssetProtobuf.MEDIA_TYPE_VALUE})
+	public ResponseEntity<List<AssetResponseDto>> searchAssets(@RequestParam(value = "q") String query, @RequestParam(value = "limit", required = false) Integer limit)
 	{
-		log.info("get All Assets {}", assetCriteria);
+		int maxResults = this.assetProperties.getSearch().getMaxResults();
+		if (StringUtils.isBlank(query))
+		{
+			throw new BusinessException("Search query must not be empty.");
+		}
+		if (limit != null && (limit < 1 || limit > maxResults))
+		{
+			throw new BusinessException(String.format("Search limit must be between 1 and %s.", maxResults));
+		}
+		
+		List<Asset> result = this.assetService.search(query, limit == null ? maxResults : limit);
+		
+		return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(result.stream().map(dtoMapper::assetToAssetResponseDto).collect(Collectors.toList()));
+	}
+	
+	@Operation
+	(
+	    summary = "Count assets per type",description = "Number of assets per type, optionally broken down by creation day. Served from in-memory counters that are reconciled with the database periodically.",tags = { "Asset" },
+	    responses = {
+	        @ApiResponse(
+	            description = "Success",
+	            responseCode = "200",
+	            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = AssetTypeCountDto.class)))
+	        ),
+	        @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
+	    }
+    )
+	@GetMapping(path = "/aggregates")
+	public ResponseEntity<List<AssetTypeCountDto>> getAggregates(@RequestParam(value = "perDay", defaultValue = "false") boolean perDay)
+	{
+		List<AssetTypeCount> counts = this.assetService.countByType(perDay);
+		
+		return ResponseEntity.ok(counts.stream().map(dtoMapper::assetTypeCountToAssetTypeCountDto).collect(Collectors.toList()));
+	}
+	
+	@Operation
+	(
+	    summary = "Sync assets",description = "Delta sync for offline clients: the assets created or updated and the ids of the assets deleted after modifiedSince, with the watermark to send as modifiedSince next time. Without modifiedSince every asset is returned. If complete is false more changes are waiting. A modifiedSince older than the tombstone retention is answered with 410, the client then syncs from scratch.",tags = { "Asset" },
+	    responses = {
+	        @ApiResponse(
+	            description = "Success",
+	            responseCode = "200",
+	            content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssetSyncDto.class))
+	        ),
+	        @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+	        @ApiResponse(description = "Deletes no longer known", responseCode = "410", content = @Content),
+	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
+	    }
+    )
+	@GetMapping(path = "/sync")
+	public ResponseEntity<AssetSyncDto> syncAssets(@Valid SyncAssetsCriteria syncCriteria)
+	{
+		AssetDelta delta = this.assetService.sync(syncCriteria.getModifiedSince(), syncCriteria.getPageSize());
+		
+		return ResponseEntity.ok(dtoMapper.assetDeltaToAssetSyncDto(delta));
+	}
+	
+	@Operation
+	(
+	    summary = "Export all assets",description = "Streams every asset as newline delimited JSON (one asset per line). Supports Sorting. Default sort by id.",tags = { "Asset" },
+	    responses = {
+	        @ApiResponse(
+	            description = "Success",
+	            responseCode = "200",
+	            content = @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = AssetResponseDto.class))
+	        ),
+	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
+	    }
+    )
+	@GetMapping(path = "/export", produces = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportAssets(@Valid RequestParams exportCriteria)
+	{
+		Sort 			sort 	= exportCriteria.getSortCriteria();
+		ObjectWriter 	writer 	= this.objectMapper.writerFor(AssetResponseDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		
+		StreamingResponseBody body = out ->
+		{
+			try (JsonGenerator generator = writer.getFactory().createGenerator(out))
+			{
+				generator.setRootValueSeparator(null);
 				
-		List<AssetResponseDto>	responseDto =	this.assetService.findAllAndSortBy(assetCriteria.getSortCriteria())
-														.stream()
-														.map(f -> dtoMapper.assetToAssetResponseDto(f))
-														.collect(Collectors.toList());
+				long count = this.assetService.exportAll(sort, asset -> writeLine(writer, generator, dtoMapper.assetToAssetResponseDto(asset)));
+				log.info("Exported {} assets", count);
+			}
+			catch (UncheckedIOException e)
+			{
+				throw e.getCause();
+			}
+		};
 		
 		return ResponseEntity
 				.status(HttpStatus.OK)
+				.contentType(MediaType.APPLICATION_NDJSON)
 				.body(
-						responseDto
+						body
 					  );
 	}
 	
 	@Operation
 	(
-	    summary = "Create an asset",description = "Create an asset",tags = { "Asset" },
+	    summary = "Stream asset changes",description = "Server-Sent Events stream of committed creates, updates and deletes, one JSON change per event with its sequence as event id. A client reconnecting with Last-Event-ID (or after=<sequence>) first receives the changes it missed, as long as they are still buffered; otherwise it gets 410 and has to resynchronize from the list endpoint.",tags = { "Asset" },
+	    responses = {
+	        @ApiResponse(
+	            description = "Success",
+	            responseCode = "200",
+	            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = AssetChangeDto.class))
+	        ),
+	        @ApiResponse(description = "Changes no longer available", responseCode = "410", content = @Content),
+	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
+	    }
+    )
+	@GetMapping(path = "/changes", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, APPLICATION_JSON_VALUE})
+	public SseEmitter streamChanges(@RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId, @RequestParam(value = AFTER, required = false) Long after)
+	{
+		SseEmitter 					 emitter 		= new SseEmitter();
+		AssetChangeFeed.Subscription subscription 	= this.changeFeed.subscribe(lastEventId != null ? lastEventId : after, new EmitterListener(emitter));
+		
+		emitter.onCompletion(subscription::cancel);
+		emitter.onError		(error -> subscription.cancel());
+		
+		return emitter;
+	}
+	
+	/**
+	 * Sends the changes of a feed subscription as events of one SSE response.
+	 */
+	private final class EmitterListener implements AssetChangeFeed.Listener
+	{
+		private final SseEmitter emitter;
+		
+		private EmitterListener(SseEmitter emitter)
+		{
+			this.emitter = emitter;
+		}
+		
+		@Override
+		public long demand()
+		{
+			return Long.MAX_VALUE;
+		}
+		
+		@Override
+		public void send(List<AssetChange> changes) throws IOException
+		{
+			for (AssetChange change : changes)
+			{
+				this.emitter.send(SseEmitter.event().id(Long.toString(change.getSequence())).data(dtoMapper.assetChangeToAssetChangeDto(change), MediaType.APPLICATION_JSON));
+			}
+		}
+		
+		@Override
+		public void heartbeat() throws IOException
+		{
+			this.emitter.send(SseEmitter.event().comment("heartbeat"));
+		}
+		
+		@Override
+		public void close()
+		{
+			this.emitter.complete();
+		}
+	}
+	
+	/**
+	 * Writes one NDJSON line. The first line and then every {@value #EXPORT_FLUSH_INTERVAL} lines are flushed to the
+	 * client, so the first byte leaves immediately without paying a socket write per asset.
+	 */
+	private static void writeLine(ObjectWriter writer, JsonGenerator generator, AssetResponseDto dto)
+	{
+		try
+		{
+			writer.writeValue(generator, dto);
+			generator.writeRaw('\n');
+			
+			long lines = generator.getOutputContext().getEntryCount();
+			if (lines == 1 || lines % EXPORT_FLUSH_INTERVAL == 0)
+			{
+				generator.flush();
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static String nextLink(String cursor)
+	{
+		return "<" + ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam(AFTER, cursor).toUriString() + ">; rel=\"next\"";
+	}
+	
+	@Operation
+	(
+	    summary = "Create an asset",description = "Create an asset. With Prefer: respond-async the validated asset is only queued and answered with 202, a tracking id and a Location to look up its status; it is inserted in the background together with other queued assets. A full queue is answered with 429.",tags = { "Asset" },
 	    responses = {
 	        @ApiResponse(
 	            description = "Success",
 	            responseCode = "201",
 	            content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssetResponseDto.class))
 	        ),
+	        @ApiResponse(
+	            description = "Accepted for asynchronous creation",
+	            responseCode = "202",
+	            content = @Content(mediaType = "application/json", schema = @Schema(implementation = IngestStatusDto.class))
+	        ),
 	        @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+	        @ApiResponse(description = "Queue full", responseCode = "429", content = @Content),
 	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
 	    }
     )
 	@PostMapping(consumes = APPLICATION_JSON_VALUE)
-	public ResponseEntity<AssetResponseDto> createAsset(@Valid @RequestBody AssetIncomingDto orderIncomingDto)
+	public ResponseEntity<?> createAsset(@Valid @RequestBody AssetIncomingDto orderIncomingDto, @RequestHeader(value = PREFER, required = false) String prefer)
 	{
-		log.info("createAsset {}", orderIncomingDto);
+		if (prefer != null && prefer.toLowerCase().contains(RESPOND_ASYNC))
+		{
+			String trackingId = this.ingestQueue.accept(orderIncomingDto);
+			
+			return ResponseEntity
+					.accepted()
+					.location(ServletUriComponentsBuilder.fromCurrentContextPath().path(INGEST_PATH).buildAndExpand(trackingId).toUri())
+					.header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+					.body(
+							this.dtoMapper.ingestStatusToIngestStatusDto(IngestStatus.queued(trackingId))
+						  );
+		}
+		
 		Asset savedAsset = this.assetService.create(dtoMapper.assetIncomdingDtoToAsset(orderIncomingDto));
 		
 		return ResponseEntity
@@ -137,77 +516,175 @@ public class AssetController
 					  );
 	}
 	
+	@Operation
+	(
+	    summary = "Get the status of a queued asset",description = "Status of an asset accepted with Prefer: respond-async: QUEUED, CREATED with the id of the asset, or FAILED with the errors. Statuses are kept for asset.ingest.status-retention.",tags = { "Asset" },
+	    responses = {
+	        @ApiResponse(
+	            description = "Success",
+	            responseCode = "200",
+	            content = @Content(mediaType = "application/json", schema = @Schema(implementation = IngestStatusDto.class))
+	        ),
+	        @ApiResponse(description = "Not found", responseCode = "404", content = @Content),
+	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
+	    }
+    )
+	@GetMapping(path = "/ingest/{trackingId}")
+	public ResponseEntity<IngestStatusDto> getIngestStatus(@PathVariable(value = "trackingId") String trackingId)
+	{
+		IngestStatus status = this.ingestQueue.status(trackingId).orElseThrow(() -> new ResourceNotFoundException(String.format("No queued asset found with tracking id {%s}", trackingId)));
+		
+		return ResponseEntity.ok(this.dtoMapper.ingestStatusToIngestStatusDto(status));
+	}
+	
+	
+	@Operation
+	(
+	    summary = "Create many assets",description = "Validates every asset and inserts the valid ones in JDBC batches within one transaction. Returns one result per submitted asset, in request order.",tags = { "Asset" },
+	    responses = {
+	        @ApiResponse(
+	            description = "Success",
+	            responseCode = "200",
+	            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BulkItemResultDto.class)))
+	        ),
+	        @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
+	    }
+    )
+	@PostMapping(path = "/bulk", consumes = APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<BulkItemResultDto>> createAssets(@RequestBody List<AssetIncomingDto> incomingDtos)
+	{
+		int maxItems = this.assetProperties.getBulk().getMaxItems();
+		if (incomingDtos.isEmpty() || incomingDtos.size() > maxItems)
+		{
+			throw new BusinessException(String.format("A bulk request must contain between 1 and %d assets.", maxItems));
+		}
+		
+		BulkItemResultDto[] results 		= new BulkItemResultDto[incomingDtos.size()];
+		List<Asset> 		validAssets 	= new ArrayList<>(incomingDtos.size());
+		List<Integer> 		validIndexes 	= new ArrayList<>(incomingDtos.size());
+		
+		for (int index = 0; index < incomingDtos.size(); index++)
+		{
+			List<String> errors = validate(incomingDtos.get(index));
+			if (errors.isEmpty())
+			{
+				validAssets.add	(dtoMapper.assetIncomdingDtoToAsset(incomingDtos.get(index)));
+				validIndexes.add(index);
+			}
+			else
+			{
+				results[index] = BulkItemResultDto.builder().index(index).status(HttpStatus.BAD_REQUEST).errors(errors).build();
+			}
+		}
+		
+		List<Asset> savedAssets = validAssets.isEmpty() ? validAssets : this.assetService.createAll(validAssets);
+		
+		for (int i = 0; i < savedAssets.size(); i++)
+		{
+			int index = validIndexes.get(i);
+			results[index] = BulkItemResultDto.builder().index(index).status(HttpStatus.CREATED).asset(dtoMapper.assetToAssetResponseDto(savedAssets.get(i))).build();
+		}
+		
+		return ResponseEntity
+				.status(HttpStatus.OK)
+				.body(
+						Arrays.asList(results)
+					  );
+	}
+	
+	private List<String> validate(AssetIncomingDto incomingDto)
+	{
+		if (incomingDto == null)
+		{
+			return Collections.singletonList("Asset must not be null.");
+		}
+		return this.validator.validate(incomingDto).stream()
+											.map(violation -> violation.getPropertyPath() + GlobalExceptionHandler.FIELD_ERROR_SEPARATOR + violation.getMessage())
+											.collect(Collectors.toList());
+	}
+	
 	
 	@Operation
 	(
-	    summary = "Replace an asset with new details.",description = "Replace an asset with new details.",tags = { "Asset" },
+	    summary = "Replace an asset with new details.",description = "Replace an asset with new details in a single conditional update. An If-Match ETag makes the write conditional on that version, Prefer: return=minimal skips reading the asset back.",tags = { "Asset" },
 	    responses = {
 	        @ApiResponse(
 	            description = "Success",
 	            responseCode = "200",
 	            content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssetResponseDto.class))
 	        ),
+	        @ApiResponse(description = "Updated, no content requested", responseCode = "204", content = @Content),
 	        @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
 	        @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+	        @ApiResponse(description = "Version conflict", responseCode = "409", content = @Content),
 	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
 	    }
     )
 	@PutMapping(path = "/{id}", consumes = APPLICATION_JSON_VALUE)
-	public ResponseEntity<AssetResponseDto> updateAsset(@PathVariable(value = ID) Long id, @Valid @RequestBody AssetIncomingDto orderIncomingDto)
+	public ResponseEntity<AssetResponseDto> updateAsset(@PathVariable(value = ID) Long id, @Valid @RequestBody AssetIncomingDto orderIncomingDto,
+														@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+														@RequestHeader(value = PREFER, required = false) String prefer)
 	{
-		Asset asst = dtoMapper.assetIncomdingDtoToAsset(orderIncomingDto);
+		Asset asst 		= dtoMapper.assetIncomdingDtoToAsset(orderIncomingDto);
+		int version 	= this.assetService.update(id, AssetETags.expectedVersion(id, ifMatch), asst);
 		
-		return ResponseEntity
-				.status(HttpStatus.OK)
-				.body( 
-						this.dtoMapper.assetToAssetResponseDto(this.assetService.update(id, asst))
-					  );
+		return written(id, version, prefer);
 	}
 	
 	@Operation
 	(
-	    summary = "Update an attribute of an asset.",description = "Update an attribute of an asset.",tags = { "Asset" },
+	    summary = "Update attributes of an asset.",description = "Update attributes of an asset with a JSON Merge Patch (RFC 7396). Only name, description and type can be patched, a null member clears the attribute. The patch is applied in a single conditional update, If-Match and Prefer work as for PUT.",tags = { "Asset" },
 	    responses = {
 	        @ApiResponse(
 	            description = "Success",
 	            responseCode = "200",
 	            content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssetResponseDto.class))
 	        ),
+	        @ApiResponse(description = "Updated, no content requested", responseCode = "204", content = @Content),
 	        @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
 	        @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+	        @ApiResponse(description = "Version conflict", responseCode = "409", content = @Content),
 	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
 	    }
     )
-	@PatchMapping(path = "/{id}", consumes = APPLICATION_JSON_VALUE)
-	public ResponseEntity<AssetResponseDto> partiallyUpdateAsset(@PathVariable(value = ID) Long id, @RequestBody Map<String, Object> fields)
+	@PatchMapping(path = "/{id}", consumes = {APPLICATION_JSON_VALUE, MERGE_PATCH_JSON_VALUE})
+	public ResponseEntity<AssetResponseDto> partiallyUpdateAsset(@PathVariable(value = ID) Long id, @RequestBody Map<String, Object> fields,
+																 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+																 @RequestHeader(value = PREFER, required = false) String prefer)
 	{
-		Asset asst = this.assetService.getById(id);
-
-		for (Entry<String, Object> entry : fields.entrySet()) 
-		{
-			Field field = ReflectionUtils.findField(Asset.class, entry.getKey());
-	        if(field != null)
-	        {
-		        field.setAccessible(true);
-		        ReflectionUtils.setField(field, asst, entry.getValue());
-	        }
-	        else
-	        {
-	        	throw new BusinessException(String.format("Could not find any field with name %s to update.", entry.getKey()));
-	        }
+		Map<String, Object> values = new HashMap<>();
+		this.patchEngine.apply(fields, values::put);
+		
+		int version = this.assetService.patch(id, AssetETags.expectedVersion(id, ifMatch), values);
+		
+		return written(id, version, prefer);
+	}
+	
+	/**
+	 * Response to a successful write: the asset with its new ETag, or only the ETag if the client asked for
+	 * {@code Prefer: return=minimal}, which saves reading the asset back.
+	 */
+	private ResponseEntity<AssetResponseDto> written(Long id, int version, String prefer)
+	{
+		if (prefer != null && prefer.toLowerCase().contains(RETURN_MINIMAL))
+		{
+			return ResponseEntity.noContent()
+									.eTag	(AssetETags.strong(id, version)	)
+									.header	(PREFERENCE_APPLIED, RETURN_MINIMAL	)
+									.build	(									);
 		}
-
-		return ResponseEntity
-					.status(HttpStatus.OK)
-					.body( 
-							this.dtoMapper.assetToAssetResponseDto(this.assetService.update(id, asst))
-						  );
+		
+		Asset asset = this.assetService.getById(id);
+		return ResponseEntity.ok()
+								.eTag	(AssetETags.strong(asset)						)
+								.body	(this.dtoMapper.assetToAssetResponseDto(asset)	);
 	}
 	
 	
 	@Operation
 	(
-	    summary = "Delete an asset.",description = "Delete an asset.",tags = { "Asset" },
+	    summary = "Delete an asset.",description = "Delete an asset with a single statement. An If-Match ETag makes the delete conditional on that version.",tags = { "Asset" },
 	    responses = {
 	        @ApiResponse(
 	            description = "Success",
@@ -215,13 +692,14 @@ public class AssetController
 	            content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssetResponseDto.class))
 	        ),
 	        @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+	        @ApiResponse(description = "Version conflict", responseCode = "409", content = @Content),
 	        @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)
 	    }
     )
 	@DeleteMapping(path = "/{id}")
-	public ResponseEntity<Void> delete(@PathVariable(value = ID) Long id)
+	public ResponseEntity<Void> delete(@PathVariable(value = ID) Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
 	{
-		this.assetService.delete(id);
+		this.assetService.delete(id, AssetETags.expectedVersion(id, ifMatch));
 		
 		return new ResponseEntity<Void>(HttpStatus.NO_CONTENT);
 	}
@@ -0,0 +1,156 @@
+package com.company.assetmanagment.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.MediaType;
+
+import com.company.assetmanagment.component.codec.AssetProtobuf;
+import com.company.assetmanagment.config.CodecConfiguration;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.request.AssetField;
+import com.company.assetmanagment.exception.BusinessException;
+
+/**
+ * Entity tags derived from the asset {@code @Version}. A single asset gets the strong tag {@code "id-version"} in JSON
+ * and {@code "id-version-cbor"}, {@code -smile} or {@code -pb} in the other representations, since a strong tag stands
+ * for one sequence of bytes. A list gets a weak tag hashed over the ids and versions of its assets.
+ */
+public final class AssetETags
+{
+	private static final String WEAK_PREFIX 	= "W/";
+	private static final String ANY 			= "*";
+	private static final int 	MAX_VERSION_DIGITS 	= 9;
+	private static final long 	FNV_OFFSET 		= 0xcbf29ce484222325L;
+	private static final long 	FNV_PRIME 		= 0x100000001b3L;
+	
+	private static final Map<MediaType, String> SUFFIXES = new HashMap<>();
+	
+	static
+	{
+		SUFFIXES.put(MediaType.APPLICATION_CBOR, 						"-cbor"	);
+		SUFFIXES.put(MediaType.valueOf(CodecConfiguration.SMILE_VALUE), "-smile");
+		SUFFIXES.put(AssetProtobuf.MEDIA_TYPE, 							"-pb"	);
+	}
+
+	private AssetETags()
+	{
+	}
+
+	public static String strong(Long id, Integer version)
+	{
+		return "\"" + id + "-" + version + "\"";
+	}
+
+	public static String strong(Asset asset)
+	{
+		return strong(asset.getId(), asset.getVersion());
+	}
+
+	/**
+	 * Strong tag of an asset in one of the {@code AssetRepresentations}, the JSON one for {@code null}.
+	 */
+	public static String strong(Long id, Integer version, MediaType representation)
+	{
+		return "\"" + id + "-" + version + SUFFIXES.getOrDefault(representation, "") + "\"";
+	}
+
+	public static String strong(Asset asset, MediaType representation)
+	{
+		return strong(asset.getId(), asset.getVersion(), representation);
+	}
+
+	/**
+	 * Weak tag of a representation holding only some fields of an asset, so it never matches the full one.
+	 */
+	public static String weak(Long id, Integer version, Set<AssetField> fields)
+	{
+		return WEAK_PREFIX + "\"" + id + "-" + version + "-" + AssetField.join(fields).replace(',', '.') + "\"";
+	}
+
+	public static String weak(Asset asset, Set<AssetField> fields)
+	{
+		return weak(asset.getId(), asset.getVersion(), fields);
+	}
+
+	public static String weak(List<Asset> assets, String next)
+	{
+		return weak(assets, next, null);
+	}
+
+	public static String weak(List<Asset> assets, String next, Set<AssetField> fields)
+	{
+		long hash = FNV_OFFSET;
+		for (Asset asset : assets)
+		{
+			hash = mix(mix(hash, asset.getId()), asset.getVersion() == null ? 0 : asset.getVersion());
+		}
+		hash = mix(hash, next == null ? 0 : next.hashCode());
+		if (fields != null)
+		{
+			hash = mix(hash, AssetField.join(fields).hashCode());
+		}
+
+		return WEAK_PREFIX + "\"" + assets.size() + "-" + Long.toHexString(hash) + "\"";
+	}
+
+	/**
+	 * Weak comparison of an {@code If-None-Match} header against the current tag, as required for GET requests.
+	 */
+	public static boolean matches(String ifNoneMatch, String etag)
+	{
+		if (StringUtils.isBlank(ifNoneMatch))
+		{
+			return false;
+		}
+
+		String current = StringUtils.removeStart(etag, WEAK_PREFIX);
+		for (String candidate : ifNoneMatch.split(","))
+		{
+			String tag = StringUtils.removeStart(candidate.trim(), WEAK_PREFIX);
+			if (ANY.equals(tag) || current.equals(tag))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The version an {@code If-Match} header expects, or {@code null} when the header is absent or {@code *}. Only a
+	 * single strong tag of the addressed asset is accepted, since a write can only be conditioned on one version. It
+	 * may be the tag of any representation.
+	 */
+	public static Integer expectedVersion(Long id, String ifMatch)
+	{
+		if (StringUtils.isBlank(ifMatch) || ANY.equals(ifMatch.trim()))
+		{
+			return null;
+		}
+
+		String tag 		= StringUtils.unwrap(ifMatch.trim(), '"');
+		String prefix 	= id + "-";
+		String version 	= StringUtils.removeStart(tag, prefix);
+		for (String suffix : SUFFIXES.values())
+		{
+			version = StringUtils.removeEnd(version, suffix);
+		}
+		if (tag.equals(version) || !StringUtils.isNumeric(version) || version.length() > MAX_VERSION_DIGITS)
+		{
+			throw new BusinessException(String.format("If-Match must be a single strong ETag of asset %s.", id));
+		}
+		return Integer.valueOf(version);
+	}
+
+	private static long mix(long hash, long value)
+	{
+		for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE)
+		{
+			hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+		}
+		return hash;
+	}
+}
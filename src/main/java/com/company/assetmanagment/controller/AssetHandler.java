@@ -0,0 +1,568 @@
+package com.company.assetmanagment.controller;
+
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.support.WebExchangeDataBinder;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.NotAcceptableStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.component.feed.AssetChangeFeed;
+import com.company.assetmanagment.component.ingest.AssetIngestQueue;
+import com.company.assetmanagment.component.patch.AssetPatchEngine;
+import com.company.assetmanagment.data.domain.AssetChange;
+import com.company.assetmanagment.data.domain.IngestStatus;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.dto.AssetChangeDto;
+import com.company.assetmanagment.data.dto.AssetIncomingDto;
+import com.company.assetmanagment.data.dto.AssetResponseDto;
+import com.company.assetmanagment.data.dto.BulkItemResultDto;
+import com.company.assetmanagment.data.dto.MapStructMapper;
+import com.company.assetmanagment.data.request.AssetField;
+import com.company.assetmanagment.data.request.GetAssetsCriteria;
+import com.company.assetmanagment.data.request.RequestParams;
+import com.company.assetmanagment.data.request.SyncAssetsCriteria;
+import com.company.assetmanagment.exception.ApiError;
+import com.company.assetmanagment.exception.BusinessException;
+import com.company.assetmanagment.exception.GlobalExceptionHandler;
+import com.company.assetmanagment.exception.IngestQueueFullException;
+import com.company.assetmanagment.exception.ResourceAlreadyExists;
+import com.company.assetmanagment.exception.ResourceGoneException;
+import com.company.assetmanagment.exception.ResourceNotFoundException;
+import com.company.assetmanagment.exception.VersionConflictException;
+import com.company.assetmanagment.service.ReactiveAssetService;
+
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Handlers of the {@link AssetRouter} routes. They answer with the same status codes, headers and bodies as
+ * {@link AssetController}, including ETags, conditional requests, cursor links and {@code Prefer: return=minimal}.
+ */
+@Log4j2
+@Component
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class AssetHandler
+{
+	private static final String ID 		= "id";
+	private static final String AFTER 	= "after";
+	private static final String FIELDS 	= "fields";
+	
+	private static final String PREFER 				= "Prefer";
+	private static final String PREFERENCE_APPLIED 	= "Preference-Applied";
+	private static final String RETURN_MINIMAL 		= "return=minimal";
+	private static final String RESPOND_ASYNC 		= "respond-async";
+	
+	private static final ParameterizedTypeReference<List<AssetIncomingDto>> INCOMING_LIST = new ParameterizedTypeReference<List<AssetIncomingDto>>() {};
+	private static final ParameterizedTypeReference<Map<String, Object>> 	PATCH 			= new ParameterizedTypeReference<Map<String, Object>>() {};
+	// the element type lets codecs that only write assets, like protobuf, recognise the list
+	private static final ParameterizedTypeReference<List<AssetResponseDto>> ASSET_RESPONSES = new ParameterizedTypeReference<List<AssetResponseDto>>() {};
+	
+	private final ReactiveAssetService 	assetService;
+	private final MapStructMapper 		dtoMapper;
+	private final Validator 			validator;
+	private final AssetProperties 		assetProperties;
+	private final AssetPatchEngine 		patchEngine;
+	private final AssetIngestQueue 		ingestQueue;
+	private final AssetChangeFeed 		changeFeed;
+	private final DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService();
+	
+	public AssetHandler(ReactiveAssetService assetService, MapStructMapper dtoMapper, Validator validator, AssetProperties assetProperties, AssetPatchEngine patchEngine,
+						AssetIngestQueue ingestQueue, AssetChangeFeed changeFeed)
+	{
+		this.assetService 		= assetService;
+		this.dtoMapper 			= dtoMapper;
+		this.validator 			= validator;
+		this.assetProperties 	= assetProperties;
+		this.patchEngine 		= patchEngine;
+		this.ingestQueue 		= ingestQueue;
+		this.changeFeed 		= changeFeed;
+	}
+	
+	public Mono<ServerResponse> getAsset(ServerRequest request)
+	{
+		Long 			id 			= id(request);
+		Set<AssetField> fields 		= AssetField.parse(request.queryParam(FIELDS).orElse(null));
+		String 			ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+		MediaType 		contentType = representation(request);
+		
+		Mono<ServerResponse> found = this.assetService.getById(id).flatMap(asset -> ServerResponse.ok()
+																				.contentType(contentType)
+																				.varyBy		(HttpHeaders.ACCEPT)
+																				.eTag		(fields == null ? AssetETags.strong(asset, contentType) : AssetETags.weak(asset, fields))
+																				.bodyValue	(AssetField.retain(fields, this.dtoMapper.assetToAssetResponseDto(asset))));
+		if (ifNoneMatch == null)
+		{
+			return found;
+		}
+		
+		return this.assetService.getVersion(id).flatMap(version ->
+		{
+			String etag = fields == null ? AssetETags.strong(id, version, contentType) : AssetETags.weak(id, version, fields);
+			
+			return AssetETags.matches(ifNoneMatch, etag) ? ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build() : found;
+		});
+	}
+	
+	public Mono<ServerResponse> getAssets(ServerRequest request)
+	{
+		MediaType contentType = representation(request);
+		
+		return bind(request, new GetAssetsCriteria()).flatMap(criteria -> this.assetService.findPage(criteria).flatMap(page ->
+		{
+			Set<AssetField> fields 		= criteria.getFieldSet();
+			String 			etag 		= AssetETags.weak(page.getItems(), page.getNext(), fields);
+			boolean 		notModified = AssetETags.matches(request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH), etag);
+			
+			ServerResponse.BodyBuilder response = ServerResponse.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK).eTag(etag).varyBy(HttpHeaders.ACCEPT);
+			if (page.hasNext())
+			{
+				response.header(HttpHeaders.LINK, "<" + UriComponentsBuilder.fromUri(request.uri()).replaceQueryParam(AFTER, page.getNext()).toUriString() + ">; rel=\"next\"");
+			}
+			if (notModified)
+			{
+				return response.build();
+			}
+			return response.contentType(contentType).body(Mono.just(page.map(asset -> AssetField.retain(fields, this.dtoMapper.assetToAssetResponseDto(asset))).getItems()), ASSET_RESPONSES);
+		}));
+	}
+	
+	public Mono<ServerResponse> searchAssets(ServerRequest request)
+	{
+		int 		maxResults 	= this.assetProperties.getSearch().getMaxResults();
+		String 		query 		= request.queryParam("q").orElseThrow(() -> new ServerWebInputException("Required request parameter 'q' is not present"));
+		Integer 	limit 		= request.queryParam("limit").map(Integer::valueOf).orElse(null);
+		MediaType 	contentType = representation(request);
+		
+		if (StringUtils.isBlank(query))
+		{
+			throw new BusinessException("Search query must not be empty.");
+		}
+		if (limit != null && (limit < 1 || limit > maxResults))
+		{
+			throw new BusinessException(String.format("Search limit must be between 1 and %s.", maxResults));
+		}
+		
+		return this.assetService.search(query, limit == null ? maxResults : limit)
+								.flatMap(assets -> ServerResponse.ok().contentType(contentType).varyBy(HttpHeaders.ACCEPT).body(Mono.just(assets.stream().map(this.dtoMapper::assetToAssetResponseDto).collect(Collectors.toList())), ASSET_RESPONSES));
+	}
+	
+	public Mono<ServerResponse> getAggregates(ServerRequest request)
+	{
+		boolean perDay = Boolean.parseBoolean(request.queryParam("perDay").orElse("false"));
+		
+		return this.assetService.countByType(perDay)
+								.flatMap(counts -> ServerResponse.ok().bodyValue(counts.stream().map(this.dtoMapper::assetTypeCountToAssetTypeCountDto).collect(Collectors.toList())));
+	}
+	
+	public Mono<ServerResponse> syncAssets(ServerRequest request)
+	{
+		return bind(request, new SyncAssetsCriteria()).flatMap(criteria -> this.assetService.sync(criteria.getModifiedSince(), criteria.getPageSize()))
+														.flatMap(delta -> ServerResponse.ok().bodyValue(this.dtoMapper.assetDeltaToAssetSyncDto(delta)));
+	}
+	
+	/**
+	 * Streams every asset as newline delimited JSON. Each line is encoded when the client is ready to take it, so a
+	 * slow client slows down the database cursor instead of filling the heap.
+	 */
+	public Mono<ServerResponse> exportAssets(ServerRequest request)
+	{
+		return bind(request, new RequestParams()).flatMap(params -> ServerResponse.ok()
+																		.contentType(APPLICATION_NDJSON)
+																		.body(this.assetService.exportAll(params.getSortCriteria()).map(this.dtoMapper::assetToAssetResponseDto), AssetResponseDto.class));
+	}
+	
+	/**
+	 * The change feed as Server-Sent Events. The subscription is made before the response starts, so a sequence that
+	 * is no longer buffered is still answered with 410. Changes are only taken from the feed as the client requests
+	 * them; one that falls behind the buffer is disconnected.
+	 */
+	public Mono<ServerResponse> streamChanges(ServerRequest request)
+	{
+		String 	lastEventId = request.headers().firstHeader(AssetController.LAST_EVENT_ID);
+		String 	after 		= lastEventId != null ? lastEventId : request.queryParam("after").orElse(null);
+		
+		return Mono.fromCallable(() ->
+		{
+			SinkListener 				 listener 		= new SinkListener();
+			AssetChangeFeed.Subscription subscription 	= this.changeFeed.subscribe(after == null ? null : Long.valueOf(after), listener);
+			
+			Flux<ServerSentEvent<AssetChangeDto>> events = Flux.<ServerSentEvent<AssetChangeDto>>create(sink ->
+			{
+				listener.sink = sink;
+				sink.onRequest(demand -> this.changeFeed.wake());
+				sink.onDispose(subscription::cancel);
+			});
+			// an opening comment commits the response, so the client sees the stream open before the first change
+			return events.startWith(ServerSentEvent.<AssetChangeDto>builder().comment("subscribed").build());
+		}).flatMap(events -> ServerResponse.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(events, new ParameterizedTypeReference<ServerSentEvent<AssetChangeDto>>() {}));
+	}
+	
+	/**
+	 * Emits the changes of a feed subscription into the flux of one SSE response, no more than requested.
+	 */
+	private final class SinkListener implements AssetChangeFeed.Listener
+	{
+		private volatile FluxSink<ServerSentEvent<AssetChangeDto>> sink;
+		
+		@Override
+		public long demand()
+		{
+			FluxSink<ServerSentEvent<AssetChangeDto>> current = this.sink;
+			return current == null ? 0 : current.requestedFromDownstream();
+		}
+		
+		@Override
+		public void send(List<AssetChange> changes)
+		{
+			for (AssetChange change : changes)
+			{
+				this.sink.next(ServerSentEvent.builder(dtoMapper.assetChangeToAssetChangeDto(change)).id(Long.toString(change.getSequence())).build());
+			}
+		}
+		
+		@Override
+		public void heartbeat()
+		{
+			this.sink.next(ServerSentEvent.<AssetChangeDto>builder().comment("heartbeat").build());
+		}
+		
+		@Override
+		public void close()
+		{
+			FluxSink<ServerSentEvent<AssetChangeDto>> current = this.sink;
+			if (current != null)
+			{
+				current.complete();
+			}
+		}
+	}
+	
+	public Mono<ServerResponse> createAsset(ServerRequest request)
+	{
+		return request.bodyToMono(AssetIncomingDto.class)
+						.switchIfEmpty(Mono.error(() -> new ServerWebInputException("Required request body is missing")))
+						.flatMap(dto ->
+						{
+							List<String> errors = validate(dto);
+							if (!errors.isEmpty())
+							{
+								return invalid(errors);
+							}
+							if (prefers(request, RESPOND_ASYNC))
+							{
+								return accept(dto);
+							}
+							return this.assetService.create(this.dtoMapper.assetIncomdingDtoToAsset(dto))
+													.flatMap(saved -> ServerResponse.status(HttpStatus.CREATED).bodyValue(this.dtoMapper.assetToAssetResponseDto(saved)));
+						});
+	}
+	
+	/**
+	 * Queues the asset for write-behind creation. Journaling it touches the disk, so this leaves the event loop.
+	 */
+	private Mono<ServerResponse> accept(AssetIncomingDto dto)
+	{
+		return Mono.fromCallable(() -> this.ingestQueue.accept(dto))
+					.subscribeOn(Schedulers.boundedElastic())
+					.flatMap(trackingId -> ServerResponse.accepted()
+															.location	(UriComponentsBuilder.fromPath(AssetController.INGEST_PATH).buildAndExpand(trackingId).toUri()	)
+															.header		(PREFERENCE_APPLIED, RESPOND_ASYNC																)
+															.bodyValue	(this.dtoMapper.ingestStatusToIngestStatusDto(IngestStatus.queued(trackingId))					));
+	}
+	
+	public Mono<ServerResponse> getIngestStatus(ServerRequest request)
+	{
+		String trackingId = request.pathVariable("trackingId");
+		
+		return Mono.justOrEmpty(this.ingestQueue.status(trackingId))
+					.switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(String.format("No queued asset found with tracking id {%s}", trackingId))))
+					.flatMap(status -> ServerResponse.ok().bodyValue(this.dtoMapper.ingestStatusToIngestStatusDto(status)));
+	}
+	
+	public Mono<ServerResponse> createAssets(ServerRequest request)
+	{
+		int maxItems = this.assetProperties.getBulk().getMaxItems();
+		
+		return request.bodyToMono(INCOMING_LIST).defaultIfEmpty(Collections.emptyList()).flatMap(incomingDtos ->
+		{
+			if (incomingDtos.isEmpty() || incomingDtos.size() > maxItems)
+			{
+				return Mono.error(new BusinessException(String.format("A bulk request must contain between 1 and %d assets.", maxItems)));
+			}
+			
+			BulkItemResultDto[] results 		= new BulkItemResultDto[incomingDtos.size()];
+			List<Asset> 		validAssets 	= new ArrayList<>(incomingDtos.size());
+			List<Integer> 		validIndexes 	= new ArrayList<>(incomingDtos.size());
+			
+			for (int index = 0; index < incomingDtos.size(); index++)
+			{
+				List<String> errors = validate(incomingDtos.get(index));
+				if (errors.isEmpty())
+				{
+					validAssets.add	(this.dtoMapper.assetIncomdingDtoToAsset(incomingDtos.get(index)));
+					validIndexes.add(index);
+				}
+				else
+				{
+					results[index] = BulkItemResultDto.builder().index(index).status(HttpStatus.BAD_REQUEST).errors(errors).build();
+				}
+			}
+			
+			Mono<List<Asset>> saved = validAssets.isEmpty() ? Mono.just(validAssets) : this.assetService.createAll(validAssets);
+			
+			return saved.flatMap(savedAssets ->
+			{
+				for (int i = 0; i < savedAssets.size(); i++)
+				{
+					int index = validIndexes.get(i);
+					results[index] = BulkItemResultDto.builder().index(index).status(HttpStatus.CREATED).asset(this.dtoMapper.assetToAssetResponseDto(savedAssets.get(i))).build();
+				}
+				return ServerResponse.ok().bodyValue(Arrays.asList(results));
+			});
+		});
+	}
+	
+	public Mono<ServerResponse> updateAsset(ServerRequest request)
+	{
+		Long id = id(request);
+		
+		return request.bodyToMono(AssetIncomingDto.class)
+						.switchIfEmpty(Mono.error(() -> new ServerWebInputException("Required request body is missing")))
+						.flatMap(dto ->
+						{
+							List<String> errors = validate(dto);
+							if (!errors.isEmpty())
+							{
+								return invalid(errors);
+							}
+							return this.assetService.update(id, AssetETags.expectedVersion(id, request.headers().firstHeader(HttpHeaders.IF_MATCH)), this.dtoMapper.assetIncomdingDtoToAsset(dto))
+													.flatMap(version -> written(request, id, version));
+						});
+	}
+	
+	public Mono<ServerResponse> partiallyUpdateAsset(ServerRequest request)
+	{
+		Long id = id(request);
+		
+		return request.bodyToMono(PATCH)
+						.switchIfEmpty(Mono.error(() -> new ServerWebInputException("Required request body is missing")))
+						.flatMap(fields ->
+						{
+							Map<String, Object> values = new HashMap<>();
+							this.patchEngine.apply(fields, values::put);
+							
+							return this.assetService.patch(id, AssetETags.expectedVersion(id, request.headers().firstHeader(HttpHeaders.IF_MATCH)), values);
+						})
+						.flatMap(version -> written(request, id, version));
+	}
+	
+	public Mono<ServerResponse> delete(ServerRequest request)
+	{
+		Long id = id(request);
+		
+		return this.assetService.delete(id, AssetETags.expectedVersion(id, request.headers().firstHeader(HttpHeaders.IF_MATCH)))
+								.then(ServerResponse.noContent().build());
+	}
+	
+	/**
+	 * Maps failures to the status codes and {@link ApiError} bodies of the {@link GlobalExceptionHandler}.
+	 */
+	public Mono<ServerResponse> error(Throwable exception, ServerRequest request)
+	{
+		if (exception instanceof ResourceNotFoundException)
+		{
+			return error(HttpStatus.NOT_FOUND, exception.getMessage(), null);
+		}
+		if (exception instanceof ResourceGoneException)
+		{
+			return error(HttpStatus.GONE, exception.getMessage(), null);
+		}
+		if (exception instanceof VersionConflictException || exception instanceof ResourceAlreadyExists)
+		{
+			return error(HttpStatus.CONFLICT, exception.getMessage(), null);
+		}
+		if (exception instanceof IngestQueueFullException)
+		{
+			return error(ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, GlobalExceptionHandler.RETRY_AFTER_SECONDS), HttpStatus.TOO_MANY_REQUESTS, exception.getMessage(), null);
+		}
+		if (exception instanceof BusinessException)
+		{
+			return error(HttpStatus.BAD_REQUEST, exception.getMessage(), null);
+		}
+		if (exception instanceof InvalidRequestException)
+		{
+			return error(HttpStatus.BAD_REQUEST, GlobalExceptionHandler.INVALID_REQUEST, ((InvalidRequestException) exception).errors);
+		}
+		if (exception instanceof ConstraintViolationException)
+		{
+			return error(HttpStatus.BAD_REQUEST, GlobalExceptionHandler.INVALID_REQUEST, ((ConstraintViolationException) exception).getConstraintViolations().stream()
+																		.map(violation -> violation.getPropertyPath() + GlobalExceptionHandler.FIELD_ERROR_SEPARATOR + violation.getMessage())
+																		.collect(Collectors.toList()));
+		}
+		if (exception instanceof NotAcceptableStatusException)
+		{
+			return error(HttpStatus.NOT_ACCEPTABLE, exception.getMessage(), null);
+		}
+		if (exception instanceof ServerWebInputException)
+		{
+			return error(HttpStatus.BAD_REQUEST, GlobalExceptionHandler.INVALID_REQUEST, Collections.singletonList(((ServerWebInputException) exception).getReason()));
+		}
+		if (exception instanceof IllegalArgumentException)
+		{
+			return error(HttpStatus.BAD_REQUEST, GlobalExceptionHandler.INVALID_REQUEST, Collections.singletonList(exception.getMessage()));
+		}
+		
+		log.error("Request {} {} failed", request.methodName(), request.path(), exception);
+		return error(HttpStatus.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase(), Collections.singletonList(StringUtils.defaultIfEmpty(exception.getLocalizedMessage(), HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+	}
+	
+	/**
+	 * Response to a successful write, see {@code AssetController#written}.
+	 */
+	private Mono<ServerResponse> written(ServerRequest request, Long id, int version)
+	{
+		if (prefers(request, RETURN_MINIMAL))
+		{
+			return ServerResponse.noContent()
+									.eTag	(AssetETags.strong(id, version)	)
+									.header	(PREFERENCE_APPLIED, RETURN_MINIMAL	)
+									.build	(									);
+		}
+		
+		return this.assetService.getById(id).flatMap(asset -> ServerResponse.ok()
+																		.eTag		(AssetETags.strong(asset)						)
+																		.bodyValue	(this.dtoMapper.assetToAssetResponseDto(asset)	));
+	}
+	
+	/**
+	 * Binds and validates the query parameters like Spring MVC binds a {@code @Valid} model attribute.
+	 */
+	private <T> Mono<T> bind(ServerRequest request, T target)
+	{
+		WebExchangeDataBinder binder = new WebExchangeDataBinder(target);
+		binder.setConversionService(this.conversionService);
+		binder.setValidator(new SpringValidatorAdapter(this.validator));
+		
+		return binder.bind(request.exchange()).then(Mono.defer(() ->
+		{
+			binder.validate();
+			BindingResult result = binder.getBindingResult();
+			if (result.hasErrors())
+			{
+				return invalid(result.getFieldErrors().stream()
+														.map(error -> error.getField() + GlobalExceptionHandler.FIELD_ERROR_SEPARATOR + error.getDefaultMessage())
+														.collect(Collectors.toList()));
+			}
+			return Mono.just(target);
+		}));
+	}
+	
+	private List<String> validate(AssetIncomingDto incomingDto)
+	{
+		if (incomingDto == null)
+		{
+			return Collections.singletonList("Asset must not be null.");
+		}
+		return this.validator.validate(incomingDto).stream()
+											.map(violation -> violation.getPropertyPath() + GlobalExceptionHandler.FIELD_ERROR_SEPARATOR + violation.getMessage())
+											.collect(Collectors.toList());
+	}
+	
+	/**
+	 * The representation of assets the client accepts best, JSON if it has no preference. Functional endpoints write
+	 * with the first codec able to, so the content type is chosen here as an annotated controller would.
+	 */
+	private static MediaType representation(ServerRequest request)
+	{
+		MediaType representation = AssetRepresentations.select(request.headers().accept());
+		if (representation == null)
+		{
+			throw new NotAcceptableStatusException(AssetRepresentations.ALL);
+		}
+		return representation;
+	}
+	
+	private static Long id(ServerRequest request)
+	{
+		try
+		{
+			return Long.valueOf(request.pathVariable(ID));
+		}
+		catch (NumberFormatException e)
+		{
+			throw new ServerWebInputException("Asset id must be a number.");
+		}
+	}
+	
+	private static boolean prefers(ServerRequest request, String preference)
+	{
+		String prefer = request.headers().firstHeader(PREFER);
+		return prefer != null && prefer.toLowerCase().contains(preference);
+	}
+	
+	private static <T> Mono<T> invalid(List<String> errors)
+	{
+		return Mono.error(new InvalidRequestException(errors));
+	}
+	
+	private Mono<ServerResponse> error(HttpStatus status, String message, List<String> errors)
+	{
+		return error(ServerResponse.status(status), status, message, errors);
+	}
+	
+	private Mono<ServerResponse> error(ServerResponse.BodyBuilder builder, HttpStatus status, String message, List<String> errors)
+	{
+		ApiError response = ApiError.builder()
+										.message	(message				)
+										.status		(status					)
+										.timestamp	(LocalDateTime.now()	)
+										.errors		(errors					)
+										.build		(						);
+		
+		return builder.bodyValue(response);
+	}
+	
+	@SuppressWarnings("serial")
+	private static final class InvalidRequestException extends RuntimeException
+	{
+		private final List<String> errors;
+		
+		InvalidRequestException(List<String> errors)
+		{
+			super(String.join(GlobalExceptionHandler.LIST_JOIN_DELIMITER, errors));
+			this.errors = errors;
+		}
+	}
+}
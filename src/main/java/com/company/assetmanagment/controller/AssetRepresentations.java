@@ -0,0 +1,47 @@
+package com.company.assetmanagment.controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+import com.company.assetmanagment.component.codec.AssetProtobuf;
+import com.company.assetmanagment.config.CodecConfiguration;
+
+/**
+ * The content types assets are served in, JSON first as the default.
+ */
+final class AssetRepresentations
+{
+	static final List<MediaType> ALL = Arrays.asList(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, MediaType.valueOf(CodecConfiguration.SMILE_VALUE), AssetProtobuf.MEDIA_TYPE);
+	
+	private AssetRepresentations()
+	{
+	}
+	
+	/**
+	 * The representation the client accepts best, JSON if it has no preference, or {@code null} if it accepts none.
+	 */
+	static MediaType select(List<MediaType> acceptable)
+	{
+		if (acceptable.isEmpty())
+		{
+			return MediaType.APPLICATION_JSON;
+		}
+		
+		List<MediaType> accepted = new ArrayList<>(acceptable);
+		MediaType.sortBySpecificityAndQuality(accepted);
+		for (MediaType accept : accepted)
+		{
+			for (MediaType representation : ALL)
+			{
+				if (accept.getQualityValue() > 0 && accept.isCompatibleWith(representation))
+				{
+					return representation;
+				}
+			}
+		}
+		return null;
+	}
+}
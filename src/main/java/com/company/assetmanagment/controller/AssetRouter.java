@@ -0,0 +1,48 @@
+package com.company.assetmanagment.controller;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code /api/v1/assets} API of {@link AssetController} as WebFlux routes, served on Netty when the application
+ * runs as a reactive web application ({@code reactive} profile).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class AssetRouter
+{
+	private static final String API_PATH 	= "/api/v1/assets";
+	private static final String ID_PATH 	= API_PATH + "/{id}";
+
+	@Bean
+	public RouterFunction<ServerResponse> assetRoutes(AssetHandler handler)
+	{
+		return RouterFunctions.route()
+								.GET	(API_PATH + "/search", 		handler::searchAssets)
+								.GET	(API_PATH + "/aggregates", 	handler::getAggregates)
+								.GET	(API_PATH + "/sync", 		handler::syncAssets)
+								.GET	(API_PATH + "/export", 		handler::exportAssets)
+								.GET	(AssetController.INGEST_PATH, 	handler::getIngestStatus)
+								.GET	(API_PATH + "/changes", 		handler::streamChanges)
+								.GET	(ID_PATH, 						handler::getAsset)
+								.GET	(API_PATH, 						handler::getAssets)
+								.POST	(API_PATH + "/bulk", 			contentType(APPLICATION_JSON), 	handler::createAssets)
+								.POST	(API_PATH, 						contentType(APPLICATION_JSON), 	handler::createAsset)
+								.PUT	(ID_PATH, 						contentType(APPLICATION_JSON), 	handler::updateAsset)
+								.PATCH	(ID_PATH, 						contentType(APPLICATION_JSON, MediaType.valueOf(AssetController.MERGE_PATCH_JSON_VALUE)), handler::partiallyUpdateAsset)
+								.DELETE	(ID_PATH, 						handler::delete)
+								.filter	((request, next) -> Mono.defer(() -> next.handle(request)).onErrorResume(error -> handler.error(error, request)))
+								.build();
+	}
+}
@@ -0,0 +1,13 @@
+package com.company.assetmanagment.data.domain;
+
+import java.util.Date;
+
+/**
+ * The attributes that decide which aggregate counters an asset is counted in.
+ */
+public interface AssetBucket
+{
+	String getType();
+
+	Date getCreatedOn();
+}
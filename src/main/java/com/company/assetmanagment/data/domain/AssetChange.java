@@ -0,0 +1,40 @@
+package com.company.assetmanagment.data.domain;
+
+import java.util.Map;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+
+import lombok.Getter;
+
+/**
+ * One committed write of an asset as published on the change feed, numbered by {@code sequence}.
+ */
+@Getter
+public class AssetChange
+{
+	public enum Type
+	{
+		CREATED,
+		UPDATED,
+		DELETED
+	}
+
+	private final long 					sequence;
+	private final Type 					type;
+	private final Long 					id;
+	private final Integer 				version;
+	/** The created asset, only set for {@link Type#CREATED}. */
+	private final Asset 				asset;
+	/** The attributes written, only set for {@link Type#UPDATED}. */
+	private final Map<String, Object> 	changes;
+
+	public AssetChange(long sequence, Type type, Long id, Integer version, Asset asset, Map<String, Object> changes)
+	{
+		this.sequence 	= sequence;
+		this.type 		= type;
+		this.id 		= id;
+		this.version 	= version;
+		this.asset 		= asset;
+		this.changes 	= changes;
+	}
+}
@@ -0,0 +1,17 @@
+package com.company.assetmanagment.data.domain;
+
+/**
+ * Number of assets of one type created on one calendar day.
+ */
+public interface AssetDailyCount
+{
+	String getType();
+
+	Integer getYear();
+
+	Integer getMonth();
+
+	Integer getDay();
+
+	Long getCount();
+}
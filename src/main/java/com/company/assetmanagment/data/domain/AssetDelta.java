@@ -0,0 +1,47 @@
+package com.company.assetmanagment.data.domain;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+
+import lombok.Getter;
+
+/**
+ * Result of a delta sync: the assets created or updated and the ids of the assets deleted after the requested
+ * watermark, up to {@code watermark}, which the client sends as {@code modifiedSince} next time. If {@code complete}
+ * is not set, more changes are waiting and the client syncs again right away.
+ */
+@Getter
+public class AssetDelta
+{
+	private final List<Asset> 	assets;
+	private final List<Long> 	deleted;
+	private final Date 			watermark;
+	private final boolean 		complete;
+
+	public AssetDelta(List<Asset> assets, List<Long> deleted, Date watermark, boolean complete)
+	{
+		this.assets 	= assets;
+		this.deleted 	= deleted;
+		this.watermark 	= watermark;
+		this.complete 	= complete;
+	}
+
+	/**
+	 * Number of the first {@code limit} rows to return from {@code limit + 1} rows ordered by timestamp, so the
+	 * watermark never falls between two rows of the same timestamp. 0 if they all share one timestamp, in which case
+	 * every row of that timestamp has to be read.
+	 */
+	public static <T> int wholeTimestamps(List<T> rows, int limit, Function<T, Date> timestamp)
+	{
+		long 	first 	= timestamp.apply(rows.get(limit)).getTime();
+		int 	count 	= limit;
+		while (count > 0 && timestamp.apply(rows.get(count - 1)).getTime() == first)
+		{
+			count--;
+		}
+		return count;
+	}
+}
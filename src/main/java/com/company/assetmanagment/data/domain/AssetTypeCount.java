@@ -0,0 +1,24 @@
+package com.company.assetmanagment.data.domain;
+
+import java.time.LocalDate;
+import java.util.SortedMap;
+
+import lombok.Getter;
+
+/**
+ * Number of assets of one type, optionally broken down by the day they were created on.
+ */
+@Getter
+public class AssetTypeCount
+{
+	private final String 					type;
+	private final long 						count;
+	private final SortedMap<LocalDate, Long> createdPerDay;
+
+	public AssetTypeCount(String type, long count, SortedMap<LocalDate, Long> createdPerDay)
+	{
+		this.type 			= type;
+		this.count 			= count;
+		this.createdPerDay 	= createdPerDay;
+	}
+}
@@ -0,0 +1,34 @@
+package com.company.assetmanagment.data.domain;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+
+/**
+ * One page of a keyset paginated result. {@code next} is the opaque cursor of the following page, or {@code null}
+ * when this is the last one.
+ */
+@Getter
+public class CursorPage<T>
+{
+	private final List<T> 	items;
+	private final String 	next;
+
+	public CursorPage(List<T> items, String next)
+	{
+		this.items 	= items;
+		this.next 	= next;
+	}
+
+	public boolean hasNext()
+	{
+		return this.next != null;
+	}
+
+	public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper)
+	{
+		return new CursorPage<>(this.items.stream().map(mapper).collect(Collectors.toList()), this.next);
+	}
+}
@@ -0,0 +1,50 @@
+package com.company.assetmanagment.data.domain;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Progress of an asset accepted for asynchronous creation, looked up by its tracking id.
+ */
+@Getter
+public class IngestStatus
+{
+	public enum State
+	{
+		/** Accepted and waiting in the queue or being inserted. */
+		QUEUED,
+		/** Inserted, {@code assetId} is set. */
+		CREATED,
+		/** Could not be inserted, {@code errors} tells why. */
+		FAILED
+	}
+
+	private final String 		trackingId;
+	private final State 		state;
+	private final Long 			assetId;
+	private final List<String> 	errors;
+
+	private IngestStatus(String trackingId, State state, Long assetId, List<String> errors)
+	{
+		this.trackingId = trackingId;
+		this.state 		= state;
+		this.assetId 	= assetId;
+		this.errors 	= errors;
+	}
+
+	public static IngestStatus queued(String trackingId)
+	{
+		return new IngestStatus(trackingId, State.QUEUED, null, null);
+	}
+
+	public static IngestStatus created(String trackingId, Long assetId)
+	{
+		return new IngestStatus(trackingId, State.CREATED, assetId, null);
+	}
+
+	public static IngestStatus failed(String trackingId, List<String> errors)
+	{
+		return new IngestStatus(trackingId, State.FAILED, null, errors);
+	}
+}
@@ -7,6 +7,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -14,8 +15,11 @@ import javax.persistence.Version;
 import javax.validation.constraints.NotNull;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.company.assetmanagment.data.domain.AssetBucket;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -26,16 +30,22 @@ import lombok.Setter;
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Entity
-@Table(name = "asset")
-public class Asset
+@Table(name = "asset", indexes = {
+	@Index(name = "asset_type_created_on_idx", 	columnList = "type, createdOn"	),
+	@Index(name = "asset_name_idx", 			columnList = "name"				),
+	@Index(name = "asset_created_on_idx", 		columnList = "createdOn"		),
+	@Index(name = "asset_updated_on_idx", 		columnList = "updatedOn"		)
+})
+public class Asset implements AssetBucket
 {
 	@Version
     private Integer version;
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "asset_id_generator")
+	@GenericGenerator(name = "asset_id_generator", strategy = "com.company.assetmanagment.repository.id.BlockSequenceIdGenerator")
 	private Long id;
 	
 	@Temporal(TemporalType.TIMESTAMP)
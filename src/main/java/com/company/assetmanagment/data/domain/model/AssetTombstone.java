@@ -0,0 +1,38 @@
+package com.company.assetmanagment.data.domain.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Id of a deleted asset, kept for {@code asset.sync.tombstone-retention} so a delta sync can tell clients what
+ * disappeared.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "asset_tombstone", indexes = {
+	@Index(name = "asset_tombstone_deleted_on_idx", columnList = "deletedOn")
+})
+public class AssetTombstone
+{
+	@Id
+	private Long id;
+	
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(nullable = false)
+	private Date deletedOn;
+}
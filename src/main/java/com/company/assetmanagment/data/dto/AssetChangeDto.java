@@ -0,0 +1,27 @@
+package com.company.assetmanagment.data.dto;
+
+import java.util.Map;
+
+import com.company.assetmanagment.data.domain.AssetChange;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AssetChangeDto
+{
+	private long 				sequence;
+	
+	private AssetChange.Type 	type;
+	
+	private Long 				id;
+	
+	private Integer 			version;
+	
+	private AssetResponseDto 	asset;
+	
+	private Map<String, Object> changes;
+}
@@ -2,11 +2,14 @@ package com.company.assetmanagment.data.dto;
 
 import java.util.Date;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class AssetResponseDto
 {
 	private Long 	id;
@@ -0,0 +1,20 @@
+package com.company.assetmanagment.data.dto;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AssetSyncDto
+{
+	private List<AssetResponseDto> 	assets;
+	
+	private List<Long> 				deleted;
+	
+	private Date 					watermark;
+	
+	private boolean 				complete;
+}
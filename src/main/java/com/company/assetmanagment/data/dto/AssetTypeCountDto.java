@@ -0,0 +1,21 @@
+package com.company.assetmanagment.data.dto;
+
+import java.time.LocalDate;
+import java.util.SortedMap;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AssetTypeCountDto
+{
+	private String 						type;
+	
+	private long 						count;
+	
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private SortedMap<LocalDate, Long> 	createdPerDay;
+}
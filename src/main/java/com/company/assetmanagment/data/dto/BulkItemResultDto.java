@@ -0,0 +1,26 @@
+package com.company.assetmanagment.data.dto;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDto
+{
+	private int 				index;
+	
+	private HttpStatus 			status;
+	
+	private AssetResponseDto 	asset;
+	
+	private List<String> 		errors;
+}
@@ -0,0 +1,23 @@
+package com.company.assetmanagment.data.dto;
+
+import java.util.List;
+
+import com.company.assetmanagment.data.domain.IngestStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IngestStatusDto
+{
+	private String 				trackingId;
+	
+	private IngestStatus.State 	state;
+	
+	private Long 				assetId;
+	
+	private List<String> 		errors;
+}
@@ -2,6 +2,10 @@ package com.company.assetmanagment.data.dto;
 
 import org.mapstruct.Mapper;
 
+import com.company.assetmanagment.data.domain.AssetChange;
+import com.company.assetmanagment.data.domain.AssetDelta;
+import com.company.assetmanagment.data.domain.AssetTypeCount;
+import com.company.assetmanagment.data.domain.IngestStatus;
 import com.company.assetmanagment.data.domain.model.Asset;
 
 @Mapper(componentModel = "spring")
@@ -12,4 +16,12 @@ public interface MapStructMapper
 	Asset assetIncomdingDtoToAsset(AssetIncomingDto assetIncomingDto);
 	
 	Asset assetResponseDtoToAsset(AssetResponseDto assetDTO);
+	
+	AssetTypeCountDto assetTypeCountToAssetTypeCountDto(AssetTypeCount assetTypeCount);
+	
+	IngestStatusDto ingestStatusToIngestStatusDto(IngestStatus ingestStatus);
+	
+	AssetChangeDto assetChangeToAssetChangeDto(AssetChange assetChange);
+	
+	AssetSyncDto assetDeltaToAssetSyncDto(AssetDelta assetDelta);
 }
\ No newline at end of file
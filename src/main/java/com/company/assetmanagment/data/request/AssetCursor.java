@@ -0,0 +1,74 @@
+package com.company.assetmanagment.data.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.exception.BusinessException;
+
+import lombok.Getter;
+
+/**
+ * Position of the last asset returned by a keyset (seek) page: the value of the sort column plus the asset id as
+ * tie breaker. Clients only ever see the encoded, opaque form.
+ */
+@Getter
+public class AssetCursor
+{
+	private static final String SEPARATOR 		= "|";
+	private static final String INVALID_CURSOR 	= "Invalid pagination cursor.";
+
+	private final AssetSortColumn 	column;
+	private final Sort.Direction 	direction;
+	private final Long 				id;
+	private final Comparable<?> 	value;
+
+	public AssetCursor(AssetSortColumn column, Sort.Direction direction, Long id, Comparable<?> value)
+	{
+		this.column 	= column;
+		this.direction 	= direction;
+		this.id 		= id;
+		this.value 		= value;
+	}
+
+	public static AssetCursor of(AssetSortColumn column, Sort.Direction direction, Asset last)
+	{
+		return new AssetCursor(column, direction, last.getId(), column.valueOf(last));
+	}
+
+	public boolean matches(AssetSortColumn column, Sort.Direction direction)
+	{
+		return this.column == column && this.direction == direction;
+	}
+
+	public String encode()
+	{
+		String raw = String.join(SEPARATOR, column.getProperty(), direction.name(), id.toString(), column.format(value));
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static AssetCursor decode(String token)
+	{
+		try
+		{
+			String 		raw 	= new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] 	parts 	= raw.split("\\" + SEPARATOR, 4);
+
+			if (parts.length != 4)
+			{
+				throw new BusinessException(INVALID_CURSOR);
+			}
+
+			AssetSortColumn column = AssetSortColumn.fromProperty(parts[0]);
+
+			return new AssetCursor(column, Sort.Direction.fromString(parts[1]), Long.valueOf(parts[2]), column.parse(parts[3]));
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new BusinessException(INVALID_CURSOR);
+		}
+	}
+}
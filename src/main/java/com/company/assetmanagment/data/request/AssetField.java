@@ -0,0 +1,95 @@
+package com.company.assetmanagment.data.request;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.company.assetmanagment.data.dto.AssetResponseDto;
+import com.company.assetmanagment.exception.BusinessException;
+
+import lombok.Getter;
+
+/**
+ * Asset properties a client can pick with {@code fields=}. Only the picked columns are selected and serialized; the id
+ * is always part of the response.
+ */
+@Getter
+public enum AssetField
+{
+	ID			("id", 			dto -> { }),
+	NAME		("name", 		dto -> dto.setName(null)),
+	DESCRIPTION	("description", dto -> dto.setDescription(null)),
+	TYPE		("type", 		dto -> dto.setType(null)),
+	CREATED_ON	("createdOn", 	dto -> dto.setCreatedOn(null));
+
+	private static final String SEPARATOR = ",";
+
+	private final String 						property;
+	private final Consumer<AssetResponseDto> 	clear;
+
+	AssetField(String property, Consumer<AssetResponseDto> clear)
+	{
+		this.property 	= property;
+		this.clear 		= clear;
+	}
+
+	/**
+	 * Parses a comma separated list of property names.
+	 *
+	 * @return the picked fields including {@link #ID}, or {@code null} for a blank list, meaning all of them
+	 */
+	public static Set<AssetField> parse(String fields)
+	{
+		if (StringUtils.isBlank(fields))
+		{
+			return null;
+		}
+
+		Set<AssetField> picked = EnumSet.of(ID);
+		for (String property : fields.split(SEPARATOR))
+		{
+			picked.add(fromProperty(property.trim()));
+		}
+		return Collections.unmodifiableSet(picked);
+	}
+
+	/**
+	 * Clears the properties of a response that weren't picked, e.g. the sort column that was only read for the cursor.
+	 */
+	public static AssetResponseDto retain(Set<AssetField> fields, AssetResponseDto dto)
+	{
+		if (fields != null)
+		{
+			for (AssetField field : values())
+			{
+				if (!fields.contains(field))
+				{
+					field.clear.accept(dto);
+				}
+			}
+		}
+		return dto;
+	}
+
+	public static String join(Set<AssetField> fields)
+	{
+		return fields.stream().map(AssetField::getProperty).collect(Collectors.joining(SEPARATOR));
+	}
+
+	public static AssetField fromProperty(String property)
+	{
+		for (AssetField field : values())
+		{
+			if (field.property.equals(property))
+			{
+				return field;
+			}
+		}
+		throw new BusinessException(String.format("Unknown field %s, expected any of %s.", property, Stream.of(values()).map(AssetField::getProperty).collect(Collectors.joining(SEPARATOR))));
+	}
+}
@@ -0,0 +1,62 @@
+package com.company.assetmanagment.data.request;
+
+import java.util.Date;
+import java.util.function.Function;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.exception.BusinessException;
+
+import lombok.Getter;
+
+/**
+ * Asset properties the list endpoint can be sorted by. Each column knows how to read its value from an {@link Asset}
+ * and how to round-trip that value through a pagination cursor.
+ */
+@Getter
+public enum AssetSortColumn
+{
+	ID			("id", 			Asset::getId, 			Long::valueOf),
+	NAME		("name", 		Asset::getName, 		Function.identity()),
+	TYPE		("type", 		Asset::getType, 		Function.identity()),
+	DESCRIPTION	("description", Asset::getDescription, 	Function.identity()),
+	CREATED_ON	("createdOn", 	Asset::getCreatedOn, 	value -> new Date(Long.parseLong(value))),
+	UPDATED_ON	("updatedOn", 	Asset::getUpdatedOn, 	value -> new Date(Long.parseLong(value)));
+
+	private final String 								property;
+	private final Function<Asset, ? extends Comparable<?>> 	accessor;
+	private final Function<String, ? extends Comparable<?>> 	parser;
+
+	AssetSortColumn(String property, Function<Asset, ? extends Comparable<?>> accessor, Function<String, ? extends Comparable<?>> parser)
+	{
+		this.property 	= property;
+		this.accessor 	= accessor;
+		this.parser 	= parser;
+	}
+
+	public Comparable<?> valueOf(Asset asset)
+	{
+		return this.accessor.apply(asset);
+	}
+
+	public Comparable<?> parse(String value)
+	{
+		return this.parser.apply(value);
+	}
+
+	public String format(Object value)
+	{
+		return value instanceof Date ? Long.toString(((Date) value).getTime()) : value.toString();
+	}
+
+	public static AssetSortColumn fromProperty(String property)
+	{
+		for (AssetSortColumn column : values())
+		{
+			if (column.property.equals(property))
+			{
+				return column;
+			}
+		}
+		throw new BusinessException(String.format("Assets can not be sorted by %s.", property));
+	}
+}
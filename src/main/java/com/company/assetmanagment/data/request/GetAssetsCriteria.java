@@ -1,6 +1,72 @@
 package com.company.assetmanagment.data.request;
 
+import java.util.Date;
+import java.util.Set;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
 public class GetAssetsCriteria extends RequestParams
 {
+	public static final int DEFAULT_LIMIT 	= 100;
+	public static final int MAX_LIMIT 		= 1000;
+
+	/** Opaque cursor taken from the next link of the previous page. */
+	private String 	after;
+
+	@Min(1)
+	@Max(MAX_LIMIT)
+	private Integer limit;
+
+	/** Only assets of exactly this type. */
+	@Size(max = 32)
+	private String 	type;
+
+	/** Only assets whose name starts with this prefix, case sensitive. */
+	@Size(max = 256)
+	private String 	namePrefix;
+
+	/** Only assets created at or after this instant (ISO-8601). */
+	@DateTimeFormat(iso = ISO.DATE_TIME)
+	private Date 	createdFrom;
+
+	/** Only assets created before this instant (ISO-8601). */
+	@DateTimeFormat(iso = ISO.DATE_TIME)
+	private Date 	createdTo;
+
+	/** Only assets last updated at or after this instant (ISO-8601). */
+	@DateTimeFormat(iso = ISO.DATE_TIME)
+	private Date 	updatedFrom;
+
+	/** Only assets last updated before this instant (ISO-8601). */
+	@DateTimeFormat(iso = ISO.DATE_TIME)
+	private Date 	updatedTo;
+
+	/** Comma separated properties to return, e.g. name,type. The id is always returned. Default all. */
+	@Size(max = 256)
+	private String 	fields;
+
+	@Hidden
+	public Set<AssetField> getFieldSet()
+	{
+		return AssetField.parse(this.fields);
+	}
 
+	@Hidden
+	public int getPageSize()
+	{
+		return this.limit == null ? DEFAULT_LIMIT : this.limit;
+	}
 }
@@ -0,0 +1,38 @@
+package com.company.assetmanagment.data.request;
+
+import java.util.Date;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+public class SyncAssetsCriteria
+{
+	public static final int DEFAULT_LIMIT 	= 1000;
+	public static final int MAX_LIMIT 		= 10000;
+
+	/** Watermark of the previous sync (ISO-8601). Without it every asset is returned. */
+	@DateTimeFormat(iso = ISO.DATE_TIME)
+	private Date 	modifiedSince;
+
+	/** Maximum number of assets returned. More than that are left to the next sync. */
+	@Min(1)
+	@Max(MAX_LIMIT)
+	private Integer limit;
+
+	@Hidden
+	public int getPageSize()
+	{
+		return this.limit == null ? DEFAULT_LIMIT : this.limit;
+	}
+}
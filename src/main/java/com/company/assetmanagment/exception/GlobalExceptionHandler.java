@@ -13,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -34,6 +35,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler
 	public 	static final String FIELD_ERROR_SEPARATOR 		= ": ";
 	private static final Logger local_logger 				= LoggerFactory.getLogger(GlobalExceptionHandler.class);
 	private static final String ERRORS_FOR_PATH 			= "errors {} for path {}";
+	public 	static final String RETRY_AFTER_SECONDS 		= "1";
 
 	@Override
 	protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException exception, HttpHeaders headers, HttpStatus status, WebRequest request)
@@ -82,6 +84,43 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler
 		return new ResponseEntity<Object>(response, HttpStatus.CONFLICT);
 	}
 
+	@ExceptionHandler(VersionConflictException.class)
+	public ResponseEntity<Object> versionConflict(VersionConflictException ex)
+	{	
+		ApiError response = ApiError.builder()
+										.message	(ex.getMessage()		)
+										.status		(HttpStatus.CONFLICT	)
+										.timestamp	(LocalDateTime.now()	)
+										.build		(						);
+		
+		return new ResponseEntity<Object>(response, HttpStatus.CONFLICT);
+	}
+
+	@ExceptionHandler(ResourceGoneException.class)
+	public ResponseEntity<Object> resourceGone(ResourceGoneException ex)
+	{
+		ApiError response = ApiError.builder()
+										.message	(ex.getMessage()		)
+										.status		(HttpStatus.GONE		)
+										.timestamp	(LocalDateTime.now()	)
+										.build		(						);
+		
+		// preset, so the body is written even to an EventSource that accepts only text/event-stream
+		return ResponseEntity.status(HttpStatus.GONE).contentType(MediaType.APPLICATION_JSON).body(response);
+	}
+
+	@ExceptionHandler(IngestQueueFullException.class)
+	public ResponseEntity<Object> ingestQueueFull(IngestQueueFullException ex)
+	{
+		ApiError response = ApiError.builder()
+										.message	(ex.getMessage()				)
+										.status		(HttpStatus.TOO_MANY_REQUESTS	)
+										.timestamp	(LocalDateTime.now()			)
+										.build		(								);
+		
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).body(response);
+	}
+
 	@ExceptionHandler(BusinessException.class)
 	public ResponseEntity<Object> customException(BusinessException ex)
 	{
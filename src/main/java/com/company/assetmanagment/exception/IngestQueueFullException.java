@@ -0,0 +1,11 @@
+package com.company.assetmanagment.exception;
+
+@SuppressWarnings("serial")
+public class IngestQueueFullException extends RuntimeException
+{
+
+	public IngestQueueFullException(String message)
+	{
+		super(message);
+	}
+}
@@ -0,0 +1,11 @@
+package com.company.assetmanagment.exception;
+
+@SuppressWarnings("serial")
+public class ResourceGoneException extends RuntimeException
+{
+
+	public ResourceGoneException(String message)
+	{
+		super(message);
+	}
+}
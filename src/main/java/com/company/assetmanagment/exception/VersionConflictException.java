@@ -0,0 +1,11 @@
+package com.company.assetmanagment.exception;
+
+@SuppressWarnings("serial")
+public class VersionConflictException extends RuntimeException
+{
+
+	public VersionConflictException(String message)
+	{
+		super(message);
+	}
+}
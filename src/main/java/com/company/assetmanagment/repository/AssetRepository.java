@@ -1,8 +1,64 @@
 package com.company.assetmanagment.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.List;
+import java.util.Date;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.company.assetmanagment.data.domain.AssetDailyCount;
 import com.company.assetmanagment.data.domain.model.Asset;
 
-public interface AssetRepository extends RepositoryBase<Asset, Long>
+public interface AssetRepository extends RepositoryBase<Asset, Long>, AssetRepositoryCustom
 {
+	int STREAM_FETCH_SIZE = 500;
 
+	/**
+	 * Ids of all assets in the given order. They are kept in the query cache per {@code Sort}, so a repeated sort is
+	 * answered without a query until an asset is written.
+	 */
+	@Query("select a.id from Asset a")
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	List<Long> findAllIds(Sort sort);
+	
+	/**
+	 * Forward-only scroll over all assets. Rows are pulled from the driver {@value #STREAM_FETCH_SIZE} at a time and
+	 * loaded read-only, so the caller must consume the stream inside a transaction and close it.
+	 */
+	@QueryHints({
+		@QueryHint(name = HINT_FETCH_SIZE, 	value = "" + STREAM_FETCH_SIZE),
+		@QueryHint(name = HINT_READONLY, 	value = "true")
+	})
+	Stream<Asset> streamAllBy(Sort sort);
+	
+	/**
+	 * Reads only the {@code @Version} of an asset, without hydrating the entity.
+	 */
+	@Query("select a.version from Asset a where a.id = :id")
+	Optional<Integer> findVersionById(@Param("id") Long id);
+	
+	/**
+	 * Ids of the assets inserted or updated after {@code since} and at or before {@code until}, read from the
+	 * {@code updatedOn} index.
+	 */
+	@Query("select a.id from Asset a where a.updatedOn > :since and a.updatedOn <= :until")
+	List<Long> findIdsUpdatedWithin(@Param("since") Date since, @Param("until") Date until, Pageable pageable);
+	
+	/**
+	 * Number of assets per type and creation day, in the time zone of the database.
+	 */
+	@Query("select a.type as type, year(a.createdOn) as year, month(a.createdOn) as month, day(a.createdOn) as day, count(a) as count "
+		 + "from Asset a group by a.type, year(a.createdOn), month(a.createdOn), day(a.createdOn)")
+	List<AssetDailyCount> countByTypeAndCreatedDay();
 }
@@ -0,0 +1,64 @@
+package com.company.assetmanagment.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+
+public interface AssetRepositoryCustom
+{
+	/**
+	 * Returns at most {@code limit} assets matching the specification in the given order. Unlike a {@code Pageable}
+	 * query no count query and no OFFSET is issued, which keeps keyset pages equally cheap at any depth.
+	 */
+	List<Asset> findAll(Specification<Asset> specification, Sort sort, int limit);
+	
+	/**
+	 * Like {@link #findAll(Specification, Sort, int)}, but selects only the ids. They are kept in the query cache, so
+	 * a page asked for again is served without a query until an asset is written.
+	 */
+	List<Long> findIds(Specification<Asset> specification, Sort sort, int limit);
+	
+	/**
+	 * Like {@link #findAll(Specification, Sort, int)}, but selects only the given attributes into new assets that are
+	 * neither hydrated nor tracked by the persistence context. The other attributes stay {@code null}.
+	 */
+	List<Asset> findAll(Specification<Asset> specification, Sort sort, int limit, Collection<String> attributes);
+	
+	/**
+	 * Selects only the given attributes of an asset, see {@link #findAll(Specification, Sort, int, Collection)}.
+	 */
+	Optional<Asset> findById(Long id, Collection<String> attributes);
+	
+	/**
+	 * Removes the asset from the current persistence context so long running reads don't accumulate managed entities.
+	 */
+	void detach(Asset asset);
+	
+	/**
+	 * Sends pending inserts/updates to the database and empties the persistence context.
+	 */
+	void flushAndClear();
+	
+	/**
+	 * Sets the given attributes, bumps the {@code @Version} and stamps {@code updatedOn} in a single
+	 * {@code UPDATE ... WHERE id = ? [AND version = ?] [AND type = ?]} without loading the asset. The persistence
+	 * context is flushed before and cleared after the statement, as for a {@code @Modifying} query.
+	 *
+	 * @return the number of updated rows, 0 if the asset doesn't exist or has another version or type than expected
+	 */
+	int update(Long id, Integer expectedVersion, String expectedType, Map<String, Object> values);
+	
+	/**
+	 * Deletes an asset with a single {@code DELETE ... WHERE id = ? [AND version = ?] [AND type = ?]}, without loading
+	 * it first.
+	 *
+	 * @return the number of deleted rows, 0 if the asset doesn't exist or has another version or type than expected
+	 */
+	int delete(Long id, Integer expectedVersion, String expectedType);
+}
@@ -0,0 +1,204 @@
+package com.company.assetmanagment.repository;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+
+public class AssetRepositoryCustomImpl implements AssetRepositoryCustom
+{
+	private static final String ID 			= "id";
+	private static final String VERSION 		= "version";
+	private static final String UPDATED_ON 	= "updatedOn";
+	private static final String TYPE 		= "type";
+
+	private static final Map<String, BiConsumer<Asset, Object>> SETTERS = new HashMap<>();
+
+	static
+	{
+		SETTERS.put(ID, 			(asset, value) -> asset.setId			((Long) 	value));
+		SETTERS.put(VERSION, 		(asset, value) -> asset.setVersion		((Integer) 	value));
+		SETTERS.put("name", 		(asset, value) -> asset.setName			((String) 	value));
+		SETTERS.put("description", 	(asset, value) -> asset.setDescription	((String) 	value));
+		SETTERS.put(TYPE, 			(asset, value) -> asset.setType			((String) 	value));
+		SETTERS.put("createdOn", 	(asset, value) -> asset.setCreatedOn	((Date) 	value));
+		SETTERS.put(UPDATED_ON, 	(asset, value) -> asset.setUpdatedOn	((Date) 	value));
+	}
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<Asset> findAll(Specification<Asset> specification, Sort sort, int limit)
+	{
+		CriteriaBuilder 	builder = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Asset> query 	= builder.createQuery(Asset.class);
+		Root<Asset> 		root 	= query.from(Asset.class);
+
+		query.select(root);
+
+		Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+		if (predicate != null)
+		{
+			query.where(predicate);
+		}
+
+		query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+		return this.entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+
+	@Override
+	public List<Long> findIds(Specification<Asset> specification, Sort sort, int limit)
+	{
+		CriteriaBuilder 	builder = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query 	= builder.createQuery(Long.class);
+		Root<Asset> 		root 	= query.from(Asset.class);
+
+		query.select(root.get(ID));
+
+		Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+		if (predicate != null)
+		{
+			query.where(predicate);
+		}
+
+		query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+		return this.entityManager.createQuery(query).setMaxResults(limit).setHint(HINT_CACHEABLE, true).getResultList();
+	}
+
+	@Override
+	public List<Asset> findAll(Specification<Asset> specification, Sort sort, int limit, Collection<String> attributes)
+	{
+		CriteriaBuilder 	builder = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query 	= builder.createTupleQuery();
+		Root<Asset> 		root 	= query.from(Asset.class);
+		List<String> 		columns = new ArrayList<>(attributes);
+
+		query.multiselect(columns.stream().map(attribute -> root.get(attribute).alias(attribute)).collect(Collectors.toList()));
+
+		Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+		if (predicate != null)
+		{
+			query.where(predicate);
+		}
+
+		query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+		List<Tuple> rows 	= this.entityManager.createQuery(query).setMaxResults(limit).getResultList();
+		List<Asset> assets 	= new ArrayList<>(rows.size());
+		for (Tuple row : rows)
+		{
+			Asset asset = new Asset();
+			for (int i = 0; i < columns.size(); i++)
+			{
+				SETTERS.get(columns.get(i)).accept(asset, row.get(i));
+			}
+			assets.add(asset);
+		}
+		return assets;
+	}
+
+	@Override
+	public Optional<Asset> findById(Long id, Collection<String> attributes)
+	{
+		List<Asset> assets = findAll((root, query, builder) -> builder.equal(root.get(ID), id), Sort.unsorted(), 1, attributes);
+
+		return assets.stream().findFirst();
+	}
+
+	@Override
+	public void detach(Asset asset)
+	{
+		this.entityManager.detach(asset);
+	}
+
+	@Override
+	public void flushAndClear()
+	{
+		this.entityManager.flush();
+		this.entityManager.clear();
+	}
+
+	@Override
+	@Transactional
+	public int update(Long id, Integer expectedVersion, String expectedType, Map<String, Object> values)
+	{
+		CriteriaBuilder 		builder = this.entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Asset> 	update 	= builder.createCriteriaUpdate(Asset.class);
+		Root<Asset> 			root 	= update.from(Asset.class);
+		Path<Integer> 			version = root.get(VERSION);
+
+		values.forEach((attribute, value) -> update.set(root.get(attribute), value));
+		update.set(version, builder.sum(version, 1));
+		update.set(root.<Date>get(UPDATED_ON), new Date());
+
+		update.where(matches(builder, root, id, expectedVersion, expectedType));
+
+		return execute(this.entityManager.createQuery(update));
+	}
+
+	@Override
+	@Transactional
+	public int delete(Long id, Integer expectedVersion, String expectedType)
+	{
+		CriteriaBuilder 		builder = this.entityManager.getCriteriaBuilder();
+		CriteriaDelete<Asset> 	delete 	= builder.createCriteriaDelete(Asset.class);
+		Root<Asset> 			root 	= delete.from(Asset.class);
+
+		delete.where(matches(builder, root, id, expectedVersion, expectedType));
+
+		return execute(this.entityManager.createQuery(delete));
+	}
+
+	private static Predicate[] matches(CriteriaBuilder builder, Root<Asset> root, Long id, Integer expectedVersion, String expectedType)
+	{
+		List<Predicate> predicates = new ArrayList<>(3);
+		predicates.add(builder.equal(root.get(ID), id));
+		if (expectedVersion != null)
+		{
+			predicates.add(builder.equal(root.get(VERSION), expectedVersion));
+		}
+		if (expectedType != null)
+		{
+			predicates.add(builder.equal(root.get(TYPE), expectedType));
+		}
+		return predicates.toArray(new Predicate[0]);
+	}
+
+	private int execute(Query statement)
+	{
+		this.entityManager.flush();
+		int rows = statement.executeUpdate();
+		this.entityManager.clear();
+
+		return rows;
+	}
+}
@@ -0,0 +1,139 @@
+package com.company.assetmanagment.repository;
+
+import java.util.Date;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.request.AssetCursor;
+import com.company.assetmanagment.data.request.AssetSortColumn;
+import com.company.assetmanagment.data.request.GetAssetsCriteria;
+
+public final class AssetSpecifications
+{
+	private static final String ID 			= "id";
+	private static final String TYPE 		= "type";
+	private static final String NAME 		= "name";
+	private static final String CREATED_ON 	= "createdOn";
+	private static final String UPDATED_ON 	= "updatedOn";
+	private static final char 	LIKE_ESCAPE = '\\';
+
+	private AssetSpecifications()
+	{
+	}
+
+	/**
+	 * Seek predicate for keyset pagination: rows strictly after the cursor in {@code (sortColumn, id)} order, i.e.
+	 * {@code col > :value OR (col = :value AND id > :id)} for ascending and the mirror image for descending sorts.
+	 */
+	public static Specification<Asset> after(AssetCursor cursor)
+	{
+		return (root, query, builder) ->
+		{
+			boolean 	ascending 	= cursor.getDirection().isAscending();
+			Path<Long> 	id 			= root.get(ID);
+			Predicate 	idBeyond 	= beyond(builder, id, cursor.getId(), ascending);
+
+			if (cursor.getColumn() == AssetSortColumn.ID)
+			{
+				return idBeyond;
+			}
+
+			Path<Comparable<Object>> 	column 	= root.get(cursor.getColumn().getProperty());
+			Comparable<Object> 			value 	= comparable(cursor.getValue());
+
+			return builder.or(
+								beyond(builder, column, value, ascending),
+								builder.and(builder.equal(column, value), idBeyond)
+							 );
+		};
+	}
+
+	/**
+	 * Filter for the asset list. Every criterion that is set narrows the result and is served by one of the
+	 * {@link Asset} table indexes; date ranges include their lower bound and exclude the upper one.
+	 */
+	public static Specification<Asset> matching(GetAssetsCriteria criteria)
+	{
+		return Specification.where(typeIs(criteria.getType()))
+							.and(nameStartsWith(criteria.getNamePrefix()))
+							.and(within(CREATED_ON, criteria.getCreatedFrom(), criteria.getCreatedTo()))
+							.and(within(UPDATED_ON, criteria.getUpdatedFrom(), criteria.getUpdatedTo()));
+	}
+
+	/**
+	 * Assets last updated after {@code since} and at or before {@code until}, an index range scan on
+	 * {@code updatedOn}.
+	 */
+	public static Specification<Asset> modifiedWithin(Date since, Date until)
+	{
+		return (root, query, builder) ->
+		{
+			Path<Date> updatedOn = root.get(UPDATED_ON);
+
+			return builder.and(builder.greaterThan(updatedOn, since), builder.lessThanOrEqualTo(updatedOn, until));
+		};
+	}
+
+	public static Specification<Asset> typeIs(String type)
+	{
+		return StringUtils.isEmpty(type) ? null : (root, query, builder) -> builder.equal(root.get(TYPE), type);
+	}
+
+	/**
+	 * {@code name LIKE 'prefix%'} with the LIKE wildcards of the prefix escaped, so it stays an index range scan.
+	 */
+	public static Specification<Asset> nameStartsWith(String prefix)
+	{
+		if (StringUtils.isEmpty(prefix))
+		{
+			return null;
+		}
+
+		String pattern = prefix.replace("" + LIKE_ESCAPE, "" + LIKE_ESCAPE + LIKE_ESCAPE)
+								.replace("%", LIKE_ESCAPE + "%")
+								.replace("_", LIKE_ESCAPE + "_") + "%";
+
+		return (root, query, builder) -> builder.like(root.get(NAME), pattern, LIKE_ESCAPE);
+	}
+
+	private static Specification<Asset> within(String attribute, Date from, Date to)
+	{
+		if (from == null && to == null)
+		{
+			return null;
+		}
+
+		return (root, query, builder) ->
+		{
+			Path<Date> date = root.get(attribute);
+
+			if (from == null)
+			{
+				return builder.lessThan(date, to);
+			}
+			if (to == null)
+			{
+				return builder.greaterThanOrEqualTo(date, from);
+			}
+			return builder.and(builder.greaterThanOrEqualTo(date, from), builder.lessThan(date, to));
+		};
+	}
+
+	private static <Y extends Comparable<? super Y>> Predicate beyond(CriteriaBuilder builder, Expression<? extends Y> expression, Y value, boolean ascending)
+	{
+		return ascending ? builder.greaterThan(expression, value) : builder.lessThan(expression, value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Comparable<Object> comparable(Comparable<?> value)
+	{
+		return (Comparable<Object>) value;
+	}
+}
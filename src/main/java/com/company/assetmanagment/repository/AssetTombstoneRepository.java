@@ -0,0 +1,33 @@
+package com.company.assetmanagment.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.company.assetmanagment.data.domain.model.AssetTombstone;
+
+public interface AssetTombstoneRepository extends RepositoryBase<AssetTombstone, Long>
+{
+	/**
+	 * Inserts a tombstone with a single statement. {@code save} would select it first, as its id is assigned.
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = "INSERT INTO asset_tombstone (id, deleted_on) VALUES (:id, :deletedOn)", nativeQuery = true)
+	int insert(@Param("id") Long id, @Param("deletedOn") Date deletedOn);
+	
+	/**
+	 * Ids of the assets deleted after {@code since} and at or before {@code until}, in the order they were deleted.
+	 */
+	@Query("select t.id from AssetTombstone t where t.deletedOn > :since and t.deletedOn <= :until order by t.deletedOn, t.id")
+	List<Long> findIdsDeletedWithin(@Param("since") Date since, @Param("until") Date until);
+	
+	@Modifying
+	@Transactional
+	@Query("delete from AssetTombstone t where t.deletedOn < :before")
+	int deleteDeletedBefore(@Param("before") Date before);
+}
@@ -0,0 +1,191 @@
+package com.company.assetmanagment.repository.id;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.connections.spi.JdbcConnectionAccess;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.schema.Action;
+import org.hibernate.tool.schema.extract.spi.SequenceInformation;
+import org.hibernate.type.Type;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Sequence based id generator that hands out ids from blocks reserved in the database. One sequence call reserves a
+ * whole block ({@code block_size} ids) for this node, the ids of the block are then assigned locally without any round
+ * trip. Because every block comes from the same database sequence, several application nodes never receive
+ * overlapping ids.
+ * <p>
+ * The sequence, block size and optimizer ({@code pooled}, {@code pooled-lo} or {@code hilo}) are read from the
+ * Hibernate settings {@value #SEQUENCE_NAME_SETTING}, {@value #BLOCK_SIZE_SETTING} and {@value #OPTIMIZER_SETTING}.
+ * Every block reservation increments the {@value #BLOCKS_METRIC} counter, i.e. it counts how often the local block was
+ * exhausted.
+ * <p>
+ * Unless the schema is created from scratch, an existing sequence is checked on startup: its increment must fit the
+ * optimizer, the block size for the pooled ones and 1 for hilo, whose ids would otherwise overlap those of the pooled
+ * blocks on the same sequence. And the next block, which the check takes, must start above every id in the table.
+ */
+public class BlockSequenceIdGenerator extends SequenceStyleGenerator
+{
+	public static final String SEQUENCE_NAME_SETTING 	= "asset.id.sequence_name";
+	public static final String BLOCK_SIZE_SETTING 		= "asset.id.block_size";
+	public static final String OPTIMIZER_SETTING 		= "asset.id.optimizer";
+	public static final String INITIAL_VALUE_SETTING 	= "asset.id.initial_value";
+
+	private static final String DEFAULT_SEQUENCE_NAME 	= "asset_seq";
+	private static final String DEFAULT_BLOCK_SIZE 		= "50";
+	private static final String DEFAULT_OPTIMIZER 		= "pooled";
+	private static final String DEFAULT_INITIAL_VALUE 	= "1";
+
+	public static final String BLOCKS_METRIC 			= "asset.id.blocks.reserved";
+	public static final String IDS_METRIC 				= "asset.id.generated";
+	public static final String BLOCK_SIZE_METRIC 		= "asset.id.block.size";
+	private static final String SEQUENCE_TAG 			= "sequence";
+
+	private static final EnumSet<Action> RECREATING 	= EnumSet.of(Action.CREATE, Action.CREATE_DROP, Action.CREATE_ONLY);
+
+	private Counter reservedBlocks;
+	private Counter generatedIds;
+
+	@Override
+	public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException
+	{
+		Map<String, Object> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+
+		String 	sequence 		= setting(settings, SEQUENCE_NAME_SETTING, 	DEFAULT_SEQUENCE_NAME);
+		String 	optimizer 		= setting(settings, OPTIMIZER_SETTING, 		DEFAULT_OPTIMIZER);
+		int 	blockSize 		= Integer.parseInt(setting(settings, BLOCK_SIZE_SETTING, 	DEFAULT_BLOCK_SIZE));
+		long 	initialValue 	= Long.parseLong(setting(settings, INITIAL_VALUE_SETTING, DEFAULT_INITIAL_VALUE));
+
+		params.setProperty(SEQUENCE_PARAM, 	sequence);
+		params.setProperty(INCREMENT_PARAM, Integer.toString(blockSize));
+		params.setProperty(OPT_PARAM, 		optimizer);
+		params.setProperty(INITIAL_PARAM, 	Long.toString(initialValue));
+
+		JdbcEnvironment jdbcEnvironment = serviceRegistry.getService(JdbcEnvironment.class);
+		Long 			increment 		= RECREATING.contains(Action.interpretHbm2ddlSetting(settings.get(AvailableSettings.HBM2DDL_AUTO))) ? null : databaseIncrement(jdbcEnvironment, sequence);
+		if (increment != null)
+		{
+			long expected = "hilo".equals(optimizer) ? 1 : blockSize;
+			if (increment != expected)
+			{
+				throw new MappingException(String.format("Sequence %s increments by %d, but the %s optimizer with a block size of %d needs %d. "
+						+ "Ids of blocks interpreted differently overlap, use a new sequence for another optimizer.", sequence, increment, optimizer, blockSize, expected));
+			}
+		}
+
+		super.configure(type, params, serviceRegistry);
+
+		if (increment != null)
+		{
+			checkAboveExistingIds(serviceRegistry.getService(JdbcServices.class), jdbcEnvironment, sequence, params, optimizer, blockSize, initialValue);
+		}
+
+		this.reservedBlocks = Metrics.counter(BLOCKS_METRIC, 	SEQUENCE_TAG, sequence);
+		this.generatedIds 	= Metrics.counter(IDS_METRIC, 		SEQUENCE_TAG, sequence);
+		Gauge.builder(BLOCK_SIZE_METRIC, getOptimizer(), Optimizer::getIncrementSize).tag(SEQUENCE_TAG, sequence).strongReference(true).register(Metrics.globalRegistry);
+	}
+
+	@Override
+	public Serializable generate(SharedSessionContractImplementor session, Object object)
+	{
+		AccessCallback callback = getDatabaseStructure().buildCallback(session);
+
+		Serializable id = getOptimizer().generate(new AccessCallback()
+		{
+			@Override
+			public IntegralDataTypeHolder getNextValue()
+			{
+				reservedBlocks.increment();
+				return callback.getNextValue();
+			}
+
+			@Override
+			public String getTenantIdentifier()
+			{
+				return callback.getTenantIdentifier();
+			}
+		});
+		this.generatedIds.increment();
+
+		return id;
+	}
+
+	private static Long databaseIncrement(JdbcEnvironment jdbcEnvironment, String sequence)
+	{
+		return jdbcEnvironment.getExtractedDatabaseMetaData().getSequenceInformationList().stream()
+								.filter(information -> information.getSequenceName().getSequenceName().getText().equalsIgnoreCase(sequence))
+								.map(SequenceInformation::getIncrementValue)
+								.findFirst()
+								.orElse(null);
+	}
+
+	/**
+	 * Refuses to start on a sequence that is behind the table, e.g. created by hand without moving it above the existing
+	 * ids. It takes the next block to compare, so every start skips one block.
+	 */
+	private static void checkAboveExistingIds(JdbcServices jdbcServices, JdbcEnvironment jdbcEnvironment, String sequence, Properties params, String optimizer, int blockSize, long initialValue)
+	{
+		String 					table 				= params.getProperty(PersistentIdentifierGenerator.TABLE);
+		String 					column 				= params.getProperty(PersistentIdentifierGenerator.PK);
+		JdbcConnectionAccess 	connectionAccess 	= jdbcServices.getBootstrapJdbcConnectionAccess();
+		try
+		{
+			Connection connection = connectionAccess.obtainConnection();
+			try (Statement statement = connection.createStatement())
+			{
+				IdBlock next 	= IdBlock.of(optimizer, single(statement, jdbcEnvironment.getDialect().getSequenceNextValString(sequence)), blockSize, initialValue);
+				long 	maxId 	= single(statement, "SELECT MAX(" + column + ") FROM " + table);
+				if (next.first <= maxId)
+				{
+					throw new MappingException(String.format("Sequence %s hands out ids from %d, but %s already holds ids up to %d. "
+							+ "Restart the sequence above them, see db/upgrade.sql.", sequence, next.first, table, maxId));
+				}
+			}
+			finally
+			{
+				connectionAccess.releaseConnection(connection);
+			}
+		}
+		catch (SQLException e)
+		{
+			throw new MappingException("Unable to check sequence " + sequence + " against the ids of " + table, e);
+		}
+	}
+
+	private static long single(Statement statement, String sql) throws SQLException
+	{
+		try (ResultSet resultSet = statement.executeQuery(sql))
+		{
+			resultSet.next();
+			return resultSet.getLong(1);
+		}
+	}
+
+	private static String setting(Map<String, Object> settings, String setting, String defaultValue)
+	{
+		Object value = settings.get(setting);
+
+		return value == null || value.toString().isEmpty() ? defaultValue : value.toString();
+	}
+}
@@ -0,0 +1,38 @@
+package com.company.assetmanagment.repository.id;
+
+/**
+ * The ids a sequence value reserves, as the Hibernate optimizers interpret it: pooled ends at the value, except that
+ * the initial value only covers itself here, pooled-lo starts at it and hilo multiplies it by the block size.
+ */
+final class IdBlock
+{
+	final long first;
+	final long end;
+
+	private IdBlock(long first, long end)
+	{
+		this.first 	= first;
+		this.end 	= end;
+	}
+
+	static void checkSupported(String optimizer, String caller)
+	{
+		if (!"pooled".equals(optimizer) && !"pooled-lo".equals(optimizer) && !"hilo".equals(optimizer))
+		{
+			throw new IllegalStateException(String.format("Id optimizer %s is not supported by the %s.", optimizer, caller));
+		}
+	}
+
+	static IdBlock of(String optimizer, long value, int blockSize, long initialValue)
+	{
+		switch (optimizer)
+		{
+			case "pooled" :
+				return new IdBlock(Math.max(value - blockSize + 1, initialValue), value + 1);
+			case "pooled-lo" :
+				return new IdBlock(value, value + blockSize);
+			default :
+				return new IdBlock((value - 1) * blockSize + 1, value * blockSize + 1);
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.company.assetmanagment.repository.id;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.company.assetmanagment.config.AssetProperties;
+
+/**
+ * Counterpart of {@link BlockSequenceIdGenerator} for plain JDBC inserts, e.g. of generated data. It reserves blocks
+ * of {@code asset.id.block-size} ids from the same sequence and interprets them like the configured Hibernate optimizer,
+ * see {@link IdBlock}. Not thread-safe, each writer uses its own.
+ */
+public class JdbcBlockSequence
+{
+	private final JdbcTemplate 	jdbcTemplate;
+	private final String 		nextValueSql;
+	private final int 			blockSize;
+	private final long 			initialValue;
+	private final String 		optimizer;
+
+	private long next;
+	private long end;
+
+	public JdbcBlockSequence(JdbcTemplate jdbcTemplate, AssetProperties.Id settings)
+	{
+		this.jdbcTemplate 	= jdbcTemplate;
+		this.nextValueSql 	= "SELECT NEXT VALUE FOR " + settings.getSequenceName();
+		this.blockSize 		= settings.getBlockSize();
+		this.initialValue 	= settings.getInitialValue();
+		this.optimizer 		= settings.getOptimizer();
+
+		IdBlock.checkSupported(this.optimizer, "JDBC writers");
+	}
+
+	public long nextId()
+	{
+		if (this.next == this.end)
+		{
+			IdBlock block = IdBlock.of(this.optimizer, this.jdbcTemplate.queryForObject(this.nextValueSql, Long.class), this.blockSize, this.initialValue);
+			this.next 	= block.first;
+			this.end 	= block.end;
+		}
+		return this.next++;
+	}
+}
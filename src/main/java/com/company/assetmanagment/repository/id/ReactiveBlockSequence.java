@@ -0,0 +1,79 @@
+package com.company.assetmanagment.repository.id;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.company.assetmanagment.config.AssetProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link BlockSequenceIdGenerator} for inserts that don't go through Hibernate. It reserves
+ * blocks of {@code asset.id.block-size} ids from the same sequence and interprets the sequence value like the
+ * configured Hibernate optimizer does, so both never hand out the same id.
+ * <p>
+ * Two subscribers finding the block exhausted at the same time both reserve a new one; the ids left in the block
+ * replaced first are skipped, never reused.
+ */
+public class ReactiveBlockSequence
+{
+	private static final String SEQUENCE_TAG = "sequence";
+
+	private final DatabaseClient 	databaseClient;
+	private final String 			nextValueSql;
+	private final int 				blockSize;
+	private final long 				initialValue;
+	private final String 			optimizer;
+	private final Counter 			reservedBlocks;
+	private final Counter 			generatedIds;
+
+	private long next;
+	private long end;
+
+	public ReactiveBlockSequence(DatabaseClient databaseClient, AssetProperties.Id settings)
+	{
+		this.databaseClient = databaseClient;
+		this.nextValueSql 	= "SELECT NEXT VALUE FOR " + settings.getSequenceName();
+		this.blockSize 		= settings.getBlockSize();
+		this.initialValue 	= settings.getInitialValue();
+		this.optimizer 		= settings.getOptimizer();
+		this.reservedBlocks = Metrics.counter(BlockSequenceIdGenerator.BLOCKS_METRIC, 	SEQUENCE_TAG, settings.getSequenceName());
+		this.generatedIds 	= Metrics.counter(BlockSequenceIdGenerator.IDS_METRIC, 		SEQUENCE_TAG, settings.getSequenceName());
+
+		IdBlock.checkSupported(this.optimizer, "reactive stack");
+	}
+
+	public Mono<Long> nextId()
+	{
+		return Mono.defer(() ->
+		{
+			Long id = take();
+			if (id != null)
+			{
+				return Mono.just(id);
+			}
+			return this.databaseClient.sql(this.nextValueSql)
+										.map(row -> row.get(0, Long.class))
+										.one()
+										.map(this::reserve);
+		}).doOnNext(id -> this.generatedIds.increment());
+	}
+
+	private synchronized Long take()
+	{
+		return this.next < this.end ? this.next++ : null;
+	}
+
+	/**
+	 * Makes the {@link IdBlock} of the given sequence value the current one and takes its first id.
+	 */
+	private synchronized long reserve(long value)
+	{
+		this.reservedBlocks.increment();
+		IdBlock block = IdBlock.of(this.optimizer, value, this.blockSize, this.initialValue);
+		this.next 	= block.first;
+		this.end 	= block.end;
+		return this.next++;
+	}
+}
@@ -0,0 +1,312 @@
+package com.company.assetmanagment.repository.reactive;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.StringJoiner;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.request.AssetCursor;
+import com.company.assetmanagment.data.request.AssetSortColumn;
+import com.company.assetmanagment.data.request.GetAssetsCriteria;
+import com.company.assetmanagment.repository.id.ReactiveBlockSequence;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC access to the {@code asset} and {@code asset_tombstone} tables for the reactive stack, the non-blocking
+ * counterpart of {@code AssetRepository} and {@code AssetTombstoneRepository}. The statements are the ones Hibernate issues for the servlet stack: the same keyset
+ * predicates and filters, single conditional {@code UPDATE}s and {@code DELETE}s, and ids from the same sequence
+ * blocks. Rows are streamed as the subscriber requests them, so large results are read with backpressure.
+ */
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveAssetRepository
+{
+	private static final String COLUMNS 	= "id, version, created_on, updated_on, name, type, description";
+	private static final char 	LIKE_ESCAPE = '\\';
+
+	private static final Map<String, String> COLUMN_NAMES = new HashMap<>();
+
+	static
+	{
+		COLUMN_NAMES.put("id", 			"id");
+		COLUMN_NAMES.put("name", 		"name");
+		COLUMN_NAMES.put("type", 		"type");
+		COLUMN_NAMES.put("description", "description");
+		COLUMN_NAMES.put("createdOn", 	"created_on");
+		COLUMN_NAMES.put("updatedOn", 	"updated_on");
+	}
+
+	private final DatabaseClient 		databaseClient;
+	private final ReactiveBlockSequence ids;
+	private final ZoneId 				zone = ZoneId.systemDefault();
+
+	public ReactiveAssetRepository(DatabaseClient databaseClient, AssetProperties assetProperties)
+	{
+		this.databaseClient = databaseClient;
+		this.ids 			= new ReactiveBlockSequence(databaseClient, assetProperties.getId());
+	}
+
+	public Mono<Asset> findById(Long id)
+	{
+		return this.databaseClient.sql("SELECT " + COLUMNS + " FROM asset WHERE id = :id")
+									.bind("id", id)
+									.map(this::asset)
+									.one();
+	}
+
+	public Flux<Asset> findAllById(Collection<Long> ids)
+	{
+		return this.databaseClient.sql("SELECT " + COLUMNS + " FROM asset WHERE id IN (:ids)")
+									.bind("ids", ids)
+									.map(this::asset)
+									.all();
+	}
+
+	public Mono<Integer> findVersionById(Long id)
+	{
+		return this.databaseClient.sql("SELECT version FROM asset WHERE id = :id")
+									.bind("id", id)
+									.map(row -> row.get(0, Integer.class))
+									.one();
+	}
+
+	public Mono<Boolean> existsById(Long id)
+	{
+		return findVersionById(id).hasElement();
+	}
+
+	/**
+	 * Up to {@code limit} assets matching the criteria in {@code (column, id)} order, starting after the cursor if
+	 * one is given.
+	 */
+	public Flux<Asset> findAll(GetAssetsCriteria criteria, AssetSortColumn column, Sort.Direction direction, AssetCursor after, int limit)
+	{
+		Map<String, Object> 	parameters 	= new HashMap<>();
+		StringJoiner 			where 		= new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+
+		if (StringUtils.isNotEmpty(criteria.getType()))
+		{
+			where.add("type = :type");
+			parameters.put("type", criteria.getType());
+		}
+		if (StringUtils.isNotEmpty(criteria.getNamePrefix()))
+		{
+			where.add("name LIKE :namePrefix ESCAPE '" + LIKE_ESCAPE + "'");
+			parameters.put("namePrefix", likePrefix(criteria.getNamePrefix()));
+		}
+		within(where, parameters, "created_on", criteria.getCreatedFrom(), criteria.getCreatedTo());
+		within(where, parameters, "updated_on", criteria.getUpdatedFrom(), criteria.getUpdatedTo());
+
+		if (after != null)
+		{
+			String 	beyond 	= direction.isAscending() ? " > " : " < ";
+			String 	name 	= COLUMN_NAMES.get(column.getProperty());
+
+			parameters.put("afterId", after.getId());
+			if (column == AssetSortColumn.ID)
+			{
+				where.add("id" + beyond + ":afterId");
+			}
+			else
+			{
+				where.add("(" + name + beyond + ":afterValue OR (" + name + " = :afterValue AND id" + beyond + ":afterId))");
+				parameters.put("afterValue", value(after.getValue()));
+			}
+		}
+
+		GenericExecuteSpec spec = this.databaseClient.sql("SELECT " + COLUMNS + " FROM asset" + where + orderBy(column, direction) + " LIMIT :limit");
+		for (Entry<String, Object> parameter : parameters.entrySet())
+		{
+			spec = spec.bind(parameter.getKey(), parameter.getValue());
+		}
+		return spec.bind("limit", limit).map(this::asset).all();
+	}
+
+	/**
+	 * Up to {@code limit} assets last updated after {@code since} and at or before {@code until}, in
+	 * {@code (updated_on, id)} order.
+	 */
+	public Flux<Asset> findModifiedWithin(Date since, Date until, int limit)
+	{
+		return this.databaseClient.sql("SELECT " + COLUMNS + " FROM asset WHERE updated_on > :since AND updated_on <= :until" + orderBy(AssetSortColumn.UPDATED_ON, Sort.Direction.ASC) + " LIMIT :limit")
+									.bind("since", 	value(since))
+									.bind("until", 	value(until))
+									.bind("limit", 	limit)
+									.map(this::asset)
+									.all();
+	}
+
+	/**
+	 * Ids of the assets deleted after {@code since} and at or before {@code until}, in the order they were deleted.
+	 */
+	public Flux<Long> findIdsDeletedWithin(Date since, Date until)
+	{
+		return this.databaseClient.sql("SELECT id FROM asset_tombstone WHERE deleted_on > :since AND deleted_on <= :until ORDER BY deleted_on, id")
+									.bind("since", 	value(since))
+									.bind("until", 	value(until))
+									.map(row -> row.get(0, Long.class))
+									.all();
+	}
+
+	/**
+	 * Every asset in the given order, read as fast as the subscriber consumes them.
+	 */
+	public Flux<Asset> streamAll(AssetSortColumn column, Sort.Direction direction)
+	{
+		return this.databaseClient.sql("SELECT " + COLUMNS + " FROM asset" + orderBy(column, direction))
+									.map(this::asset)
+									.all();
+	}
+
+	/**
+	 * Inserts a new asset with an id from the shared sequence and returns it as stored.
+	 */
+	public Mono<Asset> insert(Asset asset)
+	{
+		return this.ids.nextId().flatMap(id ->
+		{
+			Date 	now 	= new Date();
+			Asset 	saved 	= asset.toBuilder().id(id).version(0).createdOn(now).updatedOn(now).build();
+
+			return this.databaseClient.sql("INSERT INTO asset (" + COLUMNS + ") VALUES (:id, :version, :createdOn, :updatedOn, :name, :type, :description)")
+										.bind("id", 		saved.getId())
+										.bind("version", 	saved.getVersion())
+										.bind("createdOn", 	value(saved.getCreatedOn()))
+										.bind("updatedOn", 	value(saved.getUpdatedOn()))
+										.bind("name", 		saved.getName())
+										.bind("type", 		saved.getType())
+										.bind("description",saved.getDescription())
+										.fetch()
+										.rowsUpdated()
+										.thenReturn(saved);
+		});
+	}
+
+	/**
+	 * Sets the given attributes and increments the version with a single {@code UPDATE}, conditioned on the expected
+	 * version and type unless they are {@code null}.
+	 *
+	 * @return the number of updated rows
+	 */
+	public Mono<Integer> update(Long id, Integer expectedVersion, String expectedType, Map<String, Object> values)
+	{
+		StringJoiner set = new StringJoiner(", ", " SET ", "").add("version = version + 1").add("updated_on = :updatedOn");
+		values.keySet().forEach(property -> set.add(COLUMN_NAMES.get(property) + " = :" + property));
+
+		GenericExecuteSpec spec = this.databaseClient.sql("UPDATE asset" + set + matches(expectedVersion, expectedType)).bind("updatedOn", LocalDateTime.now(this.zone));
+		for (Entry<String, Object> value : values.entrySet())
+		{
+			spec = value.getValue() == null ? spec.bindNull(value.getKey(), String.class) : spec.bind(value.getKey(), value.getValue());
+		}
+		return bindMatches(spec, id, expectedVersion, expectedType).fetch().rowsUpdated();
+	}
+
+	/**
+	 * Deletes an asset with a single {@code DELETE}, conditioned like {@link #update}.
+	 *
+	 * @return the number of deleted rows
+	 */
+	public Mono<Integer> delete(Long id, Integer expectedVersion, String expectedType)
+	{
+		return bindMatches(this.databaseClient.sql("DELETE FROM asset" + matches(expectedVersion, expectedType)), id, expectedVersion, expectedType).fetch().rowsUpdated();
+	}
+
+	/**
+	 * Records the deletion of an asset for the delta sync.
+	 */
+	public Mono<Integer> insertTombstone(Long id)
+	{
+		return this.databaseClient.sql("INSERT INTO asset_tombstone (id, deleted_on) VALUES (:id, :deletedOn)")
+									.bind("id", 		id)
+									.bind("deletedOn", 	LocalDateTime.now(this.zone))
+									.fetch()
+									.rowsUpdated();
+	}
+
+	private static String matches(Integer expectedVersion, String expectedType)
+	{
+		return " WHERE id = :id" + (expectedVersion == null ? "" : " AND version = :expectedVersion") + (expectedType == null ? "" : " AND type = :expectedType");
+	}
+
+	private static GenericExecuteSpec bindMatches(GenericExecuteSpec spec, Long id, Integer expectedVersion, String expectedType)
+	{
+		GenericExecuteSpec bound = spec.bind("id", id);
+		if (expectedVersion != null)
+		{
+			bound = bound.bind("expectedVersion", expectedVersion);
+		}
+		if (expectedType != null)
+		{
+			bound = bound.bind("expectedType", expectedType);
+		}
+		return bound;
+	}
+
+	private void within(StringJoiner where, Map<String, Object> parameters, String column, Date from, Date to)
+	{
+		if (from != null)
+		{
+			where.add(column + " >= :" + column + "From");
+			parameters.put(column + "From", value(from));
+		}
+		if (to != null)
+		{
+			where.add(column + " < :" + column + "To");
+			parameters.put(column + "To", value(to));
+		}
+	}
+
+	private static String orderBy(AssetSortColumn column, Sort.Direction direction)
+	{
+		String order = direction.isAscending() ? " ASC" : " DESC";
+
+		return " ORDER BY " + (column == AssetSortColumn.ID ? "" : COLUMN_NAMES.get(column.getProperty()) + order + ", ") + "id" + order;
+	}
+
+	private static String likePrefix(String prefix)
+	{
+		return prefix.replace("" + LIKE_ESCAPE, "" + LIKE_ESCAPE + LIKE_ESCAPE)
+						.replace("%", LIKE_ESCAPE + "%")
+						.replace("_", LIKE_ESCAPE + "_") + "%";
+	}
+
+	private Object value(Object value)
+	{
+		return value instanceof Date ? LocalDateTime.ofInstant(((Date) value).toInstant(), this.zone) : value;
+	}
+
+	private Date date(LocalDateTime value)
+	{
+		return value == null ? null : Date.from(value.atZone(this.zone).toInstant());
+	}
+
+	private Asset asset(Row row)
+	{
+		return Asset.builder()
+						.id			(row.get("id", 			Long.class))
+						.version	(row.get("version", 	Integer.class))
+						.createdOn	(date(row.get("created_on", LocalDateTime.class)))
+						.updatedOn	(date(row.get("updated_on", LocalDateTime.class)))
+						.name		(row.get("name", 		String.class))
+						.type		(row.get("type", 		String.class))
+						.description(row.get("description", String.class))
+						.build();
+	}
+}
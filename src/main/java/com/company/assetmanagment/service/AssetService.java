@@ -1,65 +1,531 @@
 package com.company.assetmanagment.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.util.Streamable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import com.company.assetmanagment.component.aggregate.AssetCounters;
+import com.company.assetmanagment.component.cache.AssetCache;
+import com.company.assetmanagment.component.cache.AssetResponseCache;
+import com.company.assetmanagment.component.feed.AssetChangeFeed;
+import com.company.assetmanagment.component.routing.ReplicaRouting;
+import com.company.assetmanagment.component.search.AssetSearchIndex;
+import com.company.assetmanagment.component.sync.AssetTombstones;
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.AssetDelta;
+import com.company.assetmanagment.data.domain.AssetTypeCount;
+import com.company.assetmanagment.data.domain.CursorPage;
 import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.request.AssetCursor;
+import com.company.assetmanagment.data.request.AssetField;
+import com.company.assetmanagment.data.request.AssetSortColumn;
+import com.company.assetmanagment.exception.BusinessException;
+import com.company.assetmanagment.exception.ResourceGoneException;
 import com.company.assetmanagment.exception.ResourceNotFoundException;
+import com.company.assetmanagment.exception.VersionConflictException;
 import com.company.assetmanagment.repository.AssetRepository;
+import com.company.assetmanagment.repository.AssetSpecifications;
+import com.company.assetmanagment.repository.AssetTombstoneRepository;
 
-import lombok.extern.log4j.Log4j2;
+import io.micrometer.core.annotation.Timed;
 
-@Log4j2
 @Service
 public class AssetService
 {
+	/** Timer of every public method, tagged with {@code class} and {@code method} by the {@code TimedAspect}. */
+	public static final String 	TIMER 		= "asset.service";
+	
+	private static final String NAME 		= "name";
+	private static final String DESCRIPTION = "description";
+	private static final String TYPE 		= "type";
+	private static final String VERSION 	= "version";
+	
+	private static final int 	MAX_WRITE_ATTEMPTS 	= 3;
+	private static final int 	MAX_IDS_PER_QUERY 	= 1000;
+	
+	private static final Sort 	SYNC_SORT 	= Sort.by(AssetSortColumn.UPDATED_ON.getProperty(), AssetSortColumn.ID.getProperty());
+	
 	private final AssetRepository assetRepository;
+	private final AssetProperties assetProperties;
+	private final AssetCache 	  assetCache;
+	private final AssetSearchIndex searchIndex;
+	private final AssetCounters   counters;
+	private final AssetChangeFeed changeFeed;
+	private final AssetTombstoneRepository tombstoneRepository;
+	private final AssetTombstones tombstones;
+	private final AssetResponseCache responseCache;
 	
 	@Autowired
-	public AssetService(AssetRepository assetRepository)
+	public AssetService(AssetRepository assetRepository, AssetProperties assetProperties, AssetCache assetCache, AssetSearchIndex searchIndex, AssetCounters counters,
+						AssetChangeFeed changeFeed, AssetTombstoneRepository tombstoneRepository, AssetTombstones tombstones, AssetResponseCache responseCache)
 	{
 		this.assetRepository = assetRepository;
+		this.assetProperties = assetProperties;
+		this.assetCache 	 = assetCache;
+		this.searchIndex 	 = searchIndex;
+		this.counters 		 = counters;
+		this.changeFeed 	 = changeFeed;
+		this.tombstoneRepository = tombstoneRepository;
+		this.tombstones 	 = tombstones;
+		this.responseCache 	 = responseCache;
 	}
 	
+	@Transactional(readOnly = true)
+	@Timed(TIMER)
 	public Asset getById(Long id)
 	{
-		log.info("getById {}", id);
 		Assert.notNull(id, "Asset id mustn't be null");
 		
-		return this.assetRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(String.format("No Asset found with id {%s}", id)));
+		return this.assetCache.get(id).orElseGet(() ->
+		{
+			Asset asset = this.assetRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(String.format("No Asset found with id {%s}", id)));
+			this.assetCache.put(asset);
+			return asset;
+		});
+	}
+	
+	/**
+	 * Reads only the picked fields, plus id and version, with a column projection. A cached asset is served as is.
+	 * Without picked fields this is {@link #getById(Long)}.
+	 */
+	@Transactional(readOnly = true)
+	@Timed(TIMER)
+	public Asset getById(Long id, Set<AssetField> fields)
+	{
+		if (fields == null)
+		{
+			return getById(id);
+		}
+		Assert.notNull(id, "Asset id mustn't be null");
+		
+		return this.assetCache.get(id).orElseGet(() -> this.assetRepository.findById(id, columns(fields, AssetSortColumn.ID))
+																		   .orElseThrow(() -> new ResourceNotFoundException(String.format("No Asset found with id {%s}", id))));
+	}
+	
+	/**
+	 * Current {@code @Version} of an asset, read with a single column query. Used to answer conditional requests
+	 * without loading the asset.
+	 */
+	@Transactional(readOnly = true)
+	@Timed(TIMER)
+	public Integer getVersion(Long id)
+	{
+		Assert.notNull(id, "Asset id mustn't be null");
+		
+		return this.assetRepository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException(String.format("No Asset found with id {%s}", id)));
+	}
+	
+	/**
+	 * Full-text search over names and descriptions, best match first. Matches come from {@link AssetSearchIndex}, the
+	 * assets themselves from the cache or, for the rest, from a single query.
+	 */
+	@Transactional(readOnly = true)
+	@Timed(TIMER)
+	public List<Asset> search(String query, int limit)
+	{
+		if (!this.searchIndex.isEnabled())
+		{
+			throw new BusinessException("Full-text search is disabled.");
+		}
+		
+		return resolve(this.searchIndex.search(query, limit));
 	}
 	
+	/**
+	 * Number of assets per type, optionally per creation day, from {@link AssetCounters}.
+	 */
+	@Timed(TIMER)
+	public List<AssetTypeCount> countByType(boolean perDay)
+	{
+		if (!this.counters.isEnabled())
+		{
+			throw new BusinessException("Asset counters are disabled.");
+		}
+		
+		return this.counters.snapshot(perDay);
+	}
+	
+	/**
+	 * All assets in the given order. The ids come from the query cache, see {@link #resolve(List)} for the assets.
+	 */
+	@Transactional(readOnly = true)
+	@Timed(TIMER)
 	public List<Asset> findAllAndSortBy(Sort sort)
 	{
-		log.info("findAllAndSortBy {}", sort);
+		return resolve(this.assetRepository.findAllIds(sort));
+	}
+	
+	@Transactional(readOnly = true)
+	@Timed(TIMER)
+	public CursorPage<Asset> findPage(Specification<Asset> filter, Sort sort, String after, int limit)
+	{
+		return findPage(filter, sort, after, limit, null);
+	}
+	
+	/**
+	 * Keyset pagination: seeks past the {@code after} cursor on {@code (sortColumn, id)} instead of skipping rows,
+	 * so every page costs the same index range scan regardless of its depth. The optional {@code filter} narrows the
+	 * assets the pages are taken from.
+	 * <p>
+	 * Without picked {@code fields} only the ids of the page are selected, and kept in the query cache, see
+	 * {@link #resolve(List)} for the assets. With them only those columns, plus id, version and the sort column the
+	 * cursor needs, are selected; the assets of the page are then partial and unmanaged.
+	 */
+	@Transactional(readOnly = true)
+	@Timed(TIMER)
+	public CursorPage<Asset> findPage(Specification<Asset> filter, Sort sort, String after, int limit, Set<AssetField> fields)
+	{
+		Sort.Order 		order 		= sort.iterator().next();
+		AssetSortColumn column 		= AssetSortColumn.fromProperty(order.getProperty());
+		Sort 			keysetSort 	= column == AssetSortColumn.ID ? sort : sort.and(Sort.by(order.getDirection(), AssetSortColumn.ID.getProperty()));
+		
+		Specification<Asset> specification = filter;
+		if (after != null)
+		{
+			AssetCursor cursor = AssetCursor.decode(after);
+			if (!cursor.matches(column, order.getDirection()))
+			{
+				throw new BusinessException("Pagination cursor does not match the requested sort.");
+			}
+			specification = Specification.where(filter).and(AssetSpecifications.after(cursor));
+		}
+		
+		List<Asset> assets = fields == null
+								? resolve(this.assetRepository.findIds(specification, keysetSort, limit + 1))
+								: this.assetRepository.findAll(specification, keysetSort, limit + 1, columns(fields, column));
+		
+		if (assets.size() <= limit)
+		{
+			return new CursorPage<>(assets, null);
+		}
+		
+		List<Asset> page = assets.subList(0, limit);
+		
+		return new CursorPage<>(page, AssetCursor.of(column, order.getDirection(), page.get(limit - 1)).encode());
+	}
+	
+	/**
+	 * Delta sync: the assets updated and the ids of the assets deleted after {@code modifiedSince}, read from the
+	 * {@code updatedOn} and {@code deletedOn} indexes. Without {@code modifiedSince} every asset is returned and no
+	 * deletes. Changes of the last {@code asset.sync.commit-lag} are left to the next sync.
+	 * <p>
+	 * At most {@code limit} assets are returned, cut back to whole timestamps so the next sync continues exactly where
+	 * this one stopped; the deletes up to the new watermark are all returned, as ids are small.
+	 * <p>
+	 * Runs on the primary: a lagging replica could hide writes older than the commit lag, which the watermark would
+	 * then skip for good.
+	 *
+	 * @throws ResourceGoneException if deletes after {@code modifiedSince} may already have been purged
+	 */
+	@Transactional(readOnly = true)
+	@Timed(TIMER)
+	public AssetDelta sync(Date modifiedSince, int limit)
+	{
+		return ReplicaRouting.onPrimary(() -> delta(modifiedSince, limit));
+	}
+	
+	private AssetDelta delta(Date modifiedSince, int limit)
+	{
+		Date now = new Date();
+		if (modifiedSince != null && modifiedSince.before(this.tombstones.horizon(now)))
+		{
+			throw new ResourceGoneException(String.format("Deletes before %s are no longer known, please sync from scratch.", this.tombstones.horizon(now).toInstant()));
+		}
+		
+		Date since = modifiedSince != null ? modifiedSince : new Date(0);
+		// the current millisecond can still get writes, which the next sync must not skip
+		Date until = new Date(now.getTime() - this.assetProperties.getSync().getCommitLag().toMillis() - 1);
+		if (!until.after(since))
+		{
+			return new AssetDelta(Collections.emptyList(), Collections.emptyList(), since, true);
+		}
+		
+		List<Asset> assets 		= this.assetRepository.findAll(AssetSpecifications.modifiedWithin(since, until), SYNC_SORT, limit + 1);
+		boolean 	complete 	= assets.size() <= limit;
+		if (!complete)
+		{
+			int count = AssetDelta.wholeTimestamps(assets, limit, Asset::getUpdatedOn);
+			if (count > 0)
+			{
+				assets 	= assets.subList(0, count);
+				until 	= assets.get(count - 1).getUpdatedOn();
+			}
+			else
+			{
+				until 	= assets.get(0).getUpdatedOn();
+				assets 	= this.assetRepository.findAll(AssetSpecifications.modifiedWithin(since, until), SYNC_SORT, Integer.MAX_VALUE);
+			}
+		}
+		
+		List<Long> deleted = modifiedSince != null ? this.tombstoneRepository.findIdsDeletedWithin(since, until) : Collections.emptyList();
+		
+		return new AssetDelta(assets, deleted, until, complete);
+	}
+	
+	/**
+	 * Scrolls through every asset in the given order and hands them to the consumer one at a time. Each asset is
+	 * detached once consumed so heap usage stays flat regardless of the table size.
+	 * 
+	 * @return number of exported assets
+	 */
+	@Transactional(readOnly = true)
+	@Timed(TIMER)
+	public long exportAll(Sort sort, Consumer<Asset> consumer)
+	{
+		long count = 0;
 		
-		return Streamable.of(this.assetRepository.findAll(sort)).toList();
+		try (Stream<Asset> assets = this.assetRepository.streamAllBy(sort))
+		{
+			for (Asset asset : (Iterable<Asset>) assets::iterator)
+			{
+				consumer.accept(asset);
+				this.assetRepository.detach(asset);
+				count++;
+			}
+		}
+		return count;
 	}
 	
+	/**
+	 * Inserts the asset in a transaction of its own, announced to the counters before it commits.
+	 */
+	@Timed(TIMER)
 	public Asset create(Asset asset)
 	{
-		return this.assetRepository.save(asset);
+		try (AssetCounters.Write write = this.counters.begin())
+		{
+			Asset saved = this.assetRepository.save(asset);
+			this.searchIndex.index(saved);
+			this.counters.created(saved);
+			this.changeFeed.created(saved);
+			
+			return saved;
+		}
+	}
+	
+	/**
+	 * Inserts all assets in one transaction. The persistence context is flushed and cleared every batch so Hibernate
+	 * sends the inserts as JDBC batches of {@code asset.bulk.batch-size} and doesn't keep every entity managed.
+	 */
+	@Transactional
+	@Timed(TIMER)
+	public List<Asset> createAll(List<Asset> assets)
+	{
+		int 		batchSize 	= this.assetProperties.getBulk().getBatchSize();
+		List<Asset> saved 		= new ArrayList<>(assets.size());
+		
+		for (Asset asset : assets)
+		{
+			Asset created = this.assetRepository.save(asset);
+			this.searchIndex.index(created);
+			this.counters.created(created);
+			this.changeFeed.created(created);
+			saved.add(created);
+			
+			if (saved.size() % batchSize == 0)
+			{
+				this.assetRepository.flushAndClear();
+			}
+		}
+		this.assetRepository.flushAndClear();
+		
+		return saved;
+	}
+	
+	/**
+	 * Deletes an asset with a single {@code DELETE}, conditioned on {@code expectedVersion} unless it is {@code null}.
+	 * Only when no row was deleted a second query tells a missing asset (404) from a version conflict (409).
+	 * <p>
+	 * With the counters enabled the {@code DELETE} is conditioned on the type as well, so the right counter is
+	 * decremented. The type is taken from the {@link AssetCache}, only an asset not cached there is read first.
+	 * <p>
+	 * A tombstone of the asset is inserted in the same transaction, for the delta sync.
+	 */
+	@Transactional
+	@Timed(TIMER)
+	public void delete(Long id, Integer expectedVersion)
+	{
+		Assert.notNull(id, "Asset id mustn't be null");
+		
+		Asset previous = this.counters.isEnabled() ? this.assetCache.get(id).orElseGet(() -> current(id, expectedVersion)) : null;
+		for (int attempt = 1; ; attempt++)
+		{
+			String type = previous != null ? previous.getType() : null;
+			
+			if (this.assetRepository.delete(id, expectedVersion, type) > 0)
+			{
+				this.tombstoneRepository.insert(id, new Date());
+				this.assetCache.evict(id);
+				this.responseCache.evict(id);
+				this.searchIndex.remove(id);
+				if (previous != null)
+				{
+					this.counters.removed(previous);
+				}
+				this.changeFeed.deleted(id);
+				return;
+			}
+			if (type == null || attempt == MAX_WRITE_ATTEMPTS)
+			{
+				throw writeFailure(id, expectedVersion, type != null);
+			}
+			previous = current(id, expectedVersion);
+		}
 	}
 	
-	public void delete(Long id)
+	/**
+	 * Replaces name, description and type of an asset with a single conditional {@code UPDATE}.
+	 *
+	 * @return the new version of the asset
+	 */
+	@Transactional(noRollbackFor = { ResourceNotFoundException.class, VersionConflictException.class })
+	@Timed(TIMER)
+	public int update(Long id, Integer expectedVersion, Asset newAssetValues)
 	{
-		Asset asst = getById(id);
-		this.assetRepository.delete(asst);
+		Map<String, Object> values = new HashMap<>();
+		values.put(NAME, 		newAssetValues.getName			());
+		values.put(DESCRIPTION, newAssetValues.getDescription	());
+		values.put(TYPE, 		newAssetValues.getType			());
+		
+		return patch(id, expectedVersion, values);
 	}
 	
-	public Asset update(Long id, Asset newAssetValues)
+	/**
+	 * Sets the given, already validated attributes with a single conditional {@code UPDATE}. Without an expected
+	 * version the new version is read back, which costs a second statement; both run in one transaction, so the row
+	 * lock of the {@code UPDATE} keeps other writers from changing the version in between. A write that fails changed
+	 * nothing, so its 404 or 409 commits, and the asset read to tell them apart is cached.
+	 * <p>
+	 * If the type is set and the counters are enabled, the {@code UPDATE} is conditioned on the previous type as well,
+	 * so the counters can move the asset to its new type. The previous type is taken from the {@link AssetCache}; an
+	 * asset not cached there is expected to keep its type, and only if it didn't it is read and written again.
+	 *
+	 * @return the new version of the asset
+	 */
+	@Transactional(noRollbackFor = { ResourceNotFoundException.class, VersionConflictException.class })
+	@Timed(TIMER)
+	public int patch(Long id, Integer expectedVersion, Map<String, Object> values)
 	{
-		Asset item = this.assetRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(String.format("No Asset found with id {%s}", id)));
+		Assert.notNull(id, "Asset id mustn't be null");
+		
+		boolean counted 	= this.counters.isEnabled() && values.containsKey(TYPE);
+		Asset 	previous 	= counted ? this.assetCache.get(id).orElse(null) : null;
+		for (int attempt = 1; ; attempt++)
+		{
+			String type = null;
+			if (counted)
+			{
+				type = previous != null ? previous.getType() : (String) values.get(TYPE);
+			}
+			
+			if (this.assetRepository.update(id, expectedVersion, type, values) > 0)
+			{
+				int version = expectedVersion != null ? expectedVersion + 1 : getVersion(id);
+				this.assetCache.invalidate(id, version);
+				this.responseCache.evict(id);
+				this.searchIndex.update(id, version, values);
+				if (previous != null)
+				{
+					this.counters.retyped(previous, (String) values.get(TYPE));
+				}
+				this.changeFeed.updated(id, version, values);
+				return version;
+			}
+			if (type == null || attempt == MAX_WRITE_ATTEMPTS)
+			{
+				throw writeFailure(id, expectedVersion, type != null);
+			}
+			previous = current(id, expectedVersion);
+		}
+	}
+	
+	/**
+	 * The assets of the given ids in their order, taken from the {@link AssetCache} and the rest read with one query
+	 * per {@value #MAX_IDS_PER_QUERY} ids, which are cached then. Ids of assets deleted meanwhile are skipped.
+	 */
+	private List<Asset> resolve(List<Long> ids)
+	{
+		Map<Long, Asset> found 	= new HashMap<>();
+		List<Long> 		missing = new ArrayList<>();
+		
+		for (Long id : ids)
+		{
+			Optional<Asset> cached = this.assetCache.get(id);
+			if (cached.isPresent())
+			{
+				found.put(id, cached.get());
+			}
+			else
+			{
+				missing.add(id);
+			}
+		}
+		for (int from = 0; from < missing.size(); from += MAX_IDS_PER_QUERY)
+		{
+			this.assetRepository.findAllById(missing.subList(from, Math.min(from + MAX_IDS_PER_QUERY, missing.size()))).forEach(asset ->
+			{
+				found.put(asset.getId(), asset);
+				this.assetCache.put(asset);
+			});
+		}
 		
-		item.setName			(newAssetValues.getName			());
-		item.setDescription		(newAssetValues.getDescription	());
-		item.setType			(newAssetValues.getType			());
+		return ids.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+	
+	private static Set<String> columns(Set<AssetField> fields, AssetSortColumn sortColumn)
+	{
+		Set<String> columns = new LinkedHashSet<>();
+		columns.add(AssetSortColumn.ID.getProperty());
+		columns.add(VERSION);
+		columns.add(sortColumn.getProperty());
+		fields.forEach(field -> columns.add(field.getProperty()));
 		
-		return this.assetRepository.save(item);
+		return columns;
+	}
+	
+	/**
+	 * Reads an asset a write is about to be conditioned on, or one whose type or version a conditioned write didn't
+	 * match: a missing asset fails with 404 and another version than the expected one with 409, otherwise the write is
+	 * tried again with the type read. The asset is cached for the writes that follow.
+	 */
+	private Asset current(Long id, Integer expectedVersion)
+	{
+		Asset asset = this.assetRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(String.format("No Asset found with id {%s}", id)));
+		this.assetCache.put(asset);
+		if (expectedVersion != null && !expectedVersion.equals(asset.getVersion()))
+		{
+			throw new VersionConflictException(String.format("Asset {%s} is no longer at version %s.", id, expectedVersion));
+		}
+		return asset;
+	}
+	
+	private RuntimeException writeFailure(Long id, Integer expectedVersion, boolean typeGuarded)
+	{
+		if ((expectedVersion == null && !typeGuarded) || !this.assetRepository.existsById(id))
+		{
+			return new ResourceNotFoundException(String.format("No Asset found with id {%s}", id));
+		}
+		if (expectedVersion == null)
+		{
+			return new VersionConflictException(String.format("Asset {%s} was modified concurrently, please retry.", id));
+		}
+		return new VersionConflictException(String.format("Asset {%s} is no longer at version %s.", id, expectedVersion));
 	}
 }
@@ -0,0 +1,405 @@
+package com.company.assetmanagment.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.company.assetmanagment.component.aggregate.AssetCounters;
+import com.company.assetmanagment.component.cache.AssetCache;
+import com.company.assetmanagment.component.feed.AssetChangeFeed;
+import com.company.assetmanagment.component.search.AssetSearchIndex;
+import com.company.assetmanagment.component.sync.AssetTombstones;
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.AssetDelta;
+import com.company.assetmanagment.data.domain.AssetTypeCount;
+import com.company.assetmanagment.data.domain.CursorPage;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.request.AssetCursor;
+import com.company.assetmanagment.data.request.AssetSortColumn;
+import com.company.assetmanagment.data.request.GetAssetsCriteria;
+import com.company.assetmanagment.exception.BusinessException;
+import com.company.assetmanagment.exception.ResourceGoneException;
+import com.company.assetmanagment.exception.ResourceNotFoundException;
+import com.company.assetmanagment.exception.VersionConflictException;
+import com.company.assetmanagment.repository.reactive.ReactiveAssetRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link AssetService} for the reactive stack: the same reads and conditional writes, on R2DBC and without blocking.
+ * Writes keep the shared asset cache, search index and counters up to date once they are committed.
+ */
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveAssetService
+{
+	private static final String NAME 		= "name";
+	private static final String DESCRIPTION = "description";
+	private static final String TYPE 		= "type";
+	
+	private static final int 	MAX_WRITE_ATTEMPTS = 3;
+	
+	private final ReactiveAssetRepository 	assetRepository;
+	private final AssetCache 				assetCache;
+	private final AssetSearchIndex 			searchIndex;
+	private final AssetCounters 			counters;
+	private final TransactionalOperator 	transactional;
+	private final AssetChangeFeed 			changeFeed;
+	private final AssetTombstones 			tombstones;
+	private final AssetProperties 			assetProperties;
+	
+	public ReactiveAssetService(ReactiveAssetRepository assetRepository, AssetCache assetCache, AssetSearchIndex searchIndex, AssetCounters counters, TransactionalOperator transactional,
+								AssetChangeFeed changeFeed, AssetTombstones tombstones, AssetProperties assetProperties)
+	{
+		this.assetRepository 	= assetRepository;
+		this.assetCache 		= assetCache;
+		this.searchIndex 		= searchIndex;
+		this.counters 			= counters;
+		this.transactional 		= transactional;
+		this.changeFeed 		= changeFeed;
+		this.tombstones 		= tombstones;
+		this.assetProperties 	= assetProperties;
+	}
+	
+	public Mono<Asset> getById(Long id)
+	{
+		return Mono.defer(() ->
+		{
+			Optional<Asset> cached = this.assetCache.get(id);
+			if (cached.isPresent())
+			{
+				return Mono.just(cached.get());
+			}
+			return this.assetRepository.findById(id)
+										.switchIfEmpty(notFound(id))
+										.doOnNext(this.assetCache::put);
+		});
+	}
+	
+	public Mono<Integer> getVersion(Long id)
+	{
+		return this.assetRepository.findVersionById(id).switchIfEmpty(notFound(id));
+	}
+	
+	/**
+	 * Full-text search, with the matches taken from {@link AssetSearchIndex} and the assets from the cache or one
+	 * query for the rest.
+	 */
+	public Mono<List<Asset>> search(String query, int limit)
+	{
+		if (!this.searchIndex.isEnabled())
+		{
+			return Mono.error(new BusinessException("Full-text search is disabled."));
+		}
+		
+		List<Long> 		 ids 	 = this.searchIndex.search(query, limit);
+		Map<Long, Asset> found 	 = new HashMap<>();
+		List<Long> 		 missing = new ArrayList<>();
+		
+		for (Long id : ids)
+		{
+			Optional<Asset> cached = this.assetCache.get(id);
+			if (cached.isPresent())
+			{
+				found.put(id, cached.get());
+			}
+			else
+			{
+				missing.add(id);
+			}
+		}
+		
+		Flux<Asset> loaded = missing.isEmpty() ? Flux.empty() : this.assetRepository.findAllById(missing).doOnNext(this.assetCache::put);
+		
+		return loaded.doOnNext(asset -> found.put(asset.getId(), asset))
+					 .then(Mono.fromSupplier(() -> ids.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList())));
+	}
+	
+	public Mono<List<AssetTypeCount>> countByType(boolean perDay)
+	{
+		if (!this.counters.isEnabled())
+		{
+			return Mono.error(new BusinessException("Asset counters are disabled."));
+		}
+		return Mono.fromSupplier(() -> this.counters.snapshot(perDay));
+	}
+	
+	/**
+	 * Keyset pagination as in {@link AssetService#findPage}.
+	 */
+	public Mono<CursorPage<Asset>> findPage(GetAssetsCriteria criteria)
+	{
+		return Mono.defer(() ->
+		{
+			Sort.Order 		order 	= criteria.getSortCriteria().iterator().next();
+			AssetSortColumn column 	= AssetSortColumn.fromProperty(order.getProperty());
+			AssetCursor 	cursor 	= criteria.getAfter() == null ? null : AssetCursor.decode(criteria.getAfter());
+			int 			limit 	= criteria.getPageSize();
+			
+			if (cursor != null && !cursor.matches(column, order.getDirection()))
+			{
+				return Mono.error(new BusinessException("Pagination cursor does not match the requested sort."));
+			}
+			
+			return this.assetRepository.findAll(criteria, column, order.getDirection(), cursor, limit + 1).collectList().map(assets ->
+			{
+				if (assets.size() <= limit)
+				{
+					return new CursorPage<>(assets, null);
+				}
+				List<Asset> page = assets.subList(0, limit);
+				
+				return new CursorPage<>(page, AssetCursor.of(column, order.getDirection(), page.get(limit - 1)).encode());
+			});
+		});
+	}
+	
+	/**
+	 * Delta sync as in {@link AssetService#sync}.
+	 */
+	public Mono<AssetDelta> sync(Date modifiedSince, int limit)
+	{
+		return Mono.defer(() ->
+		{
+			Date now = new Date();
+			if (modifiedSince != null && modifiedSince.before(this.tombstones.horizon(now)))
+			{
+				return Mono.error(new ResourceGoneException(String.format("Deletes before %s are no longer known, please sync from scratch.", this.tombstones.horizon(now).toInstant())));
+			}
+			
+			Date since = modifiedSince != null ? modifiedSince : new Date(0);
+			Date until = new Date(now.getTime() - this.assetProperties.getSync().getCommitLag().toMillis() - 1);
+			if (!until.after(since))
+			{
+				return Mono.just(new AssetDelta(Collections.emptyList(), Collections.emptyList(), since, true));
+			}
+			
+			return this.assetRepository.findModifiedWithin(since, until, limit + 1).collectList().flatMap(assets ->
+			{
+				if (assets.size() <= limit)
+				{
+					return delta(modifiedSince != null, since, until, assets, true);
+				}
+				
+				int count = AssetDelta.wholeTimestamps(assets, limit, Asset::getUpdatedOn);
+				if (count > 0)
+				{
+					return delta(modifiedSince != null, since, assets.get(count - 1).getUpdatedOn(), assets.subList(0, count), false);
+				}
+				
+				Date tie = assets.get(0).getUpdatedOn();
+				return this.assetRepository.findModifiedWithin(since, tie, Integer.MAX_VALUE).collectList().flatMap(all -> delta(modifiedSince != null, since, tie, all, false));
+			});
+		});
+	}
+	
+	private Mono<AssetDelta> delta(boolean withDeletes, Date since, Date until, List<Asset> assets, boolean complete)
+	{
+		Mono<List<Long>> deleted = withDeletes ? this.assetRepository.findIdsDeletedWithin(since, until).collectList() : Mono.just(Collections.emptyList());
+		
+		return deleted.map(ids -> new AssetDelta(assets, ids, until, complete));
+	}
+	
+	/**
+	 * Every asset in the given order, streamed from the database at the pace of the subscriber.
+	 */
+	public Flux<Asset> exportAll(Sort sort)
+	{
+		return Flux.defer(() ->
+		{
+			Sort.Order order = sort.iterator().next();
+			
+			return this.assetRepository.streamAll(AssetSortColumn.fromProperty(order.getProperty()), order.getDirection());
+		});
+	}
+	
+	public Mono<Asset> create(Asset asset)
+	{
+		return counted(this.assetRepository.insert(asset).doOnNext(this::created));
+	}
+	
+	/**
+	 * Inserts all assets in one transaction. The cache, index and counters learn about them only after the commit.
+	 */
+	public Mono<List<Asset>> createAll(List<Asset> assets)
+	{
+		return counted(Flux.fromIterable(assets)
+							.concatMap(this.assetRepository::insert)
+							.collectList()
+							.as(this.transactional::transactional)
+							.doOnNext(saved -> saved.forEach(this::created)));
+	}
+	
+	/**
+	 * Deletes the asset and inserts its tombstone in one transaction. With the counters enabled the {@code DELETE} is
+	 * conditioned on the type, taken from the {@link AssetCache} as in {@link AssetService#delete}; only an asset not
+	 * cached there is read first.
+	 */
+	public Mono<Void> delete(Long id, Integer expectedVersion)
+	{
+		return counted(Mono.defer(() ->
+		{
+			if (!this.counters.isEnabled())
+			{
+				return delete(id, expectedVersion, null, 1);
+			}
+			Optional<Asset> cached = this.assetCache.get(id);
+			
+			return cached.isPresent() ? delete(id, expectedVersion, cached.get(), 1) : current(id, expectedVersion).flatMap(previous -> delete(id, expectedVersion, previous, 1));
+		}));
+	}
+	
+	private Mono<Void> delete(Long id, Integer expectedVersion, Asset previous, int attempt)
+	{
+		String type = previous != null ? previous.getType() : null;
+		
+		Mono<Integer> delete = this.assetRepository.delete(id, expectedVersion, type)
+													.flatMap(deleted -> deleted > 0 ? this.assetRepository.insertTombstone(id).thenReturn(deleted) : Mono.just(deleted))
+													.as(this.transactional::transactional);
+		
+		return delete.flatMap(deleted ->
+		{
+			if (deleted > 0)
+			{
+				this.assetCache.evict(id);
+				this.searchIndex.remove(id);
+				if (previous != null)
+				{
+					this.counters.removed(previous);
+				}
+				this.changeFeed.deleted(id);
+				return Mono.<Void>empty();
+			}
+			if (type == null || attempt == MAX_WRITE_ATTEMPTS)
+			{
+				return writeFailure(id, expectedVersion, type != null);
+			}
+			return current(id, expectedVersion).flatMap(current -> delete(id, expectedVersion, current, attempt + 1));
+		});
+	}
+	
+	public Mono<Integer> update(Long id, Integer expectedVersion, Asset newAssetValues)
+	{
+		Map<String, Object> values = new HashMap<>();
+		values.put(NAME, 		newAssetValues.getName			());
+		values.put(DESCRIPTION, newAssetValues.getDescription	());
+		values.put(TYPE, 		newAssetValues.getType			());
+		
+		return patch(id, expectedVersion, values);
+	}
+	
+	/**
+	 * Sets the given, already validated attributes with a single conditional {@code UPDATE}, as
+	 * {@link AssetService#patch} does, and reads a version not expected back in the same transaction. The previous
+	 * type the counters need is taken from the {@link AssetCache}; an asset not cached there is expected to keep its
+	 * type, and only if it didn't it is read and written again.
+	 *
+	 * @return the new version of the asset
+	 */
+	public Mono<Integer> patch(Long id, Integer expectedVersion, Map<String, Object> values)
+	{
+		return counted(Mono.defer(() ->
+		{
+			boolean counted = this.counters.isEnabled() && values.containsKey(TYPE);
+			
+			return patch(id, expectedVersion, values, counted, counted ? this.assetCache.get(id).orElse(null) : null, 1);
+		}));
+	}
+	
+	private Mono<Integer> patch(Long id, Integer expectedVersion, Map<String, Object> values, boolean counted, Asset previous, int attempt)
+	{
+		String type = !counted ? null : previous != null ? previous.getType() : (String) values.get(TYPE);
+		
+		// the version is read back before the commit, while the row lock keeps other writers from changing it
+		Mono<Integer> update = this.assetRepository.update(id, expectedVersion, type, values)
+													.flatMap(updated -> updated == 0 ? Mono.<Integer>empty() : expectedVersion != null ? Mono.just(expectedVersion + 1) : this.assetRepository.findVersionById(id))
+													.as(this.transactional::transactional);
+		
+		return update.doOnNext(current ->
+		{
+			this.assetCache.invalidate(id, current);
+			this.searchIndex.update(id, current, values);
+			if (previous != null)
+			{
+				this.counters.retyped(previous, (String) values.get(TYPE));
+			}
+			this.changeFeed.updated(id, current, values);
+		}).switchIfEmpty(Mono.defer(() ->
+		{
+			if (type == null || attempt == MAX_WRITE_ATTEMPTS)
+			{
+				return writeFailure(id, expectedVersion, type != null);
+			}
+			return current(id, expectedVersion).flatMap(current -> patch(id, expectedVersion, values, counted, current, attempt + 1));
+		}));
+	}
+	
+	private void created(Asset asset)
+	{
+		this.searchIndex.index(asset);
+		this.counters.created(asset);
+		this.changeFeed.created(asset);
+	}
+	
+	/**
+	 * Announces the write to the counters from subscription until it has moved them, as R2DBC commits before.
+	 */
+	private <T> Mono<T> counted(Mono<T> write)
+	{
+		return Mono.using(this.counters::begin, begun -> write, AssetCounters.Write::close);
+	}
+	
+	/**
+	 * The asset as it is now, cached for the next write; a conflict if it is no longer at the expected version.
+	 */
+	private Mono<Asset> current(Long id, Integer expectedVersion)
+	{
+		return this.assetRepository.findById(id).switchIfEmpty(notFound(id)).flatMap(asset ->
+		{
+			this.assetCache.put(asset);
+			if (expectedVersion != null && !expectedVersion.equals(asset.getVersion()))
+			{
+				return Mono.error(new VersionConflictException(String.format("Asset {%s} is no longer at version %s.", id, expectedVersion)));
+			}
+			return Mono.just(asset);
+		});
+	}
+	
+	private <T> Mono<T> writeFailure(Long id, Integer expectedVersion, boolean typeGuarded)
+	{
+		if (expectedVersion == null && !typeGuarded)
+		{
+			return notFound(id);
+		}
+		return this.assetRepository.existsById(id).flatMap(exists ->
+		{
+			if (!exists)
+			{
+				return notFound(id);
+			}
+			if (expectedVersion == null)
+			{
+				return Mono.error(new VersionConflictException(String.format("Asset {%s} was modified concurrently, please retry.", id)));
+			}
+			return Mono.error(new VersionConflictException(String.format("Asset {%s} is no longer at version %s.", id, expectedVersion)));
+		});
+	}
+	
+	private static <T> Mono<T> notFound(Long id)
+	{
+		return Mono.error(new ResourceNotFoundException(String.format("No Asset found with id {%s}", id)));
+	}
+}
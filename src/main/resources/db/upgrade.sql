@@ -0,0 +1,29 @@
+-- Brings a database created for the original mapping up to the current one. Production validates the schema
+-- (spring.jpa.hibernate.ddl-auto=validate) and doesn't start without these objects, so run this once with the old
+-- version stopped, before the first start of the new one. Every statement may be run again.
+
+-- Asset ids come from asset_seq instead of hibernate_sequence (GenerationType.AUTO). It increments by
+-- asset.id.block-size and, with the pooled optimizer, a value is the last id of its block: the sequence restarts one
+-- block above every id handed out so far, including those of deleted assets that only hibernate_sequence remembers.
+CREATE SEQUENCE IF NOT EXISTS asset_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE asset_seq RESTART WITH (
+	SELECT GREATEST(
+		COALESCE(MAX(id), 0),
+		COALESCE((SELECT CURRENT_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'HIBERNATE_SEQUENCE'), 0),
+		(SELECT CURRENT_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'ASSET_SEQ')
+	) + 50 FROM asset
+);
+
+-- Indexes of the list filters, the keyset pages and the delta sync on createdOn and updatedOn, and of the counters.
+CREATE INDEX IF NOT EXISTS asset_type_created_on_idx 	ON asset (type, created_on);
+CREATE INDEX IF NOT EXISTS asset_name_idx 				ON asset (name);
+CREATE INDEX IF NOT EXISTS asset_created_on_idx 		ON asset (created_on);
+CREATE INDEX IF NOT EXISTS asset_updated_on_idx 		ON asset (updated_on);
+
+-- Ids of deleted assets for the delta sync (/api/v1/assets/sync), purged by deletedOn after asset.sync.tombstone-retention.
+CREATE TABLE IF NOT EXISTS asset_tombstone (
+	id 			BIGINT 		NOT NULL,
+	deleted_on 	TIMESTAMP 	NOT NULL,
+	PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS asset_tombstone_deleted_on_idx ON asset_tombstone (deleted_on);
@@ -0,0 +1,91 @@
+package com.company.assetmanagment.component.commandlinerunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.model.Asset;
+
+class GeneratedAssetsTest
+{
+	private static final Instant NOW = Instant.parse("2022-01-01T00:00:00Z");
+
+	private AssetProperties.Generator settings;
+
+	@BeforeEach
+	public void setUp()
+	{
+		this.settings = new AssetProperties().getGenerator();
+		this.settings.setRows		(2500);
+		this.settings.setBatchSize	(1000);
+		this.settings.setSeed		(7);
+	}
+
+	@Test
+	void Chunk_SameSeed_ShouldGenerateSameAssets()
+	{
+		List<Asset> first 	= new GeneratedAssets(this.settings, NOW).chunk(1);
+		List<Asset> again 	= new GeneratedAssets(this.settings, NOW).chunk(1);
+
+		assertThat(again).usingRecursiveFieldByFieldElementComparator().isEqualTo(first);
+		assertThat(new GeneratedAssets(this.settings, NOW).chunk(0)).extracting(Asset::getName).isNotEqualTo(first.stream().map(Asset::getName).collect(Collectors.toList()));
+	}
+
+	@Test
+	void Chunks_PartialLastChunk_ShouldGenerateConfiguredRows()
+	{
+		GeneratedAssets assets = new GeneratedAssets(this.settings, NOW);
+
+		assertThat(assets.chunks()).isEqualTo(3);
+		assertThat(assets.chunk(0)).hasSize(1000);
+		assertThat(assets.chunk(2)).hasSize(500);
+	}
+
+	@Test
+	void Chunk_Distributions_ShouldStayWithinSettings()
+	{
+		this.settings.getNameLength().setMin	(5);
+		this.settings.getNameLength().setMax	(10);
+		this.settings.getNameLength().setStddev	(20);
+		this.settings.setCreatedSpread			(Duration.ofDays(1));
+
+		for (Asset asset : new GeneratedAssets(this.settings, NOW).chunk(0))
+		{
+			assertThat(asset.getName()).hasSizeBetween(5, 10);
+			assertThat(asset.getDescription()).hasSizeBetween(3, 1024);
+			assertThat(asset.getCreatedOn().toInstant()).isBetween(NOW.minus(Duration.ofDays(1)), NOW);
+			assertThat(asset.getUpdatedOn()).isEqualTo(asset.getCreatedOn());
+			assertThat(asset.getId()).isNull();
+		}
+	}
+
+	@Test
+	void Chunk_WeightedTypes_ShouldFollowWeights()
+	{
+		this.settings.getTypes().put("Pump", 3);
+		this.settings.getTypes().put("Valve", 1);
+		this.settings.getTypes().put("Retired", 0);
+
+		Map<String, Long> counts = new GeneratedAssets(this.settings, NOW).chunk(0).stream().collect(Collectors.groupingBy(Asset::getType, Collectors.counting()));
+
+		assertThat(counts).containsOnlyKeys("Pump", "Valve");
+		assertThat(counts.get("Pump")).isBetween(700L, 800L);
+	}
+
+	@Test
+	void Create_NoPositiveWeight_ShouldReject()
+	{
+		this.settings.getTypes().put("Retired", 0);
+
+		assertThrows(IllegalArgumentException.class, () -> new GeneratedAssets(this.settings, NOW));
+	}
+}
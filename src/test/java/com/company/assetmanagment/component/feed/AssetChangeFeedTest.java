@@ -0,0 +1,214 @@
+package com.company.assetmanagment.component.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.AssetChange;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.exception.ResourceGoneException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AssetChangeFeedTest
+{
+	private SimpleMeterRegistry meterRegistry;
+	private AssetChangeFeed 	feed;
+
+	@BeforeEach
+	public void setUp()
+	{
+		AssetProperties properties = new AssetProperties();
+		properties.getFeed().setBufferSize	(16);
+		properties.getFeed().setBatchSize	(4);
+		properties.getFeed().setHeartbeat	(Duration.ofMillis(100));
+
+		this.meterRegistry 	= new SimpleMeterRegistry();
+		this.feed 			= new AssetChangeFeed(properties, this.meterRegistry);
+		this.feed.start();
+	}
+
+	@AfterEach
+	public void tearDown()
+	{
+		this.feed.stop();
+	}
+
+	@Test
+	void Subscribe_NewChanges_ShouldBeSentInOrder() throws Exception
+	{
+		RecordingListener listener = new RecordingListener();
+		this.feed.subscribe(null, listener);
+
+		this.feed.created(asset(1L));
+		this.feed.updated(1L, 1, Collections.singletonMap("name", "Renamed"));
+		this.feed.deleted(1L);
+
+		await(() -> listener.changes.size() == 3);
+		assertThat(listener.changes).extracting(AssetChange::getType).containsExactly(AssetChange.Type.CREATED, AssetChange.Type.UPDATED, AssetChange.Type.DELETED);
+		assertThat(listener.changes.get(0).getAsset().getName()).isEqualTo("Asset 1");
+		assertThat(listener.changes.get(1).getChanges()).containsEntry("name", "Renamed");
+		assertThat(listener.changes).extracting(AssetChange::getSequence).isSorted().doesNotHaveDuplicates();
+		assertThat(listener.changes.get(2).getSequence()).isEqualTo(this.feed.lastSequence());
+
+		await(() -> listener.heartbeats > 0);
+	}
+
+	@Test
+	void Subscribe_AfterSequence_ShouldResumeWithMissedChanges() throws Exception
+	{
+		for (long id = 1; id <= 10; id++)
+		{
+			this.feed.created(asset(id));
+		}
+		long seen = this.feed.lastSequence() - 6;
+
+		RecordingListener listener = new RecordingListener();
+		this.feed.subscribe(seen, listener);
+
+		await(() -> listener.changes.size() == 6);
+		assertThat(listener.changes).extracting(AssetChange::getId).containsExactly(5L, 6L, 7L, 8L, 9L, 10L);
+	}
+
+	@Test
+	void Subscribe_SequenceOutsideBuffer_ShouldBeGone()
+	{
+		long first = this.feed.lastSequence() + 1;
+		for (long id = 1; id <= 20; id++)
+		{
+			this.feed.created(asset(id));
+		}
+
+		assertThrows(ResourceGoneException.class, () -> this.feed.subscribe(first, new RecordingListener()));
+		assertThrows(ResourceGoneException.class, () -> this.feed.subscribe(this.feed.lastSequence() + 1, new RecordingListener()));
+		assertThrows(ResourceGoneException.class, () -> this.feed.subscribe(42L, new RecordingListener()));
+
+		this.feed.subscribe(this.feed.lastSequence() - 16, new RecordingListener());
+	}
+
+	@Test
+	void Publish_SlowSubscriber_ShouldNotBlockWritesAndBeDropped() throws Exception
+	{
+		CountDownLatch 		release = new CountDownLatch(1);
+		RecordingListener 	slow 	= new RecordingListener()
+		{
+			@Override
+			public void send(List<AssetChange> changes)
+			{
+				try
+				{
+					release.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+				super.send(changes);
+			}
+		};
+		RecordingListener fast = new RecordingListener();
+		this.feed.subscribe(null, slow);
+		this.feed.subscribe(null, fast);
+
+		long started = System.nanoTime();
+		for (long id = 1; id <= 100; id++)
+		{
+			this.feed.created(asset(id));
+			if (id % 10 == 0)
+			{
+				int published = (int) id;
+				await(() -> fast.changes.size() == published);
+			}
+		}
+		assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started)).isLessThan(5);
+		release.countDown();
+
+		await(() -> slow.closed);
+		assertThat(slow.changes.size()).isLessThan(100);
+		assertThat(this.meterRegistry.get("asset.feed.dropped").counter().count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("asset.feed.subscribers").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void Send_NoDemand_ShouldWaitForWake() throws Exception
+	{
+		RecordingListener listener = new RecordingListener();
+		listener.demand = 0;
+		this.feed.subscribe(null, listener);
+
+		this.feed.created(asset(1L));
+		this.feed.created(asset(2L));
+		Thread.sleep(200);
+		assertThat(listener.changes).isEmpty();
+
+		listener.demand = 1;
+		this.feed.wake();
+		await(() -> listener.changes.size() == 1);
+
+		listener.demand = Long.MAX_VALUE;
+		this.feed.wake();
+		await(() -> listener.changes.size() == 2);
+		assertThat(listener.changes.stream().map(AssetChange::getId).collect(Collectors.toList())).containsExactly(1L, 2L);
+	}
+
+	private static Asset asset(Long id)
+	{
+		return Asset.builder().id(id).version(0).name("Asset " + id).description("description").type("Pump").build();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException
+	{
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean())
+		{
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private static class RecordingListener implements AssetChangeFeed.Listener
+	{
+		final List<AssetChange> changes 	= new CopyOnWriteArrayList<>();
+		volatile long 			demand 		= Long.MAX_VALUE;
+		volatile int 			heartbeats;
+		volatile boolean 		closed;
+
+		@Override
+		public long demand()
+		{
+			return this.demand;
+		}
+
+		@Override
+		public void send(List<AssetChange> changes)
+		{
+			this.changes.addAll(changes);
+			this.demand -= this.demand == Long.MAX_VALUE ? 0 : changes.size();
+		}
+
+		@Override
+		public void heartbeat()
+		{
+			this.heartbeats++;
+		}
+
+		@Override
+		public void close()
+		{
+			this.closed = true;
+		}
+	}
+}
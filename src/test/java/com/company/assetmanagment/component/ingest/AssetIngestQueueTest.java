@@ -0,0 +1,243 @@
+package com.company.assetmanagment.component.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.IngestStatus;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.dto.AssetIncomingDto;
+import com.company.assetmanagment.data.dto.MapStructMapperImpl;
+import com.company.assetmanagment.exception.IngestQueueFullException;
+import com.company.assetmanagment.service.AssetService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AssetIngestQueueTest
+{
+	@TempDir
+	Path directory;
+
+	private AssetProperties 	properties;
+	private AssetService 		assetService;
+	private SimpleMeterRegistry meterRegistry;
+	private AssetIngestQueue 	queue;
+
+	private final AtomicLong 			ids 		= new AtomicLong();
+	private final List<List<String>> 	batches 	= Collections.synchronizedList(new ArrayList<>());
+
+	@BeforeEach
+	public void setUp()
+	{
+		this.properties = new AssetProperties();
+		this.properties.getIngest().setCapacity		(100);
+		this.properties.getIngest().setBatchSize	(3);
+		this.properties.getIngest().setMaxDelay		(Duration.ofMillis(50));
+		this.properties.getIngest().setJournal		(this.directory.resolve("ingest.journal").toString());
+
+		this.meterRegistry 	= new SimpleMeterRegistry();
+		this.assetService 	= Mockito.mock(AssetService.class);
+		Mockito.when(this.assetService.createAll(anyList())).thenAnswer(invocation ->
+		{
+			List<Asset> assets = invocation.getArgument(0);
+			this.batches.add(assets.stream().map(Asset::getName).collect(Collectors.toList()));
+			assets.forEach(asset -> asset.setId(this.ids.incrementAndGet()));
+			return assets;
+		});
+	}
+
+	@AfterEach
+	public void tearDown()
+	{
+		if (this.queue != null && this.queue.isRunning())
+		{
+			this.queue.stop();
+		}
+	}
+
+	@Test
+	void Accept_ManyAssets_ShouldInsertThemInBatches() throws Exception
+	{
+		this.queue = start();
+
+		List<String> trackingIds = new ArrayList<>();
+		for (int i = 1; i <= 7; i++)
+		{
+			trackingIds.add(this.queue.accept(dto("Asset " + i)));
+		}
+
+		awaitCreated(trackingIds);
+
+		assertThat(this.batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(3));
+		assertThat(this.batches.stream().flatMap(List::stream)).containsExactly("Asset 1", "Asset 2", "Asset 3", "Asset 4", "Asset 5", "Asset 6", "Asset 7");
+		assertThat(trackingIds.stream().map(id -> this.queue.status(id).get().getAssetId())).doesNotHaveDuplicates().doesNotContainNull();
+		assertThat(this.meterRegistry.get("asset.ingest.written").tag("result", "created").counter().count()).isEqualTo(7);
+
+		await(() -> size(journal()) == 0);
+		assertThat(this.queue.status("unknown")).isEmpty();
+	}
+
+	@Test
+	void Accept_FullQueue_ShouldReject() throws Exception
+	{
+		CountDownLatch inserting 	= new CountDownLatch(1);
+		CountDownLatch release 		= new CountDownLatch(1);
+		Mockito.when(this.assetService.createAll(anyList())).thenAnswer(invocation ->
+		{
+			inserting.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return invocation.getArgument(0);
+		});
+		this.properties.getIngest().setCapacity	(2);
+		this.properties.getIngest().setBatchSize(1);
+		this.queue = start();
+
+		this.queue.accept(dto("Taken by the writer"));
+		assertThat(inserting.await(10, TimeUnit.SECONDS)).isTrue();
+		this.queue.accept(dto("Queued 1"));
+		this.queue.accept(dto("Queued 2"));
+
+		assertThrows(IngestQueueFullException.class, () -> this.queue.accept(dto("Rejected")));
+		assertThat(this.meterRegistry.get("asset.ingest.rejected").counter().count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("asset.ingest.queued").gauge().value()).isEqualTo(2);
+
+		release.countDown();
+		await(() -> this.meterRegistry.get("asset.ingest.queued").gauge().value() == 0);
+		this.queue.accept(dto("Accepted again"));
+	}
+
+	@Test
+	void Start_JournalLeftByCrash_ShouldInsertPendingAssets() throws Exception
+	{
+		try (IngestJournal journal = new IngestJournal(journal(), new ObjectMapper(), false))
+		{
+			journal.accepted("handled", dto("Handled before the crash"));
+			journal.accepted("pending-1", dto("Pending 1"));
+			journal.accepted("pending-2", dto("Pending 2"));
+			journal.handled(Collections.singletonList("handled"));
+		}
+		Files.write(journal(), "{\"id\":\"torn\",\"ass".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		this.queue = start();
+
+		assertThat(this.batches).containsExactly(Arrays.asList("Pending 1", "Pending 2"));
+		assertThat(this.queue.status("pending-1").get().getState()).isEqualTo(IngestStatus.State.CREATED);
+		assertThat(this.queue.status("pending-2").get().getState()).isEqualTo(IngestStatus.State.CREATED);
+		assertThat(this.queue.status("handled")).isEmpty();
+		assertThat(size(journal())).isZero();
+	}
+
+	@Test
+	void Write_FailingBatch_ShouldOnlyFailOffendingAssets() throws Exception
+	{
+		Mockito.when(this.assetService.createAll(anyList())).thenThrow(new IllegalStateException("batch failed"));
+		Mockito.when(this.assetService.create(any(Asset.class))).thenAnswer(invocation ->
+		{
+			Asset asset = invocation.getArgument(0);
+			if (asset.getName().startsWith("Bad"))
+			{
+				throw new IllegalStateException("value too long");
+			}
+			asset.setId(this.ids.incrementAndGet());
+			return asset;
+		});
+		this.queue = start();
+
+		String good = this.queue.accept(dto("Good asset"));
+		String bad 	= this.queue.accept(dto("Bad asset"));
+
+		await(() -> this.queue.status(good).get().getState() != IngestStatus.State.QUEUED && this.queue.status(bad).get().getState() != IngestStatus.State.QUEUED);
+
+		assertThat(this.queue.status(good).get().getState()).isEqualTo(IngestStatus.State.CREATED);
+		assertThat(this.queue.status(bad).get().getState()).isEqualTo(IngestStatus.State.FAILED);
+		assertThat(this.queue.status(bad).get().getErrors()).containsExactly("value too long");
+	}
+
+	@Test
+	void Stop_QueuedAssets_ShouldBeInsertedBeforeStopping() throws Exception
+	{
+		this.properties.getIngest().setMaxDelay(Duration.ofSeconds(10));
+		this.properties.getIngest().setBatchSize(100);
+		this.queue = start();
+
+		String trackingId = this.queue.accept(dto("Queued at shutdown"));
+		this.queue.stop();
+
+		assertThat(this.queue.status(trackingId).get().getState()).isEqualTo(IngestStatus.State.CREATED);
+		assertThrows(IngestQueueFullException.class, () -> this.queue.accept(dto("After shutdown")));
+	}
+
+	private AssetIngestQueue start()
+	{
+		AssetIngestQueue started = new AssetIngestQueue(this.properties, this.assetService, new MapStructMapperImpl(), new ObjectMapper(), this.meterRegistry);
+		started.start();
+		return started;
+	}
+
+	private Path journal()
+	{
+		return this.directory.resolve("ingest.journal");
+	}
+
+	private void awaitCreated(List<String> trackingIds) throws InterruptedException
+	{
+		await(() -> trackingIds.stream().allMatch(id -> this.queue.status(id).get().getState() == IngestStatus.State.CREATED));
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException
+	{
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean())
+		{
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private static long size(Path path)
+	{
+		try
+		{
+			return Files.size(path);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static AssetIncomingDto dto(String name)
+	{
+		AssetIncomingDto dto = new AssetIncomingDto();
+		dto.setName			(name			);
+		dto.setDescription	("description"	);
+		dto.setType			("Pump"			);
+
+		return dto;
+	}
+}
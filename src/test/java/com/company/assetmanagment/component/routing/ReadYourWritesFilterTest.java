@@ -0,0 +1,78 @@
+package com.company.assetmanagment.component.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.Cookie;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.company.assetmanagment.config.AssetProperties;
+
+class ReadYourWritesFilterTest
+{
+	private ReadYourWritesFilter 	filter;
+	private AtomicBoolean 			allowed;
+	private FilterChain 			chain;
+
+	@BeforeEach
+	public void setUp()
+	{
+		AssetProperties properties = new AssetProperties();
+		properties.getReplicas().getInstances().add(new AssetProperties.Replica());
+		properties.getReplicas().setReadYourWrites(Duration.ofMillis(1500));
+
+		this.filter 	= new ReadYourWritesFilter(properties);
+		this.allowed 	= new AtomicBoolean();
+		this.chain 		= (request, response) -> this.allowed.set(ReplicaRouting.isAllowed());
+	}
+
+	@Test
+	void DoFilter_Write_ShouldUsePrimaryAndSetCookie() throws Exception
+	{
+		MockHttpServletResponse response = filter(new MockHttpServletRequest("PATCH", "/api/v1/assets/1"));
+
+		assertThat(this.allowed).isFalse();
+		assertThat(response.getCookie(ReadYourWritesFilter.COOKIE)).isNotNull();
+		assertThat(response.getCookie(ReadYourWritesFilter.COOKIE).getMaxAge()).isEqualTo(2);
+		assertThat(Long.parseLong(response.getCookie(ReadYourWritesFilter.COOKIE).getValue())).isGreaterThan(System.currentTimeMillis());
+	}
+
+	@Test
+	void DoFilter_ReadAfterWrite_ShouldUsePrimaryUntilCookieExpires() throws Exception
+	{
+		MockHttpServletRequest recent = new MockHttpServletRequest("GET", "/api/v1/assets/1");
+		recent.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() + 60_000)));
+		filter(recent);
+		assertThat(this.allowed).isFalse();
+
+		MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/api/v1/assets/1");
+		expired.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1)));
+		filter(expired);
+		assertThat(this.allowed).isTrue();
+		assertThat(ReplicaRouting.isAllowed()).isFalse();
+	}
+
+	@Test
+	void DoFilter_ReadWithoutCookie_ShouldAllowReplicas() throws Exception
+	{
+		MockHttpServletResponse response = filter(new MockHttpServletRequest("GET", "/api/v1/assets"));
+
+		assertThat(this.allowed).isTrue();
+		assertThat(response.getCookie(ReadYourWritesFilter.COOKIE)).isNull();
+		assertThat(ReplicaRouting.isAllowed()).isFalse();
+	}
+
+	private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception
+	{
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, this.chain);
+		return response;
+	}
+}
@@ -0,0 +1,163 @@
+package com.company.assetmanagment.component.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReplicaRoutingDataSourceTest
+{
+	private HikariDataSource 			primary;
+	private FailingDataSource 			replica1;
+	private FailingDataSource 			replica2;
+	private ReplicaRoutingDataSource 	routing;
+	private MeterRegistry 				meterRegistry;
+	private JdbcTemplate 				jdbcTemplate;
+	private TransactionTemplate 		readOnly;
+	private TransactionTemplate 		readWrite;
+
+	@BeforeEach
+	public void setUp()
+	{
+		this.primary 		= database("primary");
+		this.replica1 		= database("replica-1");
+		this.replica2 		= database("replica-2");
+		this.meterRegistry 	= new SimpleMeterRegistry();
+		this.routing 		= new ReplicaRoutingDataSource(this.primary, Arrays.asList(this.replica1, this.replica2), this.meterRegistry);
+
+		DataSource 						dataSource 			= new LazyConnectionDataSourceProxy(this.routing);
+		DataSourceTransactionManager 	transactionManager 	= new DataSourceTransactionManager(dataSource);
+
+		this.jdbcTemplate 	= new JdbcTemplate(dataSource);
+		this.readWrite 		= new TransactionTemplate(transactionManager);
+		this.readOnly 		= new TransactionTemplate(transactionManager);
+		this.readOnly.setReadOnly(true);
+	}
+
+	@AfterEach
+	public void tearDown()
+	{
+		ReplicaRouting.clear();
+		this.routing.close();
+	}
+
+	@Test
+	void GetConnection_ReadOnlyAndAllowed_ShouldBalanceOverReplicas()
+	{
+		ReplicaRouting.allow();
+
+		assertThat(readOnlyNodes(4)).containsExactly("replica-1", "replica-2", "replica-1", "replica-2");
+		assertThat(this.meterRegistry.get("asset.replicas.connections").tag("target", "replica-1").counter().count()).isEqualTo(2);
+		assertThat(this.meterRegistry.get("asset.replicas.healthy").gauge().value()).isEqualTo(2);
+	}
+
+	@Test
+	void GetConnection_WriteOrNotAllowed_ShouldUsePrimary()
+	{
+		assertThat(readOnlyNodes(2)).containsOnly("primary");
+
+		ReplicaRouting.allow();
+
+		String write 		= this.readWrite.execute(status -> node());
+		String onPrimary 	= this.readOnly.execute(status -> ReplicaRouting.onPrimary(this::node));
+
+		assertThat(write).isEqualTo("primary");
+		assertThat(node()).isEqualTo("primary");
+		assertThat(onPrimary).isEqualTo("primary");
+		assertThat(ReplicaRouting.isAllowed()).isTrue();
+	}
+
+	@Test
+	void GetConnection_ReplicaFailed_ShouldSkipItUntilHealthy()
+	{
+		ReplicaRouting.allow();
+		this.replica1.failing = true;
+
+		assertThat(readOnlyNodes(3)).containsOnly("replica-2");
+		assertThat(this.meterRegistry.get("asset.replicas.healthy").gauge().value()).isEqualTo(1);
+
+		this.routing.checkReplicas();
+		assertThat(readOnlyNodes(2)).containsOnly("replica-2");
+
+		this.replica1.failing = false;
+		this.routing.checkReplicas();
+		assertThat(readOnlyNodes(2)).containsOnly("replica-1", "replica-2").doesNotHaveDuplicates();
+	}
+
+	@Test
+	void GetConnection_AllReplicasFailed_ShouldFallBackToPrimary()
+	{
+		ReplicaRouting.allow();
+		this.replica1.failing = true;
+		this.replica2.failing = true;
+
+		assertThat(readOnlyNodes(2)).containsOnly("primary");
+		assertThat(this.meterRegistry.get("asset.replicas.healthy").gauge().value()).isZero();
+	}
+
+	private List<String> readOnlyNodes(int reads)
+	{
+		List<String> nodes = new ArrayList<>(reads);
+		for (int i = 0; i < reads; i++)
+		{
+			nodes.add(this.readOnly.execute(status -> node()));
+		}
+		return nodes;
+	}
+
+	private String node()
+	{
+		return this.jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+	}
+
+	private static FailingDataSource database(String name)
+	{
+		FailingDataSource dataSource = new FailingDataSource();
+		dataSource.setPoolName			(name);
+		dataSource.setJdbcUrl			("jdbc:h2:mem:" + name + "-" + UUID.randomUUID());
+		dataSource.setMaximumPoolSize	(2);
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32))");
+		jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+		return dataSource;
+	}
+
+	/**
+	 * A pool whose connections can be made to fail, like those of a replica that went down.
+	 */
+	private static final class FailingDataSource extends HikariDataSource
+	{
+		private volatile boolean failing;
+
+		@Override
+		public Connection getConnection() throws SQLException
+		{
+			if (this.failing)
+			{
+				throw new SQLTransientConnectionException(getPoolName() + " is down");
+			}
+			return super.getConnection();
+		}
+	}
+}
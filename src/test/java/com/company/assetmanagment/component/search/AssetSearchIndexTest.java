@@ -0,0 +1,125 @@
+package com.company.assetmanagment.component.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.repository.AssetRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AssetSearchIndexTest
+{
+	private SimpleMeterRegistry meterRegistry;
+	private AssetSearchIndex 	searchIndex;
+
+	@BeforeEach
+	public void setUp()
+	{
+		this.meterRegistry 	= new SimpleMeterRegistry();
+		this.searchIndex 	= createIndex(new AssetProperties(), this.meterRegistry);
+
+		this.searchIndex.index(asset(1L, "Cooling pump", 		"Pump for the cooling circuit of line 1."));
+		this.searchIndex.index(asset(2L, "Heating pump", 		"Circulation pump, heating circuit."));
+		this.searchIndex.index(asset(3L, "Pressure sensor", 	"Measures the pressure in front of the cooling pump."));
+		this.searchIndex.index(asset(4L, "Temperature sensor", 	"Temperature of the coolant."));
+	}
+
+	@Test
+	void Search_Words_ShouldMatchAllTokensRankedByRelevance()
+	{
+		assertThat(this.searchIndex.search("pump", 10)).containsExactly(1L, 2L, 3L);
+		assertThat(this.searchIndex.search("COOLING pump", 10)).containsExactly(1L, 3L);
+		assertThat(this.searchIndex.search("pump", 2)).containsExactly(1L, 2L);
+		assertThat(this.searchIndex.search("valve", 10)).isEmpty();
+		assertThat(this.searchIndex.search("a !", 10)).isEmpty();
+	}
+
+	@Test
+	void Search_Prefix_ShouldRankExactMatchesFirst()
+	{
+		assertThat(this.searchIndex.search("cool", 10)).containsExactlyInAnyOrder(1L, 3L, 4L);
+		assertThat(this.searchIndex.search("temp", 10)).containsExactly(4L);
+		assertThat(this.searchIndex.search("coolant", 10)).containsExactly(4L);
+	}
+
+	@Test
+	void Search_ShortPrefixOfManyTerms_ShouldKeepTheCommonestTerms()
+	{
+		for (long id = 10; id < 310; id++)
+		{
+			this.searchIndex.index(asset(id, "Serial sn" + id, "Tagged once."));
+		}
+		for (long id = 310; id < 313; id++)
+		{
+			this.searchIndex.index(asset(id, "Serial snzone", "Tagged by zone."));
+		}
+
+		assertThat(this.searchIndex.search("sn", 1000)).hasSize(255 + 3).contains(310L, 311L, 312L);
+		assertThat(this.meterRegistry.get("asset.search.truncated").counter().count()).isEqualTo(1);
+
+		assertThat(this.searchIndex.search("sn10", 1000)).hasSize(11).startsWith(10L);
+		assertThat(this.meterRegistry.get("asset.search.truncated").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void Update_ChangedAttributes_ShouldReplaceTerms()
+	{
+		this.searchIndex.update(2L, 1, Collections.singletonMap("name", "Boiler"));
+
+		assertThat(this.searchIndex.search("heating", 10)).containsExactly(2L);
+		assertThat(this.searchIndex.search("boiler", 10)).containsExactly(2L);
+		assertThat(this.searchIndex.search("pump", 10)).containsExactly(1L, 2L, 3L);
+
+		this.searchIndex.index(asset(2L, "Stale copy", "Loaded before the update."));
+		assertThat(this.searchIndex.search("stale", 10)).isEmpty();
+
+		this.searchIndex.remove(2L);
+		assertThat(this.searchIndex.search("boiler", 10)).isEmpty();
+		assertThat(this.meterRegistry.get("asset.search.documents").gauge().value()).isEqualTo(3);
+	}
+
+	@Test
+	void Index_FullIndex_ShouldRejectNewAssets()
+	{
+		double memory = this.meterRegistry.get("asset.search.memory").gauge().value();
+		assertThat(memory).isPositive();
+
+		AssetProperties properties = new AssetProperties();
+		properties.getSearch().setMaxMemory(DataSize.ofBytes((long) memory));
+		SimpleMeterRegistry boundedRegistry = new SimpleMeterRegistry();
+		AssetSearchIndex 	bounded 		= createIndex(properties, boundedRegistry);
+
+		for (long id = 1; id <= 10; id++)
+		{
+			bounded.index(asset(id, "Cooling pump " + id, "Pump for the cooling circuit of line " + id));
+		}
+
+		assertThat(bounded.search("pump", 100)).hasSizeLessThan(10);
+		assertThat(boundedRegistry.get("asset.search.rejected").counter().count()).isPositive();
+
+		this.searchIndex.remove(1L);
+		this.searchIndex.remove(2L);
+		this.searchIndex.remove(3L);
+		this.searchIndex.remove(4L);
+		assertThat(this.meterRegistry.get("asset.search.memory").gauge().value()).isZero();
+	}
+
+	private static AssetSearchIndex createIndex(AssetProperties properties, SimpleMeterRegistry registry)
+	{
+		return new AssetSearchIndex(properties, Mockito.mock(AssetRepository.class), Mockito.mock(PlatformTransactionManager.class), registry);
+	}
+
+	private static Asset asset(Long id, String name, String description)
+	{
+		return Asset.builder().id(id).version(0).name(name).description(description).type("Test").build();
+	}
+}
@@ -1,22 +1,40 @@
 package com.company.assetmanagment.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -25,19 +43,43 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.company.assetmanagment.component.cache.AssetResponseCache;
+import com.company.assetmanagment.component.codec.AssetProtobuf;
+import com.company.assetmanagment.component.feed.AssetChangeFeed;
+import com.company.assetmanagment.component.ingest.AssetIngestQueue;
+import com.company.assetmanagment.component.patch.AssetPatchEngine;
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.config.CodecConfiguration;
+import com.company.assetmanagment.data.domain.AssetChange;
+import com.company.assetmanagment.data.domain.AssetDelta;
+import com.company.assetmanagment.data.domain.CursorPage;
+import com.company.assetmanagment.data.domain.IngestStatus;
 import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.request.AssetField;
 import com.company.assetmanagment.data.dto.AssetIncomingDto;
+import com.company.assetmanagment.data.dto.AssetResponseDto;
 import com.company.assetmanagment.data.dto.MapStructMapper;
 import com.company.assetmanagment.data.dto.MapStructMapperImpl;
+import com.company.assetmanagment.exception.IngestQueueFullException;
+import com.company.assetmanagment.exception.ResourceGoneException;
 import com.company.assetmanagment.exception.ResourceNotFoundException;
 import com.company.assetmanagment.service.AssetService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @WebMvcTest(controllers = AssetController.class)
+@Import({AssetPatchEngine.class, CodecConfiguration.class})
 @ActiveProfiles("test")
 class AssetControllerTest
 {
@@ -50,10 +92,25 @@ class AssetControllerTest
 		{
 			return new MapStructMapperImpl();
 		}
+		
+		@Bean
+		public AssetResponseCache assetResponseCache()
+		{
+			return new AssetResponseCache(new AssetProperties(), new SimpleMeterRegistry());
+		}
 	}
 
 	@MockBean
 	private AssetService assetService;
+	
+	@MockBean
+	private AssetIngestQueue ingestQueue;
+	
+	@MockBean
+	private AssetChangeFeed changeFeed;
+	
+	// a real feed for the subscription a mocked subscribe returns, stopped after the test so its sender threads end
+	private AssetChangeFeed subscriptionFeed;
 
 	
 	private final String API_PATH = "/api/v1/assets";
@@ -67,29 +124,53 @@ class AssetControllerTest
 	@BeforeEach
 	public void setUp()
 	{
-		Asset asst1 = Asset.builder().name("TEST1").description("TEST DESCRIPTION1").type("TESTTYPE").id(Long.valueOf(1)).createdOn(new Date()).updatedOn(new Date()).build();
+		Asset asst1 = Asset.builder().name("TEST1").description("TEST DESCRIPTION1").type("TESTTYPE").id(Long.valueOf(1)).version(0).createdOn(new Date()).updatedOn(new Date()).build();
 
-		Asset asst2 = Asset.builder().name("TEST2").description("TEST DESCRIPTION2").type("TESTTYPE").id(Long.valueOf(2)).createdOn(new Date()).updatedOn(new Date()).build();
+		Asset asst2 = Asset.builder().name("TEST2").description("TEST DESCRIPTION2").type("TESTTYPE").id(Long.valueOf(2)).version(0).createdOn(new Date()).updatedOn(new Date()).build();
 
-		Asset asst3 = Asset.builder().name("TEST3").description("TEST DESCRIPTION3").type("TESTTYPE").id(Long.valueOf(3)).createdOn(new Date()).updatedOn(new Date()).build();
+		Asset asst3 = Asset.builder().name("TEST3").description("TEST DESCRIPTION3").type("TESTTYPE").id(Long.valueOf(3)).version(0).createdOn(new Date()).updatedOn(new Date()).build();
 
 		List<Asset> manyAssets = Stream.of(asst3, asst2, asst1).collect(Collectors.toList());
 
 		
 		Mockito.when(assetService.getById( not(eq(Long.valueOf(100))) )   ).thenReturn(asst1);
 		Mockito.when(assetService.getById( Long.valueOf(100))	   		  ).thenThrow(new ResourceNotFoundException("No asset found with the id."));
+		Mockito.when(assetService.getById( not(eq(Long.valueOf(100))), any() )).thenReturn(asst1);
+		Mockito.when(assetService.getById( eq(Long.valueOf(100)), any())	 ).thenThrow(new ResourceNotFoundException("No asset found with the id."));
+		
+		Mockito.when(assetService.getVersion( not(eq(Long.valueOf(100))) )).thenReturn(0);
+		Mockito.when(assetService.getVersion( Long.valueOf(100))	   	   ).thenThrow(new ResourceNotFoundException("No asset found with the id."));
 		
 		
 		Mockito.when(assetService.create(any(Asset.class))).thenReturn(asst2);
 
-		Mockito.when(assetService.update(not(eq(Long.valueOf(100))), any(Asset.class)) ).thenReturn(asst3);
-		Mockito.when(assetService.update(    eq(Long.valueOf(100)) , any(Asset.class)) ).thenThrow(new ResourceNotFoundException("No asset found with the id."));
+		Mockito.when(assetService.update(not(eq(Long.valueOf(100))), any(), any(Asset.class)) ).thenReturn(1);
+		Mockito.when(assetService.update(    eq(Long.valueOf(100)) , any(), any(Asset.class)) ).thenThrow(new ResourceNotFoundException("No asset found with the id."));
 		
-		doNothing().when(assetService).delete(any());
+		doNothing().when(assetService).delete(any(), any());
 
 		Mockito.when(assetService.findAllAndSortBy(any(Sort.class))).thenReturn(manyAssets);
+		
+		Mockito.when(assetService.exportAll(any(Sort.class), any())).thenAnswer(invocation ->
+		{
+			Consumer<Asset> consumer = invocation.getArgument(1);
+			manyAssets.forEach(consumer);
+			return (long) manyAssets.size();
+		});
+		
+		Mockito.when(assetService.findPage(any(), any(Sort.class), isNull(), anyInt(), any())).thenReturn(new CursorPage<>(manyAssets, null));
+		Mockito.when(assetService.findPage(any(), any(Sort.class), eq("cursor"), anyInt(), any())).thenReturn(new CursorPage<>(manyAssets.subList(0, 1), "next-cursor"));
 
 	}
+	
+	@AfterEach
+	public void tearDown()
+	{
+		if (this.subscriptionFeed != null)
+		{
+			this.subscriptionFeed.stop();
+		}
+	}
 
 	@Test
 	public void SmokeTest_GetCall_ShouldPass() throws Exception
@@ -107,6 +188,94 @@ class AssetControllerTest
 	}
 	
 	
+	@Test
+	public void GetApiTest_CachedRepresentations_ShouldKeepEachContentType() throws Exception
+	{
+		for (int i = 0; i < 2; i++)
+		{
+			byte[] body = this.mockMvc.perform(get(API_PATH+"/1").accept(MediaType.APPLICATION_CBOR))
+										.andExpect(status().isOk())
+										.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+										.andExpect(header().string("ETag", "\"1-0-cbor\""))
+										.andReturn().getResponse().getContentAsByteArray();
+			assertEquals("TEST1", new ObjectMapper(new CBORFactory()).readTree(body).get("name").asText());
+			
+			this.mockMvc.perform(get(API_PATH+"/1"))
+						.andExpect(status().isOk())
+						.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+						.andExpect(header().string("Vary", "Accept"))
+						.andExpect(jsonPath("$.name").value("TEST1"));
+		}
+	}
+	
+	@Test
+	public void GetApiTest_IfNoneMatchOfOtherRepresentation_ShouldNotMatch() throws Exception
+	{
+		this.mockMvc.perform(get(API_PATH+"/1").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"1-0\""))
+					.andExpect(status().isOk())
+					.andExpect(header().string("ETag", "\"1-0-cbor\""));
+		
+		this.mockMvc.perform(get(API_PATH+"/1").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"1-0-cbor\""))
+					.andExpect(status().isNotModified())
+					.andExpect(header().string("ETag", "\"1-0-cbor\""));
+		
+		this.mockMvc.perform(get(API_PATH+"/1").header("If-None-Match", "\"1-0-cbor\""))
+					.andExpect(status().isOk())
+					.andExpect(header().string("ETag", "\"1-0\""));
+	}
+	
+	@Test
+	public void GetApiTest_Fields_ShouldReturnPickedFieldsOnly() throws Exception
+	{
+		this.mockMvc.perform(get(API_PATH+"/1?fields=name")).andDo(print())
+					.andExpect(status().isOk())
+					.andExpect(header().string("ETag", "W/\"1-0-id.name\""))
+					.andExpect(jsonPath("$.id").value(1))
+					.andExpect(jsonPath("$.name").value("TEST1"))
+					.andExpect(jsonPath("$.description").doesNotExist());
+		
+		Mockito.verify(assetService).getById(1L, EnumSet.of(AssetField.ID, AssetField.NAME));
+		
+		this.mockMvc.perform(get(API_PATH+"/1?fields=name,secret"))
+					.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void SearchApiTest_Query_ShouldPass() throws Exception
+	{
+		Mockito.when(assetService.search(eq("test"), anyInt())).thenReturn(Collections.singletonList(Asset.builder().id(Long.valueOf(3)).version(0).name("TEST3").description("TEST DESCRIPTION3").type("TESTTYPE").build()));
+		
+		this.mockMvc.perform(get(API_PATH+"/search?q=test&limit=5"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$[0].id").value(3));
+		
+		Mockito.verify(assetService).search("test", 5);
+		
+		this.mockMvc.perform(get(API_PATH+"/search").param("q", " "))
+					.andExpect(status().isBadRequest());
+		this.mockMvc.perform(get(API_PATH+"/search?q=test&limit=100000"))
+					.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void GetApiTest_IfNoneMatchCurrentVersion_ShouldReturnNotModified() throws Exception
+	{
+		this.mockMvc.perform(get(API_PATH+"/1").header("If-None-Match", "\"1-0\"")).andDo(print())
+					.andExpect(status().isNotModified())
+					.andExpect(header().string("ETag", "\"1-0\""));
+		
+		Mockito.verify(assetService, Mockito.never()).getById(any(), any());
+	}
+	
+	@Test
+	public void GetApiTest_IfNoneMatchOldVersion_ShouldReturnAsset() throws Exception
+	{
+		this.mockMvc.perform(get(API_PATH+"/1").header("If-None-Match", "\"1-7\"")).andDo(print())
+					.andExpect(status().isOk())
+					.andExpect(header().string("ETag", "\"1-0\""))
+					.andExpect(jsonPath("$.id").value(1));
+	}
+	
 	@Test
 	public void GetApiTest_ByIdNotExist_ShouldPass() throws Exception
 	{
@@ -124,6 +293,72 @@ class AssetControllerTest
 	}
 	
 	
+	@Test
+	public void GetAllApiTest_MorePages_ShouldReturnNextLink() throws Exception
+	{
+		this.mockMvc.perform(get(API_PATH+"?limit=1&after=cursor")).andDo(print())
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(1))
+					.andExpect(header().string("Link", "<http://localhost/api/v1/assets?limit=1&after=next-cursor>; rel=\"next\""));
+	}
+	
+	@Test
+	public void GetAllApiTest_BinaryAccept_ShouldNegotiateRepresentation() throws Exception
+	{
+		this.mockMvc.perform(get(API_PATH))
+					.andExpect(status().isOk())
+					.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+					.andExpect(header().string("Vary", "Accept"));
+		
+		for (ObjectMapper mapper : Arrays.asList(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory())))
+		{
+			MediaType mediaType = mapper.getFactory() instanceof CBORFactory ? MediaType.APPLICATION_CBOR : MediaType.valueOf(CodecConfiguration.SMILE_VALUE);
+			byte[] 	  body 		= this.mockMvc.perform(get(API_PATH).accept(mediaType))
+												.andExpect(status().isOk())
+												.andExpect(content().contentType(mediaType))
+												.andReturn().getResponse().getContentAsByteArray();
+			
+			JsonNode assets = mapper.readTree(body);
+			assertEquals(3, 				assets.size());
+			assertEquals(3, 				assets.get(0).get("id").asInt());
+			assertTrue	(assets.get(0).get("createdOn").isNumber());
+		}
+		
+		byte[] body = this.mockMvc.perform(get(API_PATH).accept(AssetProtobuf.MEDIA_TYPE, MediaType.APPLICATION_JSON))
+									.andExpect(status().isOk())
+									.andExpect(content().contentType(AssetProtobuf.MEDIA_TYPE))
+									.andReturn().getResponse().getContentAsByteArray();
+		
+		List<AssetResponseDto> assets = new AssetProtobuf().readList(body);
+		assertEquals(Arrays.asList(3L, 2L, 1L), assets.stream().map(AssetResponseDto::getId).collect(Collectors.toList()));
+		assertEquals("TEST DESCRIPTION3", 		assets.get(0).getDescription());
+		assertNotNull(assets.get(0).getCreatedOn());
+		
+		this.mockMvc.perform(get(API_PATH+"/1").accept(AssetProtobuf.MEDIA_TYPE))
+					.andExpect(status().isOk())
+					.andExpect(content().contentType(AssetProtobuf.MEDIA_TYPE));
+		this.mockMvc.perform(get(API_PATH).accept(MediaType.APPLICATION_XML))
+					.andExpect(status().isNotAcceptable());
+	}
+	
+	@Test
+	public void GetAllApiTest_LimitTooLarge_ShouldFail() throws Exception
+	{
+		this.mockMvc.perform(get(API_PATH+"?limit=100000")).andDo(print())
+					.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void ExportApiTest_AllAssets_ShouldStreamNdjson() throws Exception
+	{
+		MvcResult result = this.mockMvc.perform(get(API_PATH+"/export")).andExpect(request().asyncStarted()).andReturn();
+		
+		this.mockMvc.perform(asyncDispatch(result))
+					.andExpect(status().isOk())
+					.andExpect(content().contentType("application/x-ndjson"))
+					.andExpect(content().string(matchesPattern("(\\{\"id\":[0-9],[^\\n]*}\\n){3}")));
+	}
+	
 	@Test
 	public void PostApiTest_ValidRequest_ShouldPass() throws Exception
 	{
@@ -137,6 +372,117 @@ class AssetControllerTest
 					.andExpect(jsonPath("$.id").exists());
 	}
 	
+	@Test
+	public void PostApiTest_RespondAsync_ShouldBeAccepted() throws Exception
+	{
+		AssetIncomingDto dto = new AssetIncomingDto();
+		dto.setName("ttt");
+		dto.setDescription("tttttt");
+		dto.setType("t");
+		
+		Mockito.when(ingestQueue.accept(any(AssetIncomingDto.class))).thenReturn("tracking-1");
+		Mockito.when(ingestQueue.status("tracking-1")).thenReturn(Optional.of(IngestStatus.created("tracking-1", 7L)));
+		
+		this.mockMvc.perform(post(API_PATH).contentType("application/json").header("Prefer", "respond-async").content(objectMapper.writeValueAsString(dto)))
+					.andExpect(status().isAccepted())
+					.andExpect(header().string("Location", "http://localhost/api/v1/assets/ingest/tracking-1"))
+					.andExpect(header().string("Preference-Applied", "respond-async"))
+					.andExpect(jsonPath("$.trackingId").value("tracking-1"))
+					.andExpect(jsonPath("$.state").value("QUEUED"));
+		Mockito.verify(assetService, Mockito.never()).create(any(Asset.class));
+		
+		this.mockMvc.perform(get(API_PATH + "/ingest/tracking-1"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.state").value("CREATED"))
+					.andExpect(jsonPath("$.assetId").value(7));
+		
+		this.mockMvc.perform(get(API_PATH + "/ingest/unknown")).andExpect(status().isNotFound());
+	}
+	
+	@Test
+	public void PostApiTest_RespondAsyncQueueFull_ShouldBeTooManyRequests() throws Exception
+	{
+		AssetIncomingDto dto = new AssetIncomingDto();
+		dto.setName("ttt");
+		dto.setDescription("tttttt");
+		dto.setType("t");
+		
+		Mockito.when(ingestQueue.accept(any(AssetIncomingDto.class))).thenThrow(new IngestQueueFullException("The ingestion queue is full"));
+		
+		this.mockMvc.perform(post(API_PATH).contentType("application/json").header("Prefer", "respond-async").content(objectMapper.writeValueAsString(dto)))
+					.andExpect(status().isTooManyRequests())
+					.andExpect(header().string("Retry-After", "1"))
+					.andExpect(jsonPath("$.message").value("The ingestion queue is full"));
+		
+		dto.setName("t");
+		this.mockMvc.perform(post(API_PATH).contentType("application/json").header("Prefer", "respond-async").content(objectMapper.writeValueAsString(dto)))
+					.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void ChangesApiTest_Stream_ShouldSendChangesAsEvents() throws Exception
+	{
+		Asset asset = Asset.builder().name("TEST1").description("TEST DESCRIPTION1").type("TESTTYPE").id(Long.valueOf(1)).version(0).build();
+		
+		this.subscriptionFeed = new AssetChangeFeed(new AssetProperties(), new SimpleMeterRegistry());
+		Mockito.when(changeFeed.subscribe(eq(41L), any())).thenAnswer(invocation ->
+		{
+			AssetChangeFeed.Listener listener = invocation.getArgument(1);
+			listener.send(Arrays.asList(new AssetChange(42, AssetChange.Type.CREATED, 1L, 0, asset, null),
+										new AssetChange(43, AssetChange.Type.DELETED, 1L, null, null, null)));
+			listener.close();
+			return this.subscriptionFeed.subscribe(null, listener);
+		});
+		
+		MvcResult result = this.mockMvc.perform(get(API_PATH + "/changes").header("Last-Event-ID", "41").accept("text/event-stream"))
+										.andExpect(request().asyncStarted())
+										.andReturn();
+		
+		this.mockMvc.perform(asyncDispatch(result))
+					.andExpect(status().isOk())
+					.andExpect(content().string(containsString("id:42\ndata:{\"sequence\":42,\"type\":\"CREATED\",\"id\":1,\"version\":0,\"asset\":{\"id\":1,")))
+					.andExpect(content().string(containsString("id:43\ndata:{\"sequence\":43,\"type\":\"DELETED\",\"id\":1}")));
+	}
+	
+	@Test
+	public void ChangesApiTest_SequenceGone_ShouldFail() throws Exception
+	{
+		Mockito.when(changeFeed.subscribe(eq(7L), any())).thenThrow(new ResourceGoneException("Changes after sequence 7 are no longer available, please resynchronize."));
+		
+		this.mockMvc.perform(get(API_PATH + "/changes?after=7").accept("text/event-stream"))
+					.andExpect(status().isGone())
+					.andExpect(jsonPath("$.status").value("GONE"));
+		
+		this.mockMvc.perform(get(API_PATH + "/changes?after=7").accept("text/event-stream", "application/json"))
+					.andExpect(status().isGone())
+					.andExpect(jsonPath("$.message").value("Changes after sequence 7 are no longer available, please resynchronize."));
+	}
+	
+	@Test
+	public void SyncApiTest_ModifiedSince_ShouldReturnDelta() throws Exception
+	{
+		Date 	modifiedSince 	= new Date(1640995200000L);
+		Date 	watermark 		= new Date(1641081600000L);
+		Asset 	asset 			= Asset.builder().id(3L).version(1).name("synced").description("d").type("t").createdOn(modifiedSince).updatedOn(watermark).build();
+		
+		Mockito.when(assetService.sync(modifiedSince, 2)).thenReturn(new AssetDelta(Collections.singletonList(asset), Arrays.asList(4L, 5L), watermark, false));
+		Mockito.when(assetService.sync(eq(new Date(0)), anyInt())).thenThrow(new ResourceGoneException("Deletes before 2022-01-01T00:00:00Z are no longer known, please sync from scratch."));
+		
+		this.mockMvc.perform(get(API_PATH + "/sync?limit=2&modifiedSince=2022-01-01T00:00:00.000Z"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.assets[0].id").value(3))
+					.andExpect(jsonPath("$.assets[0].name").value("synced"))
+					.andExpect(jsonPath("$.deleted").value(contains(4, 5)))
+					.andExpect(jsonPath("$.watermark").value(containsString("2022-01-02T00:00:00")))
+					.andExpect(jsonPath("$.complete").value(false));
+		
+		this.mockMvc.perform(get(API_PATH + "/sync?modifiedSince=1970-01-01T00:00:00.000Z"))
+					.andExpect(status().isGone());
+		
+		this.mockMvc.perform(get(API_PATH + "/sync?limit=0"))
+					.andExpect(status().isBadRequest());
+	}
+	
 	@Test
 	public void PostApiTest_BadRequest_ShouldPass() throws Exception
 	{
@@ -176,6 +522,32 @@ class AssetControllerTest
 					.andExpect(status().isNotFound());
 	}
 	
+	@Test
+	public void PutApiTest_IfMatchReturnMinimal_ShouldPass() throws Exception
+	{
+		AssetIncomingDto dto = new AssetIncomingDto();
+		dto.setName("ttt");
+		dto.setDescription("tttttt");
+		dto.setType("t");
+		
+		this.mockMvc.perform(put(API_PATH+"/1").contentType("application/json").header("If-Match", "\"1-0\"").header("Prefer", "return=minimal").content(objectMapper.writeValueAsString(dto)))
+					.andExpect(status().isNoContent())
+					.andExpect(header().string("ETag", "\"1-1\""))
+					.andExpect(header().string("Preference-Applied", "return=minimal"));
+		
+		Mockito.verify(assetService).update(eq(Long.valueOf(1)), eq(0), any(Asset.class));
+		
+		this.mockMvc.perform(put(API_PATH+"/1").contentType("application/json").header("If-Match", "\"1-0-cbor\"").header("Prefer", "return=minimal").content(objectMapper.writeValueAsString(dto)))
+					.andExpect(status().isNoContent());
+		
+		Mockito.verify(assetService, Mockito.times(2)).update(eq(Long.valueOf(1)), eq(0), any(Asset.class));
+		
+		this.mockMvc.perform(put(API_PATH+"/1").contentType("application/json").header("If-Match", "W/\"1-0\"").content(objectMapper.writeValueAsString(dto)))
+					.andExpect(status().isBadRequest());
+		this.mockMvc.perform(put(API_PATH+"/1").contentType("application/json").header("If-Match", "\"2-0\"").content(objectMapper.writeValueAsString(dto)))
+					.andExpect(status().isBadRequest());
+	}
+	
 	@Test
 	public void DeleteApiTest_Any_ShouldPass() throws Exception
 	{		
@@ -2,32 +2,66 @@ package com.company.assetmanagment.controller.e2e;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.company.assetmanagment.component.aggregate.AssetCounters;
+import com.company.assetmanagment.component.cache.SecondLevelCacheInvalidator;
+import com.company.assetmanagment.component.logging.RequestLogFilter;
 import com.company.assetmanagment.data.domain.model.Asset;
 import com.company.assetmanagment.data.dto.AssetIncomingDto;
 import com.company.assetmanagment.repository.AssetRepository;
+import com.company.assetmanagment.repository.id.BlockSequenceIdGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.company.assetmanagment.controller.e2e.StatementHook")
 @AutoConfigureMockMvc
 @Transactional
 @ActiveProfiles("test")
@@ -44,6 +78,18 @@ class AssetControllerTest
 	@Autowired
 	private AssetRepository assetRepository;
 	
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	private AssetCounters assetCounters;
+	
+	@Autowired
+	private SecondLevelCacheInvalidator secondLevelCache;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
 	@Test
 	public void PostApiE2ETest_CreateAsset_ShouldPass() throws Exception
 	{
@@ -105,6 +151,191 @@ class AssetControllerTest
 		
 	}
 	
+	@Test
+	public void GetAllApiE2ETest_KeysetPages_ShouldReturnEveryAssetOnce() throws Exception
+	{
+		for(int i = 1; i <= 5 ; i++)
+		{
+			this.assetRepository.save(Asset.builder().name("Same name").description("desc" + i).type("t").build());
+		}
+		
+		List<String> names = new ArrayList<>();
+		String link = API_PATH + "?sortDirection=ASC&sortColumn=name&limit=2";
+		
+		while (link != null)
+		{
+			MvcResult result = this.mockMvc.perform(get(link)).andExpect(status().isOk()).andReturn();
+			
+			JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+			page.forEach(node -> names.add(node.get("description").asText()));
+			
+			String header = result.getResponse().getHeader("Link");
+			link = header == null ? null : header.substring(header.indexOf('<') + 1, header.indexOf('>'));
+		}
+		
+		assertThat(names).containsExactly("desc1", "desc2", "desc3", "desc4", "desc5");
+	}
+	
+	@Test
+	public void GetAllApiE2ETest_Filters_ShouldNarrowResult() throws Exception
+	{
+		this.assetRepository.save(Asset.builder().name("Pump A").description("desc1").type("Pump").build());
+		this.assetRepository.save(Asset.builder().name("Pump B").description("desc2").type("Pump").build());
+		this.assetRepository.save(Asset.builder().name("Valve A").description("desc3").type("Valve").build());
+		this.assetRepository.flushAndClear();
+		
+		String yesterday 	= Instant.now().minus(1, ChronoUnit.DAYS).toString();
+		String tomorrow 	= Instant.now().plus(1, ChronoUnit.DAYS).toString();
+		
+		this.mockMvc.perform(get(API_PATH + "?type=Pump&sortColumn=name&sortDirection=ASC&createdFrom=" + yesterday + "&createdTo=" + tomorrow))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$[*].name", contains("Pump A", "Pump B")));
+		this.mockMvc.perform(get(API_PATH + "?namePrefix=Valve"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$[*].name", contains("Valve A")));
+		this.mockMvc.perform(get(API_PATH + "?type=Pump&updatedFrom=" + tomorrow))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$").isEmpty());
+		this.mockMvc.perform(get(API_PATH + "?createdFrom=yesterday"))
+					.andExpect(status().isBadRequest());
+		
+		String header = this.mockMvc.perform(get(API_PATH + "?type=Pump&limit=1")).andReturn().getResponse().getHeader("Link");
+		this.mockMvc.perform(get(header.substring(header.indexOf('<') + 1, header.indexOf('>'))))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$[*].type", contains("Pump")));
+	}
+	
+	@Test
+	public void GetAllApiE2ETest_Fields_ShouldSelectPickedColumnsOnly() throws Exception
+	{
+		Asset pump = this.assetRepository.save(Asset.builder().name("Pump A").description("desc1").type("Pump").build());
+		this.assetRepository.save(Asset.builder().name("Pump B").description("desc2").type("Pump").build());
+		this.assetRepository.flushAndClear();
+		
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		
+		this.mockMvc.perform(get(API_PATH + "/" + pump.getId() + "?fields=name"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.name").value("Pump A"))
+					.andExpect(jsonPath("$.description").doesNotExist());
+		this.mockMvc.perform(get(API_PATH + "?type=Pump&fields=name&sortColumn=type&sortDirection=ASC&limit=1"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$[0].name").value("Pump A"))
+					.andExpect(jsonPath("$[0].type").doesNotExist())
+					.andExpect(jsonPath("$[0].description").doesNotExist());
+		
+		assertThat(statistics.getEntityLoadCount()).as("projections don't hydrate entities").isZero();
+	}
+	
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void GetAllApiE2ETest_RepeatedQuery_ShouldBeCachedUntilWritten() throws Exception
+	{
+		Statistics 	statistics 	= entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Asset 		first 		= this.assetRepository.save(Asset.builder().name("Cached A").description("desc1").type("Cached").build());
+		Asset 		second 		= this.assetRepository.save(Asset.builder().name("Cached B").description("desc2").type("Cached").build());
+		String 		list 		= API_PATH + "?type=Cached&sortColumn=name&sortDirection=ASC";
+		
+		try
+		{
+			this.mockMvc.perform(get(list)).andExpect(jsonPath("$[*].name").value(contains("Cached A", "Cached B")));
+			long queries 	= statistics.getQueryExecutionCount();
+			long hits 		= statistics.getQueryCacheHitCount();
+			
+			this.mockMvc.perform(get(list)).andExpect(jsonPath("$[*].name").value(contains("Cached A", "Cached B")));
+			assertThat(statistics.getQueryCacheHitCount()).isEqualTo(hits + 1);
+			assertThat(statistics.getQueryExecutionCount()).isEqualTo(queries);
+			
+			this.mockMvc.perform(patch(API_PATH + "/" + first.getId()).contentType("application/json").content("{\"name\": \"Cached C\" }"))
+						.andExpect(status().isOk());
+			this.mockMvc.perform(get(list)).andExpect(jsonPath("$[*].name").value(contains("Cached B", "Cached C")));
+			
+			// as another instance would, bypassing Hibernate on this one
+			this.jdbcTemplate.update("UPDATE asset SET name = ?, version = version + 1, updated_on = ? WHERE id = ?", "Cached 0", new Timestamp(System.currentTimeMillis()), second.getId());
+			this.secondLevelCache.sync();
+			this.mockMvc.perform(get(list)).andExpect(jsonPath("$[*].name").value(contains("Cached 0", "Cached C")));
+			
+			this.mockMvc.perform(get("/actuator/metrics/asset.second-level-cache.hit.ratio").param("tag", "region:" + RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME))
+						.andExpect(status().isOk());
+		}
+		finally
+		{
+			this.assetRepository.deleteAllById(Arrays.asList(first.getId(), second.getId()));
+		}
+	}
+	
+	@Test
+	public void GetAllApiE2ETest_CursorForOtherSort_ShouldFail() throws Exception
+	{
+		for(int i = 1; i <= 3 ; i++)
+		{
+			this.assetRepository.save(Asset.builder().name("name" + i).description("desc" + i).type("t").build());
+		}
+		
+		String header = this.mockMvc.perform(get(API_PATH + "?sortColumn=name&limit=1")).andReturn().getResponse().getHeader("Link");
+		String cursor = header.substring(header.indexOf("after=") + 6, header.indexOf('>'));
+		
+		this.mockMvc.perform(get(API_PATH + "?sortColumn=type&limit=1&after=" + cursor))
+					.andExpect(status().isBadRequest());
+		this.mockMvc.perform(get(API_PATH + "?after=not-a-cursor"))
+					.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void BulkPostE2ETest_ManyAssets_ShouldInsertInBatches() throws Exception
+	{
+		List<AssetIncomingDto> dtos = new ArrayList<>();
+		for(int i = 0; i < 120 ; i++)
+		{
+			AssetIncomingDto dto = new AssetIncomingDto();
+			dto.setName("bulk" + i);
+			dto.setDescription("bulk description" + i);
+			dto.setType(i == 7 ? "" : "t");
+			dtos.add(dto);
+		}
+		
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		
+		this.mockMvc.perform(post(API_PATH + "/bulk").contentType("application/json").content(objectMapper.writeValueAsString(dtos)))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(120))
+					.andExpect(jsonPath("$[0].status").value("CREATED"))
+					.andExpect(jsonPath("$[0].asset.id").exists())
+					.andExpect(jsonPath("$[7].status").value("BAD_REQUEST"))
+					.andExpect(jsonPath("$[7].errors[0]").value("type: must not be empty"))
+					.andExpect(jsonPath("$[119].asset.name").value("bulk119"));
+		
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(119);
+		assertThat(statistics.getPrepareStatementCount()).as("inserts and ids are fetched in batches").isLessThan(10);
+		assertThat(assetRepository.count()).isEqualTo(119);
+	}
+	
+	@Test
+	public void SaveE2ETest_ManyAssets_ShouldReserveIdsInBlocks()
+	{
+		Counter reservedBlocks 	= Metrics.globalRegistry.get(BlockSequenceIdGenerator.BLOCKS_METRIC).counter();
+		double 	before 			= reservedBlocks.count();
+		
+		List<Asset> assets = new ArrayList<>();
+		for(int i = 0; i < 120 ; i++)
+		{
+			assets.add(Asset.builder().name("block" + i).description("block description").type("t").build());
+		}
+		this.assetRepository.saveAll(assets);
+		
+		assertThat(assets).extracting(Asset::getId).doesNotHaveDuplicates().doesNotContainNull();
+		assertThat(reservedBlocks.count() - before).as("50 ids per block").isBetween(3.0, 4.0);
+	}
+	
+	@Test
+	public void BulkPostE2ETest_EmptyList_ShouldFail() throws Exception
+	{
+		this.mockMvc.perform(post(API_PATH + "/bulk").contentType("application/json").content("[]"))
+					.andExpect(status().isBadRequest());
+	}
+	
 	@Test
 	public void PutE2ETest_AssetNotExist_ShouldPass() throws Exception
 	{
@@ -124,6 +355,44 @@ class AssetControllerTest
 		assertEquals(a.getDescription(), "tttttt");
 	}
 	
+	@Test
+	public void GetE2ETest_ConditionalRequests_ShouldUseVersion() throws Exception
+	{
+		Asset asst1 = this.assetRepository.save(Asset.builder().name("TEST1").description("TEST DESCRIPTION1").type("TESTTYPE").build());
+		this.assetRepository.flushAndClear();
+		
+		String etag = this.mockMvc.perform(get(API_PATH + "/" + asst1.getId()))
+									.andExpect(status().isOk())
+									.andReturn().getResponse().getHeader("ETag");
+		
+		assertEquals("\"" + asst1.getId() + "-0\"", etag);
+		
+		this.mockMvc.perform(get(API_PATH + "/" + asst1.getId()).header("If-None-Match", etag))
+					.andExpect(status().isNotModified());
+		
+		String listEtag = this.mockMvc.perform(get(API_PATH))
+										.andExpect(status().isOk())
+										.andReturn().getResponse().getHeader("ETag");
+		
+		this.mockMvc.perform(get(API_PATH).header("If-None-Match", listEtag))
+					.andExpect(status().isNotModified());
+		
+		AssetIncomingDto dto = new AssetIncomingDto();
+		dto.setName("ttt");
+		dto.setDescription("tttttt");
+		dto.setType("t");
+		this.mockMvc.perform(put(API_PATH + "/" + asst1.getId()).contentType("application/json").content(objectMapper.writeValueAsString(dto)))
+					.andExpect(status().isOk());
+		this.assetRepository.flushAndClear();
+		
+		this.mockMvc.perform(get(API_PATH + "/" + asst1.getId()).header("If-None-Match", etag))
+					.andExpect(status().isOk())
+					.andExpect(header().string("ETag", "\"" + asst1.getId() + "-1\""));
+		
+		this.mockMvc.perform(get(API_PATH).header("If-None-Match", listEtag))
+					.andExpect(status().isOk());
+	}
+	
 	@Test
 	public void DeleteE2ETest_Any_ShouldPass() throws Exception
 	{
@@ -161,5 +430,228 @@ class AssetControllerTest
 		assertEquals(a.getName(), "newname");
 	}
 	
+	@Test
+	public void PatchApiTest_MergePatch_ShouldPass() throws Exception
+	{
+		Asset asst1 = Asset.builder().name("TEST1").description("TEST DESCRIPTION1").type("TESTTYPE").createdOn(new Date()).updatedOn(new Date()).build();
+		asst1 = this.assetRepository.save(asst1);
+		
+		this.mockMvc.perform(patch(API_PATH+ "/"+asst1.getId()).contentType("application/merge-patch+json").content("{\"description\": \"merged description\", \"type\": \"MERGED\" }"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.name").value("TEST1"))
+					.andExpect(jsonPath("$.description").value("merged description"))
+					.andExpect(jsonPath("$.type").value("MERGED"));
+		
+		this.mockMvc.perform(patch(API_PATH+ "/"+asst1.getId()).contentType("application/merge-patch+json").content("{\"version\": 42 }"))
+					.andExpect(status().isBadRequest());
+		this.mockMvc.perform(patch(API_PATH+ "/"+asst1.getId()).contentType("application/merge-patch+json").content("{\"name\": 42 }"))
+					.andExpect(status().isBadRequest());
+		this.mockMvc.perform(patch(API_PATH+ "/"+asst1.getId()).contentType("application/merge-patch+json").content("{\"type\": \"OTHER\", \"name\": null }"))
+					.andExpect(status().isBadRequest());
+		this.mockMvc.perform(patch(API_PATH+ "/"+asst1.getId()).contentType("application/merge-patch+json").content("{\"name\": \"ab\" }"))
+					.andExpect(status().isBadRequest())
+					.andExpect(jsonPath("$.errors[0]").value(containsString("Asset name should be atleast 3 characters.")));
+		
+		Asset a = this.assetRepository.findById(asst1.getId()).get();
+		assertEquals("TEST1", a.getName());
+		assertEquals("MERGED", a.getType());
+	}
+	
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void WriteE2ETest_ConditionalWrites_ShouldUseSingleStatement() throws Exception
+	{
+		Asset asst1 = this.assetRepository.save(Asset.builder().name("TEST1").description("TEST DESCRIPTION1").type("TESTTYPE").build());
+		
+		String path 			= API_PATH + "/" + asst1.getId();
+		Statistics statistics 	= entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		
+		try
+		{
+			statistics.clear();
+			this.mockMvc.perform(patch(path).contentType("application/merge-patch+json").header("If-Match", "\"" + asst1.getId() + "-0\"").header("Prefer", "return=minimal").content("{\"name\": \"newname\" }"))
+						.andExpect(status().isNoContent())
+						.andExpect(header().string("ETag", "\"" + asst1.getId() + "-1\""));
+			assertThat(statistics.getPrepareStatementCount()).as("conditional PATCH").isEqualTo(1);
+			
+			statistics.clear();
+			this.mockMvc.perform(put(path).contentType("application/json").header("If-Match", "\"" + asst1.getId() + "-0\"").content("{\"name\": \"stale\", \"description\": \"stale\", \"type\": \"stale\" }"))
+						.andExpect(status().isConflict());
+			assertThat(statistics.getPrepareStatementCount()).as("stale PUT and the existence check").isEqualTo(2);
+			
+			statistics.clear();
+			this.mockMvc.perform(put(path).contentType("application/json").header("If-Match", "\"" + asst1.getId() + "-1\"").content("{\"name\": \"fresh\", \"description\": \"fresh\", \"type\": \"fresh\" }"))
+						.andExpect(status().isOk())
+						.andExpect(header().string("ETag", "\"" + asst1.getId() + "-2\""))
+						.andExpect(jsonPath("$.name").value("fresh"));
+			assertThat(statistics.getPrepareStatementCount()).as("conditional PUT and reading the asset back").isEqualTo(2);
+			
+			statistics.clear();
+			this.mockMvc.perform(delete(path).header("If-Match", "\"" + asst1.getId() + "-1\""))
+						.andExpect(status().isConflict());
+			this.mockMvc.perform(delete(path).header("If-Match", "\"" + asst1.getId() + "-2\""))
+						.andExpect(status().isNoContent());
+			this.mockMvc.perform(delete(path))
+						.andExpect(status().isNotFound());
+			assertThat(statistics.getPrepareStatementCount()).as("stale DELETE with existence check, DELETE with its tombstone, DELETE of a missing asset").isEqualTo(5);
+		}
+		finally
+		{
+			this.jdbcTemplate.update("DELETE FROM asset WHERE id = ?", asst1.getId());
+			this.jdbcTemplate.update("DELETE FROM asset_tombstone WHERE id = ?", asst1.getId());
+		}
+	}
+	
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void WriteE2ETest_InterleavedPatches_ShouldEachReportTheirVersion() throws Exception
+	{
+		long 								id 			= 1_000_000L;
+		String 								path 		= API_PATH + "/" + id;
+		ExecutorService 					executor 	= Executors.newSingleThreadExecutor();
+		AtomicReference<Future<MvcResult>> 	second 		= new AtomicReference<>();
+		
+		// an id of its own, outside the blocks of the sequence, whose use other tests count
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		this.jdbcTemplate.update("INSERT INTO asset (id, name, description, type, version, created_on, updated_on) VALUES (?, 'Winch A', 'desc1', 'Winch', 0, ?, ?)", id, now, now);
+		
+		// the second PATCH starts once the first updated the row, and must wait for its commit to update it as well; both ask
+		// for the minimal response, whose ETag is the version the PATCH wrote rather than that of the asset read back after it
+		StatementHook.before("select asset0_.version", () ->
+		{
+			second.set(executor.submit(() -> this.mockMvc.perform(patch(path).contentType("application/json").header("Prefer", "return=minimal").content("{\"name\": \"Winch C\" }")).andReturn()));
+			try
+			{
+				Thread.sleep(300);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			assertThat(second.get()).isNotDone();
+		});
+		
+		try
+		{
+			this.mockMvc.perform(patch(path).contentType("application/json").header("Prefer", "return=minimal").content("{\"name\": \"Winch B\" }"))
+						.andExpect(status().isNoContent())
+						.andExpect(header().string("ETag", "\"" + id + "-1\""));
+			
+			MvcResult result = second.get().get(10, TimeUnit.SECONDS);
+			assertEquals(204, result.getResponse().getStatus());
+			assertEquals("\"" + id + "-2\"", result.getResponse().getHeader("ETag"));
+			
+			this.mockMvc.perform(get(path))
+						.andExpect(header().string("ETag", "\"" + id + "-2\""))
+						.andExpect(jsonPath("$.name").value("Winch C"));
+		}
+		finally
+		{
+			StatementHook.clear();
+			executor.shutdownNow();
+			this.jdbcTemplate.update("DELETE FROM asset WHERE id = ?", id);
+		}
+	}
+	
+	@Test
+	public void SyncE2ETest_DeltaSinceWatermark_ShouldReturnChangesAndTombstones() throws Exception
+	{
+		String modifiedSince = Instant.now().toString();
+		Thread.sleep(2);
+		Asset kept = this.assetRepository.save(Asset.builder().name("SYNC1").description("SYNC DESCRIPTION").type("SYNCTYPE").build());
+		this.assetRepository.flushAndClear();
+		Thread.sleep(2);
+		Asset gone = this.assetRepository.save(Asset.builder().name("SYNC2").description("SYNC DESCRIPTION").type("SYNCTYPE").build());
+		this.assetRepository.flushAndClear();
+		Thread.sleep(2);
+		Asset added = this.assetRepository.save(Asset.builder().name("SYNC3").description("SYNC DESCRIPTION").type("SYNCTYPE").build());
+		this.assetRepository.flushAndClear();
+		
+		this.mockMvc.perform(delete(API_PATH + "/" + gone.getId())).andExpect(status().isNoContent());
+		Thread.sleep(2);
+		
+		MvcResult first = this.mockMvc.perform(get(API_PATH + "/sync").param("modifiedSince", modifiedSince).param("limit", "1"))
+										.andExpect(status().isOk())
+										.andExpect(jsonPath("$.assets[*].id").value(contains(kept.getId().intValue())))
+										.andExpect(jsonPath("$.deleted").isEmpty())
+										.andExpect(jsonPath("$.complete").value(false))
+										.andReturn();
+		String watermark = objectMapper.readTree(first.getResponse().getContentAsString()).get("watermark").asText();
+		
+		this.mockMvc.perform(get(API_PATH + "/sync").param("modifiedSince", watermark))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.assets[*].id").value(contains(added.getId().intValue())))
+					.andExpect(jsonPath("$.deleted").value(contains(gone.getId().intValue())))
+					.andExpect(jsonPath("$.complete").value(true));
+		
+		this.mockMvc.perform(get(API_PATH + "/sync").param("modifiedSince", "2000-01-01T00:00:00.000Z"))
+					.andExpect(status().isGone());
+	}
+	
+	@Test
+	public void AggregatesE2ETest_CountsPerType_ShouldMatchDatabase() throws Exception
+	{
+		this.assetRepository.save(Asset.builder().name("Crane A").description("desc1").type("Crane").build());
+		this.assetRepository.save(Asset.builder().name("Crane B").description("desc2").type("Crane").build());
+		this.assetRepository.save(Asset.builder().name("Hoist A").description("desc3").type("Hoist").build());
+		this.assetRepository.flushAndClear();
+		this.assetCounters.reconcile();
+		
+		String today = LocalDate.now().toString();
+		
+		this.mockMvc.perform(get(API_PATH + "/aggregates"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$[?(@.type == 'Crane')].count").value(2))
+					.andExpect(jsonPath("$[?(@.type == 'Hoist')].count").value(1))
+					.andExpect(jsonPath("$[0].createdPerDay").doesNotExist());
+		this.mockMvc.perform(get(API_PATH + "/aggregates?perDay=true"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$[?(@.type == 'Crane')].createdPerDay." + today).value(2));
+	}
+	
+	@Test
+	public void MetricsE2ETest_Layers_ShouldBeTimed() throws Exception
+	{
+		Asset asset = this.assetRepository.save(Asset.builder().name("Crane A").description("desc1").type("Crane").build());
+		this.assetRepository.flushAndClear();
+		
+		this.mockMvc.perform(get(API_PATH + "/" + asset.getId() + "?fields=name"))
+					.andExpect(status().isOk());
+		
+		this.mockMvc.perform(get("/actuator/metrics/asset.service?tag=method:getById"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.availableTags[?(@.tag == 'class')].values[0]").value("com.company.assetmanagment.service.AssetService"));
+		this.mockMvc.perform(get("/actuator/metrics/http.server.requests").param("tag", "uri:" + API_PATH + "/{id}"))
+					.andExpect(status().isOk());
+		this.mockMvc.perform(get("/actuator/metrics/spring.data.repository.invocations?tag=repository:AssetRepository"))
+					.andExpect(status().isOk());
+		this.mockMvc.perform(get("/actuator/metrics/hibernate.statements"))
+					.andExpect(status().isOk());
+		this.mockMvc.perform(get("/actuator/metrics/hikaricp.connections.usage"))
+					.andExpect(status().isOk());
+		
+		// the test transaction keeps this session open, the sessions of the application startup have ended
+		this.mockMvc.perform(get("/actuator/metrics/hibernate.session.statements"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.measurements[?(@.statistic == 'COUNT')].value").value(hasItem(greaterThan(0.0))));
+	}
+	
+	@Test
+	public void RequestLogE2ETest_Rows_ShouldBeCounted() throws Exception
+	{
+		this.assetRepository.save(Asset.builder().name("Crane A").description("desc1").type("Crane").build());
+		this.assetRepository.save(Asset.builder().name("Crane B").description("desc2").type("Crane").build());
+		this.assetRepository.flushAndClear();
+		
+		MvcResult list = this.mockMvc.perform(get(API_PATH + "?type=Crane"))
+									 .andExpect(status().isOk())
+									 .andReturn();
+		assertEquals(2, list.getRequest().getAttribute(RequestLogFilter.ROWS_ATTRIBUTE));
+		
+		MvcResult missing = this.mockMvc.perform(get(API_PATH + "/-1"))
+										.andExpect(status().isNotFound())
+										.andReturn();
+		assertNull(missing.getRequest().getAttribute(RequestLogFilter.ROWS_ATTRIBUTE));
+	}
 	
 }
@@ -0,0 +1,328 @@
+package com.company.assetmanagment.controller.e2e;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.company.assetmanagment.component.codec.AssetProtobuf;
+import com.company.assetmanagment.config.CodecConfiguration;
+import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.dto.AssetIncomingDto;
+import com.company.assetmanagment.data.dto.AssetResponseDto;
+import com.company.assetmanagment.repository.AssetRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * The API served by the reactive stack. The tests share one database that isn't rolled back, so each one works with
+ * its own asset type. The web application type is repeated here because the test context picks it before the profile
+ * is read.
+ */
+@SpringBootTest(properties = {
+	"spring.main.web-application-type=reactive",
+	"spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_ON_EXIT=FALSE",
+	"spring.r2dbc.url=r2dbc:h2:mem:///reactive"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class AssetRouterTest
+{
+	private final String API_PATH = "/api/v1/assets";
+	
+	@Autowired
+	private WebTestClient webTestClient;
+	
+	@Autowired
+	private AssetRepository assetRepository;
+	
+	@Test
+	public void ReactiveE2ETest_CreateReadWriteDelete_ShouldPass()
+	{
+		JsonNode created = create("Crane A", "Crane");
+		long 	 id 	 = created.get("id").asLong();
+		
+		String etag = this.webTestClient.get().uri(API_PATH + "/" + id).exchange()
+										.expectStatus().isOk()
+										.expectBody().jsonPath("$.name").isEqualTo("Crane A")
+										.returnResult().getResponseHeaders().getETag();
+		assertEquals("\"" + id + "-0\"", etag);
+		
+		this.webTestClient.get().uri(API_PATH + "/" + id).header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+							.expectStatus().isNotModified();
+		
+		this.webTestClient.put().uri(API_PATH + "/" + id).header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).bodyValue(dto("Crane B", "Crane")).exchange()
+							.expectStatus().isOk()
+							.expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + id + "-1\"")
+							.expectBody().jsonPath("$.name").isEqualTo("Crane B");
+		
+		this.webTestClient.put().uri(API_PATH + "/" + id).header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).bodyValue(dto("Crane C", "Crane")).exchange()
+							.expectStatus().isEqualTo(409);
+		
+		this.webTestClient.patch().uri(API_PATH + "/" + id).header("Prefer", "return=minimal").contentType(MediaType.valueOf("application/merge-patch+json")).bodyValue("{\"description\":\"patched\"}").exchange()
+							.expectStatus().isNoContent()
+							.expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + id + "-2\"");
+		
+		this.webTestClient.get().uri(API_PATH + "/" + id + "?fields=description").exchange()
+							.expectStatus().isOk()
+							.expectBody().jsonPath("$.description").isEqualTo("patched")
+										 .jsonPath("$.name").doesNotExist();
+		
+		this.webTestClient.delete().uri(API_PATH + "/" + id).exchange().expectStatus().isNoContent();
+		this.webTestClient.get().uri(API_PATH + "/" + id).exchange().expectStatus().isNotFound();
+		this.webTestClient.delete().uri(API_PATH + "/" + id).exchange().expectStatus().isNotFound();
+	}
+	
+	@Test
+	public void ReactiveE2ETest_Retype_ShouldMoveCounters()
+	{
+		long id = create("Gantry A", "Gantry").get("id").asLong();
+		
+		// not cached, the PUT first expects the new type, then reads the asset and retries guarded on its real type
+		this.webTestClient.put().uri(API_PATH + "/" + id).contentType(MediaType.APPLICATION_JSON).bodyValue(dto("Gantry A", "Portal")).exchange()
+							.expectStatus().isOk()
+							.expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + id + "-1\"");
+		this.webTestClient.get().uri(API_PATH + "/aggregates").exchange()
+							.expectBody().jsonPath("$[?(@.type == 'Portal')].count").isEqualTo(1)
+										 .jsonPath("$[?(@.type == 'Gantry')]").isEmpty();
+		
+		// cached now, the PUT and the DELETE are guarded on the cached type right away
+		this.webTestClient.get().uri(API_PATH + "/" + id).exchange().expectStatus().isOk();
+		this.webTestClient.put().uri(API_PATH + "/" + id).contentType(MediaType.APPLICATION_JSON).bodyValue(dto("Gantry A", "Gantry")).exchange()
+							.expectStatus().isOk();
+		this.webTestClient.get().uri(API_PATH + "/" + id).exchange().expectStatus().isOk();
+		this.webTestClient.delete().uri(API_PATH + "/" + id).exchange().expectStatus().isNoContent();
+		
+		this.webTestClient.get().uri(API_PATH + "/aggregates").exchange()
+							.expectBody().jsonPath("$[?(@.type == 'Portal')]").isEmpty()
+										 .jsonPath("$[?(@.type == 'Gantry')]").isEmpty();
+	}
+	
+	@Test
+	public void ReactiveE2ETest_InvalidAsset_ShouldFail()
+	{
+		this.webTestClient.post().uri(API_PATH).contentType(MediaType.APPLICATION_JSON).bodyValue(dto("C", "Invalid")).exchange()
+							.expectStatus().isBadRequest()
+							.expectBody().jsonPath("$.errors").isNotEmpty();
+		
+		this.webTestClient.get().uri(API_PATH + "?limit=0").exchange()
+							.expectStatus().isBadRequest();
+		
+		assertThat(this.assetRepository.findAll()).noneMatch(asset -> "Invalid".equals(asset.getType()));
+	}
+	
+	@Test
+	public void ReactiveE2ETest_KeysetPages_ShouldReturnEveryAssetOnce()
+	{
+		for (int i = 1; i <= 5; i++)
+		{
+			create("Pump " + i, "Pump");
+		}
+		
+		Set<Long> 	seen = new HashSet<>();
+		String 		next = API_PATH + "?type=Pump&limit=2&sortColumn=name&sortDirection=ASC";
+		for (int page = 0; next != null; page++)
+		{
+			HttpHeaders headers = this.webTestClient.get().uri(next).exchange()
+													.expectStatus().isOk()
+													.expectBody(JsonNode.class)
+													.consumeWith(result -> result.getResponseBody().forEach(asset -> assertThat(seen.add(asset.get("id").asLong())).isTrue()))
+													.returnResult().getResponseHeaders();
+			String link = headers.getFirst(HttpHeaders.LINK);
+			next = link == null ? null : link.substring(link.indexOf("/api"), link.indexOf('>'));
+			assertThat(page).isLessThan(3);
+		}
+		assertThat(seen).hasSize(5);
+	}
+	
+	@Test
+	public void ReactiveE2ETest_Export_ShouldStreamEveryAsset()
+	{
+		for (int i = 1; i <= 3; i++)
+		{
+			create("Hoist " + i, "Hoist");
+		}
+		
+		List<JsonNode> lines = this.webTestClient.get().uri(API_PATH + "/export?sortColumn=name&sortDirection=ASC").accept(MediaType.APPLICATION_NDJSON).exchange()
+													.expectStatus().isOk()
+													.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+													.returnResult(JsonNode.class).getResponseBody().collectList().block();
+		
+		assertThat(lines).filteredOn(line -> "Hoist".equals(line.get("type").asText())).extracting(line -> line.get("name").asText()).containsExactly("Hoist 1", "Hoist 2", "Hoist 3");
+	}
+	
+	@Test
+	public void ReactiveE2ETest_Ids_ShouldNotCollideWithJpa()
+	{
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 3; i++)
+		{
+			ids.add(this.assetRepository.save(Asset.builder().name("Jpa " + i).description("desc").type("Mixed").build()).getId());
+			ids.add(create("Reactive " + i, "Mixed").get("id").asLong());
+		}
+		
+		assertThat(new HashSet<>(ids)).hasSize(6);
+	}
+	
+	@Test
+	public void ReactiveE2ETest_RespondAsync_ShouldCreateInBackground() throws Exception
+	{
+		String location = this.webTestClient.post().uri(API_PATH).header("Prefer", "respond-async").contentType(MediaType.APPLICATION_JSON).bodyValue(dto("Queued crane", "Queued")).exchange()
+											.expectStatus().isAccepted()
+											.expectHeader().valueEquals("Preference-Applied", "respond-async")
+											.expectBody().jsonPath("$.state").isEqualTo("QUEUED")
+											.returnResult().getResponseHeaders().getLocation().toString();
+		
+		JsonNode status = null;
+		for (int attempt = 0; attempt < 100 && (status == null || "QUEUED".equals(status.get("state").asText())); attempt++)
+		{
+			Thread.sleep(50);
+			status = this.webTestClient.get().uri(location).exchange().expectStatus().isOk().expectBody(JsonNode.class).returnResult().getResponseBody();
+		}
+		assertEquals("CREATED", status.get("state").asText());
+		
+		this.webTestClient.get().uri(API_PATH + "/" + status.get("assetId").asLong()).exchange()
+							.expectStatus().isOk()
+							.expectBody().jsonPath("$.name").isEqualTo("Queued crane");
+		
+		this.webTestClient.get().uri(API_PATH + "/ingest/unknown").exchange().expectStatus().isNotFound();
+	}
+	
+	@Test
+	public void ReactiveE2ETest_Changes_ShouldStreamCommittedWrites()
+	{
+		Flux<ServerSentEvent<JsonNode>> events = this.webTestClient.get().uri(API_PATH + "/changes").accept(MediaType.TEXT_EVENT_STREAM).exchange()
+																	.expectStatus().isOk()
+																	.returnResult(new ParameterizedTypeReference<ServerSentEvent<JsonNode>>() {}).getResponseBody();
+		
+		long id = create("Streamed valve", "Streamed").get("id").asLong();
+		this.webTestClient.delete().uri(API_PATH + "/" + id).exchange().expectStatus().isNoContent();
+		
+		List<ServerSentEvent<JsonNode>> received = events.filter(event -> event.data() != null).take(2).collectList().block(Duration.ofSeconds(10));
+		
+		assertEquals("CREATED", 		received.get(0).data().get("type").asText());
+		assertEquals("Streamed valve", 	received.get(0).data().get("asset").get("name").asText());
+		assertEquals("DELETED", 		received.get(1).data().get("type").asText());
+		assertEquals(id, 				received.get(1).data().get("id").asLong());
+		assertEquals(received.get(1).id(), received.get(1).data().get("sequence").asText());
+		
+		String created = received.get(0).id();
+		JsonNode resumed = this.webTestClient.get().uri(API_PATH + "/changes").header("Last-Event-ID", created).accept(MediaType.TEXT_EVENT_STREAM).exchange()
+												.expectStatus().isOk()
+												.returnResult(new ParameterizedTypeReference<ServerSentEvent<JsonNode>>() {}).getResponseBody()
+												.filter(event -> event.data() != null).blockFirst(Duration.ofSeconds(10)).data();
+		assertEquals("DELETED", resumed.get("type").asText());
+		
+		this.webTestClient.get().uri(API_PATH + "/changes?after=1").accept(MediaType.TEXT_EVENT_STREAM).exchange()
+							.expectStatus().isEqualTo(410);
+	}
+	
+	@Test
+	public void ReactiveE2ETest_Sync_ShouldReturnChangesAndTombstones() throws Exception
+	{
+		String modifiedSince = Instant.now().toString();
+		Thread.sleep(2);
+		long kept = create("Synced pump", 	"Synced").get("id").asLong();
+		long gone = create("Synced valve", 	"Synced").get("id").asLong();
+		this.webTestClient.delete().uri(API_PATH + "/" + gone).exchange().expectStatus().isNoContent();
+		Thread.sleep(2);
+		
+		JsonNode delta = this.webTestClient.get().uri(builder -> builder.path(API_PATH + "/sync").queryParam("modifiedSince", modifiedSince).build()).exchange()
+											.expectStatus().isOk()
+											.expectBody(JsonNode.class).returnResult().getResponseBody();
+		
+		assertThat(ids(delta.get("assets"))).contains(kept).doesNotContain(gone);
+		assertThat(delta.get("deleted").toString()).contains(Long.toString(gone));
+		assertThat(delta.get("complete").asBoolean()).isTrue();
+		
+		JsonNode next = this.webTestClient.get().uri(builder -> builder.path(API_PATH + "/sync").queryParam("modifiedSince", "{watermark}").build(delta.get("watermark").asText())).exchange()
+											.expectStatus().isOk()
+											.expectBody(JsonNode.class).returnResult().getResponseBody();
+		assertThat(ids(next.get("assets"))).doesNotContain(kept);
+		assertThat(next.get("deleted").toString()).doesNotContain(Long.toString(gone));
+		
+		this.webTestClient.get().uri(API_PATH + "/sync?modifiedSince=2000-01-01T00:00:00.000Z").exchange()
+							.expectStatus().isEqualTo(410);
+	}
+	
+	@Test
+	public void ReactiveE2ETest_BinaryAccept_ShouldNegotiateRepresentation() throws Exception
+	{
+		long id = create("Encoded crane", "Encoded").get("id").asLong();
+		create("Encoded pump", "Encoded");
+		
+		this.webTestClient.get().uri(API_PATH + "?type=Encoded").exchange()
+							.expectStatus().isOk()
+							.expectHeader().contentType(MediaType.APPLICATION_JSON)
+							.expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		
+		byte[] body = this.webTestClient.get().uri(API_PATH + "?type=Encoded&sortColumn=name&sortDirection=ASC").accept(AssetProtobuf.MEDIA_TYPE).exchange()
+										.expectStatus().isOk()
+										.expectHeader().contentType(AssetProtobuf.MEDIA_TYPE)
+										.expectBody(byte[].class).returnResult().getResponseBody();
+		assertThat(new AssetProtobuf().readList(body)).extracting(AssetResponseDto::getName).containsExactly("Encoded crane", "Encoded pump");
+		
+		body = this.webTestClient.get().uri(API_PATH + "/" + id).accept(MediaType.APPLICATION_CBOR).exchange()
+									.expectStatus().isOk()
+									.expectHeader().contentType(MediaType.APPLICATION_CBOR)
+									.expectBody(byte[].class).returnResult().getResponseBody();
+		assertEquals("Encoded crane", new ObjectMapper(new CBORFactory()).readTree(body).get("name").asText());
+		
+		body = this.webTestClient.get().uri(API_PATH + "/search?q=encoded").accept(MediaType.valueOf(CodecConfiguration.SMILE_VALUE)).exchange()
+									.expectStatus().isOk()
+									.expectHeader().contentType(CodecConfiguration.SMILE_VALUE)
+									.expectBody(byte[].class).returnResult().getResponseBody();
+		assertEquals(2, new ObjectMapper(new SmileFactory()).readTree(body).size());
+		
+		this.webTestClient.get().uri(API_PATH + "?type=Encoded").accept(MediaType.APPLICATION_XML).exchange()
+							.expectStatus().isEqualTo(406);
+		this.webTestClient.get().uri(API_PATH + "/" + Long.MAX_VALUE).accept(AssetProtobuf.MEDIA_TYPE).exchange()
+							.expectStatus().isNotFound()
+							.expectHeader().contentType(MediaType.APPLICATION_JSON);
+	}
+	
+	private static List<Long> ids(JsonNode assets)
+	{
+		List<Long> ids = new ArrayList<>();
+		assets.forEach(asset -> ids.add(asset.get("id").asLong()));
+		
+		return ids;
+	}
+	
+	private JsonNode create(String name, String type)
+	{
+		return this.webTestClient.post().uri(API_PATH).contentType(MediaType.APPLICATION_JSON).bodyValue(dto(name, type)).exchange()
+									.expectStatus().isCreated()
+									.expectBody(JsonNode.class).returnResult().getResponseBody();
+	}
+	
+	private static AssetIncomingDto dto(String name, String type)
+	{
+		AssetIncomingDto dto = new AssetIncomingDto();
+		dto.setName(name);
+		dto.setDescription("description of " + name);
+		dto.setType(type);
+		
+		return dto;
+	}
+}
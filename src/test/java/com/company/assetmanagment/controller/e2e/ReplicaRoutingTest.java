@@ -0,0 +1,164 @@
+package com.company.assetmanagment.controller.e2e;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.Cookie;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.company.assetmanagment.component.routing.ReadYourWritesFilter;
+import com.company.assetmanagment.data.dto.AssetIncomingDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The API with a replica: a second in-memory database that gets the schema of the primary but none of its writes, so
+ * it holds a lagging copy of an asset only where a test puts one. The asset and response caches are off, so every read
+ * reaches a database and shows which one it came from.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_ON_EXIT=FALSE",
+	"asset.replicas.instances[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+	"asset.cache.enabled=false",
+	"asset.response-cache.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingTest
+{
+	static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+	private final String API_PATH = "/api/v1/assets";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	public void setUp()
+	{
+		this.replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "password"));
+		if (this.replica.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'ASSET'", Integer.class) == 0)
+		{
+			List<String> schema = this.jdbcTemplate.queryForList("SCRIPT NODATA", String.class);
+			schema.forEach(this.replica::execute);
+		}
+	}
+
+	@AfterEach
+	public void tearDown()
+	{
+		for (JdbcTemplate database : new JdbcTemplate[] { this.jdbcTemplate, this.replica })
+		{
+			database.update("DELETE FROM asset_tombstone");
+			database.update("DELETE FROM asset");
+		}
+	}
+
+	@Test
+	public void RoutingE2ETest_GetById_ShouldReadFromReplica() throws Exception
+	{
+		long id = id(create("Pump A"));
+		lag(id, "Pump A (replica)");
+
+		double replicaReads = connections("replica-1");
+
+		this.mockMvc.perform(get(API_PATH + "/" + id))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.name").value("Pump A (replica)"));
+
+		assertThat(connections("replica-1")).isEqualTo(replicaReads + 1);
+	}
+
+	@Test
+	public void RoutingE2ETest_WriteAndReadYourWrites_ShouldUsePrimary() throws Exception
+	{
+		double replicaReads = connections("replica-1");
+		double primaryReads = connections("primary");
+
+		MvcResult 	created = create("Valve A");
+		Cookie 		cookie 	= created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+		long 		id 		= id(created);
+
+		assertThat(cookie).isNotNull();
+		assertThat(connections("primary")).isGreaterThan(primaryReads);
+		assertThat(connections("replica-1")).isEqualTo(replicaReads);
+
+		lag(id, "Valve A (replica)");
+
+		this.mockMvc.perform(get(API_PATH + "/" + id).cookie(cookie))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.name").value("Valve A"));
+
+		this.mockMvc.perform(get(API_PATH + "/sync"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.assets[*].name").value(contains("Valve A")));
+
+		assertThat(connections("replica-1")).isEqualTo(replicaReads);
+	}
+
+	private MvcResult create(String name) throws Exception
+	{
+		AssetIncomingDto dto = new AssetIncomingDto();
+		dto.setName(name);
+		dto.setDescription("description of " + name);
+		dto.setType("Routing");
+
+		return this.mockMvc.perform(post(API_PATH).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(dto)))
+							.andExpect(status().isCreated())
+							.andReturn();
+	}
+
+	private long id(MvcResult created) throws Exception
+	{
+		return objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+	}
+
+	/**
+	 * Puts the asset on the replica under another name, as if the replica hadn't caught up with the primary yet.
+	 */
+	private void lag(long id, String name)
+	{
+		Map<String, Object> row = this.jdbcTemplate.queryForMap("SELECT * FROM asset WHERE id = ?", id);
+		row.put("NAME", name);
+
+		this.replica.update("INSERT INTO asset (" + String.join(", ", row.keySet()) + ") VALUES (" + String.join(", ", Collections.nCopies(row.size(), "?")) + ")",
+							row.values().toArray());
+	}
+
+	private double connections(String target)
+	{
+		return this.meterRegistry.get("asset.replicas.connections").tag("target", target).counter().count();
+	}
+}
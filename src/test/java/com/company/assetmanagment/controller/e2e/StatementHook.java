@@ -0,0 +1,39 @@
+package com.company.assetmanagment.controller.e2e;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Runs an action once, on the thread that prepares the next statement containing the given SQL, right before it is
+ * sent. Lets a test act between two statements of a transaction.
+ */
+public class StatementHook implements StatementInspector
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final AtomicReference<Map.Entry<String, Runnable>> NEXT = new AtomicReference<>();
+
+	static void before(String sql, Runnable action)
+	{
+		NEXT.set(new SimpleImmutableEntry<>(sql, action));
+	}
+
+	static void clear()
+	{
+		NEXT.set(null);
+	}
+
+	@Override
+	public String inspect(String sql)
+	{
+		Map.Entry<String, Runnable> next = NEXT.get();
+		if (next != null && sql.contains(next.getKey()) && NEXT.compareAndSet(next, null))
+		{
+			next.getValue().run();
+		}
+		return sql;
+	}
+}
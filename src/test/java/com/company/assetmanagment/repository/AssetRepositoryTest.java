@@ -4,16 +4,21 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.stream.LongStream;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.request.AssetCursor;
+import com.company.assetmanagment.data.request.AssetSortColumn;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -21,6 +26,9 @@ class AssetRepositoryTest
 {
 	@Autowired
 	private AssetRepository assetRepository;
+	
+	@Autowired
+	private TestEntityManager entityManager;
 
 	// UnitOfWork_StateUnderTest_ExpectedBehavior
 	
@@ -49,11 +57,11 @@ class AssetRepositoryTest
 	{
 		Collection<Asset> assets = getTestAssets(10);
 		
-		assetRepository.saveAll(assets);
+		Iterable<Asset> saved = assetRepository.saveAll(assets);
 		
 		assertThat(assetRepository.findAll()).hasSize(10).allMatch(p -> p.getType().equals("Sensor"));
 		
-		LongStream.range(1, 6).forEach(idx -> assetRepository.deleteById(idx));
+		StreamSupport.stream(saved.spliterator(), false).limit(5).forEach(asset -> assetRepository.deleteById(asset.getId()));
 		
 		assertThat(assetRepository.findAll()).hasSize(5).allMatch(p -> p.getType().equals("Sensor"));
 	}
@@ -75,6 +83,56 @@ class AssetRepositoryTest
 		
 	}
 	
+	@Test
+	public void JpaTest_KeysetSeek_Pass()
+	{
+		assetRepository.saveAll(getTestAssets(9));
+		
+		Sort sortCriteria = Sort.by(Direction.DESC, "name").and(Sort.by(Direction.DESC, "id"));
+		
+		List<Asset> firstPage = assetRepository.findAll(null, sortCriteria, 4);
+		
+		assertThat(firstPage).hasSize(4).extracting(Asset::getName).containsExactly("Temperature Sensor9", "Temperature Sensor8", "Temperature Sensor7", "Temperature Sensor6");
+		
+		AssetCursor cursor = AssetCursor.of(AssetSortColumn.NAME, Direction.DESC, firstPage.get(3));
+		
+		assertThat(assetRepository.findAll(AssetSpecifications.after(cursor), sortCriteria, 4)).extracting(Asset::getName).containsExactly("Temperature Sensor5", "Temperature Sensor4", "Temperature Sensor3", "Temperature Sensor2");
+	}
+	
+	@Test
+	public void JpaTest_StreamSorted_Pass()
+	{
+		assetRepository.saveAll(getTestAssets(9));
+		
+		try (Stream<Asset> assets = assetRepository.streamAllBy(Sort.by(Direction.ASC, "name")))
+		{
+			assertThat(assets.map(Asset::getName)).hasSize(9).startsWith("Temperature Sensor1").endsWith("Temperature Sensor9");
+		}
+	}
+	
+	@Test
+	public void JpaTest_FilterSpecifications_Pass()
+	{
+		assetRepository.saveAll(getTestAssets(12));
+		assetRepository.save(Asset.builder().name("Temperature Sensor%").description("wildcard in name").type("Gauge").build());
+		
+		Sort sortCriteria = Sort.by(Direction.ASC, "id");
+		
+		assertThat(assetRepository.findAll(AssetSpecifications.typeIs("Gauge"), sortCriteria, 100)).extracting(Asset::getName).containsExactly("Temperature Sensor%");
+		assertThat(assetRepository.findAll(AssetSpecifications.nameStartsWith("Temperature Sensor1"), sortCriteria, 100)).extracting(Asset::getName).containsExactly("Temperature Sensor1", "Temperature Sensor10", "Temperature Sensor11", "Temperature Sensor12");
+		assertThat(assetRepository.findAll(AssetSpecifications.nameStartsWith("Temperature Sensor%"), sortCriteria, 100)).extracting(Asset::getName).containsExactly("Temperature Sensor%");
+		
+		assertThat(explain("select * from asset where type = 'Gauge'")).containsIgnoringCase("asset_type_created_on_idx");
+		assertThat(explain("select * from asset where name like 'Temp%'")).containsIgnoringCase("asset_name_idx");
+		assertThat(explain("select * from asset where created_on >= timestamp '2022-01-01 00:00:00'")).containsIgnoringCase("asset_created_on_idx");
+		assertThat(explain("select * from asset where updated_on >= timestamp '2022-01-01 00:00:00'")).containsIgnoringCase("asset_updated_on_idx");
+	}
+	
+	private String explain(String sql)
+	{
+		return String.valueOf(entityManager.getEntityManager().createNativeQuery("explain " + sql).getSingleResult());
+	}
+	
 	private Collection<Asset> getTestAssets(int size)
 	{
 		Collection<Asset> assets =  new ArrayList<>();
@@ -0,0 +1,53 @@
+package com.company.assetmanagment.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+
+/**
+ * Starts with {@code ddl-auto=validate}, as production does, on the original schema brought up to date by
+ * {@code db/upgrade.sql}.
+ */
+@DataJpaTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:upgrade;DB_CLOSE_ON_EXIT=FALSE",
+	"spring.jpa.hibernate.ddl-auto=validate",
+	"spring.sql.init.mode=always",
+	"spring.sql.init.schema-locations=classpath:db/baseline.sql,classpath:db/upgrade.sql"
+})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+class SchemaUpgradeTest
+{
+	@Autowired
+	private AssetRepository 	assetRepository;
+
+	@Autowired
+	private JdbcTemplate 	jdbcTemplate;
+
+	@Test
+	public void Save_UpgradedSchema_ShouldContinueAboveHandedOutIds()
+	{
+		Asset asset = assetRepository.save(Asset.builder().name("Temperature Sensor").description("Temperature sensor for machines").type("Sensor").build());
+
+		assertThat(asset.getId()).isGreaterThan(7L);
+		assertThat(assetRepository.findAll()).hasSize(4);
+	}
+
+	@Test
+	public void Upgrade_OriginalSchema_ShouldCreateIndexesOfMapping()
+	{
+		List<String> indexes = jdbcTemplate.queryForList("SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES", String.class);
+
+		assertThat(indexes).contains("asset_type_created_on_idx", "asset_name_idx", "asset_created_on_idx", "asset_updated_on_idx", "asset_tombstone_deleted_on_idx");
+	}
+}
@@ -0,0 +1,110 @@
+package com.company.assetmanagment.repository.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.company.assetmanagment.data.domain.model.Asset;
+
+/**
+ * Starts Hibernate with {@code ddl-auto=validate} on a table holding the ids 1 to 3.
+ */
+class BlockSequenceIdGeneratorTest
+{
+	private String 		url;
+	private Connection 	connection;
+
+	@BeforeEach
+	public void setUp() throws SQLException
+	{
+		this.url 		= "jdbc:h2:mem:" + UUID.randomUUID();
+		this.connection = DriverManager.getConnection(this.url);
+		execute("CREATE TABLE asset (id BIGINT NOT NULL, created_on TIMESTAMP, description VARCHAR(1024) NOT NULL, name VARCHAR(256) NOT NULL, "
+				+ "type VARCHAR(32) NOT NULL, updated_on TIMESTAMP, version INTEGER, PRIMARY KEY (id))");
+		execute("INSERT INTO asset (id, description, name, type, version) VALUES (1, 'd', 'n', 't', 0), (2, 'd', 'n', 't', 0), (3, 'd', 'n', 't', 0)");
+	}
+
+	@AfterEach
+	public void tearDown() throws SQLException
+	{
+		this.connection.close();
+	}
+
+	@Test
+	void Configure_SequenceBehindIds_ShouldRefuseToStart() throws SQLException
+	{
+		execute("CREATE SEQUENCE asset_seq START WITH 1 INCREMENT BY 50");
+
+		assertThatThrownBy(() -> sessionFactory("pooled").close()).hasStackTraceContaining("already holds ids up to 3");
+	}
+
+	@Test
+	void Configure_HiloOnPooledSequence_ShouldRefuseToStart() throws SQLException
+	{
+		execute("CREATE SEQUENCE asset_seq START WITH 101 INCREMENT BY 50");
+
+		assertThatThrownBy(() -> sessionFactory("hilo").close()).hasStackTraceContaining("increments by 50, but the hilo optimizer");
+	}
+
+	@Test
+	void Configure_SequenceAboveIds_ShouldContinueAboveThem() throws SQLException
+	{
+		execute("CREATE SEQUENCE asset_seq START WITH 101 INCREMENT BY 50");
+
+		try (SessionFactory sessionFactory = sessionFactory("pooled"); Session session = sessionFactory.openSession())
+		{
+			session.beginTransaction();
+			Asset asset = Asset.builder().name("Temperature Sensor").description("Temperature sensor for machines").type("Sensor").build();
+			session.persist(asset);
+			session.getTransaction().commit();
+
+			assertThat(asset.getId()).isGreaterThan(3L);
+		}
+	}
+
+	private SessionFactory sessionFactory(String optimizer)
+	{
+		StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+				.applySetting(AvailableSettings.URL, 						this.url)
+				.applySetting(AvailableSettings.DIALECT, 					H2Dialect.class.getName())
+				.applySetting(AvailableSettings.HBM2DDL_AUTO, 				"validate")
+				.applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, 	false)
+				.applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, 	CamelCaseToUnderscoresNamingStrategy.class.getName())
+				.applySetting(BlockSequenceIdGenerator.OPTIMIZER_SETTING, 	optimizer)
+				.build();
+		try
+		{
+			return new MetadataSources(registry).addAnnotatedClass(Asset.class).buildMetadata().buildSessionFactory();
+		}
+		catch (RuntimeException e)
+		{
+			StandardServiceRegistryBuilder.destroy(registry);
+			throw e;
+		}
+	}
+
+	private void execute(String sql) throws SQLException
+	{
+		try (Statement statement = this.connection.createStatement())
+		{
+			statement.execute(sql);
+		}
+	}
+}
@@ -1,14 +1,23 @@
 package com.company.assetmanagment.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -24,11 +33,31 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.MediaType;
 
+import com.company.assetmanagment.component.aggregate.AssetCounters;
+import com.company.assetmanagment.component.cache.AssetCache;
+import com.company.assetmanagment.component.cache.AssetResponseCache;
+import com.company.assetmanagment.component.feed.AssetChangeFeed;
+import com.company.assetmanagment.component.search.AssetSearchIndex;
+import com.company.assetmanagment.component.sync.AssetTombstones;
+import com.company.assetmanagment.config.AssetProperties;
+import com.company.assetmanagment.data.domain.AssetDailyCount;
+import com.company.assetmanagment.data.domain.AssetDelta;
+import com.company.assetmanagment.data.domain.AssetTypeCount;
+import com.company.assetmanagment.data.domain.CursorPage;
 import com.company.assetmanagment.data.domain.model.Asset;
+import com.company.assetmanagment.data.request.AssetCursor;
+import com.company.assetmanagment.exception.BusinessException;
+import com.company.assetmanagment.exception.ResourceGoneException;
 import com.company.assetmanagment.exception.ResourceNotFoundException;
+import com.company.assetmanagment.exception.VersionConflictException;
 import com.company.assetmanagment.repository.AssetRepository;
+import com.company.assetmanagment.repository.AssetTombstoneRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -37,16 +66,21 @@ class AssetServiceTest
 
 	@Mock
 	private AssetRepository assetRepository;
+	
+	@Mock
+	private AssetTombstoneRepository tombstoneRepository;
+	
+	private final AssetResponseCache responseCache = new AssetResponseCache(new AssetProperties(), new SimpleMeterRegistry());
 
 	
 	@BeforeEach
 	public void setUp()
 	{
-		Asset asst1 = Asset.builder().name("TEST1").description("TEST DESCRIPTION1").type("TESTTYPE").id(Long.valueOf(1)).createdOn(new Date()).updatedOn(new Date()).build();
+		Asset asst1 = Asset.builder().name("TEST1").description("TEST DESCRIPTION1").type("TESTTYPE").id(Long.valueOf(1)).version(0).createdOn(new Date()).updatedOn(new Date()).build();
 
-		Asset asst2 = Asset.builder().name("TEST2").description("TEST DESCRIPTION2").type("TESTTYPE").id(Long.valueOf(2)).createdOn(new Date()).updatedOn(new Date()).build();
+		Asset asst2 = Asset.builder().name("TEST2").description("TEST DESCRIPTION2").type("TESTTYPE").id(Long.valueOf(2)).version(0).createdOn(new Date()).updatedOn(new Date()).build();
 
-		Asset asst3 = Asset.builder().name("TEST3").description("TEST DESCRIPTION3").type("TESTTYPE").id(Long.valueOf(3)).createdOn(new Date()).updatedOn(new Date()).build();
+		Asset asst3 = Asset.builder().name("TEST3").description("TEST DESCRIPTION3").type("TESTTYPE").id(Long.valueOf(3)).version(0).createdOn(new Date()).updatedOn(new Date()).build();
 
 		List<Asset> manyAssets = Stream.of(asst3, asst2, asst1).collect(Collectors.toList());
 
@@ -58,8 +92,17 @@ class AssetServiceTest
 		Mockito.when(assetRepository.save(any(Asset.class))).thenReturn(asst2);
 
 		doNothing().when(assetRepository).delete(any());
+		
+		Mockito.when(assetRepository.delete( not(eq(Long.valueOf(100))), any(), any() )).thenReturn(1);
+		Mockito.when(assetRepository.existsById( not(eq(Long.valueOf(100))) )).thenReturn(true);
 
-		Mockito.when(assetRepository.findAll(any(Sort.class))).thenReturn(manyAssets);
+		List<Long> manyIds = manyAssets.stream().map(Asset::getId).collect(Collectors.toList());
+		
+		Mockito.when(assetRepository.findAllIds(any(Sort.class))).thenReturn(manyIds);
+		
+		Mockito.when(assetRepository.findIds(any(), any(Sort.class), anyInt())).thenAnswer(invocation -> manyIds.subList(0, Math.min(manyIds.size(), invocation.getArgument(2))));
+		
+		Mockito.when(assetRepository.findAllById(any())).thenAnswer(invocation -> manyAssets.stream().filter(asset -> invocation.<Collection<?>>getArgument(0).contains(asset.getId())).collect(Collectors.toList()));
 
 	}
 	
@@ -68,7 +111,7 @@ class AssetServiceTest
 	void Find_GetByExistingId_ShouldPass()
 	{
 		
-		AssetService assetService = new AssetService(assetRepository);
+		AssetService assetService = createAssetService();
 		
 		assertNotNull(assetService.getById(1L));
 		
@@ -84,7 +127,7 @@ class AssetServiceTest
 	void Find_GetAllSorted_ShouldPass()
 	{
 		
-		AssetService assetService = new AssetService(assetRepository);
+		AssetService assetService = createAssetService();
 		
 		Sort sort = Sort.by(Direction.DESC, "name");
 		
@@ -95,13 +138,218 @@ class AssetServiceTest
 	}
 	
 	
+	@Test
+	void Find_PageSmallerThanResult_ShouldReturnCursor()
+	{
+		AssetService assetService = createAssetService();
+		
+		Sort sort = Sort.by(Direction.DESC, "name");
+		
+		CursorPage<Asset> page = assetService.findPage(null, sort, null, 2);
+		
+		assertThat(page.getItems()).hasSize(2);
+		assertThat(AssetCursor.decode(page.getNext()).getValue()).isEqualTo("TEST2");
+		
+		assertThat(assetService.findPage(null, sort, null, 3).hasNext()).isFalse();
+		
+		assertThrows(
+		           BusinessException.class,
+		           () -> assetService.findPage(null, Sort.by(Direction.DESC, "version"), null, 2),
+		           "Should Throw exception for an unsupported sort column."
+		    );
+	}
+	
+	@Test
+	void Find_GetByIdTwice_ShouldHitCache()
+	{
+		AssetService assetService = createAssetService();
+		
+		assetService.getById(1L);
+		Asset cached = assetService.getById(1L);
+		cached.setName("changed by caller");
+		
+		assertThat(assetService.getById(1L).getName()).isEqualTo("TEST1");
+		Mockito.verify(assetRepository, Mockito.times(1)).findById(1L);
+	}
+	
+	@Test
+	void Update_CachedAsset_ShouldInvalidateCache()
+	{
+		AssetService assetService = createAssetService();
+		
+		Asset updated = Asset.builder().name("TEST2").description("TEST DESCRIPTION2").type("TESTTYPE").id(Long.valueOf(1)).version(1).build();
+		Mockito.when(assetRepository.update(eq(Long.valueOf(1)), eq(0), any(), any())).thenReturn(1);
+		
+		assetService.getById(1L);
+		this.responseCache.get(1L, 0, MediaType.APPLICATION_JSON, () -> "{\"name\":\"TEST1\"}".getBytes(StandardCharsets.UTF_8));
+		assertThat(assetService.update(1L, 0, updated)).isEqualTo(1);
+		
+		ByteBuffer body = this.responseCache.get(1L, 0, MediaType.APPLICATION_JSON, () -> "re-encoded".getBytes(StandardCharsets.UTF_8));
+		assertThat(StandardCharsets.UTF_8.decode(body).toString()).isEqualTo("re-encoded");
+		
+		Mockito.when(assetRepository.findById(1L)).thenReturn(Optional.of(updated));
+		assertThat(assetService.getById(1L).getName()).isEqualTo("TEST2");
+		Mockito.verify(assetRepository, Mockito.times(2)).findById(1L);
+	}
+	
+	@Test
+	void Update_StaleVersion_ShouldConflict()
+	{
+		AssetService assetService = createAssetService();
+		
+		Asset values = Asset.builder().name("TEST2").description("TEST DESCRIPTION2").type("TESTTYPE").build();
+		
+		assertThrows(VersionConflictException.class, () -> assetService.update(1L, 5, values));
+		assertThrows(ResourceNotFoundException.class, () -> assetService.update(100L, 5, values));
+		assertThrows(ResourceNotFoundException.class, () -> assetService.delete(100L, null));
+	}
+	
+	@Test
+	void Search_CreatedAsset_ShouldBeFound()
+	{
+		AssetService assetService = createAssetService();
+		
+		Asset pump = Asset.builder().name("Cooling pump").description("Pump for the cooling circuit").type("Pump").id(Long.valueOf(7)).version(0).build();
+		Mockito.when(assetRepository.save(pump)).thenReturn(pump);
+		Mockito.doReturn(Collections.singletonList(pump)).when(assetRepository).findAllById(any());
+		
+		assetService.create(pump);
+		
+		assertThat(assetService.search("cool", 10)).extracting(Asset::getId).containsExactly(Long.valueOf(7));
+		assertThat(assetService.search("heating", 10)).isEmpty();
+		
+		assetService.delete(7L, null);
+		assertThat(assetService.search("cool", 10)).isEmpty();
+	}
+	
+	@Test
+	void Counters_CreateRetypeDelete_ShouldCount()
+	{
+		AssetService assetService = createAssetService();
+		
+		Date 	createdOn 	= new Date();
+		Asset 	pump 		= Asset.builder().name("Cooling pump").description("Pump for the cooling circuit").type("Pump").id(Long.valueOf(7)).version(0).createdOn(createdOn).build();
+		Mockito.when(assetRepository.save(pump)).thenReturn(pump);
+		Mockito.when(assetRepository.findById(7L)).thenReturn(Optional.of(pump), Optional.of(pump), Optional.of(pump.toBuilder().type("Valve").version(1).build()));
+		Mockito.when(assetRepository.findVersionById(7L)).thenReturn(Optional.of(1));
+		
+		assetService.create(pump);
+		assertThat(assetService.countByType(true)).singleElement().satisfies(count ->
+		{
+			assertThat(count.getType()).isEqualTo("Pump");
+			assertThat(count.getCount()).isEqualTo(1);
+			assertThat(count.getCreatedPerDay()).hasSize(1).containsValue(1L);
+		});
+		
+		// not cached, the write first expects the type to stay, then loses the race against another change of the type
+		Mockito.when(assetRepository.update(eq(Long.valueOf(7)), eq(null), eq("Pump"), any())).thenReturn(0, 1);
+		assetService.patch(7L, null, Collections.singletonMap("type", "Valve"));
+		assertThat(assetService.countByType(false)).singleElement().satisfies(count ->
+		{
+			assertThat(count.getType()).isEqualTo("Valve");
+			assertThat(count.getCount()).isEqualTo(1);
+			assertThat(count.getCreatedPerDay()).isNull();
+		});
+		
+		assetService.delete(7L, null);
+		Mockito.verify(assetRepository).delete(7L, null, "Valve");
+		assertThat(assetService.countByType(false)).isEmpty();
+	}
+	
+	@Test
+	void Counters_CreatedDuringReconcile_ShouldBeKept()
+	{
+		AssetCounters counters = new AssetCounters(new AssetProperties(), assetRepository, new SimpleMeterRegistry());
+		
+		LocalDate 	today 	= LocalDate.now();
+		Asset 		pump 	= Asset.builder().name("Cooling pump").description("Pump for the cooling circuit").type("Pump").id(Long.valueOf(7)).version(0).createdOn(new Date()).build();
+		Asset 		valve 	= Asset.builder().name("Relief valve").description("Valve of the cooling circuit").type("Valve").id(Long.valueOf(8)).version(0).createdOn(new Date()).build();
+		counters.created(pump);
+		
+		// another pump was inserted bypassing the service, the valve commits while the GROUP BY runs and isn't seen by it
+		Mockito.when(assetRepository.countByTypeAndCreatedDay()).thenAnswer(invocation ->
+		{
+			counters.created(valve);
+			return Collections.singletonList(dailyCount("Pump", today, 2));
+		}).thenReturn(Arrays.asList(dailyCount("Pump", today, 2), dailyCount("Valve", today, 1)));
+		counters.reconcile();
+		
+		assertThat(counters.snapshot(false)).extracting(AssetTypeCount::getType, AssetTypeCount::getCount).containsExactly(tuple("Pump", 2L), tuple("Valve", 1L));
+	}
+	
+	@Test
+	void Counters_CreatedAndSeenDuringReconcile_ShouldCountOnce()
+	{
+		SimpleMeterRegistry meterRegistry 	= new SimpleMeterRegistry();
+		AssetCounters 		counters 		= new AssetCounters(new AssetProperties(), assetRepository, meterRegistry);
+		
+		LocalDate 	today 	= LocalDate.now();
+		Asset 		valve 	= Asset.builder().name("Relief valve").description("Valve of the cooling circuit").type("Valve").id(Long.valueOf(8)).version(0).createdOn(new Date()).build();
+		
+		// the valve commits before the GROUP BY reads the table, but moves the counters only after they were taken
+		Mockito.when(assetRepository.countByTypeAndCreatedDay()).thenAnswer(invocation ->
+		{
+			counters.created(valve);
+			return Collections.singletonList(dailyCount("Valve", today, 1));
+		}).thenReturn(Collections.singletonList(dailyCount("Valve", today, 1)));
+		counters.reconcile();
+		
+		assertThat(counters.snapshot(false)).extracting(AssetTypeCount::getType, AssetTypeCount::getCount).containsExactly(tuple("Valve", 1L));
+		assertThat(meterRegistry.get("asset.counters.drift").counter().count()).isZero();
+		
+		// a write overlapping every attempt leaves the counters to the next interval
+		Mockito.when(assetRepository.countByTypeAndCreatedDay()).thenAnswer(invocation ->
+		{
+			counters.removed(valve);
+			return Collections.emptyList();
+		});
+		counters.reconcile();
+		
+		assertThat(counters.snapshot(false)).isEmpty();
+		assertThat(meterRegistry.get("asset.counters.skipped").counter().count()).isEqualTo(1);
+	}
+	
+	@Test
+	void Sync_MoreChangesThanLimit_ShouldStopAtWholeTimestamp()
+	{
+		AssetService assetService = createAssetService();
+		
+		long 	base 			= System.currentTimeMillis() - 60000;
+		Date 	modifiedSince 	= new Date(base);
+		Date 	first 			= new Date(base + 10);
+		Date 	second 			= new Date(base + 20);
+		
+		Mockito.when(assetRepository.findAll(any(), any(Sort.class), eq(3))).thenReturn(Arrays.asList(modified(1L, first), modified(2L, second), modified(3L, second)));
+		Mockito.when(tombstoneRepository.findIdsDeletedWithin(modifiedSince, first)).thenReturn(Collections.singletonList(9L));
+		
+		AssetDelta delta = assetService.sync(modifiedSince, 2);
+		assertThat(delta.getAssets()).extracting(Asset::getId).containsExactly(1L);
+		assertThat(delta.getDeleted()).containsExactly(9L);
+		assertThat(delta.getWatermark()).isEqualTo(first);
+		assertThat(delta.isComplete()).isFalse();
+		
+		// more assets than the limit share one timestamp, so all of them are read
+		Mockito.when(assetRepository.findAll(any(), any(Sort.class), eq(2))).thenReturn(Arrays.asList(modified(2L, second), modified(3L, second)));
+		Mockito.when(assetRepository.findAll(any(), any(Sort.class), eq(Integer.MAX_VALUE))).thenReturn(Arrays.asList(modified(2L, second), modified(3L, second), modified(4L, second)));
+		
+		delta = assetService.sync(first, 1);
+		assertThat(delta.getAssets()).extracting(Asset::getId).containsExactly(2L, 3L, 4L);
+		assertThat(delta.getWatermark()).isEqualTo(second);
+		
+		assertThat(assetService.sync(null, 5).getDeleted()).isEmpty();
+		Mockito.verify(tombstoneRepository, Mockito.never()).findIdsDeletedWithin(eq(new Date(0)), any());
+		
+		assertThrows(ResourceGoneException.class, () -> assetService.sync(new Date(base - Duration.ofDays(31).toMillis()), 5));
+	}
+	
 	@Test
 	void Delete_ExistingId_ShouldPass()
 	{
 		
-		AssetService assetService = new AssetService(assetRepository);
+		AssetService assetService = createAssetService();
 				
-		assertDoesNotThrow( () -> assetService.delete(1L));
+		assertDoesNotThrow( () -> assetService.delete(1L, null));
+		Mockito.verify(tombstoneRepository).insert(eq(1L), any(Date.class));
 		assertThrows(
 		           ResourceNotFoundException.class,
 		           () -> assetService.getById(100L),
@@ -113,7 +361,7 @@ class AssetServiceTest
 	void Delete_NotExistingId_ShouldPass()
 	{
 		
-		AssetService assetService = new AssetService(assetRepository);
+		AssetService assetService = createAssetService();
 				
 		assertThrows(
 		           ResourceNotFoundException.class,
@@ -126,9 +374,60 @@ class AssetServiceTest
 	@Test
 	void Save_Asset_ShouldPass()
 	{
-		AssetService assetService = new AssetService(assetRepository);
+		AssetService assetService = createAssetService();
 		
 		assertDoesNotThrow(() -> assetService.create(new Asset())		    );		
 	}	
 	
+	private AssetService createAssetService()
+	{
+		AssetProperties assetProperties = new AssetProperties();
+		
+		SimpleMeterRegistry meterRegistry 	= new SimpleMeterRegistry();
+		
+		return new AssetService(assetRepository, assetProperties, new AssetCache(assetProperties, meterRegistry), new AssetSearchIndex(assetProperties, assetRepository, Mockito.mock(PlatformTransactionManager.class), meterRegistry),
+								new AssetCounters(assetProperties, assetRepository, meterRegistry), new AssetChangeFeed(assetProperties, meterRegistry),
+								tombstoneRepository, new AssetTombstones(assetProperties, tombstoneRepository, meterRegistry), this.responseCache);
+	}
+	
+	private static Asset modified(Long id, Date updatedOn)
+	{
+		return Asset.builder().name("TEST" + id).description("TEST DESCRIPTION").type("TESTTYPE").id(id).version(1).createdOn(updatedOn).updatedOn(updatedOn).build();
+	}
+	
+	private static AssetDailyCount dailyCount(String type, LocalDate day, long count)
+	{
+		return new AssetDailyCount()
+		{
+			@Override
+			public String getType()
+			{
+				return type;
+			}
+			
+			@Override
+			public Integer getYear()
+			{
+				return day.getYear();
+			}
+			
+			@Override
+			public Integer getMonth()
+			{
+				return day.getMonthValue();
+			}
+			
+			@Override
+			public Integer getDay()
+			{
+				return day.getDayOfMonth();
+			}
+			
+			@Override
+			public Long getCount()
+			{
+				return count;
+			}
+		};
+	}
 }
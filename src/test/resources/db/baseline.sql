@@ -0,0 +1,9 @@
+-- The schema the original mapping created: asset ids handed out up to 7 by hibernate_sequence, 4 to 7 deleted since.
+DROP ALL OBJECTS;
+CREATE SEQUENCE hibernate_sequence START WITH 1 INCREMENT BY 1;
+CREATE TABLE asset (id BIGINT NOT NULL, created_on TIMESTAMP, description VARCHAR(1024) NOT NULL, name VARCHAR(256) NOT NULL, type VARCHAR(32) NOT NULL, updated_on TIMESTAMP, version INTEGER, PRIMARY KEY (id));
+ALTER SEQUENCE hibernate_sequence RESTART WITH 8;
+INSERT INTO asset (id, created_on, description, name, type, updated_on, version) VALUES
+	(1, CURRENT_TIMESTAMP, 'Temperature sensor for machines', 'Temperature Sensor', 'Sensor', CURRENT_TIMESTAMP, 0),
+	(2, CURRENT_TIMESTAMP, 'Pressure sensor for machines', 'Pressure Sensor', 'Sensor', CURRENT_TIMESTAMP, 0),
+	(3, CURRENT_TIMESTAMP, 'Conveyor belt of hall 2', 'Conveyor Belt', 'Machine', CURRENT_TIMESTAMP, 0);